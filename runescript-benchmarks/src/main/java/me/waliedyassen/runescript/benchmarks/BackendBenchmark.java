@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.codegen.CodeGenerator;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
+import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeScript;
+import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the back-end stages of the compiler on the whole {@link Corpus}, which are the code generation, the
+ * optimization, and the bytecode writing of the checked scripts.
+ *
+ * @author Walied K. Yassen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BackendBenchmark {
+
+    /**
+     * The bytecode writer of the compiler.
+     */
+    private final BytecodeCodeWriter codeWriter = new BytecodeCodeWriter();
+
+    /**
+     * The instruction map of the compiler.
+     */
+    private InstructionMap instructionMap;
+
+    /**
+     * The symbol table which the checked scripts were declared in.
+     */
+    private SymbolTable symbolTable;
+
+    /**
+     * The optimizer of the compiler.
+     */
+    private Optimizer optimizer;
+
+    /**
+     * The parsed and checked scripts of the corpus.
+     */
+    private List<AstScript> scripts;
+
+    /**
+     * The generated scripts which were not optimized yet, they are modified by the optimization benchmark so they are
+     * generated again before each invocation.
+     */
+    private List<Script> generated;
+
+    /**
+     * The generated and optimized scripts.
+     */
+    private List<Script> optimized;
+
+    /**
+     * The bytecode of the generated and optimized scripts.
+     */
+    private List<BytecodeScript> bytecodes;
+
+    /**
+     * Loads the corpus, and prepares the input of each stage.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        var corpus = Corpus.load();
+        var environment = Corpus.createEnvironment();
+        instructionMap = Corpus.createInstructionMap();
+        symbolTable = new SymbolTable();
+        optimizer = Corpus.createOptimizer(instructionMap);
+        scripts = corpus.parse(Compiler.createLexicalTable(), environment);
+        var checker = new SemanticChecker(environment, symbolTable);
+        checker.executePre(scripts);
+        checker.execute(scripts);
+        if (checker.getErrors().size() > 0) {
+            throw new IllegalStateException("The corpus has semantic errors: " + checker.getErrors());
+        }
+        optimized = generateAll();
+        bytecodes = new ArrayList<>(optimized.size());
+        for (var script : optimized) {
+            optimizer.run(script);
+            bytecodes.add(codeWriter.write(script));
+        }
+    }
+
+    /**
+     * Generates the scripts which the optimization benchmark modifies.
+     */
+    @Setup(Level.Invocation)
+    public void setupGenerated() {
+        generated = generateAll();
+    }
+
+    /**
+     * Measures the code generation of all the checked scripts.
+     *
+     * @param blackhole
+     *         the blackhole to consume the generated scripts with.
+     */
+    @Benchmark
+    public void generate(Blackhole blackhole) {
+        var codeGenerator = new CodeGenerator(symbolTable, instructionMap);
+        for (var script : scripts) {
+            blackhole.consume(codeGenerator.visit(script));
+        }
+    }
+
+    /**
+     * Measures the optimization of all the generated scripts.
+     *
+     * @param blackhole
+     *         the blackhole to consume the optimized scripts with.
+     */
+    @Benchmark
+    public void optimize(Blackhole blackhole) {
+        for (var script : generated) {
+            optimizer.run(script);
+            blackhole.consume(script);
+        }
+    }
+
+    /**
+     * Measures the conversion of all the optimized scripts into their bytecode form.
+     *
+     * @param blackhole
+     *         the blackhole to consume the bytecode scripts with.
+     */
+    @Benchmark
+    public void codeWrite(Blackhole blackhole) {
+        for (var script : optimized) {
+            blackhole.consume(codeWriter.write(script));
+        }
+    }
+
+    /**
+     * Measures the encoding of all the bytecode scripts into their binary form.
+     *
+     * @param blackhole
+     *         the blackhole to consume the encoded data with.
+     *
+     * @throws IOException
+     *         if anything occurs while encoding the scripts.
+     */
+    @Benchmark
+    public void bytecodeWrite(Blackhole blackhole) throws IOException {
+        for (var bytecode : bytecodes) {
+            var stream = new ByteArrayOutputStream();
+            bytecode.write(stream);
+            blackhole.consume(stream.toByteArray());
+        }
+    }
+
+    /**
+     * Generates the code of all the checked scripts.
+     *
+     * @return the list of generated scripts.
+     */
+    private List<Script> generateAll() {
+        var codeGenerator = new CodeGenerator(symbolTable, instructionMap);
+        var generated = new ArrayList<Script>(scripts.size());
+        for (var script : scripts) {
+            generated.add(codeGenerator.visit(script));
+        }
+        return generated;
+    }
+}
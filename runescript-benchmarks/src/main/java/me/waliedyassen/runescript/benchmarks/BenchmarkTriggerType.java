@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
+import me.waliedyassen.runescript.type.Type;
+
+/**
+ * The trigger types which the scripts of the benchmark corpus use.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public enum BenchmarkTriggerType implements TriggerType {
+    PROC("proc", Kind.TILDE, CoreOpcode.GOSUB_WITH_PARAMS, true, true),
+    CLIENTSCRIPT("clientscript", null, null, true, false),
+    LABEL("label", Kind.AT, CoreOpcode.JUMP_WITH_PARAMS, true, false),
+    ;
+
+    /**
+     * The representation of the trigger type.
+     */
+    @Getter
+    private final String representation;
+
+    /**
+     * The operator which is used to call the scripts of the trigger type.
+     */
+    @Getter
+    private final Kind operator;
+
+    /**
+     * The opcode which is used to call the scripts of the trigger type.
+     */
+    @Getter
+    private final CoreOpcode opcode;
+
+    /**
+     * Whether or not the scripts of the trigger type can have arguments.
+     */
+    private final boolean arguments;
+
+    /**
+     * Whether or not the scripts of the trigger type can have returns.
+     */
+    private final boolean returns;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasArguments() {
+        return arguments;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type[] getArgumentTypes() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasReturns() {
+        return returns;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type[] getReturnTypes() {
+        return null;
+    }
+}
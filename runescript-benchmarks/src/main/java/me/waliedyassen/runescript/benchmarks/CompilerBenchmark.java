@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.CompilerErrors;
+import me.waliedyassen.runescript.compiler.output.ScriptSink;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whole compilation pipeline on the {@link Corpus}, from the source bytes to the compiled scripts.
+ *
+ * @author Walied K. Yassen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompilerBenchmark {
+
+    /**
+     * The amount of threads which the directory compilation uses.
+     */
+    @Param({"1", "4"})
+    public int parallelism;
+
+    /**
+     * The corpus which we are benchmarking.
+     */
+    private Corpus corpus;
+
+    /**
+     * The temporary directory which the corpus was extracted to.
+     */
+    private Path directory;
+
+    /**
+     * The compiler which the directory compilation uses, it drops the previously compiled scripts on its own.
+     */
+    private Compiler compiler;
+
+    /**
+     * Loads the corpus and extracts it into a temporary directory.
+     *
+     * @throws IOException
+     *         if anything occurs while extracting the corpus.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        corpus = Corpus.load();
+        directory = Files.createTempDirectory("runescript-benchmarks");
+        corpus.extract(directory);
+        compiler = new Compiler(Corpus.createEnvironment(), Corpus.createInstructionMap(), parallelism);
+    }
+
+    /**
+     * Removes the temporary directory which the corpus was extracted to.
+     *
+     * @throws IOException
+     *         if anything occurs while removing the directory.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var stream = Files.walk(directory)) {
+            for (var path : (Iterable<Path>) stream.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Measures the compilation of each source file from its bytes using a new compiler.
+     *
+     * @param blackhole
+     *         the blackhole to consume the compiled scripts with.
+     *
+     * @throws IOException
+     *         if anything occurs while compiling the source files.
+     * @throws CompilerErrors
+     *         if the corpus has any compilation error.
+     */
+    @Benchmark
+    public void compile(Blackhole blackhole) throws IOException, CompilerErrors {
+        var compiler = new Compiler(Corpus.createEnvironment(), Corpus.createInstructionMap());
+        for (var source : corpus.getSources()) {
+            blackhole.consume(compiler.compile(source));
+        }
+    }
+
+    /**
+     * Measures the compilation of the extracted corpus directory, including the reading of the source files. The
+     * compiled scripts are discarded so the output file writes are not measured.
+     *
+     * @param blackhole
+     *         the blackhole to consume the compiled scripts with.
+     *
+     * @throws IOException
+     *         if anything occurs while compiling the source files.
+     * @throws CompilerErrors
+     *         if the corpus has any compilation error.
+     */
+    @Benchmark
+    public void compileDirectory(Blackhole blackhole) throws IOException, CompilerErrors {
+        ScriptSink sink = blackhole::consume;
+        compiler.compileDirectory(directory, sink, null);
+    }
+}
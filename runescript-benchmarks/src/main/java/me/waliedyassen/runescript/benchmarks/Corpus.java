@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.commons.intern.Interner;
+import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadBlockOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.DeadBranchOptimization;
+import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.NaturalFlowOptimization;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.lexer.Lexer;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
+import me.waliedyassen.runescript.compiler.parser.ScriptParser;
+import me.waliedyassen.runescript.lexer.table.LexicalTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The representative corpus of source files which all of the benchmarks run on, the corpus is checked-in under the
+ * {@code corpus} resources directory so the results can be compared across commits.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class Corpus {
+
+    /**
+     * The resources directory of the corpus.
+     */
+    private static final String DIRECTORY = "corpus/";
+
+    /**
+     * The name of each source file in the corpus.
+     */
+    @Getter
+    private final List<String> names;
+
+    /**
+     * The content of each source file in the corpus.
+     */
+    @Getter
+    private final List<byte[]> sources;
+
+    /**
+     * Loads the corpus from the resources, the source files are listed in the {@code index.txt} file of the corpus.
+     *
+     * @return the loaded {@link Corpus} object.
+     */
+    public static Corpus load() {
+        try {
+            var names = new ArrayList<String>();
+            var sources = new ArrayList<byte[]>();
+            for (var name : new String(readResource("index.txt"), StandardCharsets.UTF_8).split("\\R")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                names.add(name);
+                sources.add(readResource(name));
+            }
+            return new Corpus(names, sources);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes all of the source files of the corpus into the specified directory.
+     *
+     * @param directory
+     *         the directory to write the source files into.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the source files.
+     */
+    public void extract(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (var index = 0; index < names.size(); index++) {
+            Files.write(directory.resolve(names.get(index)), sources.get(index));
+        }
+    }
+
+    /**
+     * Parses the syntax tree of each source file in the corpus.
+     *
+     * @param table
+     *         the lexical table to tokenize the source files with.
+     * @param environment
+     *         the environment to parse the source files with.
+     *
+     * @return the parsed scripts of all the source files.
+     * @throws IOException
+     *         if anything occurs while parsing the source files.
+     */
+    public List<AstScript> parse(LexicalTable<Kind> table, CompilerEnvironment environment) throws IOException {
+        var scripts = new ArrayList<AstScript>();
+        for (var source : sources) {
+            var lexer = new Lexer(createTokenizer(table, source, true));
+            var parser = new ScriptParser(environment, lexer);
+            while (lexer.hasRemaining()) {
+                scripts.add(parser.script());
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * Creates a new {@link Tokenizer} for the specified source file content.
+     *
+     * @param table
+     *         the lexical table to tokenize the source file with.
+     * @param source
+     *         the content of the source file.
+     *
+     * @return the created {@link Tokenizer} object.
+     * @throws IOException
+     *         if anything occurs while reading the source file content.
+     */
+    public static Tokenizer createTokenizer(LexicalTable<Kind> table, byte[] source) throws IOException {
+        return createTokenizer(table, source, false);
+    }
+
+    /**
+     * Creates a new {@link Tokenizer} for the specified source file content.
+     *
+     * @param table
+     *         the lexical table to tokenize the source file with.
+     * @param source
+     *         the content of the source file.
+     * @param skipComments
+     *         whether or not the tokenizer should skip the comments like the compiler does.
+     *
+     * @return the created {@link Tokenizer} object.
+     * @throws IOException
+     *         if anything occurs while reading the source file content.
+     */
+    public static Tokenizer createTokenizer(LexicalTable<Kind> table, byte[] source, boolean skipComments) throws IOException {
+        return new Tokenizer(table, new BufferedCharStream(new ByteArrayInputStream(source)), new Interner(), skipComments);
+    }
+
+    /**
+     * Creates the {@link CompilerEnvironment} which the corpus is compiled with.
+     *
+     * @return the created {@link CompilerEnvironment} object.
+     */
+    public static CompilerEnvironment createEnvironment() {
+        var environment = new CompilerEnvironment();
+        for (var triggerType : BenchmarkTriggerType.values()) {
+            environment.registerTrigger(triggerType);
+        }
+        return environment;
+    }
+
+    /**
+     * Creates the {@link InstructionMap} which the corpus is compiled with.
+     *
+     * @return the created {@link InstructionMap} object.
+     */
+    public static InstructionMap createInstructionMap() {
+        var instructionMap = new InstructionMap();
+        for (var opcode : CoreOpcode.values()) {
+            instructionMap.registerCore(opcode, opcode.ordinal(), opcode.isLargeOperand());
+        }
+        return instructionMap;
+    }
+
+    /**
+     * Creates the {@link Optimizer} which the corpus is compiled with, it has the same optimizations as the one which
+     * the {@link Compiler} uses.
+     *
+     * @param instructionMap
+     *         the instruction map of the optimizer.
+     *
+     * @return the created {@link Optimizer} object.
+     */
+    public static Optimizer createOptimizer(InstructionMap instructionMap) {
+        var optimizer = new Optimizer(instructionMap);
+        optimizer.register(new NaturalFlowOptimization());
+        optimizer.register(new DeadBranchOptimization());
+        optimizer.register(new DeadBlockOptimization());
+        return optimizer;
+    }
+
+    /**
+     * Reads the content of the corpus resource with the specified {@code name}.
+     *
+     * @param name
+     *         the name of the resource.
+     *
+     * @return the content of the resource.
+     * @throws IOException
+     *         if anything occurs while reading the resource.
+     */
+    private static byte[] readResource(String name) throws IOException {
+        try (var stream = Corpus.class.getResourceAsStream(DIRECTORY + name)) {
+            if (stream == null) {
+                throw new IOException("The corpus resource '" + name + "' could not be found");
+            }
+            return stream.readAllBytes();
+        }
+    }
+}
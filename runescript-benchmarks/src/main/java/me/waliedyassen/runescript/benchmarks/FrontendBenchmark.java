@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import me.waliedyassen.runescript.commons.stream.MappedCharStream;
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.lexer.Lexer;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.parser.ScriptParser;
+import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.lexer.TokenBuffer;
+import me.waliedyassen.runescript.lexer.table.LexicalTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the front-end stages of the compiler on the whole {@link Corpus}, which are the tokenizing, the lexing and
+ * the parsing of the source files, and the loading of the syntax trees which replaces them for the source files that
+ * are stored in the {@link me.waliedyassen.runescript.compiler.cache.SyntaxTreeCache}.
+ *
+ * @author Walied K. Yassen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrontendBenchmark {
+
+    /**
+     * The corpus which we are benchmarking.
+     */
+    private Corpus corpus;
+
+    /**
+     * The lexical table of the compiler.
+     */
+    private LexicalTable<Kind> table;
+
+    /**
+     * The environment of the compiler.
+     */
+    private CompilerEnvironment environment;
+
+    /**
+     * The tokenized form of the source files, which the parsing benchmark replays.
+     */
+    private List<TokenBuffer<Kind>> tokens;
+
+    /**
+     * The buffer which the scanning benchmark reuses for every source file.
+     */
+    private TokenBuffer<Kind> scanBuffer;
+
+    /**
+     * The serialized {@link AstArena} form of the checked syntax trees of each source file, which the loading benchmark
+     * reads.
+     */
+    private List<byte[]> trees;
+
+    /**
+     * Loads the corpus, creates the shared compiler components, tokenizes the source files which the parsing benchmark
+     * replays and serializes the checked syntax trees which the loading benchmark reads.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        corpus = Corpus.load();
+        table = Compiler.createLexicalTable();
+        environment = Corpus.createEnvironment();
+        tokens = new ArrayList<>(corpus.getSources().size());
+        for (var source : corpus.getSources()) {
+            tokens.add(Lexer.tokenize(Corpus.createTokenizer(table, source, true)));
+        }
+        var capacity = tokens.stream().mapToInt(TokenBuffer::size).max().orElse(0);
+        scanBuffer = new TokenBuffer<>(Kind.class, capacity);
+        var files = new ArrayList<List<AstScript>>(tokens.size());
+        var scripts = new ArrayList<AstScript>();
+        for (var buffer : tokens) {
+            var file = parse(buffer);
+            files.add(file);
+            scripts.addAll(file);
+        }
+        var checker = new SemanticChecker(environment, new SymbolTable());
+        checker.executePre(scripts);
+        checker.execute(scripts);
+        trees = new ArrayList<>(files.size());
+        for (var file : files) {
+            var output = new ByteArrayOutputStream();
+            AstArena.encode(file).write(new DataOutputStream(output));
+            trees.add(output.toByteArray());
+        }
+    }
+
+    /**
+     * Measures the tokenizing of all the source files, including the reading of the character streams.
+     *
+     * @param blackhole
+     *         the blackhole to consume the tokens with.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Benchmark
+    public void tokenize(Blackhole blackhole) throws IOException {
+        for (var source : corpus.getSources()) {
+            var tokenizer = Corpus.createTokenizer(table, source);
+            while (true) {
+                var token = tokenizer.parse();
+                blackhole.consume(token);
+                if (token.getKind() == Kind.EOF) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Measures the scanner core of the tokenizer on all the source files, the tokens are added to a reused
+     * {@link TokenBuffer} so that neither the {@link me.waliedyassen.runescript.lexer.token.Token} objects nor the
+     * growth of the buffer are measured.
+     *
+     * @param blackhole
+     *         the blackhole to consume the token counts with.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Benchmark
+    public void scan(Blackhole blackhole) throws IOException {
+        scan(blackhole, false);
+    }
+
+    /**
+     * Measures the scanner core of the tokenizer on all the source files the same way as {@link #scan(Blackhole)},
+     * except that the comments are skipped like they are when compiling.
+     *
+     * @param blackhole
+     *         the blackhole to consume the token counts with.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Benchmark
+    public void scanSkippingComments(Blackhole blackhole) throws IOException {
+        scan(blackhole, true);
+    }
+
+    /**
+     * Scans all the source files into the reused {@link TokenBuffer}.
+     *
+     * @param blackhole
+     *         the blackhole to consume the token counts with.
+     * @param skipComments
+     *         whether or not the tokenizer should skip the comments.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    private void scan(Blackhole blackhole, boolean skipComments) throws IOException {
+        for (var source : corpus.getSources()) {
+            var tokenizer = Corpus.createTokenizer(table, source, skipComments);
+            scanBuffer.discard(scanBuffer.size());
+            while (tokenizer.parse(scanBuffer) != Kind.EOF) {
+                // NOOP
+            }
+            blackhole.consume(scanBuffer.size());
+        }
+    }
+
+    /**
+     * Measures the lexing of all the source files, which pulls every token of the source files through the lexer.
+     *
+     * @param blackhole
+     *         the blackhole to consume the tokens with.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Benchmark
+    public void lex(Blackhole blackhole) throws IOException {
+        for (var source : corpus.getSources()) {
+            var lexer = new Lexer(Corpus.createTokenizer(table, source, true));
+            while (lexer.skip()) {
+                blackhole.consume(lexer.previousEndOffset());
+            }
+        }
+    }
+
+    /**
+     * Measures the parsing of the already tokenized source files into syntax trees.
+     *
+     * @param blackhole
+     *         the blackhole to consume the scripts with.
+     */
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (var buffer : tokens) {
+            blackhole.consume(parse(buffer));
+        }
+    }
+
+    /**
+     * Measures the tokenizing and the parsing of all the source files into syntax trees, which is what the compiler
+     * does for a source file that is not stored in the syntax tree cache.
+     *
+     * @param blackhole
+     *         the blackhole to consume the scripts with.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Benchmark
+    public void tokenizeAndParse(Blackhole blackhole) throws IOException {
+        for (var source : corpus.getSources()) {
+            var lexer = new Lexer(Corpus.createTokenizer(table, source, true));
+            var parser = new ScriptParser(environment, lexer);
+            while (lexer.hasRemaining()) {
+                blackhole.consume(parser.script());
+            }
+        }
+    }
+
+    /**
+     * Measures the loading of the serialized syntax trees of all the source files, including the indexing of the
+     * source file lines which the ranges of the loaded syntax trees are created with, which is what the compiler does
+     * for a source file that is stored in the syntax tree cache.
+     *
+     * @param blackhole
+     *         the blackhole to consume the scripts with.
+     */
+    @Benchmark
+    public void loadTrees(Blackhole blackhole) {
+        var sources = corpus.getSources();
+        for (var index = 0; index < sources.size(); index++) {
+            var lineIndex = new MappedCharStream(ByteBuffer.wrap(sources.get(index))).lineIndex();
+            var arena = AstArena.read(ByteBuffer.wrap(trees.get(index)), lineIndex, environment);
+            blackhole.consume(new ArrayList<>(arena.asList()));
+        }
+    }
+
+    /**
+     * Parses all the scripts of the specified tokenized source file.
+     *
+     * @param buffer
+     *         the tokens of the source file.
+     *
+     * @return the parsed scripts of the source file.
+     */
+    private List<AstScript> parse(TokenBuffer<Kind> buffer) {
+        var lexer = new Lexer(buffer);
+        var parser = new ScriptParser(environment, lexer);
+        var scripts = new ArrayList<AstScript>();
+        while (lexer.hasRemaining()) {
+            scripts.add(parser.script());
+        }
+        return scripts;
+    }
+}
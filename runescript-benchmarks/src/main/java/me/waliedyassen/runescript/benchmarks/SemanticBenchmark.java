@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.benchmarks;
+
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.lexer.table.LexicalTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the semantic checking stages of the compiler on the whole {@link Corpus}. The checking annotates the
+ * syntax trees and registers the scripts in the symbol table, so both are created again before each invocation.
+ *
+ * @author Walied K. Yassen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SemanticBenchmark {
+
+    /**
+     * The corpus which we are benchmarking.
+     */
+    private Corpus corpus;
+
+    /**
+     * The lexical table of the compiler.
+     */
+    private LexicalTable<Kind> table;
+
+    /**
+     * The environment of the compiler.
+     */
+    private CompilerEnvironment environment;
+
+    /**
+     * The parsed scripts of the corpus.
+     */
+    private List<AstScript> scripts;
+
+    /**
+     * The parsed scripts of the corpus which were pre checked.
+     */
+    private List<AstScript> preCheckedScripts;
+
+    /**
+     * The symbol table which the pre checked scripts were declared in.
+     */
+    private SymbolTable symbolTable;
+
+    /**
+     * Loads the corpus and creates the shared compiler components.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        corpus = Corpus.load();
+        table = Compiler.createLexicalTable();
+        environment = Corpus.createEnvironment();
+    }
+
+    /**
+     * Parses the scripts of the corpus twice, and pre checks the second copy against a new symbol table.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the source files.
+     */
+    @Setup(Level.Invocation)
+    public void setupScripts() throws IOException {
+        scripts = corpus.parse(table, environment);
+        preCheckedScripts = corpus.parse(table, environment);
+        symbolTable = new SymbolTable();
+        new SemanticChecker(environment, symbolTable).executePre(preCheckedScripts);
+    }
+
+    /**
+     * Measures the pre semantic checking, which declares all of the scripts in the symbol table.
+     *
+     * @param blackhole
+     *         the blackhole to consume the checker with.
+     */
+    @Benchmark
+    public void preCheck(Blackhole blackhole) {
+        var checker = new SemanticChecker(environment, new SymbolTable());
+        checker.executePre(scripts);
+        blackhole.consume(checker);
+    }
+
+    /**
+     * Measures the semantic checking, which resolves and type checks all of the scripts.
+     *
+     * @param blackhole
+     *         the blackhole to consume the checker with.
+     */
+    @Benchmark
+    public void check(Blackhole blackhole) {
+        var checker = new SemanticChecker(environment, symbolTable);
+        checker.execute(preCheckedScripts);
+        blackhole.consume(checker);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.document;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Turns the character offsets of a document into {@link LineColumn} positions. The start offset of each line is only
+ * indexed when the first position is requested, so a document which never reports a position never pays for it. The
+ * offsets of the tab and the carriage return characters are indexed together with the lines, so the positions are
+ * calculated from the index alone and the document is released once it was indexed.
+ * <p>
+ * A document which is not immutable, such as a memory mapped source file, should be indexed right away using {@link
+ * #snapshot(CharSequence, int)}, so the positions never read the document after it was changed or unmapped.
+ *
+ * @author Walied K. Yassen
+ */
+public final class LineIndex {
+
+    /**
+     * The amount of characters in the document.
+     */
+    private final int length;
+
+    /**
+     * The tab size for the column calculations.
+     */
+    private final int tabSize;
+
+    /**
+     * The characters of the document, or {@code null} if the document was already indexed.
+     */
+    private CharSequence source;
+
+    /**
+     * The index of the document, or {@code null} if it was not indexed yet.
+     */
+    private volatile Index index;
+
+    /**
+     * Constructs a new {@link LineIndex} type object instance.
+     *
+     * @param source
+     *         the characters of the document.
+     * @param tabSize
+     *         the tab size, represents how many spaces should we increase the column by after the tab special
+     *         character.
+     */
+    public LineIndex(CharSequence source, int tabSize) {
+        this.source = source;
+        this.tabSize = tabSize;
+        length = source.length();
+    }
+
+    /**
+     * Creates a new {@link LineIndex} which indexes the specified document right away and does not keep any reference
+     * to it.
+     *
+     * @param source
+     *         the characters of the document.
+     * @param tabSize
+     *         the tab size, represents how many spaces should we increase the column by after the tab special
+     *         character.
+     *
+     * @return the created {@link LineIndex} object.
+     */
+    public static LineIndex snapshot(CharSequence source, int tabSize) {
+        var lineIndex = new LineIndex(source, tabSize);
+        lineIndex.index();
+        return lineIndex;
+    }
+
+    /**
+     * Creates a {@link Range} view of the specified offsets.
+     *
+     * @param startOffset
+     *         the start offset of the range.
+     * @param endOffset
+     *         the end offset of the range.
+     *
+     * @return the created {@link Range} object.
+     */
+    public Range range(int startOffset, int endOffset) {
+        return new Range(this, startOffset, endOffset);
+    }
+
+    /**
+     * Calculates the position of the specified offset within the document. A carriage return is not counted as a
+     * column, the same way the character streams skip it.
+     *
+     * @param offset
+     *         the offset to calculate the position for, it is clamped to the document bounds.
+     *
+     * @return the calculated {@link LineColumn} position.
+     */
+    public LineColumn position(int offset) {
+        offset = Math.max(0, Math.min(offset, length));
+        var index = index();
+        var line = Arrays.binarySearch(index.starts, offset);
+        if (line < 0) {
+            line = -line - 2;
+        }
+        var column = 1;
+        var cursor = index.starts[line];
+        var special = Arrays.binarySearch(index.specials, cursor);
+        if (special < 0) {
+            special = -special - 1;
+        }
+        for (; special < index.specials.length && index.specials[special] < offset; special++) {
+            var specialOffset = index.specials[special];
+            column += specialOffset - cursor;
+            if (index.tabs[special]) {
+                column += tabSize - (column - 1) % tabSize;
+            }
+            cursor = specialOffset + 1;
+        }
+        return new LineColumn(line + 1, column + offset - cursor);
+    }
+
+    /**
+     * Returns the amount of lines in the document.
+     *
+     * @return the amount of lines.
+     */
+    public int getLineCount() {
+        return index().starts.length;
+    }
+
+    /**
+     * Returns the index of the document, indexing it if it was not indexed yet.
+     *
+     * @return the {@link Index} of the document.
+     */
+    private Index index() {
+        var index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    this.index = index = Index.of(source);
+                    source = null;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The offsets of the lines and of the special characters within a document.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private static final class Index {
+
+        /**
+         * The start offset of each line in the document.
+         */
+        private final int[] starts;
+
+        /**
+         * The offset of each tab and carriage return character in the document, in ascending order.
+         */
+        private final int[] specials;
+
+        /**
+         * Whether or not each of the special characters is a tab character, otherwise it is a carriage return.
+         */
+        private final boolean[] tabs;
+
+        /**
+         * Indexes the lines and the special characters of the specified document.
+         *
+         * @param source
+         *         the characters of the document.
+         *
+         * @return the created {@link Index} object.
+         */
+        static Index of(CharSequence source) {
+            var length = source.length();
+            var starts = new int[16];
+            var lines = 1;
+            var specials = new int[16];
+            var tabs = new boolean[16];
+            var count = 0;
+            for (var index = 0; index < length; index++) {
+                var ch = source.charAt(index);
+                if (ch == '\n') {
+                    if (lines == starts.length) {
+                        starts = Arrays.copyOf(starts, lines * 2);
+                    }
+                    starts[lines++] = index + 1;
+                } else if (ch == '\t' || ch == '\r') {
+                    if (count == specials.length) {
+                        specials = Arrays.copyOf(specials, count * 2);
+                        tabs = Arrays.copyOf(tabs, count * 2);
+                    }
+                    tabs[count] = ch == '\t';
+                    specials[count++] = index;
+                }
+            }
+            return new Index(Arrays.copyOf(starts, lines), Arrays.copyOf(specials, count), Arrays.copyOf(tabs, count));
+        }
+    }
+}
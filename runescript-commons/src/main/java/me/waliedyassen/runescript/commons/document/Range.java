@@ -7,30 +7,48 @@
  */
 package me.waliedyassen.runescript.commons.document;
 
-import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.ToString;
+
+import java.util.Objects;
 
 /**
  * Represents a position range within a document.
+ * <p>
+ * A range which is created from a {@link LineIndex} only stores the start and the end offsets within the document, and
+ * its {@link LineColumn} positions are only calculated when they are requested. A range which is created from explicit
+ * {@link LineColumn} positions keeps them as they are, and an offset based range becomes an explicit one when a position
+ * from another document is added to it. Two ranges are equal if their positions are equal.
  *
  * @author Walied K. Yassen
  */
-@EqualsAndHashCode
-@AllArgsConstructor
 public final class Range {
 
     /**
-     * The range start position.
+     * The line index of the document which the offsets belong to, or {@code null} if the positions are explicit.
      */
     @Getter
-    private LineColumn start;
+    private LineIndex lineIndex;
+
+    /**
+     * The range start offset within the document, or {@code -1} if the positions are explicit.
+     */
+    @Getter
+    private int startOffset = -1;
 
     /**
-     * The range end position.
+     * The range end offset within the document, or {@code -1} if the positions are explicit.
      */
     @Getter
+    private int endOffset = -1;
+
+    /**
+     * The range start position, it is calculated lazily for an offset based range.
+     */
+    private LineColumn start;
+
+    /**
+     * The range end position, it is calculated lazily for an offset based range.
+     */
     private LineColumn end;
 
     /**
@@ -40,6 +58,79 @@ public final class Range {
         this(LineColumn.MAX, LineColumn.MIN);
     }
 
+    /**
+     * Constructs a new {@link Range} type object instance with explicit positions.
+     *
+     * @param start
+     *         the range start position.
+     * @param end
+     *         the range end position.
+     */
+    public Range(LineColumn start, LineColumn end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Constructs a new offset based {@link Range} type object instance.
+     *
+     * @param lineIndex
+     *         the line index of the document which the offsets belong to.
+     * @param startOffset
+     *         the range start offset within the document.
+     * @param endOffset
+     *         the range end offset within the document.
+     */
+    public Range(LineIndex lineIndex, int startOffset, int endOffset) {
+        this.lineIndex = lineIndex;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Constructs a new {@link Range} type object instance which starts at the start of the {@code first} range and ends
+     * at the end of the {@code last} range.
+     *
+     * @param first
+     *         the range to take the start position from.
+     * @param last
+     *         the range to take the end position from.
+     */
+    public Range(Range first, Range last) {
+        if (first.lineIndex != null && first.lineIndex == last.lineIndex) {
+            lineIndex = first.lineIndex;
+            startOffset = first.startOffset;
+            endOffset = last.endOffset;
+        } else {
+            start = first.getStart();
+            end = last.getEnd();
+        }
+    }
+
+    /**
+     * Returns the range start position.
+     *
+     * @return the start {@link LineColumn} position.
+     */
+    public LineColumn getStart() {
+        if (start == null) {
+            start = lineIndex.position(startOffset);
+        }
+        return start;
+    }
+
+    /**
+     * Returns the range end position.
+     *
+     * @return the end {@link LineColumn} position.
+     */
+    public LineColumn getEnd() {
+        if (end == null) {
+            end = lineIndex.position(endOffset);
+        }
+        return end;
+    }
+
     /**
      * Updates this position {@link Range} to include the specified {@linkplain LineColumn position}.
      *
@@ -47,6 +138,7 @@ public final class Range {
      *         the position which we will update this {@link Range} object to include.
      */
     public void add(LineColumn position) {
+        detach();
         if (position.isLesserThan(start)) {
             start = position;
         } else if (position.isGreaterThan(end)) {
@@ -73,8 +165,39 @@ public final class Range {
      *         the range which we wil update this {@link Range} object to include.
      */
     public void add(Range range) {
-        add(range.getStart());
-        add(range.getEnd());
+        if (range.lineIndex != null) {
+            add(range.lineIndex, range.startOffset, range.endOffset);
+        } else {
+            add(range.getStart());
+            add(range.getEnd());
+        }
+    }
+
+    /**
+     * Updates this position {@link Range} to include the specified offsets, without calculating any position if this
+     * range is empty or it belongs to the same document.
+     *
+     * @param lineIndex
+     *         the line index of the document which the offsets belong to.
+     * @param startOffset
+     *         the start offset to include.
+     * @param endOffset
+     *         the end offset to include.
+     */
+    public void add(LineIndex lineIndex, int startOffset, int endOffset) {
+        if (this.lineIndex == lineIndex) {
+            this.startOffset = Math.min(this.startOffset, startOffset);
+            this.endOffset = Math.max(this.endOffset, endOffset);
+        } else if (isEmpty()) {
+            this.lineIndex = lineIndex;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        } else {
+            add(lineIndex.position(startOffset));
+            add(lineIndex.position(endOffset));
+            return;
+        }
+        start = end = null;
     }
 
     /**
@@ -87,7 +210,62 @@ public final class Range {
      * @return <code>true</code> if the specified position is within this range otherwise <code>false</code>.
      */
     public boolean contains(LineColumn position) {
-        return position.isGreaterThan(start) && position.isLesserThan(end);
+        return position.isGreaterThan(getStart()) && position.isLesserThan(getEnd());
+    }
+
+    /**
+     * Turns this range into an explicit positions range, so positions from other documents can be added to it.
+     */
+    private void detach() {
+        if (lineIndex != null) {
+            getStart();
+            getEnd();
+            lineIndex = null;
+            startOffset = endOffset = -1;
+        }
+    }
+
+    /**
+     * Checks whether or not this range has not included any position yet.
+     *
+     * @return <code>true</code> if it has not otherwise <code>false</code>.
+     */
+    public boolean isEmpty() {
+        return lineIndex == null && start == LineColumn.MAX && end == LineColumn.MIN;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (!(object instanceof Range)) {
+            return false;
+        }
+        var other = (Range) object;
+        if (lineIndex != null && lineIndex == other.lineIndex && startOffset == other.startOffset && endOffset == other.endOffset) {
+            return true;
+        }
+        return getStart().equals(other.getStart()) && getEnd().equals(other.getEnd());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getStart(), getEnd());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Range(start=" + getStart() + ", end=" + getEnd() + ")";
     }
 
     /**
@@ -95,6 +273,9 @@ public final class Range {
      */
     @Override
     public Range clone() {
+        if (lineIndex != null) {
+            return new Range(lineIndex, startOffset, endOffset);
+        }
         return new Range(start.clone(), end.clone());
     }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.intern;
+
+/**
+ * A pool of canonical {@link String} instances for the names which are repeated all over the source files, such as the
+ * command, the configuration and the local variable names. A name that is already in the pool is returned directly from
+ * the characters it was found in without allocating anything, and the hash code of each pooled instance is computed
+ * once when it is added, so the hash lookups of the symbol tables do not hash it again and can match it by identity.
+ * <p>
+ * The pool is safe for concurrent use, the look-ups do not lock and only the addition of a new name is synchronized.
+ *
+ * @author Walied K. Yassen
+ */
+public final class Interner {
+
+    /**
+     * The initial capacity of the hash table, it must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The open-addressing hash table of the pooled names, a slot is never cleared once it is filled.
+     */
+    private volatile String[] table = new String[INITIAL_CAPACITY];
+
+    /**
+     * The amount of names in the pool.
+     */
+    private int size;
+
+    /**
+     * Returns the canonical instance of the name within the specified range of characters.
+     *
+     * @param chars
+     *         the characters array which contains the name.
+     * @param offset
+     *         the offset of the name within the array.
+     * @param length
+     *         the length of the name.
+     *
+     * @return the canonical {@link String} instance of the name.
+     */
+    public String intern(char[] chars, int offset, int length) {
+        var hash = 0;
+        for (var index = offset; index < offset + length; index++) {
+            hash = 31 * hash + chars[index];
+        }
+        var pooled = find(table, hash, chars, offset, length);
+        if (pooled != null) {
+            return pooled;
+        }
+        return add(hash, chars, offset, length, null);
+    }
+
+    /**
+     * Returns the canonical instance of the specified name.
+     *
+     * @param name
+     *         the name to intern.
+     *
+     * @return the canonical {@link String} instance of the name, or {@code null} if the name was {@code null}.
+     */
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        var hash = name.hashCode();
+        var table = this.table;
+        var mask = table.length - 1;
+        for (var slot = hash & mask; ; slot = (slot + 1) & mask) {
+            var pooled = table[slot];
+            if (pooled == null) {
+                break;
+            }
+            if (pooled.hashCode() == hash && pooled.equals(name)) {
+                return pooled;
+            }
+        }
+        return add(hash, null, 0, name.length(), name);
+    }
+
+    /**
+     * Returns the amount of names in the pool.
+     *
+     * @return the amount of names.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Adds a name to the pool if it was not added by another thread already.
+     *
+     * @param hash
+     *         the hash code of the name.
+     * @param chars
+     *         the characters array which contains the name, or {@code null} if the name is already a {@link String}.
+     * @param offset
+     *         the offset of the name within the array.
+     * @param length
+     *         the length of the name.
+     * @param name
+     *         the name, or {@code null} if the name is within the characters array.
+     *
+     * @return the canonical {@link String} instance of the name.
+     */
+    private synchronized String add(int hash, char[] chars, int offset, int length, String name) {
+        if (chars == null) {
+            chars = name.toCharArray();
+        }
+        var table = this.table;
+        var pooled = find(table, hash, chars, offset, length);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (name == null) {
+            name = new String(chars, offset, length);
+        }
+        // computes the hash code of the instance ahead, so no user of the pool has to compute it again.
+        name.hashCode();
+        if (++size * 2 > table.length) {
+            table = rehash(table);
+        }
+        insert(table, name);
+        this.table = table;
+        return name;
+    }
+
+    /**
+     * Finds the pooled name which has the same characters as the specified range of characters.
+     *
+     * @param table
+     *         the hash table to look in.
+     * @param hash
+     *         the hash code of the name.
+     * @param chars
+     *         the characters array which contains the name.
+     * @param offset
+     *         the offset of the name within the array.
+     * @param length
+     *         the length of the name.
+     *
+     * @return the pooled name if it was present otherwise {@code null}.
+     */
+    private static String find(String[] table, int hash, char[] chars, int offset, int length) {
+        var mask = table.length - 1;
+        for (var slot = hash & mask; ; slot = (slot + 1) & mask) {
+            var pooled = table[slot];
+            if (pooled == null) {
+                return null;
+            }
+            if (pooled.hashCode() == hash && matches(pooled, chars, offset, length)) {
+                return pooled;
+            }
+        }
+    }
+
+    /**
+     * Checks whether or not the specified name has the same characters as the specified range of characters.
+     *
+     * @param name
+     *         the name to check.
+     * @param chars
+     *         the characters array.
+     * @param offset
+     *         the offset of the range within the array.
+     * @param length
+     *         the length of the range.
+     *
+     * @return <code>true</code> if it has otherwise <code>false</code>.
+     */
+    private static boolean matches(String name, char[] chars, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (var index = 0; index < length; index++) {
+            if (name.charAt(index) != chars[offset + index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a new hash table with double the capacity of the specified one and with the same names.
+     *
+     * @param table
+     *         the hash table to rehash.
+     *
+     * @return the new hash table.
+     */
+    private static String[] rehash(String[] table) {
+        var rehashed = new String[table.length * 2];
+        for (var name : table) {
+            if (name != null) {
+                insert(rehashed, name);
+            }
+        }
+        return rehashed;
+    }
+
+    /**
+     * Inserts the specified name into the first free slot of its probe sequence.
+     *
+     * @param table
+     *         the hash table to insert into.
+     * @param name
+     *         the name to insert.
+     */
+    private static void insert(String[] table, String name) {
+        var mask = table.length - 1;
+        var slot = name.hashCode() & mask;
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = name;
+    }
+}
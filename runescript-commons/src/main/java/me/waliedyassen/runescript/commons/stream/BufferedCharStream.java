@@ -8,9 +8,11 @@
 package me.waliedyassen.runescript.commons.stream;
 
 import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.LineIndex;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.CharBuffer;
 
 /**
  * Represents a buffered character stream, it reads all the data from {@link InputStream} and then caches the data into
@@ -41,19 +43,14 @@ public final class BufferedCharStream implements CharStream {
     private int pos;
 
     /**
-     * The current line witOOFhin the document.
-     */
-    private int line = 1;
-
-    /**
-     * The current column within the document.
+     * The marked position.
      */
-    private int column = 1;
+    private int m_pos = -1;
 
     /**
-     * The marked position.
+     * The line index of the document, it is created when it is first requested.
      */
-    private int m_pos = -1, m_line = -1, m_column = -1;
+    private LineIndex lineIndex;
 
     /**
      * Constructs a new {@link BufferedCharStream} type object instance.
@@ -102,16 +99,7 @@ public final class BufferedCharStream implements CharStream {
                 return NULL;
             }
         }
-        char ch = buffer[pos++];
-        if (ch == '\n') {
-            line++;
-            column = 1;
-        } else if (ch == '\t') {
-            column += tabSize - (column - 1) % tabSize;
-        } else {
-            column++;
-        }
-        return ch;
+        return buffer[pos++];
     }
 
     /**
@@ -131,8 +119,6 @@ public final class BufferedCharStream implements CharStream {
     @Override
     public void mark() {
         m_pos = pos;
-        m_line = line;
-        m_column = column;
     }
 
     /**
@@ -144,67 +130,49 @@ public final class BufferedCharStream implements CharStream {
             throw new IllegalStateException("The stream has no marker set");
         }
         pos = m_pos;
-        line = m_line;
-        column = m_column;
-        m_pos = m_line = m_column = -1;
+        m_pos = -1;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * A carriage return which was skipped by {@link #take()} is rolled back together with the character after it.
      */
     @Override
     public void rollback(int count) {
-        while (count-- > 0) {
-            if (!hasRemaining()) {
+        while (count-- > 0 && pos > 0) {
+            pos--;
+            if (pos > 0 && buffer[pos - 1] == '\r') {
                 pos--;
-            } else {
-                var ch = buffer[--pos];
-                if (ch == '\n') {
-                    count++;
-                } else if (ch == '\r') {
-                    line--;
-                    column = calculateLineColumn();
-                } else if (ch == '\t') {
-                    column -= tabSize - (column - 1) % tabSize;
-                } else {
-                    column--;
-                }
             }
         }
     }
 
     /**
-     * Calculates the current line column offset.
-     *
-     * @return teh current line column offset.
-     */
-    private int calculateLineColumn() {
-        var start = this.pos;
-        var end = this.pos;
-        do {
-            var ch = buffer[--start];
-            if (ch == '\n') {
-                break;
-            }
-        } while (start > 0);
-        var column = 0;
-        for (var index = start; index < end; index++) {
-            var ch = buffer[index];
-            if (ch == '\t') {
-                column += tabSize - (column - 1) % tabSize;
-            } else {
-                column++;
-            }
-        }
-        return column;
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasRemaining() {
+        return pos < buffer.length;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public boolean hasRemaining() {
-        return pos < buffer.length;
+    public int offset() {
+        return pos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LineIndex lineIndex() {
+        if (lineIndex == null) {
+            lineIndex = new LineIndex(CharBuffer.wrap(buffer), tabSize);
+        }
+        return lineIndex;
     }
 
     /**
@@ -212,6 +180,6 @@ public final class BufferedCharStream implements CharStream {
      */
     @Override
     public LineColumn position() {
-        return new LineColumn(line, column);
+        return lineIndex().position(pos);
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@
 package me.waliedyassen.runescript.commons.stream;
 
 import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.LineIndex;
 
 /**
  * Repesents a source code characters input stream.
@@ -65,7 +66,22 @@ public interface CharStream {
     boolean hasRemaining();
 
     /**
-     * Gets the current position within the document.
+     * Gets the current offset within the document.
+     *
+     * @return the current offset.
+     */
+    int offset();
+
+    /**
+     * Gets the line index of the document, which turns the offsets of this stream into positions.
+     *
+     * @return the {@link LineIndex} of the document.
+     */
+    LineIndex lineIndex();
+
+    /**
+     * Gets the current position within the document, this is calculated from the {@link #offset() offset} so it should
+     * be avoided in the hot paths.
      *
      * @return the current position as {@link LineColumn} object.
      */
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.stream;
+
+/**
+ * Contains the cp1252 decoding and encoding tables which the source files and the compiled scripts are written in.
+ * The bytes which are undefined in cp1252 are decoded to their C1 control character and encoded back from it, so
+ * every byte survives a decode and an encode unchanged.
+ *
+ * @author Walied K. Yassen
+ */
+public final class Cp1252 {
+
+    /**
+     * The byte which the characters that cannot be encoded in cp1252 are encoded to.
+     */
+    public static final byte UNMAPPABLE = '?';
+
+    /**
+     * The decoding table, indexed by the unsigned value of the encoded byte.
+     */
+    private static final char[] DECODE = new char[256];
+
+    /**
+     * The encoding table of the characters in the {@code U+0080} to {@code U+FFFF} range, the characters which cannot
+     * be encoded are mapped to {@code 0}.
+     */
+    private static final byte[] ENCODE = new byte[0x10000];
+
+    static {
+        for (var index = 0; index < DECODE.length; index++) {
+            DECODE[index] = (char) index;
+        }
+        var high = new char[]{
+                '\u20ac', '\u0081', '\u201a', '\u0192', '\u201e', '\u2026', '\u2020', '\u2021',
+                '\u02c6', '\u2030', '\u0160', '\u2039', '\u0152', '\u008d', '\u017d', '\u008f',
+                '\u0090', '\u2018', '\u2019', '\u201c', '\u201d', '\u2022', '\u2013', '\u2014',
+                '\u02dc', '\u2122', '\u0161', '\u203a', '\u0153', '\u009d', '\u017e', '\u0178',
+        };
+        System.arraycopy(high, 0, DECODE, 0x80, high.length);
+        for (var index = 0x80; index < DECODE.length; index++) {
+            ENCODE[DECODE[index]] = (byte) index;
+        }
+    }
+
+    /**
+     * Decodes the specified cp1252 encoded byte.
+     *
+     * @param value
+     *         the encoded byte.
+     *
+     * @return the decoded character.
+     */
+    public static char decode(byte value) {
+        return DECODE[value & 0xff];
+    }
+
+    /**
+     * Encodes the specified character into cp1252.
+     *
+     * @param value
+     *         the character to encode.
+     *
+     * @return the encoded byte, or {@link #UNMAPPABLE} if the character cannot be encoded in cp1252.
+     */
+    public static byte encode(char value) {
+        if (value < 0x80) {
+            return (byte) value;
+        }
+        var encoded = ENCODE[value];
+        return encoded == 0 ? UNMAPPABLE : encoded;
+    }
+
+    private Cp1252() {
+        // NOOP
+    }
+}
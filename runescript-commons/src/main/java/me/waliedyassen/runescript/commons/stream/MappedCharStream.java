@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.stream;
+
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.LineIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a character stream over the cp1252 encoded bytes of a {@link ByteBuffer}, which is usually a memory mapped
+ * source file. The bytes are never copied, each character is decoded when it is read using the {@link Cp1252} table.
+ *
+ * @author Walied K. Yassen
+ */
+public final class MappedCharStream implements CharStream {
+
+    /**
+     * The default tab size, how many spaces the special tab character advances the column pointer.
+     */
+    private static final int DEFAULT_TABSIZE = 4;
+
+    /**
+     * The encoded characters buffer, it is only accessed using absolute indices.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The index of the first byte which the stream reads.
+     */
+    private final int start;
+
+    /**
+     * The index after the last byte which the stream reads.
+     */
+    private final int length;
+
+    /**
+     * The tab size for position calculations.
+     */
+    private final int tabSize;
+
+    /**
+     * The characters buffer position.
+     */
+    private int pos;
+
+    /**
+     * The marked position.
+     */
+    private int m_pos = -1;
+
+    /**
+     * The line index of the document, it is created when it is first requested.
+     */
+    private LineIndex lineIndex;
+
+    /**
+     * Constructs a new {@link MappedCharStream} type object instance.
+     *
+     * @param buffer
+     *         the buffer which contains the encoded characters between its position and its limit, the buffer itself
+     *         is never modified.
+     */
+    public MappedCharStream(ByteBuffer buffer) {
+        this(buffer, DEFAULT_TABSIZE);
+    }
+
+    /**
+     * Constructs a new {@link MappedCharStream} type object instance.
+     *
+     * @param buffer
+     *         the buffer which contains the encoded characters between its position and its limit, the buffer itself
+     *         is never modified.
+     * @param tabSize
+     *         the tab size, represents how many spaces should we increase the column pointer by after the tab special
+     *         character.
+     */
+    private MappedCharStream(ByteBuffer buffer, int tabSize) {
+        this.buffer = buffer.slice();
+        this.tabSize = tabSize;
+        start = 0;
+        length = this.buffer.limit();
+    }
+
+    /**
+     * Constructs a new {@link MappedCharStream} type object instance which reads a region of an already sliced buffer.
+     *
+     * @param buffer
+     *         the sliced buffer which contains the encoded characters.
+     * @param tabSize
+     *         the tab size, represents how many spaces should we increase the column pointer by after the tab special
+     *         character.
+     * @param lineIndex
+     *         the line index of the whole buffer.
+     * @param start
+     *         the index of the first byte which the stream reads.
+     * @param end
+     *         the index after the last byte which the stream reads.
+     */
+    private MappedCharStream(ByteBuffer buffer, int tabSize, LineIndex lineIndex, int start, int end) {
+        this.buffer = buffer;
+        this.tabSize = tabSize;
+        this.lineIndex = lineIndex;
+        this.start = start;
+        length = end;
+        pos = start;
+    }
+
+    /**
+     * Creates a new {@link MappedCharStream} which only reads the specified region of this stream. The offsets of the
+     * region stream are the same as the offsets of this stream and both of them share the same {@link LineIndex}, so
+     * the positions which are reported by the region are relative to the whole document rather than to the region.
+     *
+     * @param start
+     *         the offset of the first character of the region.
+     * @param end
+     *         the offset after the last character of the region.
+     *
+     * @return the created {@link MappedCharStream} object.
+     * @throws IndexOutOfBoundsException
+     *         if the region is not within this stream.
+     */
+    public MappedCharStream region(int start, int end) {
+        if (start < this.start || start > end || end > length) {
+            throw new IndexOutOfBoundsException("region [" + start + ", " + end + ")");
+        }
+        return new MappedCharStream(buffer, tabSize, lineIndex(), start, end);
+    }
+
+    /**
+     * Maps the source file at the specified {@link Path path} into the memory and creates a new {@link
+     * MappedCharStream} for it.
+     *
+     * @param path
+     *         the path of the source file.
+     *
+     * @return the created {@link MappedCharStream} object.
+     * @throws IOException
+     *         if anything occurs while mapping the source file.
+     * @see #map(Path)
+     */
+    public static MappedCharStream open(Path path) throws IOException {
+        return new MappedCharStream(map(path));
+    }
+
+    /**
+     * Maps the whole file at the specified {@link Path path} into the memory as read-only. The mapping stays valid after
+     * this method returns and it is released once the returned buffer is garbage collected.
+     *
+     * @param path
+     *         the path of the file.
+     *
+     * @return the read-only {@link ByteBuffer} of the file content.
+     * @throws IOException
+     *         if anything occurs while mapping the file or if the file is too large to be mapped.
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The file is too large to be mapped: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char take() {
+        if (pos >= length) {
+            return NULL;
+        }
+        if (buffer.get(pos) == '\r') {
+            if (++pos >= length) {
+                return NULL;
+            }
+        }
+        return decode(pos++);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char peek() {
+        if (pos >= length) {
+            return NULL;
+        }
+        return decode(pos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mark() {
+        m_pos = pos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        if (m_pos == -1) {
+            throw new IllegalStateException("The stream has no marker set");
+        }
+        pos = m_pos;
+        m_pos = -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A carriage return which was skipped by {@link #take()} is rolled back together with the character after it.
+     */
+    @Override
+    public void rollback(int count) {
+        while (count-- > 0 && pos > start) {
+            pos--;
+            if (pos > start && buffer.get(pos - 1) == '\r') {
+                pos--;
+            }
+        }
+    }
+
+    /**
+     * Decodes the character at the specified buffer index.
+     *
+     * @param index
+     *         the index of the encoded character.
+     *
+     * @return the decoded character.
+     */
+    private char decode(int index) {
+        return Cp1252.decode(buffer.get(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasRemaining() {
+        return pos < length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return pos;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The buffer is indexed as soon as the line index is created, so the positions which are reported later on never
+     * read the buffer, which may have been changed or unmapped by then.
+     */
+    @Override
+    public LineIndex lineIndex() {
+        if (lineIndex == null) {
+            lineIndex = LineIndex.snapshot(new Cp1252Sequence(buffer, 0, length), tabSize);
+        }
+        return lineIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LineColumn position() {
+        return lineIndex().position(pos);
+    }
+
+    /**
+     * A {@link CharSequence} view of a range of cp1252 encoded bytes, the characters are decoded when they are read.
+     *
+     * @author Walied K. Yassen
+     */
+    private static final class Cp1252Sequence implements CharSequence {
+
+        /**
+         * The encoded characters buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The index of the first character within the buffer.
+         */
+        private final int start;
+
+        /**
+         * The amount of characters in the sequence.
+         */
+        private final int length;
+
+        /**
+         * Constructs a new {@link Cp1252Sequence} type object instance.
+         *
+         * @param buffer
+         *         the encoded characters buffer.
+         * @param start
+         *         the index of the first character within the buffer.
+         * @param length
+         *         the amount of characters in the sequence.
+         */
+        Cp1252Sequence(ByteBuffer buffer, int start, int length) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int length() {
+            return length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return Cp1252.decode(buffer.get(start + index));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end || end > length) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new Cp1252Sequence(buffer, this.start + start, end - start);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            var chars = new char[length];
+            for (var index = 0; index < length; index++) {
+                chars[index] = charAt(index);
+            }
+            return new String(chars);
+        }
+    }
+}
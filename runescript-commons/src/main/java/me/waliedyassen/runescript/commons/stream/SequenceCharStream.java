@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.stream;
+
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.LineIndex;
+
+/**
+ * Represents a character stream over a {@link CharSequence}, such as a {@link String}, a {@link StringBuilder} or a
+ * {@link java.nio.CharBuffer} wrapping a {@code char[]}. The characters are read directly from the sequence without
+ * being encoded or copied, so the sequence must not be modified while the stream is in use.
+ *
+ * @author Walied K. Yassen
+ */
+public final class SequenceCharStream implements CharStream {
+
+    /**
+     * The default tab size, how many spaces the special tab character advances the column pointer.
+     */
+    private static final int DEFAULT_TABSIZE = 4;
+
+    /**
+     * The characters sequence.
+     */
+    private final CharSequence sequence;
+
+    /**
+     * The amount of characters in the sequence.
+     */
+    private final int length;
+
+    /**
+     * The tab size for position calculations.
+     */
+    private final int tabSize;
+
+    /**
+     * The characters sequence position.
+     */
+    private int pos;
+
+    /**
+     * The marked position.
+     */
+    private int m_pos = -1;
+
+    /**
+     * The line index of the document, it is created when it is first requested.
+     */
+    private LineIndex lineIndex;
+
+    /**
+     * Constructs a new {@link SequenceCharStream} type object instance.
+     *
+     * @param sequence
+     *         the characters sequence of the source code.
+     */
+    public SequenceCharStream(CharSequence sequence) {
+        this(sequence, DEFAULT_TABSIZE);
+    }
+
+    /**
+     * Constructs a new {@link SequenceCharStream} type object instance.
+     *
+     * @param sequence
+     *         the characters sequence of the source code.
+     * @param tabSize
+     *         the tab size, represents how many spaces should we increase the column pointer by after the tab special
+     *         character.
+     */
+    private SequenceCharStream(CharSequence sequence, int tabSize) {
+        this.sequence = sequence;
+        this.tabSize = tabSize;
+        length = sequence.length();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char take() {
+        if (pos >= length) {
+            return NULL;
+        }
+        if (sequence.charAt(pos) == '\r') {
+            if (++pos >= length) {
+                return NULL;
+            }
+        }
+        return sequence.charAt(pos++);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char peek() {
+        if (pos >= length) {
+            return NULL;
+        }
+        return sequence.charAt(pos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mark() {
+        m_pos = pos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        if (m_pos == -1) {
+            throw new IllegalStateException("The stream has no marker set");
+        }
+        pos = m_pos;
+        m_pos = -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A carriage return which was skipped by {@link #take()} is rolled back together with the character after it.
+     */
+    @Override
+    public void rollback(int count) {
+        while (count-- > 0 && pos > 0) {
+            pos--;
+            if (pos > 0 && sequence.charAt(pos - 1) == '\r') {
+                pos--;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasRemaining() {
+        return pos < length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return pos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LineIndex lineIndex() {
+        if (lineIndex == null) {
+            lineIndex = new LineIndex(sequence, tabSize);
+        }
+        return lineIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LineColumn position() {
+        return lineIndex().position(pos);
+    }
+}
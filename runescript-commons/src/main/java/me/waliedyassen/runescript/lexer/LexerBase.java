@@ -7,30 +7,90 @@
  */
 package me.waliedyassen.runescript.lexer;
 
+import me.waliedyassen.runescript.commons.document.LineIndex;
 import me.waliedyassen.runescript.lexer.token.Token;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents the base class for all of our lexical parsers.
+ * <p>
+ * The tokens are pulled from the implementation on demand using {@link #fetch(TokenBuffer)} into a {@link TokenBuffer}.
+ * When the lexer is streaming, the tokens which were taken are discarded from the buffer every once in a while, so the
+ * memory of the lexer is bound by the longest look-ahead of the parser rather than by the amount of tokens. A lexer can
+ * also replay a buffer which already holds all of the tokens of a document, in which case nothing is discarded.
+ * <p>
+ * The {@link #lookaheadKind(int)}, {@link #skip()} and {@link #previousStartOffset()} family of methods read the
+ * buffer directly, while the methods which return a {@link Token} create a new view of the token for each call.
  *
  * @param <K>
  *         the tokenizer token type.
  *
  * @author Walied K. Yassen
  */
-public abstract class LexerBase<K> {
+public abstract class LexerBase<K extends Enum<K>> {
+
+    /**
+     * The amount of taken tokens after which a streaming lexer discards them from the buffer.
+     */
+    private static final int DISCARD_THRESHOLD = 64;
+
+    /**
+     * The buffer of the tokens which were fetched so far.
+     */
+    private final TokenBuffer<K> buffer;
+
+    /**
+     * Whether or not the taken tokens are discarded from the buffer.
+     */
+    private final boolean streaming;
+
+    /**
+     * The index of the next token to take within the buffer.
+     */
+    private int head;
+
+    /**
+     * The amount of tokens which were discarded from the buffer so far.
+     */
+    private int discarded;
+
+    /**
+     * Whether or not the implementation has reported the end of the input.
+     */
+    private boolean ended;
+
+    /**
+     * Constructs a new streaming {@link LexerBase} type object instance.
+     *
+     * @param type
+     *         the class of the lexical token kind type.
+     */
+    protected LexerBase(Class<K> type) {
+        buffer = new TokenBuffer<>(type);
+        streaming = true;
+    }
 
     /**
-     * The list of the {@linkplain Token}s that are availabe to this lexer.
+     * Constructs a new {@link LexerBase} type object instance which replays the specified complete buffer, the
+     * implementation is never asked to {@link #fetch(TokenBuffer) fetch} any token.
+     *
+     * @param buffer
+     *         the buffer which holds all of the tokens of the document.
      */
-    protected final List<Token<K>> tokens = new ArrayList<>();
+    protected LexerBase(TokenBuffer<K> buffer) {
+        this.buffer = buffer;
+        streaming = false;
+        ended = true;
+    }
 
     /**
-     * The current pointer index value.
+     * Fetches the next token from the implementation into the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to add the token to.
+     *
+     * @return <code>true</code> if a token was added otherwise <code>false</code> if the end of the input was reached.
      */
-    protected int index;
+    protected abstract boolean fetch(TokenBuffer<K> buffer);
 
     /**
      * Gets the {@link Token} object at the current pointer index and then increment the pointer index.
@@ -38,10 +98,25 @@ public abstract class LexerBase<K> {
      * @return the {@link Token} object if it was present otherwise {@code null}.
      */
     public Token<K> take() {
-        if (index >= tokens.size()) {
+        if (!fill(0)) {
             return null;
         }
-        return tokens.get(index++);
+        var token = buffer.getToken(head);
+        advance();
+        return token;
+    }
+
+    /**
+     * Increments the pointer index without creating a {@link Token} view of the current token.
+     *
+     * @return <code>true</code> if there was a token to skip otherwise <code>false</code>.
+     */
+    public boolean skip() {
+        if (!fill(0)) {
+            return false;
+        }
+        advance();
+        return true;
     }
 
     /**
@@ -50,19 +125,40 @@ public abstract class LexerBase<K> {
      * @return the {@link Token} object if it was present otherwise {@code null}.
      */
     public Token<K> peek() {
-        if (index >= tokens.size()) {
-            return null;
-        }
-        return tokens.get(index);
+        return lookahead(0);
     }
 
     /**
      * Gets the previous {@link Token token} to the current token.
      *
      * @return the previous {@link Token} object.
+     * @throws IllegalStateException
+     *         if no token was taken yet.
      */
     public Token<K> previous() {
-        return tokens.get(index - 1);
+        return buffer.getToken(previousIndex());
+    }
+
+    /**
+     * Gets the start offset of the previous token to the current token.
+     *
+     * @return the start offset of the previous token.
+     * @throws IllegalStateException
+     *         if no token was taken yet.
+     */
+    public int previousStartOffset() {
+        return buffer.getStartOffset(previousIndex());
+    }
+
+    /**
+     * Gets the end offset of the previous token to the current token.
+     *
+     * @return the end offset of the previous token.
+     * @throws IllegalStateException
+     *         if no token was taken yet.
+     */
+    public int previousEndOffset() {
+        return buffer.getEndOffset(previousIndex());
     }
 
     /**
@@ -74,30 +170,120 @@ public abstract class LexerBase<K> {
      * @return the {@link Token} if it was present otherwise {@code null}.
      */
     public Token<K> lookahead(int n) {
-        if (index + n >= tokens.size()) {
+        if (!fill(n)) {
             return null;
         }
-        return tokens.get(index + n);
+        return buffer.getToken(head + n);
     }
 
     /**
-     * Gets the last {@link Token} in the tokens list.
+     * Gets the kind of the token that is located at {@code n} steps from the current index.
+     *
+     * @param n
+     *         the distance which the token is located at from the current index.
      *
-     * @return the last {@link Token}.
+     * @return the kind of the token if it was present otherwise {@code null}.
      */
-    public Token<K> last() {
-        if (tokens.isEmpty()) {
+    public K lookaheadKind(int n) {
+        if (!fill(n)) {
             return null;
         }
-        return tokens.get(tokens.size() - 1);
+        return buffer.getKind(head + n);
+    }
+
+    /**
+     * Adds the token that is located at {@code n} steps from the current index to the end of the specified buffer,
+     * without creating a {@link Token} view of it.
+     *
+     * @param n
+     *         the distance which the token is located at from the current index.
+     * @param target
+     *         the buffer to add the token to.
+     *
+     * @return <code>true</code> if the token was present otherwise <code>false</code>.
+     */
+    public boolean copy(int n, TokenBuffer<K> target) {
+        if (!fill(n)) {
+            return false;
+        }
+        var index = head + n;
+        target.add(buffer.getKind(index), buffer.getLineIndex(), buffer.getStartOffset(index), buffer.getEndOffset(index), buffer.getLexeme(index));
+        return true;
     }
 
     /**
-     * Gets the amount of the remaining tokens.
+     * Checks whether or not there is any token left to take.
      *
-     * @return the amount of the remaining tokens.
+     * @return <code>true</code> if there is otherwise <code>false</code>.
      */
-    public int remaining() {
-        return tokens.size() - index;
+    public boolean hasRemaining() {
+        return fill(0);
+    }
+
+    /**
+     * Gets the amount of tokens which were fetched from the implementation or replayed from the buffer so far.
+     *
+     * @return the amount of fetched tokens.
+     */
+    public int count() {
+        return discarded + buffer.size();
+    }
+
+    /**
+     * Gets the line index of the document which the tokens belong to.
+     *
+     * @return the {@link LineIndex} of the document, or {@code null} if no token was fetched yet.
+     */
+    public LineIndex getLineIndex() {
+        return buffer.getLineIndex();
+    }
+
+    /**
+     * Returns the index of the previous token within the buffer.
+     *
+     * @return the index of the previous token.
+     * @throws IllegalStateException
+     *         if no token was taken yet.
+     */
+    private int previousIndex() {
+        if (head == 0) {
+            throw new IllegalStateException("No token was taken yet");
+        }
+        return head - 1;
+    }
+
+    /**
+     * Increments the pointer index, and discards the taken tokens from the buffer if the lexer is streaming and enough
+     * tokens were taken, the previous token is always kept.
+     */
+    private void advance() {
+        head++;
+        if (streaming && head > DISCARD_THRESHOLD) {
+            var count = head - 1;
+            buffer.discard(count);
+            discarded += count;
+            head = 1;
+        }
+    }
+
+    /**
+     * Fetches tokens into the buffer until the token at {@code n} steps from the current index is present.
+     *
+     * @param n
+     *         the distance of the token from the current index.
+     *
+     * @return <code>true</code> if the token is present otherwise <code>false</code>.
+     */
+    private boolean fill(int n) {
+        while (buffer.size() - head <= n) {
+            if (ended) {
+                return false;
+            }
+            if (!fetch(buffer)) {
+                ended = true;
+                return false;
+            }
+        }
+        return true;
     }
 }
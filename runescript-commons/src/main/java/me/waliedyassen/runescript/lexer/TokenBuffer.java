@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.lexer;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.commons.document.LineIndex;
+import me.waliedyassen.runescript.lexer.token.Token;
+
+import java.util.Arrays;
+
+/**
+ * A compact store of the tokens of a single document, which keeps each property of the tokens in its own array rather
+ * than keeping an object for each token. The kinds are stored by their ordinal, the ranges by their offsets into the
+ * document and the lexemes by reference, the tokenizers only create a new lexeme for the literals since the
+ * identifiers are interned and the keywords, the separators and the operators are shared.
+ * <p>
+ * The {@link Token} objects are only created on demand as views of the store, the store can be used as a window of the
+ * look-ahead tokens by the {@link LexerBase} or as the complete tokenized form of a document.
+ *
+ * @param <K>
+ *         the lexical token kind type.
+ *
+ * @author Walied K. Yassen
+ */
+public final class TokenBuffer<K extends Enum<K>> {
+
+    /**
+     * The default initial capacity of the store.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * All of the kinds which the store can hold indexed by their ordinal.
+     */
+    private final K[] universe;
+
+    /**
+     * The line index of the document which the tokens belong to.
+     */
+    @Getter
+    private LineIndex lineIndex;
+
+    /**
+     * The ordinal of the kind of each token.
+     */
+    private short[] kinds;
+
+    /**
+     * The start offset of each token.
+     */
+    private int[] starts;
+
+    /**
+     * The end offset of each token.
+     */
+    private int[] ends;
+
+    /**
+     * The lexeme of each token.
+     */
+    private String[] lexemes;
+
+    /**
+     * The amount of tokens in the store.
+     */
+    private int size;
+
+    /**
+     * Constructs a new {@link TokenBuffer} type object instance.
+     *
+     * @param type
+     *         the class of the lexical token kind type.
+     */
+    public TokenBuffer(Class<K> type) {
+        this(type, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@link TokenBuffer} type object instance.
+     *
+     * @param type
+     *         the class of the lexical token kind type.
+     * @param capacity
+     *         the initial capacity of the store.
+     */
+    public TokenBuffer(Class<K> type, int capacity) {
+        universe = type.getEnumConstants();
+        if (universe.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("The token kind type has too many constants");
+        }
+        capacity = Math.max(capacity, 1);
+        kinds = new short[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        lexemes = new String[capacity];
+    }
+
+    /**
+     * Adds a new token to the end of the store.
+     *
+     * @param kind
+     *         the kind of the token.
+     * @param lineIndex
+     *         the line index of the document which the token belongs to, it must be the same for all of the tokens.
+     * @param startOffset
+     *         the start offset of the token.
+     * @param endOffset
+     *         the end offset of the token.
+     * @param lexeme
+     *         the lexeme of the token.
+     */
+    public void add(K kind, LineIndex lineIndex, int startOffset, int endOffset, String lexeme) {
+        if (size == kinds.length) {
+            var capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            lexemes = Arrays.copyOf(lexemes, capacity);
+        }
+        if (this.lineIndex == null) {
+            this.lineIndex = lineIndex;
+        }
+        kinds[size] = (short) kind.ordinal();
+        starts[size] = startOffset;
+        ends[size] = endOffset;
+        lexemes[size] = lexeme;
+        size++;
+    }
+
+    /**
+     * Adds the specified {@link Token token} to the end of the store.
+     *
+     * @param token
+     *         the token to add.
+     */
+    public void add(Token<K> token) {
+        add(token.getKind(), token.getLineIndex(), token.getStartOffset(), token.getEndOffset(), token.getLexeme());
+    }
+
+    /**
+     * Trims the capacity of the store to the amount of tokens it has, this is used for the stores which are kept for a
+     * while after they are filled.
+     */
+    public void trim() {
+        if (size == kinds.length) {
+            return;
+        }
+        var capacity = Math.max(size, 1);
+        kinds = Arrays.copyOf(kinds, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        lexemes = Arrays.copyOf(lexemes, capacity);
+    }
+
+    /**
+     * Removes the last token of the store.
+     *
+     * @throws IllegalStateException
+     *         if the store is empty.
+     */
+    public void removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("The token buffer is empty");
+        }
+        lexemes[--size] = null;
+    }
+
+    /**
+     * Removes the first {@code count} tokens of the store, the remaining tokens are moved to the start of the store.
+     *
+     * @param count
+     *         the amount of tokens to remove.
+     */
+    public void discard(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException(count);
+        }
+        var remaining = size - count;
+        System.arraycopy(kinds, count, kinds, 0, remaining);
+        System.arraycopy(starts, count, starts, 0, remaining);
+        System.arraycopy(ends, count, ends, 0, remaining);
+        System.arraycopy(lexemes, count, lexemes, 0, remaining);
+        Arrays.fill(lexemes, remaining, size, null);
+        size = remaining;
+    }
+
+    /**
+     * Returns the kind of the token at the specified index.
+     *
+     * @param index
+     *         the index of the token.
+     *
+     * @return the kind of the token.
+     */
+    public K getKind(int index) {
+        return universe[kinds[checkIndex(index)]];
+    }
+
+    /**
+     * Returns the start offset of the token at the specified index.
+     *
+     * @param index
+     *         the index of the token.
+     *
+     * @return the start offset of the token.
+     */
+    public int getStartOffset(int index) {
+        return starts[checkIndex(index)];
+    }
+
+    /**
+     * Returns the end offset of the token at the specified index.
+     *
+     * @param index
+     *         the index of the token.
+     *
+     * @return the end offset of the token.
+     */
+    public int getEndOffset(int index) {
+        return ends[checkIndex(index)];
+    }
+
+    /**
+     * Returns the lexeme of the token at the specified index.
+     *
+     * @param index
+     *         the index of the token.
+     *
+     * @return the lexeme of the token.
+     */
+    public String getLexeme(int index) {
+        return lexemes[checkIndex(index)];
+    }
+
+    /**
+     * Creates a {@link Token} view of the token at the specified index.
+     *
+     * @param index
+     *         the index of the token.
+     *
+     * @return the created {@link Token} object.
+     */
+    public Token<K> getToken(int index) {
+        checkIndex(index);
+        return new Token<>(universe[kinds[index]], lineIndex, starts[index], ends[index], lexemes[index]);
+    }
+
+    /**
+     * Returns the amount of tokens in the store.
+     *
+     * @return the amount of tokens.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks that the specified index is within the store.
+     *
+     * @param index
+     *         the index to check.
+     *
+     * @return the checked index.
+     * @throws IndexOutOfBoundsException
+     *         if the index is not within the store.
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return index;
+    }
+}
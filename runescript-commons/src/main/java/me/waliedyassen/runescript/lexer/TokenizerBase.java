@@ -9,11 +9,92 @@ package me.waliedyassen.runescript.lexer;
 
 /**
  * Represents a lexical parser tokenizer base class.
+ * <p>
+ * The classification of the characters is done through a table which holds the classes of the first 256 characters,
+ * which covers all of the characters the source files can be decoded into other than the few CP-1252 characters that
+ * are mapped above it, those have no class at all.
  *
  * @author Walied K. Yassen
  */
 public abstract class TokenizerBase {
 
+    /**
+     * The class flag of the whitespace characters.
+     */
+    protected static final byte WHITESPACE = 0x1;
+
+    /**
+     * The class flag of the decimal digit characters.
+     */
+    protected static final byte DIGIT = 0x2;
+
+    /**
+     * The class flag of the characters which can start an identifier.
+     */
+    protected static final byte IDENTIFIER_START = 0x4;
+
+    /**
+     * The class flag of the characters which can be part of an identifier.
+     */
+    protected static final byte IDENTIFIER_PART = 0x8;
+
+    /**
+     * The class flags of each character below 256.
+     */
+    private static final byte[] CLASSES = new byte[256];
+
+    static {
+        for (var ch = 0; ch < CLASSES.length; ch++) {
+            var flags = 0;
+            if (Character.isWhitespace(ch)) {
+                flags |= WHITESPACE;
+            }
+            if (ch >= '0' && ch <= '9') {
+                flags |= DIGIT | IDENTIFIER_PART;
+            }
+            if (ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch == '_') {
+                flags |= IDENTIFIER_START | IDENTIFIER_PART;
+            }
+            CLASSES[ch] = (byte) flags;
+        }
+    }
+
+    /**
+     * Returns the class flags of the specified character.
+     *
+     * @param ch
+     *         the character to classify.
+     *
+     * @return the class flags of the character, or {@code 0} if it has none.
+     */
+    protected static int classOf(char ch) {
+        return ch < 256 ? CLASSES[ch] : 0;
+    }
+
+    /**
+     * Checks whether or not the specified character is a whitespace character.
+     *
+     * @param ch
+     *         the character to check.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public static boolean isWhitespace(char ch) {
+        return (classOf(ch) & WHITESPACE) != 0;
+    }
+
+    /**
+     * Checks whether or not the specified character is a decimal digit character.
+     *
+     * @param ch
+     *         the character to check.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public static boolean isDigit(char ch) {
+        return (classOf(ch) & DIGIT) != 0;
+    }
+
     /**
      * Checks whether or not the specified character can be used as the identifier's starting character.
      *
@@ -23,7 +104,7 @@ public abstract class TokenizerBase {
      * @return <code>true</code> if it can otherwise <code>false</code>.
      */
     public static boolean isIdentifierStart(char ch) {
-        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch == '_';
+        return (classOf(ch) & IDENTIFIER_START) != 0;
     }
 
     /**
@@ -35,6 +116,6 @@ public abstract class TokenizerBase {
      * @return <code>true</code> if it can otherwise <code>false</code>.
      */
     public static boolean isIdentifierPart(char ch) {
-        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_';
+        return (classOf(ch) & IDENTIFIER_PART) != 0;
     }
 }
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.lexer.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable character trie which is packed into flat arrays, so it can be walked one character at a time without
+ * allocating anything. It is used for looking up the keywords directly from the characters of an identifier and as a
+ * deterministic automaton for matching the longest operator.
+ * <p>
+ * Each node is identified by its index, the root node is {@link #ROOT}, and the edges of node {@code n} are stored at
+ * {@code [first[n], first[n + 1])} of the edge arrays sorted by their character. The nodes which have many edges, such
+ * as the root node of the keywords, also have their ASCII edges precomputed into a dense row of transitions, so moving
+ * from them is a single array access rather than a binary search.
+ *
+ * @param <K>
+ *         the lexical token kind type.
+ *
+ * @author Walied K. Yassen
+ */
+public final class CharTrie<K> {
+
+    /**
+     * The index of the root node, which represents the empty word.
+     */
+    public static final int ROOT = 0;
+
+    /**
+     * The minimum amount of edges a node must have for its ASCII edges to be precomputed into a dense row.
+     */
+    private static final int DENSE_THRESHOLD = 4;
+
+    /**
+     * The amount of characters which are covered by a dense row.
+     */
+    private static final int DENSE_WIDTH = 128;
+
+    /**
+     * The index of the first edge of each node, it has an additional trailing entry for the end of the last node.
+     */
+    private final int[] first;
+
+    /**
+     * The character of each edge.
+     */
+    private final char[] labels;
+
+    /**
+     * The target node of each edge.
+     */
+    private final int[] targets;
+
+    /**
+     * The value of each node, or {@code null} if the node does not terminate a word.
+     */
+    private final Object[] values;
+
+    /**
+     * The word which each node terminates, or {@code null} if the node does not terminate a word.
+     */
+    private final String[] words;
+
+    /**
+     * The offset of the dense row of each node within the {@link #rows} array, or {@code -1} if the node has none.
+     */
+    private final int[] dense;
+
+    /**
+     * The dense rows of transitions, each row maps the ASCII characters to the target nodes or {@code -1}.
+     */
+    private final int[] rows;
+
+    /**
+     * Constructs a new {@link CharTrie} type object instance.
+     *
+     * @param words
+     *         the words and their values to build the trie from.
+     */
+    public CharTrie(Map<String, K> words) {
+        var root = new Builder();
+        var edges = 0;
+        for (var entry : words.entrySet()) {
+            var node = root;
+            for (var index = 0; index < entry.getKey().length(); index++) {
+                var child = node.children.get(entry.getKey().charAt(index));
+                if (child == null) {
+                    child = new Builder();
+                    node.children.put(entry.getKey().charAt(index), child);
+                    edges++;
+                }
+                node = child;
+            }
+            node.word = entry.getKey();
+            node.value = entry.getValue();
+        }
+        // number the nodes in breadth-first order so the edges of each node are stored next to each other.
+        var order = new ArrayList<Builder>(edges + 1);
+        order.add(root);
+        for (var index = 0; index < order.size(); index++) {
+            var node = order.get(index);
+            node.index = index;
+            order.addAll(node.children.values());
+        }
+        first = new int[order.size() + 1];
+        labels = new char[edges];
+        targets = new int[edges];
+        values = new Object[order.size()];
+        this.words = new String[order.size()];
+        var edge = 0;
+        for (var node : order) {
+            first[node.index] = edge;
+            for (var child : node.children.entrySet()) {
+                labels[edge] = child.getKey();
+                targets[edge] = child.getValue().index;
+                edge++;
+            }
+            values[node.index] = node.value;
+            this.words[node.index] = node.word;
+        }
+        first[order.size()] = edge;
+        dense = new int[order.size()];
+        var count = 0;
+        for (var node = 0; node < dense.length; node++) {
+            dense[node] = first[node + 1] - first[node] >= DENSE_THRESHOLD ? count++ * DENSE_WIDTH : -1;
+        }
+        rows = new int[count * DENSE_WIDTH];
+        Arrays.fill(rows, -1);
+        for (var node = 0; node < dense.length; node++) {
+            if (dense[node] == -1) {
+                continue;
+            }
+            for (edge = first[node]; edge < first[node + 1] && labels[edge] < DENSE_WIDTH; edge++) {
+                rows[dense[node] + labels[edge]] = targets[edge];
+            }
+        }
+    }
+
+    /**
+     * Looks-up the value of the word within the specified range of characters.
+     *
+     * @param chars
+     *         the characters array which contains the word.
+     * @param offset
+     *         the offset of the word within the array.
+     * @param length
+     *         the length of the word.
+     *
+     * @return the value of the word if it was present otherwise {@code null}.
+     */
+    public K lookup(char[] chars, int offset, int length) {
+        var node = ROOT;
+        for (var index = offset; index < offset + length; index++) {
+            node = next(node, chars[index]);
+            if (node == -1) {
+                return null;
+            }
+        }
+        return value(node);
+    }
+
+    /**
+     * Looks-up the value of the specified word.
+     *
+     * @param word
+     *         the word to look-up.
+     *
+     * @return the value of the word if it was present otherwise {@code null}.
+     */
+    public K lookup(CharSequence word) {
+        var node = ROOT;
+        for (var index = 0; index < word.length(); index++) {
+            node = next(node, word.charAt(index));
+            if (node == -1) {
+                return null;
+            }
+        }
+        return value(node);
+    }
+
+    /**
+     * Moves from the specified node to its child by the specified character.
+     *
+     * @param node
+     *         the node to move from.
+     * @param character
+     *         the character of the edge to follow.
+     *
+     * @return the index of the child node, or {@code -1} if there is no word which continues with the character.
+     */
+    public int next(int node, char character) {
+        var row = dense[node];
+        if (row != -1 && character < DENSE_WIDTH) {
+            return rows[row + character];
+        }
+        var low = first[node];
+        var high = first[node + 1] - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var label = labels[middle];
+            if (label < character) {
+                low = middle + 1;
+            } else if (label > character) {
+                high = middle - 1;
+            } else {
+                return targets[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of the word which the specified node terminates.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the value of the word, or {@code null} if the node does not terminate a word.
+     */
+    @SuppressWarnings("unchecked")
+    public K value(int node) {
+        return (K) values[node];
+    }
+
+    /**
+     * Returns the word which the specified node terminates.
+     *
+     * @param node
+     *         the index of the node.
+     *
+     * @return the word, or {@code null} if the node does not terminate a word.
+     */
+    public String word(int node) {
+        return words[node];
+    }
+
+    /**
+     * Returns the amount of nodes in the trie, including the root node.
+     *
+     * @return the amount of nodes.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * A mutable node which is only used while building the trie.
+     *
+     * @author Walied K. Yassen
+     */
+    private static final class Builder {
+
+        /**
+         * The children of the node sorted by their character.
+         */
+        private final Map<Character, Builder> children = new TreeMap<>();
+
+        /**
+         * The word which the node terminates.
+         */
+        private String word;
+
+        /**
+         * The value of the word which the node terminates.
+         */
+        private Object value;
+
+        /**
+         * The index of the node in the packed arrays.
+         */
+        private int index;
+    }
+}
@@ -16,6 +16,10 @@ import java.util.Objects;
 /**
  * Represents the symbol table for the lexical phase of the compilation process, it holds all the symbols that we need
  * during the tokenizing process, whether it is being a separator, a keyword or an operator etc..
+ * <p>
+ * The ASCII separators are kept in a flat array, and the keywords and the operators are compiled into {@link CharTrie}
+ * objects when the table is {@link #freeze() frozen}, so the tokenizer can look them up without allocating anything.
+ * The table is frozen on the first trie look-up, after that no more symbols can be registered into it.
  *
  * @param <K>
  *         the lexical token kind type.
@@ -42,15 +46,31 @@ public final class LexicalTable<K> {
     @Getter
     private final Map<String, K> operators = new HashMap<>();
 
+    /**
+     * The separators which are within the ASCII range indexed by their character.
+     */
+    @SuppressWarnings("unchecked")
+    private final K[] asciiSeparators = (K[]) new Object[128];
+
+    /**
+     * The lexemes of the separators which are within the ASCII range indexed by their character.
+     */
+    private final String[] asciiSeparatorLexemes = new String[128];
+
     /**
      * The operator max size.
      */
     private int operatorSize;
 
     /**
-     * The operator starts.
+     * The keywords trie, or {@code null} if the table was not frozen yet.
+     */
+    private volatile CharTrie<K> keywordTrie;
+
+    /**
+     * The operators trie, or {@code null} if the table was not frozen yet.
      */
-    private String operatorStarts;
+    private volatile CharTrie<K> operatorTrie;
 
     /**
      * Registers a new keyword into the table.
@@ -62,9 +82,12 @@ public final class LexicalTable<K> {
      *
      * @throws IllegalArgumentException
      *         if the keyword was already registered.
+     * @throws IllegalStateException
+     *         if the table was already frozen.
      */
     public void registerKeyword(String word, K kind) {
         Objects.requireNonNull(word, "word");
+        checkMutable();
         Objects.requireNonNull(kind, "kind");
         word = word.toLowerCase();
         if (keywords.containsKey(word)) {
@@ -85,6 +108,22 @@ public final class LexicalTable<K> {
         return keywords.get(word);
     }
 
+    /**
+     * Looks-up the {@link K} for the keyword within the specified range of characters without allocating anything.
+     *
+     * @param chars
+     *         the characters array which contains the word.
+     * @param offset
+     *         the offset of the word within the array.
+     * @param length
+     *         the length of the word.
+     *
+     * @return the {@link K} of the keyword if it was present otherwise {@code null}.
+     */
+    public K lookupKeyword(char[] chars, int offset, int length) {
+        return getKeywordTrie().lookup(chars, offset, length);
+    }
+
     /**
      * Checks whether or not the specified {@code word} is registered as a keyword.
      *
@@ -107,13 +146,20 @@ public final class LexicalTable<K> {
      *
      * @throws IllegalArgumentException
      *         if the separator was already registered.
+     * @throws IllegalStateException
+     *         if the table was already frozen.
      */
     public void registerSeparator(char character, K kind) {
         Objects.requireNonNull(kind, "kind");
+        checkMutable();
         if (separators.containsKey(character)) {
             throw new IllegalArgumentException("The specified separator was already registered.");
         }
         separators.put(character, kind);
+        if (character < asciiSeparators.length) {
+            asciiSeparators[character] = kind;
+            asciiSeparatorLexemes[character] = String.valueOf(character);
+        }
     }
 
     /**
@@ -125,9 +171,28 @@ public final class LexicalTable<K> {
      * @return the {@link K} of the separator if it was present otherwise {@code null}.
      */
     public K lookupSeparator(char character) {
+        if (character < asciiSeparators.length) {
+            return asciiSeparators[character];
+        }
         return separators.get(character);
     }
 
+    /**
+     * Looks-up the lexeme of the specified separator character, the lexemes of the ASCII separators are shared so they
+     * are not created again for each separator token.
+     *
+     * @param character
+     *         the separator character.
+     *
+     * @return the lexeme of the separator.
+     */
+    public String lookupSeparatorLexeme(char character) {
+        if (character < asciiSeparatorLexemes.length && asciiSeparatorLexemes[character] != null) {
+            return asciiSeparatorLexemes[character];
+        }
+        return String.valueOf(character);
+    }
+
     /**
      * Checks whether or not the specified {@code character} is registered as a separator.
      *
@@ -137,7 +202,7 @@ public final class LexicalTable<K> {
      * @return <code>true</code> if the specified <code>character</code> is a separator otherwise {@code null}.
      */
     public boolean isSeparator(char character) {
-        return separators.containsKey(character);
+        return lookupSeparator(character) != null;
     }
 
     /**
@@ -150,10 +215,13 @@ public final class LexicalTable<K> {
      *
      * @throws IllegalArgumentException
      *         if the operator was already registered.
+     * @throws IllegalStateException
+     *         if the table was already frozen.
      */
     public void registerOperator(String sequence, K kind) {
         Objects.requireNonNull(sequence, "sequence");
         Objects.requireNonNull(kind, "kind");
+        checkMutable();
         if (sequence.length() < 1) {
             throw new IllegalArgumentException("The operator size must be greater than zero!");
         }
@@ -161,7 +229,6 @@ public final class LexicalTable<K> {
             throw new IllegalArgumentException("The specifie operator was already registered.");
         }
         operators.put(sequence, kind);
-        operatorStarts += sequence.charAt(0);
         if (sequence.length() > operatorSize) {
             operatorSize = sequence.length();
         }
@@ -200,11 +267,7 @@ public final class LexicalTable<K> {
      * @return <code>true</code> if it was otherwise <code>false</code>.
      */
     public boolean isOperatorStart(char character) {
-        if (operatorStarts == null) {
-            // no operators were registered.
-            return false;
-        }
-        return operatorStarts.indexOf(character) != -1;
+        return getOperatorTrie().next(CharTrie.ROOT, character) != -1;
     }
 
     /**
@@ -216,4 +279,66 @@ public final class LexicalTable<K> {
         return operatorSize;
     }
 
+    /**
+     * Gets the keywords trie, freezing the table if it was not frozen yet.
+     *
+     * @return the keywords {@link CharTrie} object.
+     */
+    public CharTrie<K> getKeywordTrie() {
+        var trie = keywordTrie;
+        if (trie == null) {
+            freeze();
+            trie = keywordTrie;
+        }
+        return trie;
+    }
+
+    /**
+     * Gets the operators trie, freezing the table if it was not frozen yet. The trie is walked by the tokenizer one
+     * character at a time to match the longest operator.
+     *
+     * @return the operators {@link CharTrie} object.
+     */
+    public CharTrie<K> getOperatorTrie() {
+        var trie = operatorTrie;
+        if (trie == null) {
+            freeze();
+            trie = operatorTrie;
+        }
+        return trie;
+    }
+
+    /**
+     * Compiles the registered keywords and operators into their tries, after that no more symbols can be registered
+     * into the table. Freezing a table that was already frozen does nothing.
+     */
+    public synchronized void freeze() {
+        if (operatorTrie != null) {
+            return;
+        }
+        keywordTrie = new CharTrie<>(keywords);
+        operatorTrie = new CharTrie<>(operators);
+    }
+
+    /**
+     * Checks whether or not the table is frozen.
+     *
+     * @return <code>true</code> if it is otherwise <code>false</code>.
+     */
+    public boolean isFrozen() {
+        return operatorTrie != null;
+    }
+
+    /**
+     * Checks that the table was not frozen yet.
+     *
+     * @throws IllegalStateException
+     *         if the table was already frozen.
+     */
+    private void checkMutable() {
+        if (isFrozen()) {
+            throw new IllegalStateException("The lexical table is frozen");
+        }
+    }
+
 }
@@ -7,16 +7,26 @@
  */
 package me.waliedyassen.runescript.lexer.token;
 
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import me.waliedyassen.runescript.commons.document.Element;
+import me.waliedyassen.runescript.commons.document.LineIndex;
 import me.waliedyassen.runescript.commons.document.Range;
 
 /**
  * Represents a single token in any of our parsers.
+ * <p>
+ * The token only stores its start and end offsets within the source, its {@link Range} is created when it is requested
+ * using the {@link LineIndex} of the source.
  *
  * @author Walied K. Yassen
  */
-@Data
+@Getter
+@EqualsAndHashCode
+@ToString
+@RequiredArgsConstructor
 public class Token<K> implements Element {
 
     /**
@@ -25,12 +35,32 @@ public class Token<K> implements Element {
     private final K kind;
 
     /**
-     * The token source code range.
+     * The line index of the source which the token belongs to.
      */
-    private final Range range;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final LineIndex lineIndex;
+
+    /**
+     * The token start offset within the source.
+     */
+    private final int startOffset;
+
+    /**
+     * The token end offset within the source.
+     */
+    private final int endOffset;
 
     /**
      * The token lexeme value.
      */
     private final String lexeme;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Range getRange() {
+        return new Range(lineIndex, startOffset, endOffset);
+    }
 }
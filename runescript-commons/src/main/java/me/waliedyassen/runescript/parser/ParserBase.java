@@ -9,25 +9,48 @@ package me.waliedyassen.runescript.parser;
 
 import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.commons.document.Element;
+import me.waliedyassen.runescript.commons.document.LineIndex;
 import me.waliedyassen.runescript.commons.document.Range;
 import me.waliedyassen.runescript.lexer.LexerBase;
 import me.waliedyassen.runescript.lexer.token.Token;
 
 import java.util.Arrays;
-import java.util.Stack;
 
 /**
  * Represents the base class for our parser.
+ * <p>
+ * The ranges of the rules which are being parsed are kept in a stack of start and end offsets within the document
+ * rather than in a stack of {@link Range} objects, a {@link Range} object is only created when a rule is done.
  *
  * @author Walied K. Yassen
  */
 @RequiredArgsConstructor
-public abstract class ParserBase<K> {
+public abstract class ParserBase<K extends Enum<K>> {
 
     /**
-     * The {@link Range} object stack. It is used to calculate the nested {@link Range}s.
+     * The initial capacity of the ranges stack.
      */
-    private final Stack<Range> ranges = new Stack<>();
+    private static final int INITIAL_DEPTH = 16;
+
+    /**
+     * The start offset of each range in the stack, it is {@link Integer#MAX_VALUE} while the range is empty.
+     */
+    private int[] starts = new int[INITIAL_DEPTH];
+
+    /**
+     * The end offset of each range in the stack, it is {@link Integer#MIN_VALUE} while the range is empty.
+     */
+    private int[] ends = new int[INITIAL_DEPTH];
+
+    /**
+     * The amount of ranges in the stack.
+     */
+    private int depth;
+
+    /**
+     * The line index of the document which the offsets in the stack belong to.
+     */
+    private LineIndex lineIndex;
 
     /**
      * The lexical phase result object.
@@ -59,6 +82,24 @@ public abstract class ParserBase<K> {
         return token;
     }
 
+    /**
+     * Takes the next token and checks whether or not its {@linkplain K kind} matches the specified {@linkplain K kind},
+     * without creating a {@link Token} object for it unless it does not match.
+     *
+     * @param expected
+     *         the expected token kind.
+     *
+     * @throws SyntaxError
+     *         if the next token does not match the expected token.
+     */
+    protected void expect(K expected) {
+        var kind = peekKind();
+        if (kind != expected) {
+            throwError(consume(), "Unexpected rule: " + kind + ", expected: " + expected);
+        }
+        skip();
+    }
+
     /**
      * Takes the next {@link Token} object and checks whether or not it's {@linkplain K kind} matches the specified
      * {@linkplain K kind}.
@@ -71,10 +112,8 @@ public abstract class ParserBase<K> {
      *         if the next token does not match the expected token.
      */
     protected boolean consumeIf(K expected) {
-        var token = peek();
-        var kind = token == null ? eofKind : token.getKind();
-        if (kind == expected) {
-            consume();
+        if (peekKind() == expected) {
+            skip();
             return true;
         }
         return false;
@@ -86,11 +125,9 @@ public abstract class ParserBase<K> {
      * @return the token {@link K kind}
      */
     protected K kind() {
-        var token = consume();
-        if (token == null) {
-            return eofKind;
-        }
-        return token.getKind();
+        var kind = peekKind();
+        skip();
+        return kind;
     }
 
     /**
@@ -118,11 +155,11 @@ public abstract class ParserBase<K> {
      * @return the token {@link K kind}.
      */
     protected K peekKind(int n) {
-        var token = lexer.lookahead(n);
-        if (token == null) {
+        var kind = lexer.lookaheadKind(n);
+        if (kind == null) {
             return eofKind;
         }
-        return token.getKind();
+        return kind;
     }
 
     /**
@@ -138,38 +175,118 @@ public abstract class ParserBase<K> {
     }
 
     /**
-     * Pushes a new {@link Range} into the {@link #ranges} stack. Calls to this method should be followed by {@link
-     * #popRange()} to remove the pushed {@link Range} object from the stack.
+     * Takes the next token from the lexer without creating a {@link Token} object for it.
+     *
+     * @see LexerBase#skip()
+     */
+    protected void skip() {
+        if (lexer.skip() && depth > 0) {
+            include(lexer.getLineIndex(), lexer.previousStartOffset(), lexer.previousEndOffset());
+        }
+    }
+
+    /**
+     * Pushes a new empty range into the ranges stack. Calls to this method should be followed by {@link #popRange()} to
+     * remove the pushed range from the stack.
      */
     protected void pushRange() {
-        ranges.push(new Range());
+        if (depth == starts.length) {
+            starts = Arrays.copyOf(starts, depth * 2);
+            ends = Arrays.copyOf(ends, depth * 2);
+        }
+        starts[depth] = Integer.MAX_VALUE;
+        ends[depth] = Integer.MIN_VALUE;
+        depth++;
     }
 
     /**
-     * Appends the specified {@link Element} range into the last {@link Range} in the {@link #ranges} stack. If the
-     * element is null or there is no {@link Range} object available into the stack, the method will have no effect.
+     * Appends the specified {@link Element} range into the last range in the ranges stack. If the element is null or
+     * there is no range available into the stack, the method will have no effect.
      *
      * @param element
      *         the element to append it's range.
+     * @throws IllegalArgumentException
+     *         if the range of the element is not empty and it does not belong to the document which is being parsed.
      */
     protected void appendRange(Element element) {
-        if (ranges.isEmpty() || element == null) {
+        if (depth == 0 || element == null) {
             return;
         }
-        ranges.lastElement().add(element.getRange());
+        var range = element.getRange();
+        if (range.getLineIndex() == null) {
+            if (!range.isEmpty()) {
+                throw new IllegalArgumentException("The element range does not belong to the document");
+            }
+            return;
+        }
+        include(range.getLineIndex(), range.getStartOffset(), range.getEndOffset());
     }
 
     /**
-     * Pops the last pushed {@link Range} object from the stack. If the stack is empty.
+     * Appends the specified {@link Token} offsets into the last range in the ranges stack. If the token is null or there
+     * is no range available into the stack, the method will have no effect.
      *
-     * @return the popped {@link Range} object.
+     * @param token
+     *         the token to append it's offsets.
+     */
+    protected void appendRange(Token<K> token) {
+        if (depth == 0 || token == null) {
+            return;
+        }
+        include(token.getLineIndex(), token.getStartOffset(), token.getEndOffset());
+    }
+
+    /**
+     * Pops the last pushed range from the stack and appends it into the range before it if there is any.
+     *
+     * @return the {@link Range} object of the popped range, it is empty if nothing was appended to the range.
+     * @throws IllegalStateException
+     *         if the stack is empty.
      */
     protected Range popRange() {
-        var range = ranges.pop();
-        if (!ranges.isEmpty()) {
-            ranges.lastElement().add(range);
+        if (depth == 0) {
+            throw new IllegalStateException("The ranges stack is empty");
+        }
+        depth--;
+        var start = starts[depth];
+        var end = ends[depth];
+        if (start > end) {
+            return new Range();
+        }
+        if (depth > 0) {
+            var top = depth - 1;
+            starts[top] = Math.min(starts[top], start);
+            ends[top] = Math.max(ends[top], end);
+        }
+        return new Range(lineIndex, start, end);
+    }
+
+    /**
+     * Includes the specified offsets into the last range in the ranges stack.
+     *
+     * @param lineIndex
+     *         the line index of the document which the offsets belong to.
+     * @param start
+     *         the start offset to include.
+     * @param end
+     *         the end offset to include.
+     * @throws IllegalArgumentException
+     *         if the offsets belong to another document than the other offsets in the stack.
+     */
+    private void include(LineIndex lineIndex, int start, int end) {
+        if (this.lineIndex != lineIndex) {
+            if (this.lineIndex != null) {
+                throw new IllegalArgumentException("The offsets do not belong to the document");
+            }
+            this.lineIndex = lineIndex;
+        }
+        var top = depth - 1;
+        if (start < starts[top]) {
+            starts[top] = start;
+        }
+        if (end > ends[top]) {
+            ends[top] = end;
         }
-        return range;
     }
 
     /**
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.document;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LineIndexTest {
+
+    @Test
+    void testPosition() {
+        var lineIndex = new LineIndex("ab\r\n\tc\n\nd", 4);
+        assertEquals(4, lineIndex.getLineCount());
+        assertEquals(new LineColumn(1, 1), lineIndex.position(0));
+        assertEquals(new LineColumn(1, 3), lineIndex.position(2));
+        assertEquals(new LineColumn(1, 3), lineIndex.position(3));
+        assertEquals(new LineColumn(2, 1), lineIndex.position(4));
+        assertEquals(new LineColumn(2, 5), lineIndex.position(5));
+        assertEquals(new LineColumn(2, 6), lineIndex.position(6));
+        assertEquals(new LineColumn(3, 1), lineIndex.position(7));
+        assertEquals(new LineColumn(4, 2), lineIndex.position(9));
+        assertEquals(new LineColumn(4, 2), lineIndex.position(100));
+    }
+
+    @Test
+    void testSnapshot() {
+        var source = new StringBuilder("a\tb\ncd");
+        var lineIndex = LineIndex.snapshot(source, 4);
+        source.setLength(0);
+        assertEquals(2, lineIndex.getLineCount());
+        assertEquals(new LineColumn(1, 6), lineIndex.position(3));
+        assertEquals(new LineColumn(2, 3), lineIndex.position(6));
+    }
+
+    @Test
+    void testEmpty() {
+        var lineIndex = new LineIndex("", 4);
+        assertEquals(1, lineIndex.getLineCount());
+        assertEquals(new LineColumn(1, 1), lineIndex.position(0));
+    }
+}
@@ -43,4 +43,20 @@ class RangeTest {
     void testClone() {
         assertEquals(range.clone(), range);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOffsets() {
+        var lineIndex = new LineIndex("abc\ndef", 4);
+        var offsets = new Range();
+        offsets.add(lineIndex, 5, 6);
+        offsets.add(lineIndex, 1, 2);
+        assertSame(lineIndex, offsets.getLineIndex());
+        assertEquals(1, offsets.getStartOffset());
+        assertEquals(6, offsets.getEndOffset());
+        assertEquals(new Range(new LineColumn(1, 2), new LineColumn(2, 3)), offsets);
+        assertEquals(offsets, new Range(lineIndex.range(1, 2), lineIndex.range(5, 6)));
+        offsets.add(new LineColumn(3, 1));
+        assertNull(offsets.getLineIndex());
+        assertEquals(new Range(new LineColumn(1, 2), new LineColumn(3, 1)), offsets);
+    }
+}
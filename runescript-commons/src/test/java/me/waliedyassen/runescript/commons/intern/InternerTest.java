@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.intern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternerTest {
+
+    @Test
+    void testIntern() {
+        var interner = new Interner();
+        var chars = "xx_name_yy".toCharArray();
+        var name = interner.intern(chars, 2, 6);
+        assertEquals("_name_", name);
+        assertSame(name, interner.intern(chars, 2, 6));
+        assertSame(name, interner.intern(new String("_name_")));
+        assertNotSame(name, interner.intern(chars, 2, 5));
+        assertEquals("", interner.intern(chars, 0, 0));
+        assertNull(interner.intern(null));
+        assertEquals(3, interner.size());
+    }
+
+    @Test
+    void testRehash() {
+        var interner = new Interner();
+        var names = new ArrayList<String>();
+        for (var index = 0; index < 5000; index++) {
+            names.add(interner.intern("name_" + index));
+        }
+        assertEquals(5000, interner.size());
+        for (var index = 0; index < 5000; index++) {
+            var chars = ("name_" + index).toCharArray();
+            assertSame(names.get(index), interner.intern(chars, 0, chars.length));
+        }
+    }
+
+    @Test
+    void testConcurrent() throws Exception {
+        var interner = new Interner();
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<String[]>>();
+            for (var thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit((Callable<String[]>) () -> {
+                    var names = new String[2000];
+                    for (var index = 0; index < names.length; index++) {
+                        var chars = ("local" + index).toCharArray();
+                        names[index] = interner.intern(chars, 0, chars.length);
+                    }
+                    return names;
+                }));
+            }
+            var expected = futures.get(0).get();
+            for (var future : futures) {
+                var names = future.get();
+                for (var index = 0; index < names.length; index++) {
+                    assertSame(expected[index], names[index]);
+                }
+            }
+            assertEquals(2000, interner.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
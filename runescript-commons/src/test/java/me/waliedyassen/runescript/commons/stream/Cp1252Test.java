@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Cp1252Test {
+
+    @Test
+    void testRoundTrip() {
+        for (var value = 0; value < 256; value++) {
+            assertEquals((byte) value, Cp1252.encode(Cp1252.decode((byte) value)));
+        }
+    }
+
+    @Test
+    void testMatchesCharset() {
+        var text = "abc \u20ac\u2014\u2019\u0178\u00e9\u00ff";
+        var expected = text.getBytes(Charset.forName("cp1252"));
+        for (var index = 0; index < text.length(); index++) {
+            assertEquals(expected[index], Cp1252.encode(text.charAt(index)));
+            assertEquals(text.charAt(index), Cp1252.decode(expected[index]));
+        }
+    }
+
+    @Test
+    void testUnmappable() {
+        assertEquals(Cp1252.UNMAPPABLE, Cp1252.encode('\u0080'));
+        assertEquals(Cp1252.UNMAPPABLE, Cp1252.encode('\u4e2d'));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.stream;
+
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import org.junit.jupiter.api.Test;
+
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCharStreamTest {
+
+    @Test
+    void testTake() {
+        var buffer = "abcdef";
+        var stream = stream(buffer);
+        for (var ch : buffer.toCharArray()) {
+            assertEquals(ch, stream.take());
+        }
+        assertEquals(CharStream.NULL, stream.take());
+    }
+
+    @Test
+    void testPeek() {
+        var buffer = "abcdef";
+        var stream = stream(buffer);
+        for (var ch : buffer.toCharArray()) {
+            assertEquals(ch, stream.peek());
+            stream.take();
+        }
+        assertEquals(CharStream.NULL, stream.peek());
+    }
+
+    @Test
+    void testLineFeed() {
+        var stream = stream("\r\n\r");
+        assertEquals('\n', stream.take());
+        assertEquals(CharStream.NULL, stream.take());
+    }
+
+    @Test
+    void testMarkReset() {
+        var stream = stream("abcdef");
+        stream.mark();
+        for (int index = 0; index < 3; index++) {
+            stream.take();
+        }
+        assertEquals('d', stream.take());
+        stream.reset();
+        assertEquals('a', stream.take());
+        assertThrows(IllegalStateException.class, stream::reset);
+    }
+
+    @Test
+    void testRollback() {
+        var stream = stream("abcdef\t\r\nabcdef");
+        assertEquals('a', stream.peek());
+        assertEquals(new LineColumn(1, 1), stream.position());
+        for (int index = 0; index < 3; index++) {
+            stream.take();
+        }
+        assertEquals(new LineColumn(1, 4), stream.position());
+        stream.rollback(3);
+        assertEquals(new LineColumn(1, 1), stream.position());
+        assertEquals('a', stream.peek());
+        for (int index = 0; index < 14; index++) {
+            stream.take();
+        }
+        assertEquals(new LineColumn(2, 7), stream.position());
+        stream.rollback(7);
+        assertEquals(new LineColumn(1, 9), stream.position());
+        stream = stream("\r\na\r\n\tb");
+        for (int index = 0; index < 5; index++) {
+            stream.take();
+        }
+        assertEquals(new LineColumn(3, 6), stream.position());
+        stream.rollback(3);
+        assertEquals(new LineColumn(2, 2), stream.position());
+    }
+
+    @Test
+    void testRemaining() {
+        var stream = stream("a");
+        assertTrue(stream.hasRemaining());
+        stream.take();
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    void testPosition() {
+        var stream = stream("abc\n\ta");
+        assertEquals(new LineColumn(1, 1), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(1, 2), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(1, 3), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(1, 4), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 1), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 5), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 6), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 6), stream.position());
+    }
+
+    @Test
+    void testDecode() {
+        var text = "\u20ac\u2019\u0178\u00e9\u00ff";
+        var stream = new MappedCharStream(ByteBuffer.wrap(text.getBytes(Charset.forName("cp1252"))));
+        for (var ch : text.toCharArray()) {
+            assertEquals(ch, stream.take());
+        }
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    void testBufferBounds() {
+        var buffer = ByteBuffer.wrap("xxabcxx".getBytes());
+        buffer.position(2).limit(5);
+        var stream = new MappedCharStream(buffer);
+        assertEquals('a', stream.take());
+        assertEquals('b', stream.take());
+        assertEquals('c', stream.take());
+        assertEquals(CharStream.NULL, stream.take());
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    void testRegion() {
+        var stream = stream("ab\ncd\nef");
+        var region = stream.region(3, 5);
+        assertSame(stream.lineIndex(), region.lineIndex());
+        assertEquals(3, region.offset());
+        assertEquals(new LineColumn(2, 1), region.position());
+        assertEquals('c', region.take());
+        assertEquals('d', region.take());
+        assertEquals(CharStream.NULL, region.take());
+        region.rollback(5);
+        assertEquals(3, region.offset());
+        assertEquals('a', stream.take());
+        assertThrows(IndexOutOfBoundsException.class, () -> stream.region(4, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> stream.region(0, 9));
+    }
+
+    @Test
+    void testOpen(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("test.rs2");
+        Files.write(path, "ab\r\nc".getBytes());
+        var stream = MappedCharStream.open(path);
+        assertEquals('a', stream.take());
+        assertEquals('b', stream.take());
+        assertEquals('\n', stream.take());
+        assertEquals('c', stream.take());
+        assertEquals(new LineColumn(2, 2), stream.position());
+        assertEquals(0, MappedCharStream.map(Files.write(directory.resolve("empty.rs2"), new byte[0])).remaining());
+    }
+
+    @Test
+    void testTruncatedAfterIndex(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("test.rs2");
+        Files.write(path, "ab\r\n\tc\nd".getBytes());
+        var stream = MappedCharStream.open(path);
+        var lineIndex = stream.lineIndex();
+        Files.write(path, new byte[0]);
+        assertEquals(new LineColumn(2, 5), lineIndex.position(5));
+        assertEquals(new LineColumn(3, 2), lineIndex.position(8));
+        assertEquals(3, lineIndex.getLineCount());
+    }
+
+    private static MappedCharStream stream(String text) {
+        return new MappedCharStream(ByteBuffer.wrap(text.getBytes()));
+    }
+}
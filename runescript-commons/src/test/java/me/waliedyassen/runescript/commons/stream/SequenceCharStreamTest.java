@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.commons.stream;
+
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceCharStreamTest {
+
+    @Test
+    void testTake() {
+        var buffer = "abcdef";
+        var stream = stream(buffer);
+        for (var ch : buffer.toCharArray()) {
+            assertEquals(ch, stream.take());
+        }
+        assertEquals(CharStream.NULL, stream.take());
+    }
+
+    @Test
+    void testPeek() {
+        var buffer = "abcdef";
+        var stream = stream(buffer);
+        for (var ch : buffer.toCharArray()) {
+            assertEquals(ch, stream.peek());
+            stream.take();
+        }
+        assertEquals(CharStream.NULL, stream.peek());
+    }
+
+    @Test
+    void testLineFeed() {
+        var stream = stream("\r\n\r");
+        assertEquals('\n', stream.take());
+        assertEquals(CharStream.NULL, stream.take());
+    }
+
+    @Test
+    void testMarkReset() {
+        var stream = stream("abcdef");
+        stream.mark();
+        for (int index = 0; index < 3; index++) {
+            stream.take();
+        }
+        assertEquals('d', stream.take());
+        stream.reset();
+        assertEquals('a', stream.take());
+        assertThrows(IllegalStateException.class, stream::reset);
+    }
+
+    @Test
+    void testRollback() {
+        var stream = stream("abcdef\t\r\nabcdef");
+        assertEquals('a', stream.peek());
+        assertEquals(new LineColumn(1, 1), stream.position());
+        for (int index = 0; index < 3; index++) {
+            stream.take();
+        }
+        assertEquals(new LineColumn(1, 4), stream.position());
+        stream.rollback(3);
+        assertEquals(new LineColumn(1, 1), stream.position());
+        assertEquals('a', stream.peek());
+        for (int index = 0; index < 14; index++) {
+            stream.take();
+        }
+        assertEquals(new LineColumn(2, 7), stream.position());
+        stream.rollback(7);
+        assertEquals(new LineColumn(1, 9), stream.position());
+        stream = stream("\r\na\r\n\tb");
+        for (int index = 0; index < 5; index++) {
+            stream.take();
+        }
+        assertEquals(new LineColumn(3, 6), stream.position());
+        stream.rollback(3);
+        assertEquals(new LineColumn(2, 2), stream.position());
+    }
+
+    @Test
+    void testRemaining() {
+        var stream = stream("a");
+        assertTrue(stream.hasRemaining());
+        stream.take();
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    void testPosition() {
+        var stream = stream("abc\n\ta");
+        assertEquals(new LineColumn(1, 1), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(1, 2), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(1, 3), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(1, 4), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 1), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 5), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 6), stream.position());
+        stream.take();
+        assertEquals(new LineColumn(2, 6), stream.position());
+    }
+
+    @Test
+    void testSequence() {
+        var chars = "x\u20ac\u4e2dy".toCharArray();
+        var stream = new SequenceCharStream(CharBuffer.wrap(chars, 1, 2));
+        assertEquals('\u20ac', stream.take());
+        assertEquals('\u4e2d', stream.take());
+        assertEquals(CharStream.NULL, stream.take());
+        assertEquals(2, stream.offset());
+    }
+
+    private static SequenceCharStream stream(String text) {
+        return new SequenceCharStream(text);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.lexer;
+
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.LineIndex;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.RetentionPolicy;
+
+import static java.lang.annotation.RetentionPolicy.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBufferTest {
+
+    @Test
+    void testAdd() {
+        var lineIndex = new LineIndex("a b\nc", 4);
+        var buffer = new TokenBuffer<>(RetentionPolicy.class, 1);
+        buffer.add(SOURCE, lineIndex, 0, 1, "a");
+        buffer.add(CLASS, lineIndex, 2, 3, "b");
+        buffer.add(RUNTIME, lineIndex, 4, 5, "c");
+        assertEquals(3, buffer.size());
+        assertSame(lineIndex, buffer.getLineIndex());
+        assertEquals(CLASS, buffer.getKind(1));
+        assertEquals(2, buffer.getStartOffset(1));
+        assertEquals(3, buffer.getEndOffset(1));
+        assertEquals("b", buffer.getLexeme(1));
+        var token = buffer.getToken(2);
+        assertEquals(RUNTIME, token.getKind());
+        assertEquals("c", token.getLexeme());
+        assertEquals(new LineColumn(2, 1), token.getRange().getStart());
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getKind(3));
+    }
+
+    @Test
+    void testRemove() {
+        var buffer = new TokenBuffer<>(RetentionPolicy.class);
+        for (var index = 0; index < 5; index++) {
+            buffer.add(SOURCE, null, index, index + 1, String.valueOf(index));
+        }
+        buffer.removeLast();
+        assertEquals(4, buffer.size());
+        buffer.discard(3);
+        assertEquals(1, buffer.size());
+        assertEquals("3", buffer.getLexeme(0));
+        assertEquals(3, buffer.getStartOffset(0));
+        buffer.discard(1);
+        assertEquals(0, buffer.size());
+        assertThrows(IllegalStateException.class, buffer::removeLast);
+    }
+
+    @Test
+    void testTrim() {
+        var buffer = new TokenBuffer<>(RetentionPolicy.class);
+        buffer.trim();
+        for (var index = 0; index < 3; index++) {
+            buffer.add(SOURCE, null, index, index + 1, String.valueOf(index));
+        }
+        buffer.trim();
+        assertEquals(3, buffer.size());
+        assertEquals("2", buffer.getLexeme(2));
+        buffer.add(CLASS, null, 3, 4, "3");
+        assertEquals(4, buffer.size());
+        assertEquals(CLASS, buffer.getKind(3));
+        assertEquals("0", buffer.getLexeme(0));
+    }
+}
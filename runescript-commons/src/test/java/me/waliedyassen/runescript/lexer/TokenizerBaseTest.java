@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerBaseTest {
+
+    @Test
+    void testClasses() {
+        for (var ch = (char) 0; ch < 256; ch++) {
+            assertEquals(Character.isWhitespace(ch), TokenizerBase.isWhitespace(ch));
+            assertEquals(ch >= '0' && ch <= '9', TokenizerBase.isDigit(ch));
+        }
+        assertTrue(TokenizerBase.isIdentifierStart('_'));
+        assertTrue(TokenizerBase.isIdentifierStart('z'));
+        assertFalse(TokenizerBase.isIdentifierStart('5'));
+        assertTrue(TokenizerBase.isIdentifierPart('5'));
+        assertFalse(TokenizerBase.isIdentifierPart('$'));
+        assertFalse(TokenizerBase.isIdentifierPart('\u00e9'));
+        assertFalse(TokenizerBase.isWhitespace('\u2028'));
+        assertFalse(TokenizerBase.isDigit('\u0661'));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.lexer.table;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexicalTableTest {
+
+    LexicalTable<String> table;
+
+    @BeforeEach
+    void setupTable() {
+        table = new LexicalTable<>();
+        table.registerKeyword("if", "IF");
+        table.registerKeyword("int", "TYPE");
+        table.registerKeyword("intarray", "ARRAY_TYPE");
+        table.registerSeparator('(', "LPAREN");
+        table.registerSeparator('\u00a3', "POUND");
+        table.registerOperator("<", "LT");
+        table.registerOperator("<=", "LE");
+        table.registerOperator("!=", "NE");
+    }
+
+    @Test
+    void testKeywords() {
+        var chars = "xintarrayx".toCharArray();
+        assertEquals("TYPE", table.lookupKeyword(chars, 1, 3));
+        assertEquals("ARRAY_TYPE", table.lookupKeyword(chars, 1, 8));
+        assertNull(table.lookupKeyword(chars, 1, 4));
+        assertNull(table.lookupKeyword(chars, 0, 3));
+        assertNull(table.lookupKeyword(chars, 1, 0));
+        assertEquals("IF", table.getKeywordTrie().lookup("if"));
+    }
+
+    @Test
+    void testSeparators() {
+        assertEquals("LPAREN", table.lookupSeparator('('));
+        assertEquals("POUND", table.lookupSeparator('\u00a3'));
+        assertTrue(table.isSeparator('('));
+        assertFalse(table.isSeparator(')'));
+    }
+
+    @Test
+    void testOperators() {
+        var operators = table.getOperatorTrie();
+        assertTrue(table.isOperatorStart('<'));
+        assertTrue(table.isOperatorStart('!'));
+        assertFalse(table.isOperatorStart('='));
+        assertFalse(table.isOperatorStart('n'));
+        var node = operators.next(CharTrie.ROOT, '<');
+        assertEquals("LT", operators.value(node));
+        node = operators.next(node, '=');
+        assertEquals("LE", operators.value(node));
+        assertEquals("<=", operators.word(node));
+        assertEquals(-1, operators.next(node, '='));
+        node = operators.next(CharTrie.ROOT, '!');
+        assertNull(operators.value(node));
+        assertNull(operators.word(node));
+    }
+
+    @Test
+    void testDenseTransitions() {
+        var words = new TreeMap<String, String>();
+        for (var word : new String[]{"a", "b", "c", "d", "e", "\u00e9"}) {
+            words.put(word, word.toUpperCase());
+        }
+        var trie = new CharTrie<>(words);
+        assertEquals("C", trie.value(trie.next(CharTrie.ROOT, 'c')));
+        assertEquals("\u00c9", trie.value(trie.next(CharTrie.ROOT, '\u00e9')));
+        assertEquals(-1, trie.next(CharTrie.ROOT, 'f'));
+        assertEquals(-1, trie.next(CharTrie.ROOT, '\u00ff'));
+    }
+
+    @Test
+    void testFreeze() {
+        assertFalse(table.isFrozen());
+        table.freeze();
+        assertTrue(table.isFrozen());
+        assertThrows(IllegalStateException.class, () -> table.registerKeyword("else", "ELSE"));
+        assertThrows(IllegalStateException.class, () -> table.registerSeparator(')', "RPAREN"));
+        assertThrows(IllegalStateException.class, () -> table.registerOperator(">", "GT"));
+    }
+}
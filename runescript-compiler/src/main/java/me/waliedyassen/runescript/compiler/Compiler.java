@@ -7,8 +7,19 @@
  */
 package me.waliedyassen.runescript.compiler;
 
-import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import me.waliedyassen.runescript.CompilerError;
+import me.waliedyassen.runescript.commons.stream.CharStream;
+import me.waliedyassen.runescript.commons.stream.MappedCharStream;
+import me.waliedyassen.runescript.commons.stream.SequenceCharStream;
+import me.waliedyassen.runescript.compiler.ast.AstParameter;
 import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.cache.BuildCache;
+import me.waliedyassen.runescript.compiler.cache.CachedFile;
+import me.waliedyassen.runescript.compiler.cache.CachedScript;
 import me.waliedyassen.runescript.compiler.codegen.CodeGenerator;
 import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
 import me.waliedyassen.runescript.compiler.codegen.optimizer.Optimizer;
@@ -18,27 +29,45 @@ import me.waliedyassen.runescript.compiler.codegen.optimizer.impl.NaturalFlowOpt
 import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeCodeWriter;
 import me.waliedyassen.runescript.compiler.codegen.writer.bytecode.BytecodeScript;
 import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.jfr.*;
 import me.waliedyassen.runescript.compiler.lexer.Lexer;
+import me.waliedyassen.runescript.compiler.lexer.ScriptSplitter;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
+import me.waliedyassen.runescript.compiler.listener.CompilationListener;
+import me.waliedyassen.runescript.compiler.listener.CompilationPhase;
+import me.waliedyassen.runescript.compiler.listener.CompilationProfiler;
+import me.waliedyassen.runescript.compiler.output.DirectoryScriptSink;
+import me.waliedyassen.runescript.compiler.output.ScriptSink;
 import me.waliedyassen.runescript.compiler.parser.ScriptParser;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyGraph;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.Annotation;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
 import me.waliedyassen.runescript.compiler.util.Operator;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
 import me.waliedyassen.runescript.lexer.table.LexicalTable;
 import me.waliedyassen.runescript.type.PrimitiveType;
 import me.waliedyassen.runescript.type.StackType;
+import me.waliedyassen.runescript.type.Type;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Represents the main class for the RuneScript language compiler module.
@@ -50,17 +79,18 @@ public final class Compiler {
     /**
      * The source file extension.
      */
-    private static final String SOURCE_EXTENSION = ".rs2";
+    public static final String SOURCE_EXTENSION = ".rs2";
 
     /**
-     * The output file extension.
+     * The minimum size in bytes of each region which a source file is split into when parsing in parallel.
      */
-    private static final String OUTPUT_EXTENSION = ".cs2";
+    private static final int SPLIT_SIZE = 64 * 1024;
 
     /**
-     * The charset of the source files.
+     * How long in milliseconds before the start of a build a source file must have been modified for the next build to
+     * trust its modification time, this covers the file systems which store it in two second units.
      */
-    private static final Charset CHARSET = Charset.forName("cp1252");
+    private static final long MODIFICATION_WINDOW = 2000;
 
     /**
      * The lexical table for our lexical analysis, it contains vario
@@ -68,7 +98,7 @@ public final class Compiler {
     private final LexicalTable<Kind> lexicalTable;
 
     /**
-     * The symbol table of the compiler.
+     * The symbol table of the compiler, its interner is shared with the tokenizers.
      */
     private final SymbolTable symbolTable = new SymbolTable();
 
@@ -97,6 +127,40 @@ public final class Compiler {
      */
     private final BytecodeCodeWriter codeWriter = new BytecodeCodeWriter();
 
+    /**
+     * The profiler which reports the compilation phases to the registered listeners.
+     */
+    private final CompilationProfiler profiler = new CompilationProfiler();
+
+    /**
+     * The dependency graph of the scripts that were compiled by the last compilation.
+     */
+    @Getter
+    private DependencyGraph dependencyGraph = new DependencyGraph();
+
+    /**
+     * The amount of worker threads to use when compiling a directory, a value of {@code 1} means everything is done on
+     * the calling thread.
+     */
+    @Getter
+    private final int parallelism;
+
+    /**
+     * The maximum amount of source files which can be generated but not written yet when compiling a directory, this
+     * bounds the amount of bytecode which is kept in memory while waiting to be written.
+     */
+    @Getter
+    private final int maxInFlight;
+
+    /**
+     * Whether or not the syntax trees of each source file are kept in an {@link AstArena} from when the file is type
+     * checked until it is generated when compiling a directory, which takes a fraction of the memory of the syntax
+     * trees at the cost of creating the syntax tree of each script again before it is generated.
+     */
+    @Getter
+    @Setter
+    private boolean compactTrees;
+
     /**
      * Constructs a new {@link Compiler} type object instance.
      *
@@ -106,23 +170,70 @@ public final class Compiler {
      *         the instruction map to use for this compiler.
      */
     public Compiler(CompilerEnvironment environment, InstructionMap instructionMap) {
+        this(environment, instructionMap, 1);
+    }
+
+    /**
+     * Constructs a new {@link Compiler} type object instance.
+     *
+     * @param environment
+     *         the environment of the compiler.
+     * @param instructionMap
+     *         the instruction map to use for this compiler.
+     * @param parallelism
+     *         the amount of worker threads to use when compiling a directory.
+     */
+    public Compiler(CompilerEnvironment environment, InstructionMap instructionMap, int parallelism) {
+        this(environment, instructionMap, parallelism, parallelism * 2);
+    }
+
+    /**
+     * Constructs a new {@link Compiler} type object instance.
+     *
+     * @param environment
+     *         the environment of the compiler.
+     * @param instructionMap
+     *         the instruction map to use for this compiler.
+     * @param parallelism
+     *         the amount of worker threads to use when compiling a directory.
+     * @param maxInFlight
+     *         the maximum amount of source files which can be generated but not written yet when compiling a
+     *         directory.
+     */
+    public Compiler(CompilerEnvironment environment, InstructionMap instructionMap, int parallelism, int maxInFlight) {
         if (!instructionMap.isReady()) {
             throw new IllegalArgumentException("The provided InstructionMap is not ready, please register all of core opcodes before using it.");
         }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism level must be at least one");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("The maximum in-flight files must be at least one");
+        }
         this.environment = environment;
         this.instructionMap = instructionMap;
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
         lexicalTable = createLexicalTable();
         codeGenerator = new CodeGenerator(symbolTable, instructionMap);
-        optimizer = new Optimizer(instructionMap);
-        optimizer.register(new NaturalFlowOptimization());
-        optimizer.register(new DeadBranchOptimization());
-        optimizer.register(new DeadBlockOptimization());
+        optimizer = createOptimizer();
     }
 
     /**
      * Compiles all of the scripts (the files that ends with .rs2) that are in the specified source directory and
      * outputs the compiled scripts into the output directory. This method will also compile all of the scripts in the
      * sub-directories.
+     * <p>
+     * When the compiler {@link #parallelism} is greater than one, the reading, parsing, type checking, code generation
+     * and writing of each file are spread across the worker threads, only the symbols definition pass is done on the
+     * calling thread. The large files are split at their script headers and each region is parsed on its own, so a
+     * single large file does not bound the parsing time. The output is the same regardless of how many worker threads
+     * are used.
+     * <p>
+     * Only the headers of the scripts are parsed in the {@link CompilationPhase#PARSE parsing phase}, the code of the
+     * scripts of each file is parsed right before the file is type checked, in the {@link CompilationPhase#PARSE_BODY}
+     * phase. A syntax error within the code of a script is therefore thrown after the signatures of all the scripts
+     * were declared rather than while the source files are parsed.
      *
      * @param sourceDirectory
      *         the source directory which contains all of the scripts
@@ -130,42 +241,687 @@ public final class Compiler {
      *         the output directory to output the compiled script to.
      */
     public void compileDirectory(Path sourceDirectory, Path outputDirectory) throws IOException, CompilerErrors {
-        // Collect all of the script files that we will compile.
-        var sourceFiles = collectSourceFiles(sourceDirectory);
+        compileDirectory(sourceDirectory, outputDirectory, (BuildCache) null);
+    }
+
+    /**
+     * Compiles all of the scripts (the files that ends with .rs2) that are in the specified source directory and
+     * outputs the compiled scripts into the output directory, see {@link #compileDirectory(Path, Path)}.
+     * <p>
+     * When a cache directory is specified, the source files that did not change since the last successful build are
+     * not parsed, checked or generated again, the signatures of their scripts are taken from the {@link BuildCache}
+     * instead. An unchanged source file is only compiled again if it calls a script which its signature has changed, in
+     * which case its syntax trees are loaded from the {@link me.waliedyassen.runescript.compiler.cache.SyntaxTreeCache}
+     * of the build cache rather than parsed again.
+     *
+     * @param sourceDirectory
+     *         the source directory which contains all of the scripts
+     * @param outputDirectory
+     *         the output directory to output the compiled script to.
+     * @param cacheDirectory
+     *         the directory to store the build cache in, or {@code null} to compile without a cache.
+     */
+    public void compileDirectory(Path sourceDirectory, Path outputDirectory, Path cacheDirectory) throws IOException, CompilerErrors {
+        compileDirectory(sourceDirectory, outputDirectory, cacheDirectory != null ? openCache(cacheDirectory) : null);
+    }
+
+    /**
+     * Compiles all of the scripts (the files that ends with .rs2) that are in the specified source directory and
+     * outputs the compiled scripts into the output directory, see {@link #compileDirectory(Path, Path, Path)}.
+     * <p>
+     * The specified {@link BuildCache} is only modified if the compilation succeeds, which allows the same cache object
+     * to be kept in memory and used for many compilations.
+     *
+     * @param sourceDirectory
+     *         the source directory which contains all of the scripts
+     * @param outputDirectory
+     *         the output directory to output the compiled script to.
+     * @param cache
+     *         the build cache to use, it must be opened using {@link #openCache(Path)}, or {@code null} to compile
+     *         without a cache.
+     */
+    public void compileDirectory(Path sourceDirectory, Path outputDirectory, BuildCache cache) throws IOException, CompilerErrors {
+        try (var sink = new DirectoryScriptSink(outputDirectory)) {
+            compileDirectory(sourceDirectory, sink, cache);
+        }
+    }
+
+    /**
+     * Compiles all of the scripts (the files that ends with .rs2) that are in the specified source directory and
+     * outputs the compiled scripts into the output directory {@link DirectoryScriptSink#isIncremental() incrementally},
+     * see {@link #compileDirectory(Path, Path, BuildCache)}.
+     * <p>
+     * An output file is only written if its content has changed, and the names of the scripts which their output file
+     * was written are returned so the steps that consume the output directory can be incremental as well. When there is
+     * a cache, the hashes of the output files are kept next to it so the unchanged output files are not read back.
+     *
+     * @param sourceDirectory
+     *         the source directory which contains all of the scripts
+     * @param outputDirectory
+     *         the output directory to output the compiled script to.
+     * @param cache
+     *         the build cache to use, it must be opened using {@link #openCache(Path)}, or {@code null} to compile
+     *         without a cache.
+     *
+     * @return a {@link Set} of the names of the scripts which their output file was written.
+     */
+    public Set<String> compileDirectoryIncrementally(Path sourceDirectory, Path outputDirectory, BuildCache cache) throws IOException, CompilerErrors {
+        try (var sink = cache != null ? new DirectoryScriptSink(outputDirectory, cache.getDirectory().resolve(DirectoryScriptSink.MANIFEST_NAME)) : new DirectoryScriptSink(outputDirectory, true)) {
+            compileDirectory(sourceDirectory, sink, cache);
+            return sink.getChangedScripts();
+        }
+    }
+
+    /**
+     * Compiles all of the scripts (the files that ends with .rs2) that are in the specified source directory and hands
+     * the compiled scripts to the specified {@link ScriptSink sink}, see {@link #compileDirectory(Path, Path, Path)}.
+     * <p>
+     * Each script is handed to the sink as soon as it is generated, and the sink is never used if there is any error in
+     * the source files. The sink is {@link ScriptSink#finish() finished} once all of the scripts were written
+     * successfully, but it is not closed by this method.
+     *
+     * @param sourceDirectory
+     *         the source directory which contains all of the scripts
+     * @param sink
+     *         the sink to write the compiled scripts to.
+     * @param cache
+     *         the build cache to use, it must be opened using {@link #openCache(Path)}, or {@code null} to compile
+     *         without a cache.
+     */
+    public void compileDirectory(Path sourceDirectory, ScriptSink sink, BuildCache cache) throws IOException, CompilerErrors {
+        var executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        try {
+            compileDirectory(sourceDirectory, collectSourceFiles(sourceDirectory), null, sink, cache, executor);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Compiles the specified script source files of the specified source directory and hands the compiled scripts to
+     * the specified {@link ScriptSink sink}, see {@link #compileDirectory(Path, ScriptSink, BuildCache)}. This allows a
+     * caller which keeps track of the source files, such as a long running daemon, to compile without scanning the
+     * source directory and reading the unchanged source files again.
+     * <p>
+     * When the changed source files are specified, the source files which are not within them and have a cached file
+     * in the build cache are trusted to be unchanged without being looked at, otherwise the size and the modification
+     * time of each source file are checked against its cached file.
+     *
+     * @param sourceDirectory
+     *         the source directory which contains all of the scripts.
+     * @param sourceFiles
+     *         all of the script source files which are within the source directory.
+     * @param changedFiles
+     *         the source files which may have changed since the last compilation that updated the build cache, or
+     *         {@code null} if they are not known.
+     * @param sink
+     *         the sink to write the compiled scripts to.
+     * @param cache
+     *         the build cache to use, it must be opened using {@link #openCache(Path)}, or {@code null} to compile
+     *         without a cache.
+     * @param executor
+     *         the executor to run the compilation tasks in, or {@code null} to run them on the calling thread, the
+     *         executor is not shut down by this method.
+     */
+    public void compileDirectory(Path sourceDirectory, List<Path> sourceFiles, Set<Path> changedFiles, ScriptSink sink, BuildCache cache, ExecutorService executor) throws IOException, CompilerErrors {
         // Do nothing if we have no files to compile.
         if (sourceFiles.size() < 1) {
+            sink.finish();
             return;
         }
-        // Parse all of the script files.
+        var paths = sourceFiles.stream().map(sourceFile -> sourceDirectory.relativize(sourceFile).toString()).collect(Collectors.toList());
+        // The source directory holds the full set of scripts, drop any script that was defined by a previous compilation.
+        symbolTable.undefineScripts();
+        // Look-up the cached files of the scripts files that did not change since the last build, a script file which
+        // its size and modification time are the same as the cached ones is not read at all, and a script file which is
+        // known not to have changed is not even looked at.
+        var start = System.currentTimeMillis();
+        var attributes = new ArrayList<BasicFileAttributes>(Collections.nCopies(sourceFiles.size(), null));
+        var cached = new CachedFile[sourceFiles.size()];
+        var hashes = new ArrayList<byte[]>(Collections.nCopies(sourceFiles.size(), null));
+        if (cache != null) {
+            var checking = new ArrayList<Integer>();
+            for (var index = 0; index < cached.length; index++) {
+                var file = cache.lookup(paths.get(index));
+                if (file != null && changedFiles != null && !changedFiles.contains(sourceFiles.get(index))) {
+                    cached[index] = file;
+                    hashes.set(index, file.getHash());
+                } else {
+                    checking.add(index);
+                }
+            }
+            var checked = execute(executor, checking, index -> Files.readAttributes(sourceFiles.get(index), BasicFileAttributes.class));
+            for (var position = 0; position < checking.size(); position++) {
+                var index = checking.get(position);
+                var attribute = checked.get(position);
+                attributes.set(index, attribute);
+                var file = cache.lookup(paths.get(index));
+                if (file != null && file.isUnchanged(attribute.size(), attribute.lastModifiedTime().toMillis())) {
+                    cached[index] = file;
+                    hashes.set(index, file.getHash());
+                }
+            }
+        }
+        // Read the rest of the script files, the results are kept in the same order as the source files.
+        List<ByteBuffer> sources = new ArrayList<>(Collections.nCopies(sourceFiles.size(), null));
+        var reading = readSources(executor, sourceFiles, paths, IntStream.range(0, cached.length).filter(index -> cached[index] == null), sources);
+        // Look-up the cached files of the read script files which their content did not change since the last build.
+        if (cache != null) {
+            var finalSources = sources;
+            var computed = execute(executor, reading, index -> BuildCache.hash(finalSources.get(index)));
+            for (var position = 0; position < reading.size(); position++) {
+                var index = reading.get(position);
+                hashes.set(index, computed.get(position));
+                var file = cache.lookup(paths.get(index));
+                if (file != null && Arrays.equals(file.getHash(), computed.get(position))) {
+                    cached[index] = file;
+                }
+            }
+        }
+        // Parse all of the script files that are not cached.
+        var files = new ArrayList<List<AstScript>>(Collections.nCopies(sourceFiles.size(), null));
+        parseFiles(executor, paths, sources, cached, files);
+        // Load or parse the cached files that depend on any script that its signature has changed.
+        if (cache != null) {
+            var removed = cache.collectRemoved(paths).values();
+            var dependents = cache.collectDependents(collectChangedSignatures(cache, removed, paths, cached, files));
+            var loading = new ArrayList<Integer>();
+            for (var index = 0; index < cached.length; index++) {
+                if (cached[index] != null && dependents.contains(paths.get(index))) {
+                    cached[index] = null;
+                    loading.add(index);
+                }
+            }
+            // The dependent files did not change, so their syntax trees are loaded rather than parsed if we have them.
+            var finalSources = sources;
+            readSources(executor, sourceFiles, paths, loading.stream().mapToInt(Integer::intValue).filter(index -> finalSources.get(index) == null), sources);
+            var loaded = execute(executor, loading, index -> cache.getTrees().load(hashes.get(index), new MappedCharStream(finalSources.get(index)).lineIndex()));
+            for (var position = 0; position < loading.size(); position++) {
+                files.set(loading.get(position), loaded.get(position));
+            }
+            parseFiles(executor, paths, sources, cached, files);
+        }
+        // We no longer need the content of the source files.
+        sources = null;
+        var compiling = new ArrayList<Integer>();
         var scripts = new ArrayList<AstScript>();
-        for (var sourceFile : sourceFiles) {
-            scripts.addAll(parseSyntaxTree(Files.readAllBytes(sourceFile)));
+        for (var index = 0; index < cached.length; index++) {
+            if (cached[index] != null) {
+                cached[index].getScripts().forEach(script -> symbolTable.defineScript(script.getInfo()));
+            } else {
+                compiling.add(index);
+                scripts.addAll(files.get(index));
+            }
         }
-        // Perform pre type checking on all of the files.
+        // Declare the signatures of all the scripts, this has to be done before anything else.
         var checker = new SemanticChecker(environment, symbolTable);
-        checker.executePre(scripts);
-        checker.execute(scripts);
+        runPreTypeChecking(checker, scripts);
+        // Perform the type checking on each file separately, each with its own errors list.
+        var errors = new ArrayList<>(checker.getErrors());
+        var fileCheckers = execute(executor, compiling, index -> {
+            var fileChecker = new SemanticChecker(environment, symbolTable);
+            runTypeChecking(fileChecker, files.get(index), paths.get(index));
+            if (compactTrees && fileChecker.getErrors().isEmpty()) {
+                files.set(index, AstArena.encode(files.get(index)).asList());
+            }
+            return fileChecker;
+        });
+        fileCheckers.forEach(fileChecker -> errors.addAll(fileChecker.getErrors()));
         // Check if we have any errors and if so we do not compile.
-        if (checker.getErrors().size() > 0) {
-            throw new CompilerErrors(checker.getErrors());
+        if (errors.size() > 0) {
+            throw new CompilerErrors(errors);
         }
-        // Compile all of the scripts and store them in a list.
-        var result = new ArrayList<CompiledScript>();
-        for (var script : scripts) {
-            // Run the code generator on the script.
-            var generated = codeGenerator.visit(script);
-            // Optimize the generated script.
-            optimizer.run(generated);
-            // Write the generated script to a bytecode format.
-            BytecodeScript bytecode = codeWriter.write(generated);
-            try (var stream = new ByteArrayOutputStream()) {
-                bytecode.write(stream);
-                result.add(new CompiledScript(generated.getName(), stream.toByteArray()));
+        // Merge the dependency graphs of all the files in the same order as the source files.
+        var graph = new DependencyGraph();
+        var checked = fileCheckers.iterator();
+        for (var file : cached) {
+            graph.merge(file != null ? file.getDependencyGraph() : checked.next().getDependencyGraph());
+        }
+        dependencyGraph = graph;
+        // Store the syntax trees of the checked files before they are released by the code generation.
+        if (cache != null) {
+            execute(executor, compiling, index -> {
+                cache.getTrees().store(hashes.get(index), files.get(index));
+                return null;
+            });
+        }
+        // Generate all of the scripts and hand them to the sink as soon as they are generated.
+        var generated = writeFiles(executor, files, cached, sink, cache != null);
+        sink.finish();
+        if (cache == null) {
+            return;
+        }
+        // Store the compiled files in the cache for the next build.
+        cache.retain(paths);
+        for (var position = 0; position < compiling.size(); position++) {
+            var index = compiling.get(position);
+            var attribute = attributes.get(index);
+            // a dependent file which was trusted without being looked at keeps the size and the modification time it had.
+            var previous = attribute == null ? cache.lookup(paths.get(index)) : null;
+            var size = attribute != null ? attribute.size() : previous.getSize();
+            var stamp = attribute != null ? createStamp(attribute, start) : previous.getLastModified();
+            cache.update(paths.get(index), new CachedFile(hashes.get(index), size, stamp, generated.get(position), fileCheckers.get(position).getDependencyGraph()));
+        }
+        // Remember the size and the modification time of the unchanged files which had to be read to be checked.
+        for (var index = 0; index < cached.length; index++) {
+            var file = cached[index];
+            var attribute = attributes.get(index);
+            if (file == null || attribute == null) {
+                continue;
+            }
+            var stamp = createStamp(attribute, start);
+            if (file.getSize() != attribute.size() || file.getLastModified() != stamp) {
+                cache.update(paths.get(index), file.withStamp(attribute.size(), stamp));
+            }
+        }
+        cache.save();
+    }
+
+    /**
+     * Maps the source files with the specified indices into the memory, the mapped sources are stored at the same
+     * indices within the specified {@code sources} list.
+     *
+     * @param executor
+     *         the executor to map the source files in, or {@code null} to map them on the calling thread.
+     * @param sourceFiles
+     *         the source files to map.
+     * @param paths
+     *         the path of each source file relative to the source directory.
+     * @param indices
+     *         the indices of the source files to map.
+     * @param sources
+     *         the list to store the mapped sources in.
+     *
+     * @return a {@link List} of the indices of the source files that were mapped.
+     * @throws IOException
+     *         if anything occurs while mapping the source files.
+     */
+    private List<Integer> readSources(ExecutorService executor, List<Path> sourceFiles, List<String> paths, IntStream indices, List<ByteBuffer> sources) throws IOException {
+        var reading = indices.boxed().collect(Collectors.toList());
+        var read = execute(executor, reading, index -> {
+            var timer = profiler.start(CompilationPhase.READ, paths.get(index));
+            var source = MappedCharStream.map(sourceFiles.get(index));
+            CompilationProfiler.finish(timer, source.remaining());
+            return source;
+        });
+        for (var position = 0; position < reading.size(); position++) {
+            sources.set(reading.get(position), read.get(position));
+        }
+        return reading;
+    }
+
+    /**
+     * Creates the modification time of a source file to store in the build cache. A source file which was modified too
+     * close to the start of the build can be modified again without changing either its size or its modification
+     * time, so its modification time is not stored and it is hashed again on the next build.
+     *
+     * @param attributes
+     *         the attributes of the source file.
+     * @param start
+     *         the time in milliseconds which the build has started at.
+     *
+     * @return the modification time in milliseconds, or {@link CachedFile#UNKNOWN_TIME} if it cannot be trusted.
+     */
+    private static long createStamp(BasicFileAttributes attributes, long start) {
+        var lastModified = attributes.lastModifiedTime().toMillis();
+        return lastModified < start - MODIFICATION_WINDOW ? lastModified : CachedFile.UNKNOWN_TIME;
+    }
+
+    /**
+     * Generates the scripts of all the source files that are not cached and writes them to the specified {@link
+     * ScriptSink sink}, the scripts of the cached source files are written as unchanged scripts. The scripts are
+     * written in the same order as the source files.
+     * <p>
+     * At most {@link #maxInFlight} source files are generated ahead of the one which is being written, the syntax tree
+     * of each source file is released as soon as it is handed to the generator, and the bytecode is released as soon
+     * as it is written unless it has to be kept for the build cache.
+     *
+     * @param executor
+     *         the executor to generate the scripts in, or {@code null} to generate them on the calling thread.
+     * @param files
+     *         the parsed scripts of each source file.
+     * @param cached
+     *         the cached file of each source file, or {@code null} if the source file is not cached.
+     * @param sink
+     *         the sink to write the scripts to.
+     * @param keep
+     *         whether or not to keep the generated scripts for the build cache.
+     *
+     * @return the generated scripts of each source file that is not cached, or {@code null} if {@code keep} is {@code
+     *         false}.
+     * @throws IOException
+     *         if anything occurs while generating or writing the scripts.
+     */
+    private List<List<CachedScript>> writeFiles(ExecutorService executor, List<List<AstScript>> files, CachedFile[] cached, ScriptSink sink, boolean keep) throws IOException {
+        var generators = ThreadLocal.withInitial(() -> new CodeGenerator(symbolTable, instructionMap));
+        var optimizers = ThreadLocal.withInitial(this::createOptimizer);
+        Task<List<AstScript>, List<CompiledScript>> task = scripts -> {
+            var result = new ArrayList<CompiledScript>(scripts.size());
+            for (var script : scripts) {
+                result.add(generate(script, generators.get(), optimizers.get()));
+            }
+            return result;
+        };
+        var generated = keep ? new ArrayList<List<CachedScript>>() : null;
+        var window = new ArrayDeque<Future<List<CompiledScript>>>();
+        var infos = new ArrayDeque<List<ScriptInfo>>();
+        var submitted = 0;
+        try {
+            for (var index = 0; index < cached.length; index++) {
+                if (cached[index] != null) {
+                    for (var script : cached[index].getScripts()) {
+                        var info = script.getInfo();
+                        var name = SymbolTable.createScriptKey(info.getTrigger(), info.getName());
+                        var timer = profiler.start(CompilationPhase.OUTPUT, name);
+                        sink.writeUnchanged(new CompiledScript(name, script.getData()));
+                        CompilationProfiler.finish(timer, script.getData().length);
+                    }
+                    continue;
+                }
+                // Fill the window with the source files that come after the one we are writing.
+                for (submitted = Math.max(submitted, index); submitted < cached.length && window.size() < maxInFlight; submitted++) {
+                    if (cached[submitted] != null) {
+                        continue;
+                    }
+                    var scripts = files.set(submitted, null);
+                    infos.add(keep ? scripts.stream().map(this::createScriptInfo).collect(Collectors.toList()) : Collections.emptyList());
+                    window.add(executor != null ? executor.submit(() -> task.run(scripts)) : CompletableFuture.completedFuture(task.run(scripts)));
+                }
+                var compiled = await(window.poll());
+                var fileInfos = infos.poll();
+                for (var script : compiled) {
+                    var timer = profiler.start(CompilationPhase.OUTPUT, script.getName());
+                    sink.write(script);
+                    CompilationProfiler.finish(timer, script.getData().length);
+                }
+                if (keep) {
+                    var cachedScripts = new ArrayList<CachedScript>(compiled.size());
+                    for (var script = 0; script < compiled.size(); script++) {
+                        cachedScripts.add(new CachedScript(fileInfos.get(script), compiled.get(script).getData()));
+                    }
+                    generated.add(cachedScripts);
+                }
             }
+        } finally {
+            window.forEach(future -> future.cancel(true));
         }
-        // Loop through each compiled script and write it to the output directory.
-        for (var script : result) {
-            Files.write(outputDirectory.resolve(script.getName() + OUTPUT_EXTENSION), script.getData(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        return generated;
+    }
+
+    /**
+     * Registers the specified {@link CompilationListener listener} to be notified of the compilation phases, the
+     * phases are only measured while there is any listener registered.
+     *
+     * @param listener
+     *         the listener to register.
+     */
+    public void addListener(CompilationListener listener) {
+        profiler.addListener(listener);
+    }
+
+    /**
+     * Unregisters the specified {@link CompilationListener listener}.
+     *
+     * @param listener
+     *         the listener to unregister.
+     */
+    public void removeListener(CompilationListener listener) {
+        profiler.removeListener(listener);
+    }
+
+    /**
+     * Opens the {@link BuildCache} which is stored in the specified directory for use with this compiler, if the cache
+     * was written by a compiler with a different configuration, an empty cache is returned instead.
+     *
+     * @param cacheDirectory
+     *         the directory which the cache is stored in.
+     *
+     * @return the opened {@link BuildCache} object.
+     * @throws IOException
+     *         if anything occurs while reading the cache.
+     */
+    public BuildCache openCache(Path cacheDirectory) throws IOException {
+        return BuildCache.open(cacheDirectory, createFingerprint(), environment);
+    }
+
+    /**
+     * Parses all of the source files that are not cached and were not parsed already.
+     *
+     * @param executor
+     *         the executor to parse the files in, or {@code null} to parse them on the calling thread.
+     * @param paths
+     *         the path of each source file relative to the source directory.
+     * @param sources
+     *         the content of each source file.
+     * @param cached
+     *         the cached file of each source file, or {@code null} if the source file is not cached.
+     * @param files
+     *         the parsed scripts of each source file, the newly parsed files are stored in it.
+     *
+     * @throws IOException
+     *         if anything occurs while parsing the source files.
+     */
+    private void parseFiles(ExecutorService executor, List<String> paths, List<ByteBuffer> sources, CachedFile[] cached, List<List<AstScript>> files) throws IOException {
+        // Split the large files at their script boundaries when parsing in parallel, so a single file does not bound
+        // the time it takes to parse all of the files.
+        var regions = new ArrayList<SourceRegion>();
+        for (var index = 0; index < cached.length; index++) {
+            if (cached[index] != null || files.get(index) != null) {
+                continue;
+            }
+            var stream = new MappedCharStream(sources.get(index));
+            var boundaries = executor != null ? ScriptSplitter.split(sources.get(index), SPLIT_SIZE) : null;
+            if (boundaries == null || boundaries.length <= 2) {
+                regions.add(new SourceRegion(index, stream, false));
+                continue;
+            }
+            for (var boundary = 0; boundary < boundaries.length - 1; boundary++) {
+                regions.add(new SourceRegion(index, stream.region(boundaries[boundary], boundaries[boundary + 1]), true));
+            }
+        }
+        var parsed = execute(executor, regions, region -> {
+            try {
+                return parseSyntaxTree(region.stream, paths.get(region.file));
+            } catch (CompilerError error) {
+                // a region of a split file is parsed again as a part of the whole file.
+                if (!region.split) {
+                    throw error;
+                }
+                return null;
+            }
+        });
+        var failed = new ArrayList<Integer>();
+        for (var position = 0; position < regions.size(); position++) {
+            var file = regions.get(position).file;
+            var scripts = parsed.get(position);
+            if (scripts == null) {
+                if (!failed.contains(file)) {
+                    failed.add(file);
+                }
+            } else if (files.get(file) == null) {
+                files.set(file, scripts);
+            } else {
+                files.get(file).addAll(scripts);
+            }
+        }
+        // Parse the split files which had a syntax error in any of their regions again as a whole, so the errors are
+        // reported the same way they are reported when the file is not split.
+        for (var file : failed) {
+            files.set(file, parseSyntaxTree(new MappedCharStream(sources.get(file)), paths.get(file)));
+        }
+    }
+
+    /**
+     * Collects the look-up keys of all the scripts which their signature has changed since the last build, this
+     * includes the scripts that were added or removed.
+     *
+     * @param cache
+     *         the build cache of the last build.
+     * @param removed
+     *         the cached files of the source files that were removed since the last build.
+     * @param paths
+     *         the path of each source file relative to the source directory.
+     * @param cached
+     *         the cached file of each source file, or {@code null} if the source file has changed.
+     * @param files
+     *         the parsed scripts of each source file.
+     *
+     * @return a {@link Set} of the changed script look-up keys.
+     */
+    private Set<String> collectChangedSignatures(BuildCache cache, Collection<CachedFile> removed, List<String> paths, CachedFile[] cached, List<List<AstScript>> files) {
+        var previous = new HashMap<String, ScriptInfo>();
+        var current = new HashMap<String, ScriptInfo>();
+        for (var index = 0; index < cached.length; index++) {
+            if (cached[index] != null) {
+                continue;
+            }
+            var file = cache.lookup(paths.get(index));
+            if (file != null) {
+                file.getScripts().forEach(script -> previous.put(SymbolTable.createScriptKey(script.getInfo().getTrigger(), script.getInfo().getName()), script.getInfo()));
+            }
+            for (var script : files.get(index)) {
+                var info = createScriptInfo(script);
+                if (info != null) {
+                    current.put(SymbolTable.createScriptKey(info.getTrigger(), info.getName()), info);
+                }
+            }
+        }
+        for (var file : removed) {
+            file.getScripts().forEach(script -> previous.put(SymbolTable.createScriptKey(script.getInfo().getTrigger(), script.getInfo().getName()), script.getInfo()));
+        }
+        var changed = new HashSet<String>();
+        for (var entry : previous.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (var key : current.keySet()) {
+            if (!previous.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Creates the {@link ScriptInfo symbol information} of the specified {@link AstScript script} the same way the pre
+     * type checking defines it.
+     *
+     * @param script
+     *         the script to create the symbol information for.
+     *
+     * @return the created {@link ScriptInfo} object or {@code null} if the script trigger type could not be resolved.
+     */
+    private ScriptInfo createScriptInfo(AstScript script) {
+        var trigger = environment.lookupTrigger(script.getTrigger().getText());
+        if (trigger == null) {
+            return null;
+        }
+        Map<String, Annotation> annotations;
+        if (script.getAnnotations().size() > 0) {
+            annotations = new HashMap<>();
+            for (var annotation : script.getAnnotations()) {
+                var name = annotation.getName().getText().toLowerCase();
+                annotations.putIfAbsent(name, new Annotation(name, annotation.getValue().getValue()));
+            }
+        } else {
+            annotations = Collections.emptyMap();
+        }
+        var arguments = Arrays.stream(script.getParameters()).map(AstParameter::getType).toArray(Type[]::new);
+        return new ScriptInfo(annotations, script.getName().getText(), trigger, script.getType(), arguments);
+    }
+
+    /**
+     * Creates the fingerprint of the compiler configuration, the fingerprint changes whenever anything that can affect
+     * the output of the compiler changes, such as the instruction map or the registered trigger types.
+     *
+     * @return the created fingerprint.
+     */
+    private byte[] createFingerprint() {
+        var builder = new StringBuilder();
+        for (var opcode : instructionMap.getCoreMap().values()) {
+            builder.append(opcode.getOpcode()).append(':').append(opcode.getCode()).append(':').append(opcode.isLarge()).append(';');
+        }
+        environment.getTriggers().stream().sorted(Comparator.comparing(TriggerType::getRepresentation)).forEach(trigger -> {
+            builder.append(trigger.getRepresentation()).append(':').append(trigger.getOperator()).append(':').append(trigger.getOpcode());
+            builder.append(':').append(trigger.hasArguments()).append(':').append(Arrays.toString(trigger.getArgumentTypes()));
+            builder.append(':').append(trigger.hasReturns()).append(':').append(Arrays.toString(trigger.getReturnTypes())).append(';');
+        });
+        return BuildCache.createDigest().digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Runs the specified {@link Task task} for each of the specified inputs using the specified {@link ExecutorService
+     * executor}, or on the calling thread if no executor was specified.
+     *
+     * @param executor
+     *         the executor to run the tasks in, or {@code null} to run them on the calling thread.
+     * @param inputs
+     *         the inputs to run the task for.
+     * @param task
+     *         the task to run for each input.
+     * @param <T>
+     *         the type of the task input.
+     * @param <R>
+     *         the type of the task output.
+     *
+     * @return a {@link List} of the task outputs, in the same order as the inputs.
+     * @throws IOException
+     *         if any of the tasks has thrown an {@link IOException}.
+     */
+    private static <T, R> List<R> execute(ExecutorService executor, List<T> inputs, Task<T, R> task) throws IOException {
+        var outputs = new ArrayList<R>(inputs.size());
+        if (executor == null) {
+            for (var input : inputs) {
+                outputs.add(task.run(input));
+            }
+            return outputs;
+        }
+        var futures = new ArrayList<Future<R>>(inputs.size());
+        for (var input : inputs) {
+            futures.add(executor.submit(() -> task.run(input)));
+        }
+        try {
+            for (var future : futures) {
+                outputs.add(await(future));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return outputs;
+    }
+
+    /**
+     * Waits for the specified {@link Future} to complete and returns its result, rethrowing whatever the task has
+     * thrown.
+     *
+     * @param future
+     *         the future to wait for.
+     * @param <R>
+     *         the type of the future result.
+     *
+     * @return the result of the future.
+     * @throws IOException
+     *         if the task has thrown an {@link IOException} or the calling thread was interrupted.
+     */
+    private static <R> R await(Future<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the compilation tasks");
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
         }
     }
 
@@ -174,12 +930,18 @@ public final class Compiler {
      *
      * @param directory
      *         the directory path to collect from.
+     *
+     * @return a {@link List} of the collected script source files.
+     * @throws IOException
+     *         if anything occurs while walking the directory.
      */
-    private List<Path> collectSourceFiles(Path directory) throws IOException {
+    public static List<Path> collectSourceFiles(Path directory) throws IOException {
         if (!Files.isDirectory(directory)) {
             throw new IllegalArgumentException("The specified source directory does not exist or is not a directory");
         }
-        return Files.walk(directory).filter(sourceFile -> Files.isRegularFile(sourceFile) && sourceFile.toString().endsWith(SOURCE_EXTENSION)).collect(Collectors.toList());
+        try (var stream = Files.walk(directory)) {
+            return stream.filter(sourceFile -> Files.isRegularFile(sourceFile) && sourceFile.toString().endsWith(SOURCE_EXTENSION)).collect(Collectors.toList());
+        }
     }
 
     /**
@@ -196,17 +958,59 @@ public final class Compiler {
      *         if there was any syntax or semantic errors in the given source code file.
      */
     public void compileFile(Path sourceFile, Path outputDirectory) throws IOException, CompilerErrors {
+        try (var sink = new DirectoryScriptSink(outputDirectory)) {
+            compileFile(sourceFile, sink);
+        }
+    }
+
+    /**
+     * Compiles the specified file content and outputs them into the specified directory, the output files are only
+     * written if their content has changed.
+     *
+     * @param sourceFile
+     *         the source file path to compile.
+     * @param outputDirectory
+     *         the output directory path for the compiled file.
+     *
+     * @return a {@link Set} of the names of the scripts which their output file was written.
+     * @throws IOException
+     *         if anything occurs while attempting to read or write the data to the source and output files.
+     * @throws CompilerErrors
+     *         if there was any syntax or semantic errors in the given source code file.
+     */
+    public Set<String> compileFileIncrementally(Path sourceFile, Path outputDirectory) throws IOException, CompilerErrors {
+        try (var sink = new DirectoryScriptSink(outputDirectory, true)) {
+            compileFile(sourceFile, sink);
+            return sink.getChangedScripts();
+        }
+    }
+
+    /**
+     * Compiles the specified file content and writes the compiled scripts into the specified {@link DirectoryScriptSink
+     * sink}, the sink is finished but it is not closed by this method.
+     *
+     * @param sourceFile
+     *         the source file path to compile.
+     * @param sink
+     *         the sink to write the compiled scripts to.
+     *
+     * @throws IOException
+     *         if anything occurs while attempting to read or write the data to the source and output files.
+     * @throws CompilerErrors
+     *         if there was any syntax or semantic errors in the given source code file.
+     */
+    private void compileFile(Path sourceFile, DirectoryScriptSink sink) throws IOException, CompilerErrors {
         if (!Files.isRegularFile(sourceFile)) {
             throw new IllegalArgumentException("The specified source file path does not exist or is not a regular file path.");
         }
-        if (!Files.exists(outputDirectory)) {
-            Files.createDirectories(outputDirectory);
+        if (!Files.exists(sink.getDirectory())) {
+            Files.createDirectories(sink.getDirectory());
         }
-        var source = Files.readAllBytes(sourceFile);
-        var compiled = compile(source);
+        var compiled = compile(new MappedCharStream(MappedCharStream.map(sourceFile)));
         for (var script : compiled) {
-            Files.write(outputDirectory.resolve(script.getName() + ".cs2"), script.getData(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            sink.write(script);
         }
+        sink.finish();
     }
 
     /**
@@ -222,7 +1026,24 @@ public final class Compiler {
      *         if there was any syntax or semantic errors in the given source code.
      */
     public CompiledScript[] compile(String source) throws IOException, CompilerErrors {
-        return compile(source.getBytes(CHARSET));
+        return compile((CharSequence) source);
+    }
+
+    /**
+     * Compiles the specified source file content, the characters are tokenized directly from the sequence without
+     * being encoded or copied.
+     *
+     * @param source
+     *         the content of the source file.
+     *
+     * @return an array of {@link CompiledScript} objects.
+     * @throws IOException
+     *         if anything occurs while writing the bytecode data.
+     * @throws CompilerErrors
+     *         if there was any syntax or semantic errors in the given source code.
+     */
+    public CompiledScript[] compile(CharSequence source) throws IOException, CompilerErrors {
+        return compile(new SequenceCharStream(source));
     }
 
     /**
@@ -238,61 +1059,236 @@ public final class Compiler {
      *         if there was any syntax or semantic errors in the given source code data.
      */
     public CompiledScript[] compile(byte[] source) throws IOException, CompilerErrors {
+        return compile(new MappedCharStream(ByteBuffer.wrap(source)));
+    }
+
+    /**
+     * Compiles the source file content of the specified {@link CharStream stream}, the characters are tokenized
+     * directly from the stream.
+     *
+     * @param stream
+     *         the stream of the source file content.
+     *
+     * @return an array of {@link CompiledScript} objects.
+     * @throws IOException
+     *         if anything occurs while writing the bytecode data.
+     * @throws CompilerErrors
+     *         if there was any syntax or semantic errors in the given source code data.
+     */
+    public CompiledScript[] compile(CharStream stream) throws IOException, CompilerErrors {
         // Parse the Abstract Syntax Tree of the source.
-        var scripts = parseSyntaxTree(source);
+        var scripts = parseSyntaxTree(stream, null);
         if (scripts.size() < 1) {
             return new CompiledScript[0];
         }
         // Perform semantic analysis checking on the parsed AST.
         var checker = new SemanticChecker(environment, symbolTable);
-        checker.executePre(scripts);
-        checker.execute(scripts);
+        runPreTypeChecking(checker, scripts);
+        runTypeChecking(checker, scripts, null);
         // Check if there is any compilation errors and throw them if there is any.
         if (checker.getErrors().size() > 0) {
             throw new CompilerErrors(checker.getErrors());
         }
+        dependencyGraph = checker.getDependencyGraph();
         // Compile all of the parsed and checked scripts into a bytecode format.
         var result = new ArrayList<CompiledScript>();
         for (var script : scripts) {
-            // Run the code generator on each script.,
-            var generated = codeGenerator.visit(script);
-            // Optimize the generated script.
-            optimizer.run(generated);
-            // Write the generated script to a bytecode format.
-            BytecodeScript bytecode = codeWriter.write(generated);
-            try (var stream = new ByteArrayOutputStream()) {
-                bytecode.write(stream);
-                result.add(new CompiledScript(generated.getName(), stream.toByteArray()));
-            }
+            result.add(generate(script, codeGenerator, optimizer));
         }
         return result.toArray(CompiledScript[]::new);
     }
 
     /**
-     * Parses the Abstract Syntax Tree of the specified source file data.
+     * Runs the code generation, the optimization and the bytecode writing on the specified {@link AstScript script}.
+     *
+     * @param script
+     *         the script to generate the bytecode for.
+     * @param codeGenerator
+     *         the code generator to use for generating the script.
+     * @param optimizer
+     *         the optimizer to use for optimizing the generated script.
+     *
+     * @return the {@link CompiledScript} object.
+     * @throws IOException
+     *         if anything occurs while writing the bytecode data.
+     */
+    private CompiledScript generate(AstScript script, CodeGenerator codeGenerator, Optimizer optimizer) throws IOException {
+        var name = profiler.isEnabled() ? "[" + script.getTrigger().getText() + "," + script.getName().getText() + "]" : null;
+        // Run the code generator on the script.
+        var timer = profiler.start(CompilationPhase.GENERATE, name);
+        var generateEvent = new CodeGenerationEvent();
+        generateEvent.begin();
+        var generated = codeGenerator.visit(script);
+        generateEvent.end();
+        if (generateEvent.shouldCommit()) {
+            generateEvent.script = generated.getName();
+            generateEvent.instructions = generated.getInstructionCount();
+            generateEvent.commit();
+        }
+        CompilationProfiler.finish(timer, timer != null ? generated.getInstructionCount() : 0);
+        // Optimize the generated script.
+        timer = profiler.start(CompilationPhase.OPTIMIZE, name);
+        optimizer.run(generated);
+        CompilationProfiler.finish(timer, timer != null ? generated.getInstructionCount() : 0);
+        // Write the generated script to a bytecode format.
+        timer = profiler.start(CompilationPhase.WRITE, name);
+        var writeEvent = new BytecodeWriteEvent();
+        writeEvent.begin();
+        BytecodeScript bytecode = codeWriter.write(generated);
+        try (var stream = new ByteArrayOutputStream()) {
+            bytecode.write(stream);
+            var data = stream.toByteArray();
+            writeEvent.end();
+            if (writeEvent.shouldCommit()) {
+                writeEvent.script = generated.getName();
+                writeEvent.instructions = generated.getInstructionCount();
+                writeEvent.size = data.length;
+                writeEvent.commit();
+            }
+            CompilationProfiler.finish(timer, data.length);
+            return new CompiledScript(generated.getName(), data);
+        }
+    }
+
+    /**
+     * Creates a new {@link Optimizer} object and registers all of the optimizations that we use into it.
+     *
+     * @return the created {@link Optimizer} object.
+     */
+    private Optimizer createOptimizer() {
+        var optimizer = new Optimizer(instructionMap);
+        optimizer.register(new NaturalFlowOptimization());
+        optimizer.register(new DeadBranchOptimization());
+        optimizer.register(new DeadBlockOptimization());
+        return optimizer;
+    }
+
+    /**
+     * Parses the Abstract Syntax Tree of the specified source file stream.
      *
-     * @param data
-     *         the source file data in bytes.
+     * @param stream
+     *         the stream of the source file, or the stream of a region of it which starts with a script.
+     * @param path
+     *         the path of the source file which is reported to the listeners, or {@code null} if there is none.
      *
      * @return a {@link List list} of the parsed {@link AstScript} objects.
      */
-    private List<AstScript> parseSyntaxTree(byte[] data) throws IOException {
-        var stream = new BufferedCharStream(new ByteArrayInputStream(data));
-        var tokenizer = new Tokenizer(lexicalTable, stream);
-        var lexer = new Lexer(tokenizer);
-        var parser = new ScriptParser(environment, lexer);
+    private List<AstScript> parseSyntaxTree(CharStream stream, String path) throws IOException {
+        var parseEvent = new ParseEvent();
+        // The time spent in the tokenizer is only measured if anything is going to report it.
+        var lexer = new Lexer(new Tokenizer(lexicalTable, stream, symbolTable.getInterner(), true), profiler.isEnabled() || parseEvent.isEnabled());
+        // The code of the scripts is parsed lazily right before its file is checked, which is on the thread that checks
+        // the file, and it is reported as its own phase, see parseBodies(List, String).
+        var parser = new ScriptParser(environment, lexer, true);
         var scripts = new ArrayList<AstScript>();
-        while (lexer.remaining() > 0) {
+        // The tokens are tokenized on demand by the parser, so the parsing phase includes the tokenizing.
+        var timer = profiler.start(CompilationPhase.PARSE, path);
+        parseEvent.begin();
+        while (lexer.hasRemaining()) {
             scripts.add(parser.script());
         }
+        parseEvent.end();
+        if (parseEvent.shouldCommit()) {
+            parseEvent.path = path;
+            parseEvent.scripts = scripts.size();
+            parseEvent.tokens = lexer.count();
+            parseEvent.tokenizeTime = lexer.getTokenizeTime();
+            parseEvent.commit();
+        }
+        profiler.report(CompilationPhase.TOKENIZE, path, lexer.getTokenizeTime(), lexer.count());
+        CompilationProfiler.finish(timer, scripts.size());
         return scripts;
     }
 
+    /**
+     * Parses the code of all the specified scripts which was not parsed yet, this is done before the scripts are type
+     * checked so the parsing is not measured as a part of the type checking, and so the tokens which were kept for the
+     * code of each script are released before any of the scripts is checked.
+     *
+     * @param scripts
+     *         the scripts to parse the code of.
+     * @param path
+     *         the path of the source file which is reported to the listeners, or {@code null} if there is none.
+     */
+    private void parseBodies(List<AstScript> scripts, String path) {
+        var pending = scripts.stream().filter(script -> !script.isCodeParsed()).collect(Collectors.toList());
+        if (pending.isEmpty()) {
+            return;
+        }
+        var timer = profiler.start(CompilationPhase.PARSE_BODY, path);
+        var event = new ParseEvent();
+        event.begin();
+        for (var script : pending) {
+            script.getCode();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.scripts = pending.size();
+            event.bodies = true;
+            event.commit();
+        }
+        CompilationProfiler.finish(timer, pending.size());
+    }
+
+    /**
+     * Runs the pre type checking of the specified {@link SemanticChecker checker} on all of the specified scripts, only
+     * the signatures of the scripts are declared, the scopes of each script are resolved during its type checking.
+     *
+     * @param checker
+     *         the semantic checker to run.
+     * @param scripts
+     *         the scripts to check.
+     */
+    private void runPreTypeChecking(SemanticChecker checker, List<AstScript> scripts) {
+        var timer = profiler.start(CompilationPhase.PRE_TYPE_CHECK, null);
+        var event = new SemanticCheckEvent();
+        event.begin();
+        checker.executeSignatures(scripts);
+        event.end();
+        if (event.shouldCommit()) {
+            event.pre = true;
+            event.scripts = scripts.size();
+            event.errors = checker.getErrors().size();
+            event.commit();
+        }
+        CompilationProfiler.finish(timer, scripts.size());
+    }
+
+    /**
+     * Runs the type checking of the specified {@link SemanticChecker checker} on the scripts of a single source file,
+     * the scopes of the scripts are resolved right before they are type checked.
+     *
+     * @param checker
+     *         the semantic checker to run.
+     * @param scripts
+     *         the scripts to check.
+     * @param path
+     *         the path of the source file which is reported to the listeners, or {@code null} if there is none.
+     */
+    private void runTypeChecking(SemanticChecker checker, List<AstScript> scripts, String path) {
+        parseBodies(scripts, path);
+        var timer = profiler.start(CompilationPhase.TYPE_CHECK, path);
+        var event = new SemanticCheckEvent();
+        event.begin();
+        var errors = checker.getErrors().size();
+        checker.executeScopes(scripts);
+        checker.execute(scripts);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.scripts = scripts.size();
+            event.errors = checker.getErrors().size() - errors;
+            event.commit();
+        }
+        CompilationProfiler.finish(timer, scripts.size());
+    }
+
     /**
      * Create a new {@link LexicalTable} object and then register all of the lexical symbols for our RuneScript language
      * syntax.
      *
-     * @return the created {@link LexicalTable} object.
+     * @return the created and frozen {@link LexicalTable} object.
      */
     public static LexicalTable<Kind> createLexicalTable() {
         var table = new LexicalTable<Kind>();
@@ -340,6 +1336,58 @@ public final class Compiler {
         for (var operator : Operator.values()) {
             table.registerOperator(operator.getRepresentation(), operator.getKind());
         }
+        table.freeze();
         return table;
     }
+
+    /**
+     * Represents a single compilation task that is ran for each of the inputs in {@link #execute(ExecutorService, List,
+     * Task)}.
+     *
+     * @param <T>
+     *         the type of the task input.
+     * @param <R>
+     *         the type of the task output.
+     *
+     * @author Walied K. Yassen
+     */
+    @FunctionalInterface
+    private interface Task<T, R> {
+
+        /**
+         * Runs the task for the specified {@code input}.
+         *
+         * @param input
+         *         the input to run the task for.
+         *
+         * @return the output of the task.
+         * @throws IOException
+         *         if anything occurs while running the task.
+         */
+        R run(T input) throws IOException;
+    }
+
+    /**
+     * Represents a source file, or a region of a source file which starts with a script, that is parsed as one task.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private static final class SourceRegion {
+
+        /**
+         * The index of the source file which the region belongs to.
+         */
+        private final int file;
+
+        /**
+         * The character stream of the region.
+         */
+        private final MappedCharStream stream;
+
+        /**
+         * Whether or not the region is a part of a source file which was split.
+         */
+        private final boolean split;
+    }
 }
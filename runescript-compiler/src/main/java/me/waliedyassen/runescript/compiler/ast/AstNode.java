@@ -9,6 +9,7 @@ package me.waliedyassen.runescript.compiler.ast;
 
 import lombok.*;
 import me.waliedyassen.runescript.commons.document.Element;
+import me.waliedyassen.runescript.commons.document.LineIndex;
 import me.waliedyassen.runescript.commons.document.Range;
 import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
 
@@ -18,17 +19,38 @@ import java.util.function.Predicate;
 
 /**
  * Represents the smallest unit in the Abstract Syntax Tree (AST).
+ * <p>
+ * The node source code range is kept as the start and the end offsets within the document, and the {@link Range}
+ * object of the node is only created when it is requested.
  *
  * @author Walied K. Yassen
  */
-@RequiredArgsConstructor
 @EqualsAndHashCode
 public abstract class AstNode implements Element {
 
     /**
-     * The node source code range.
+     * The line index of the document which the node offsets belong to, or {@code null} if the node has an explicit
+     * range.
      */
-    @Getter
+    @EqualsAndHashCode.Exclude
+    private final LineIndex lineIndex;
+
+    /**
+     * The node start offset within the document.
+     */
+    @EqualsAndHashCode.Exclude
+    private final int startOffset;
+
+    /**
+     * The node end offset within the document.
+     */
+    @EqualsAndHashCode.Exclude
+    private final int endOffset;
+
+    /**
+     * The node source code range if it is not offset based, otherwise {@code null}.
+     */
+    @EqualsAndHashCode.Exclude
     private final Range range;
 
     /**
@@ -45,6 +67,39 @@ public abstract class AstNode implements Element {
     @EqualsAndHashCode.Exclude
     private AstNode parent;
 
+    /**
+     * Constructs a new {@link AstNode} type object instance.
+     *
+     * @param range
+     *         the node source code range.
+     */
+    public AstNode(Range range) {
+        if (range != null && range.getLineIndex() != null) {
+            lineIndex = range.getLineIndex();
+            startOffset = range.getStartOffset();
+            endOffset = range.getEndOffset();
+            this.range = null;
+        } else {
+            lineIndex = null;
+            startOffset = endOffset = -1;
+            this.range = range;
+        }
+    }
+
+    /**
+     * Returns the node source code range, a new {@link Range} object is created for each call if the range is offset
+     * based.
+     *
+     * @return the node source code {@link Range}.
+     */
+    @Override
+    @EqualsAndHashCode.Include
+    public Range getRange() {
+        if (lineIndex != null) {
+            return new Range(lineIndex, startOffset, endOffset);
+        }
+        return range;
+    }
 
     /**
      * Accepts the given {@link AstVisitor} in this node and call the corresponding visit method to this node.
@@ -16,10 +16,14 @@ import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
 import me.waliedyassen.runescript.type.Type;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents a complete script with header and code statements. Contains unverified AST nodes that represents the
  * signature and the code statements.
+ * <p>
+ * The code statements of the script can be parsed lazily, in which case they are only parsed when they are first
+ * requested through {@link #getCode()}.
  *
  * @author Walied K. Yassen
  */
@@ -57,10 +61,15 @@ public final class AstScript extends AstNode {
     private final Type type;
 
     /**
-     * The code block of the script.
+     * The code block of the script, or {@code null} if it was not parsed yet.
      */
-    @Getter
-    private final AstBlockStatement code;
+    private AstBlockStatement code;
+
+    /**
+     * The parser of the code block of the script, or {@code null} if the code block was parsed already.
+     */
+    @EqualsAndHashCode.Exclude
+    private Supplier<AstBlockStatement> parser;
 
     /**
      * Construct a new {@link AstScript} type object instance.
@@ -90,6 +99,58 @@ public final class AstScript extends AstNode {
         this.code = addChild(code);
     }
 
+    /**
+     * Construct a new {@link AstScript} type object instance which its code statement is parsed lazily.
+     *
+     * @param annotations
+     *         the annotations of the script.
+     * @param range
+     *         the script source range.
+     * @param trigger
+     *         the script trigger type.
+     * @param name
+     *         the script name.
+     * @param parameters
+     *         the script parameters.
+     * @param type
+     *         the script type.
+     * @param parser
+     *         the parser of the script code statement, it is called once when the code statement is first requested.
+     */
+    public AstScript(Range range, List<AstAnnotation> annotations, AstIdentifier trigger, AstIdentifier name, AstParameter[] parameters, Type type, Supplier<AstBlockStatement> parser) {
+        super(range);
+        this.annotations = addChild(annotations);
+        this.trigger = addChild(trigger);
+        this.name = addChild(name);
+        this.parameters = addChild(parameters);
+        this.type = type;
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the code block of the script, parsing it first if it was not parsed yet.
+     *
+     * @return the code block of the script.
+     * @throws me.waliedyassen.runescript.parser.SyntaxError
+     *         if the code block has any syntax error.
+     */
+    public synchronized AstBlockStatement getCode() {
+        if (parser != null) {
+            code = addChild(parser.get());
+            parser = null;
+        }
+        return code;
+    }
+
+    /**
+     * Checks whether or not the code block of the script was parsed already.
+     *
+     * @return <code>true</code> if it was otherwise <code>false</code>.
+     */
+    public synchronized boolean isCodeParsed() {
+        return parser == null;
+    }
+
     /**
      * {@inheritDoc}
      */
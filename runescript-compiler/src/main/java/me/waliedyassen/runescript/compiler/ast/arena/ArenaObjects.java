@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import me.waliedyassen.runescript.commons.document.LineColumn;
+import me.waliedyassen.runescript.commons.document.LineIndex;
+import me.waliedyassen.runescript.commons.document.Range;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.symbol.impl.ArrayInfo;
+import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableDomain;
+import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableInfo;
+import me.waliedyassen.runescript.compiler.type.ArrayReference;
+import me.waliedyassen.runescript.compiler.util.Operator;
+import me.waliedyassen.runescript.compiler.util.VariableScope;
+import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
+import me.waliedyassen.runescript.type.PrimitiveType;
+import me.waliedyassen.runescript.type.TupleType;
+import me.waliedyassen.runescript.type.Type;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads the objects of the side table of an {@link AstArena}, each object is prefixed with a tag which tells
+ * what kind of object it is. An object which was already written is written as a reference to the first time it was
+ * written instead, so the objects which are shared between the nodes such as the variables are still shared after they
+ * are read, and each distinct type or name is only written once.
+ *
+ * @author Walied K. Yassen
+ */
+final class ArenaObjects {
+
+    /**
+     * The tag of the {@code null} objects.
+     */
+    private static final int TAG_NULL = 0;
+
+    /**
+     * The tag of the references to an object that was already written.
+     */
+    private static final int TAG_REFERENCE = 1;
+
+    /**
+     * The tag of the empty {@link Range} objects.
+     */
+    private static final int TAG_EMPTY_RANGE = 2;
+
+    /**
+     * The tag of the offset based {@link Range} objects.
+     */
+    private static final int TAG_OFFSET_RANGE = 3;
+
+    /**
+     * The tag of the position based {@link Range} objects.
+     */
+    private static final int TAG_POSITION_RANGE = 4;
+
+    /**
+     * The tag of the {@link PrimitiveType} objects.
+     */
+    private static final int TAG_PRIMITIVE_TYPE = 5;
+
+    /**
+     * The tag of the {@link TupleType} objects.
+     */
+    private static final int TAG_TUPLE_TYPE = 6;
+
+    /**
+     * The tag of the {@link ArrayReference} objects.
+     */
+    private static final int TAG_ARRAY_REFERENCE = 7;
+
+    /**
+     * The tag of the {@link String} objects.
+     */
+    private static final int TAG_STRING = 8;
+
+    /**
+     * The tag of the {@link Long} objects.
+     */
+    private static final int TAG_LONG = 9;
+
+    /**
+     * The tag of the {@link VariableScope} objects.
+     */
+    private static final int TAG_VARIABLE_SCOPE = 10;
+
+    /**
+     * The tag of the {@link Operator} objects.
+     */
+    private static final int TAG_OPERATOR = 11;
+
+    /**
+     * The tag of the {@link TriggerType} objects.
+     */
+    private static final int TAG_TRIGGER = 12;
+
+    /**
+     * The tag of the {@link VariableInfo} objects.
+     */
+    private static final int TAG_VARIABLE = 13;
+
+    /**
+     * The tag of the {@link ArrayInfo} objects.
+     */
+    private static final int TAG_ARRAY = 14;
+
+    /**
+     * The tag of the {@code int[]} objects, which are the resolved keys of the switch cases.
+     */
+    private static final int TAG_INT_ARRAY = 15;
+
+    /**
+     * The index of each object that was written so far.
+     */
+    private final Map<Object, Integer> written = new IdentityHashMap<>();
+
+    /**
+     * The objects that were read so far, in the same order they were written.
+     */
+    private final List<Object> read = new ArrayList<>();
+
+    /**
+     * The line index to create the offset based ranges with.
+     */
+    private final LineIndex lineIndex;
+
+    /**
+     * The environment to resolve the trigger types from.
+     */
+    private final CompilerEnvironment environment;
+
+    /**
+     * Constructs a new {@link ArenaObjects} type object instance.
+     *
+     * @param lineIndex
+     *         the line index to create the offset based ranges with, or {@code null} if the objects are only written.
+     * @param environment
+     *         the environment to resolve the trigger types from, or {@code null} if the objects are only written.
+     */
+    ArenaObjects(LineIndex lineIndex, CompilerEnvironment environment) {
+        this.lineIndex = lineIndex;
+        this.environment = environment;
+    }
+
+    /**
+     * Writes the specified object to the specified output.
+     *
+     * @param output
+     *         the output to write to.
+     * @param object
+     *         the object to write, or {@code null}.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the output.
+     * @throws IllegalArgumentException
+     *         if the object is not of a supported kind.
+     */
+    void write(DataOutput output, Object object) throws IOException {
+        if (object == null) {
+            output.writeByte(TAG_NULL);
+            return;
+        }
+        var index = written.get(object);
+        if (index != null) {
+            output.writeByte(TAG_REFERENCE);
+            output.writeInt(index);
+            return;
+        }
+        written.put(object, written.size());
+        if (object instanceof Range) {
+            var range = (Range) object;
+            if (range.isEmpty()) {
+                output.writeByte(TAG_EMPTY_RANGE);
+            } else if (range.getLineIndex() != null) {
+                output.writeByte(TAG_OFFSET_RANGE);
+                output.writeInt(range.getStartOffset());
+                output.writeInt(range.getEndOffset());
+            } else {
+                output.writeByte(TAG_POSITION_RANGE);
+                output.writeInt(range.getStart().getLine());
+                output.writeInt(range.getStart().getColumn());
+                output.writeInt(range.getEnd().getLine());
+                output.writeInt(range.getEnd().getColumn());
+            }
+        } else if (object instanceof PrimitiveType) {
+            output.writeByte(TAG_PRIMITIVE_TYPE);
+            writeString(output, ((PrimitiveType) object).name());
+        } else if (object instanceof TupleType) {
+            var childs = ((TupleType) object).getChilds();
+            output.writeByte(TAG_TUPLE_TYPE);
+            output.writeInt(childs.length);
+            for (var child : childs) {
+                write(output, child);
+            }
+        } else if (object instanceof ArrayReference) {
+            var reference = (ArrayReference) object;
+            output.writeByte(TAG_ARRAY_REFERENCE);
+            write(output, reference.getType());
+            output.writeInt(reference.getIndex());
+        } else if (object instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeString(output, (String) object);
+        } else if (object instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) object);
+        } else if (object instanceof VariableScope) {
+            output.writeByte(TAG_VARIABLE_SCOPE);
+            writeString(output, ((VariableScope) object).name());
+        } else if (object instanceof Operator) {
+            output.writeByte(TAG_OPERATOR);
+            writeString(output, ((Operator) object).name());
+        } else if (object instanceof TriggerType) {
+            output.writeByte(TAG_TRIGGER);
+            writeString(output, ((TriggerType) object).getRepresentation());
+        } else if (object instanceof VariableInfo) {
+            var variable = (VariableInfo) object;
+            output.writeByte(TAG_VARIABLE);
+            writeString(output, variable.getDomain().name());
+            write(output, variable.getName());
+            write(output, variable.getType());
+        } else if (object instanceof ArrayInfo) {
+            var array = (ArrayInfo) object;
+            output.writeByte(TAG_ARRAY);
+            output.writeInt(array.getIndex());
+            write(output, array.getName());
+            write(output, array.getType());
+        } else if (object instanceof int[]) {
+            var values = (int[]) object;
+            output.writeByte(TAG_INT_ARRAY);
+            output.writeInt(values.length);
+            for (var value : values) {
+                output.writeInt(value);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported arena object: " + object);
+        }
+    }
+
+    /**
+     * Returns the index of the specified object if it was written already.
+     *
+     * @param object
+     *         the object to look for.
+     *
+     * @return the index of the object, or {@code -1} if it was not written yet.
+     */
+    int indexOf(Object object) {
+        var index = written.get(object);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the object at the specified index out of the objects that were read so far.
+     *
+     * @param index
+     *         the index of the object.
+     *
+     * @return the object at the specified index.
+     * @throws IllegalStateException
+     *         if there is no object that was read at the specified index.
+     */
+    Object get(int index) {
+        if (index < 0 || index >= read.size()) {
+            throw new IllegalStateException("Invalid arena object reference: " + index);
+        }
+        return read.get(index);
+    }
+
+    /**
+     * Reads a single object from the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to read from.
+     *
+     * @return the read object, or {@code null}.
+     * @throws IllegalStateException
+     *         if the object is malformed or refers to something which no longer exists.
+     */
+    Object read(ByteBuffer buffer) {
+        var tag = buffer.get();
+        if (tag == TAG_NULL) {
+            return null;
+        }
+        if (tag == TAG_REFERENCE) {
+            return get(buffer.getInt());
+        }
+        // the index has to be taken before the nested objects are read, the same way it was when it was written.
+        var index = read.size();
+        read.add(null);
+        Object object;
+        switch (tag) {
+            case TAG_EMPTY_RANGE:
+                object = new Range();
+                break;
+            case TAG_OFFSET_RANGE:
+                object = new Range(lineIndex, buffer.getInt(), buffer.getInt());
+                break;
+            case TAG_POSITION_RANGE:
+                object = new Range(new LineColumn(buffer.getInt(), buffer.getInt()), new LineColumn(buffer.getInt(), buffer.getInt()));
+                break;
+            case TAG_PRIMITIVE_TYPE:
+                object = valueOf(PrimitiveType.class, readString(buffer));
+                break;
+            case TAG_TUPLE_TYPE: {
+                var childs = new Type[count(buffer)];
+                for (var child = 0; child < childs.length; child++) {
+                    childs[child] = (Type) read(buffer);
+                }
+                object = new TupleType(childs);
+                break;
+            }
+            case TAG_ARRAY_REFERENCE:
+                object = new ArrayReference((PrimitiveType) read(buffer), buffer.getInt());
+                break;
+            case TAG_STRING:
+                object = readString(buffer);
+                break;
+            case TAG_LONG:
+                object = buffer.getLong();
+                break;
+            case TAG_VARIABLE_SCOPE:
+                object = valueOf(VariableScope.class, readString(buffer));
+                break;
+            case TAG_OPERATOR:
+                object = valueOf(Operator.class, readString(buffer));
+                break;
+            case TAG_TRIGGER: {
+                var representation = readString(buffer);
+                object = environment.lookupTrigger(representation);
+                if (object == null) {
+                    throw new IllegalStateException("The trigger type '" + representation + "' is no longer registered");
+                }
+                break;
+            }
+            case TAG_VARIABLE: {
+                var domain = valueOf(VariableDomain.class, readString(buffer));
+                object = new VariableInfo(domain, (String) read(buffer), (Type) read(buffer));
+                break;
+            }
+            case TAG_ARRAY:
+                object = new ArrayInfo(buffer.getInt(), (String) read(buffer), (PrimitiveType) read(buffer));
+                break;
+            case TAG_INT_ARRAY: {
+                var values = new int[count(buffer)];
+                buffer.asIntBuffer().get(values);
+                buffer.position(buffer.position() + values.length * Integer.BYTES);
+                object = values;
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unrecognised arena object tag: " + tag);
+        }
+        read.set(index, object);
+        return object;
+    }
+
+    /**
+     * Writes a length prefixed string to the specified output, each character is written as is.
+     *
+     * @param output
+     *         the output to write to.
+     * @param string
+     *         the string to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the output.
+     */
+    private static void writeString(DataOutput output, String string) throws IOException {
+        output.writeInt(string.length());
+        output.writeChars(string);
+    }
+
+    /**
+     * Reads a length prefixed string from the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to read from.
+     *
+     * @return the read string.
+     */
+    private static String readString(ByteBuffer buffer) {
+        var chars = new char[count(buffer)];
+        buffer.asCharBuffer().get(chars);
+        buffer.position(buffer.position() + chars.length * Character.BYTES);
+        return new String(chars);
+    }
+
+    /**
+     * Reads a non-negative element count from the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to read from.
+     *
+     * @return the read count.
+     * @throws IllegalStateException
+     *         if the count is negative.
+     */
+    static int count(ByteBuffer buffer) {
+        var count = buffer.getInt();
+        if (count < 0) {
+            throw new IllegalStateException("Negative element count: " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Looks-up the constant with the specified name in the specified enum type.
+     *
+     * @param type
+     *         the enum type to look in.
+     * @param name
+     *         the name of the constant.
+     * @param <E>
+     *         the enum type.
+     *
+     * @return the enum constant.
+     * @throws IllegalStateException
+     *         if the enum type has no constant with that name.
+     */
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("The constant '" + name + "' no longer exists in " + type.getSimpleName(), e);
+        }
+    }
+}
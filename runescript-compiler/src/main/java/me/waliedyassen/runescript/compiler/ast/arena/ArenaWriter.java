@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import me.waliedyassen.runescript.compiler.ast.AstAnnotation;
+import me.waliedyassen.runescript.compiler.ast.AstNode;
+import me.waliedyassen.runescript.compiler.ast.AstParameter;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.expr.*;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralBool;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralInteger;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralLong;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralString;
+import me.waliedyassen.runescript.compiler.ast.stmt.*;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement;
+import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Writes the nodes of syntax trees into an {@link AstArena} in pre-order, each node is linked as the next child of the
+ * node which is being written when it is added.
+ *
+ * @author Walied K. Yassen
+ */
+final class ArenaWriter implements AstVisitor<Void, Void> {
+
+    /**
+     * The arena to write the nodes into.
+     */
+    private final AstArena arena;
+
+    /**
+     * The index of each node which is being written.
+     */
+    private int[] parents = new int[32];
+
+    /**
+     * The index of the last child of each node which is being written, or {@code -1} if it has no children yet.
+     */
+    private int[] lasts = new int[32];
+
+    /**
+     * The amount of nodes which are being written.
+     */
+    private int depth;
+
+    /**
+     * Constructs a new {@link ArenaWriter} type object instance.
+     *
+     * @param arena
+     *         the arena to write the nodes into.
+     */
+    ArenaWriter(AstArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Writes the specified script and all of its nodes into the arena.
+     *
+     * @param script
+     *         the script to write.
+     *
+     * @return the index of the script node.
+     */
+    int write(AstScript script) {
+        var index = open(NodeKind.SCRIPT, script, 0, script.getType());
+        write(script.getAnnotations().toArray(AstNode[]::new));
+        write(script.getTrigger());
+        write(script.getName());
+        write(script.getParameters());
+        write(script.getCode());
+        close();
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstAnnotation annotation) {
+        open(NodeKind.ANNOTATION, annotation, 0);
+        write(annotation.getName());
+        write(annotation.getValue());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstParameter parameter) {
+        open(NodeKind.PARAMETER, parameter, 0, parameter.getType());
+        write(parameter.getName());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstLiteralBool bool) {
+        open(NodeKind.BOOL, bool, bool.getValue() ? 1 : 0, bool.getType());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstLiteralInteger integer) {
+        open(NodeKind.INTEGER, integer, integer.getValue(), integer.getType());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstLiteralLong longInteger) {
+        open(NodeKind.LONG, longInteger, 0, longInteger.getType(), longInteger.getValue());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstLiteralString string) {
+        open(NodeKind.STRING, string, 0, string.getType(), string.getValue());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstConcatenation concatenation) {
+        open(NodeKind.CONCATENATION, concatenation, 0, concatenation.getType());
+        write(concatenation.getExpressions());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstVariableExpression variableExpression) {
+        open(NodeKind.VARIABLE, variableExpression, 0, variableExpression.getType(), variableExpression.getScope(), variableExpression.getVariable());
+        write(variableExpression.getName());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstArrayExpression arrayExpression) {
+        open(NodeKind.ARRAY, arrayExpression, 0, arrayExpression.getType(), arrayExpression.getArray());
+        write(arrayExpression.getName());
+        write(arrayExpression.getIndex());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstCall call) {
+        open(NodeKind.CALL, call, 0, call.getType(), call.getTriggerType());
+        write(call.getName());
+        write(call.getArguments());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstDynamic dynamic) {
+        open(NodeKind.DYNAMIC, dynamic, 0, dynamic.getType());
+        write(dynamic.getName());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstConstant constant) {
+        open(NodeKind.CONSTANT, constant, 0, constant.getType());
+        write(constant.getName());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstCommand command) {
+        open(NodeKind.COMMAND, command, command.isAlternative() ? 1 : 0, command.getType());
+        write(command.getName());
+        write(command.getArguments());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstCalc calc) {
+        open(NodeKind.CALC, calc, 0, calc.getType());
+        write(calc.getExpression());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstBinaryOperation binaryOperation) {
+        // open the left operands in a loop, so the length of an operations chain is not bound by the size of the thread
+        // stack, the nodes are still written in pre-order.
+        var operations = new ArrayDeque<AstBinaryOperation>();
+        AstExpression expression = binaryOperation;
+        while (expression instanceof AstBinaryOperation) {
+            var operation = (AstBinaryOperation) expression;
+            open(NodeKind.BINARY_OPERATION, operation, 0, operation.getType(), operation.getOperator());
+            operations.push(operation);
+            expression = operation.getLeft();
+        }
+        write(expression);
+        while (!operations.isEmpty()) {
+            write(operations.pop().getRight());
+            close();
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstVariableDeclaration variableDeclaration) {
+        open(NodeKind.VARIABLE_DECLARATION, variableDeclaration, 0, variableDeclaration.getType(), variableDeclaration.getVariable());
+        write(variableDeclaration.getName());
+        write(variableDeclaration.getExpression());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstArrayDeclaration arrayDeclaration) {
+        open(NodeKind.ARRAY_DECLARATION, arrayDeclaration, 0, arrayDeclaration.getType(), arrayDeclaration.getArray());
+        write(arrayDeclaration.getName());
+        write(arrayDeclaration.getSize());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstVariableInitializer variableInitializer) {
+        open(NodeKind.VARIABLE_INITIALIZER, variableInitializer, 0, variableInitializer.getScope(), variableInitializer.getVariable());
+        write(variableInitializer.getName());
+        write(variableInitializer.getExpression());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstArrayInitializer arrayInitializer) {
+        open(NodeKind.ARRAY_INITIALIZER, arrayInitializer, 0, arrayInitializer.getArray());
+        write(arrayInitializer.getName());
+        write(arrayInitializer.getIndex());
+        write(arrayInitializer.getValue());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstSwitchStatement switchStatement) {
+        open(NodeKind.SWITCH, switchStatement, 0, switchStatement.getType());
+        write(switchStatement.getCondition());
+        write(switchStatement.getCases());
+        write(switchStatement.getDefaultCase());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstSwitchCase switchCase) {
+        open(NodeKind.SWITCH_CASE, switchCase, 0, (Object) switchCase.getResolvedKeys());
+        write(switchCase.getKeys());
+        write(switchCase.getCode());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstIfStatement ifStatement) {
+        open(NodeKind.IF, ifStatement, 0);
+        write(ifStatement.getCondition());
+        write(ifStatement.getTrueStatement());
+        write(ifStatement.getFalseStatement());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstWhileStatement whileStatement) {
+        open(NodeKind.WHILE, whileStatement, 0);
+        write(whileStatement.getCondition());
+        write(whileStatement.getCode());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstExpressionStatement expressionStatement) {
+        open(NodeKind.EXPRESSION_STATEMENT, expressionStatement, 0);
+        write(expressionStatement.getExpression());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstReturnStatement returnStatement) {
+        open(NodeKind.RETURN, returnStatement, 0);
+        write(returnStatement.getExpressions());
+        return close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Void visit(AstBlockStatement blockStatement) {
+        open(NodeKind.BLOCK, blockStatement, 0);
+        write(blockStatement.getStatements());
+        return close();
+    }
+
+    /**
+     * Writes each of the specified nodes, see {@link #write(AstNode)}.
+     *
+     * @param nodes
+     *         the nodes to write.
+     */
+    private void write(AstNode[] nodes) {
+        for (var node : nodes) {
+            write(node);
+        }
+    }
+
+    /**
+     * Writes the specified node and all of its children, a placeholder node is written instead if the node is missing.
+     *
+     * @param node
+     *         the node to write, or {@code null} if it is missing.
+     */
+    private void write(AstNode node) {
+        if (node == null) {
+            open(NodeKind.NONE, null, 0);
+            close();
+        } else if (node instanceof AstIdentifier) {
+            // the identifiers are not visitable, since they are only ever visited through their parent.
+            var identifier = (AstIdentifier) node;
+            open(NodeKind.IDENTIFIER, identifier, 0, identifier.getType(), identifier.getText());
+            close();
+        } else {
+            node.accept(this);
+        }
+    }
+
+    /**
+     * Adds a new node to the arena and links it as the next child of the node which is being written, the children
+     * which are written after it are linked to it until it is {@link #close() closed}.
+     *
+     * @param kind
+     *         the kind of the node.
+     * @param node
+     *         the node to add, or {@code null} if it is a placeholder.
+     * @param value
+     *         the integer payload of the node.
+     * @param attributes
+     *         the object payloads of the node.
+     *
+     * @return the index of the added node.
+     */
+    private int open(NodeKind kind, AstNode node, int value, Object... attributes) {
+        var index = arena.add(kind, node == null ? null : node.getRange(), value, attributes);
+        if (depth > 0) {
+            arena.link(parents[depth - 1], lasts[depth - 1], index);
+            lasts[depth - 1] = index;
+        }
+        if (depth == parents.length) {
+            parents = Arrays.copyOf(parents, depth * 2);
+            lasts = Arrays.copyOf(lasts, depth * 2);
+        }
+        parents[depth] = index;
+        lasts[depth] = -1;
+        depth++;
+        return index;
+    }
+
+    /**
+     * Finishes writing the last node which was {@link #open(NodeKind, AstNode, int, Object...) opened}.
+     *
+     * @return {@code null}, for convenience of the visit methods.
+     */
+    private Void close() {
+        depth--;
+        return null;
+    }
+}
@@ -0,0 +1,652 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import me.waliedyassen.runescript.commons.document.LineIndex;
+import me.waliedyassen.runescript.commons.document.Range;
+import me.waliedyassen.runescript.compiler.ast.AstAnnotation;
+import me.waliedyassen.runescript.compiler.ast.AstNode;
+import me.waliedyassen.runescript.compiler.ast.AstParameter;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.expr.*;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralBool;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralInteger;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralLong;
+import me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralString;
+import me.waliedyassen.runescript.compiler.ast.stmt.*;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact store of the syntax trees of the scripts of a single source file, which keeps the nodes in flat arrays
+ * rather than keeping an object for each node. The kinds of the nodes are stored by their ordinal, the structure of the
+ * trees by the index of the first child and the next sibling of each node, the ranges by their offsets into the source
+ * file, and the payloads of the nodes, such as the literal values, the identifier names and the semantic information
+ * which was resolved by the semantic checker, in side tables.
+ * <p>
+ * The {@link AstScript} objects are only created on demand as views of the store by {@link #decode(int)}, each call
+ * creates a new syntax tree of the script which can be used by any {@link
+ * me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor} like the tree that was encoded.
+ * <p>
+ * The store can be {@link #write(DataOutput) written} in a binary form and {@link #read(ByteBuffer, LineIndex,
+ * CompilerEnvironment) read} back, the flat arrays are written as they are and the side table is written as slots
+ * which refer to the distinct objects in it, so reading them back is mostly a few bulk copies.
+ *
+ * @author Walied K. Yassen
+ */
+public final class AstArena {
+
+    /**
+     * The initial capacity of the nodes arrays.
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * All of the node kinds indexed by their ordinal.
+     */
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    /**
+     * The children of the nodes which have no children, it is shared because the children are never handed out as is.
+     */
+    private static final AstNode[] NO_CHILDREN = new AstNode[0];
+
+    /**
+     * The line index of the source file which the offsets belong to.
+     */
+    private LineIndex lineIndex;
+
+    /**
+     * The ordinal of the kind of each node.
+     */
+    private byte[] kinds = new byte[DEFAULT_CAPACITY];
+
+    /**
+     * The index of the first child of each node, or {@code -1} if the node has no children.
+     */
+    private int[] firstChildren = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The index of the next sibling of each node, or {@code -1} if the node is the last child of its parent.
+     */
+    private int[] nextSiblings = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The start offset of each node, or {@code -1} if the range of the node is stored in the side table.
+     */
+    private int[] starts = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The end offset of each node, or the index of the range of the node within the side table.
+     */
+    private int[] ends = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The integer payload of each node, such as the value of an integer literal.
+     */
+    private int[] values = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The index of the first attribute of each node within the side table.
+     */
+    private int[] attributes = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The side table of the object payloads of the nodes.
+     */
+    private Object[] objects = new Object[DEFAULT_CAPACITY];
+
+    /**
+     * The index of the root node of each script.
+     */
+    private int[] scripts = new int[8];
+
+    /**
+     * The amount of nodes in the store.
+     */
+    private int size;
+
+    /**
+     * The amount of objects in the side table.
+     */
+    private int objectCount;
+
+    /**
+     * The amount of scripts in the store.
+     */
+    private int scriptCount;
+
+    /**
+     * Encodes the specified scripts into a new {@link AstArena}, the code of the scripts is parsed if it was not parsed
+     * yet. The scripts should belong to the same source file, the ranges which belong to any other source file are
+     * kept as objects.
+     *
+     * @param scripts
+     *         the scripts to encode.
+     *
+     * @return the created {@link AstArena} object.
+     */
+    public static AstArena encode(List<AstScript> scripts) {
+        var arena = new AstArena();
+        var writer = new ArenaWriter(arena);
+        for (var script : scripts) {
+            if (arena.scriptCount == arena.scripts.length) {
+                arena.scripts = Arrays.copyOf(arena.scripts, arena.scriptCount * 2);
+            }
+            arena.scripts[arena.scriptCount++] = writer.write(script);
+        }
+        arena.trim();
+        return arena;
+    }
+
+    /**
+     * Creates a new syntax tree of the script at the specified index.
+     *
+     * @param index
+     *         the index of the script in the order which the scripts were encoded in.
+     *
+     * @return the created {@link AstScript} object.
+     */
+    public AstScript decode(int index) {
+        if (index < 0 || index >= scriptCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (AstScript) node(scripts[index]);
+    }
+
+    /**
+     * Returns an unmodifiable {@link List} view of the scripts of the store, each access to an element of the list
+     * {@link #decode(int) decodes} the script again.
+     *
+     * @return the {@link List} view of the scripts.
+     */
+    public List<AstScript> asList() {
+        return new AbstractList<>() {
+            @Override
+            public AstScript get(int index) {
+                return decode(index);
+            }
+
+            @Override
+            public int size() {
+                return scriptCount;
+            }
+        };
+    }
+
+    /**
+     * Returns the amount of scripts in the store.
+     *
+     * @return the amount of scripts.
+     */
+    public int getScriptCount() {
+        return scriptCount;
+    }
+
+    /**
+     * Writes the store in its binary form to the specified output.
+     *
+     * @param output
+     *         the output to write to.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the output.
+     * @throws IllegalArgumentException
+     *         if the payload of any node is of a kind which cannot be written.
+     */
+    public void write(DataOutput output) throws IOException {
+        // the distinct objects are written first into their own stream, so the slots which refer to them can be read
+        // in bulk together with the nodes instead of one reference at a time.
+        var writer = new ArenaObjects(null, null);
+        var distinct = new ByteArrayOutputStream();
+        var distinctOutput = new DataOutputStream(distinct);
+        var distinctCount = 0;
+        var slots = new int[objectCount];
+        for (var index = 0; index < objectCount; index++) {
+            var object = objects[index];
+            if (object == null) {
+                slots[index] = -1;
+                continue;
+            }
+            if (writer.indexOf(object) == -1) {
+                writer.write(distinctOutput, object);
+                distinctCount++;
+            }
+            slots[index] = writer.indexOf(object);
+        }
+        output.writeInt(size);
+        output.writeInt(scriptCount);
+        output.writeInt(objectCount);
+        output.writeInt(distinctCount);
+        output.write(kinds, 0, size);
+        var buffer = ByteBuffer.allocate((size * 6 + scriptCount + objectCount) * Integer.BYTES);
+        var ints = buffer.asIntBuffer();
+        ints.put(firstChildren, 0, size);
+        ints.put(nextSiblings, 0, size);
+        ints.put(starts, 0, size);
+        ints.put(ends, 0, size);
+        ints.put(values, 0, size);
+        ints.put(attributes, 0, size);
+        ints.put(scripts, 0, scriptCount);
+        ints.put(slots);
+        output.write(buffer.array());
+        distinctOutput.flush();
+        output.write(distinct.toByteArray());
+    }
+
+    /**
+     * Reads a store in its binary form from the specified buffer, the buffer must be in the big-endian order which the
+     * store is {@link #write(DataOutput) written} in.
+     *
+     * @param buffer
+     *         the buffer to read from, it is positioned after the store when this method returns.
+     * @param lineIndex
+     *         the line index of the source file which the store was written from.
+     * @param environment
+     *         the environment to resolve the trigger types from.
+     *
+     * @return the read {@link AstArena} object.
+     * @throws BufferUnderflowException
+     *         if the buffer ends before the store does.
+     * @throws IllegalStateException
+     *         if the store is malformed or refers to something which no longer exists.
+     */
+    public static AstArena read(ByteBuffer buffer, LineIndex lineIndex, CompilerEnvironment environment) {
+        var arena = new AstArena();
+        arena.lineIndex = lineIndex;
+        arena.size = ArenaObjects.count(buffer);
+        arena.scriptCount = ArenaObjects.count(buffer);
+        arena.objectCount = ArenaObjects.count(buffer);
+        var distinctCount = ArenaObjects.count(buffer);
+        // each distinct object takes at least one byte, check it before allocating anything for the store.
+        var length = arena.size + ((long) arena.size * 6 + arena.scriptCount + arena.objectCount) * Integer.BYTES + distinctCount;
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        arena.kinds = new byte[arena.size];
+        buffer.get(arena.kinds);
+        for (var kind : arena.kinds) {
+            if (kind < 0 || kind >= KINDS.length) {
+                throw new IllegalStateException("Unrecognised node kind: " + kind);
+            }
+        }
+        var ints = buffer.asIntBuffer();
+        arena.firstChildren = readInts(ints, arena.size);
+        arena.nextSiblings = readInts(ints, arena.size);
+        arena.starts = readInts(ints, arena.size);
+        arena.ends = readInts(ints, arena.size);
+        arena.values = readInts(ints, arena.size);
+        arena.attributes = readInts(ints, arena.size);
+        arena.scripts = readInts(ints, arena.scriptCount);
+        var slots = readInts(ints, arena.objectCount);
+        buffer.position(buffer.position() + ints.position() * Integer.BYTES);
+        var reader = new ArenaObjects(lineIndex, environment);
+        for (var index = 0; index < distinctCount; index++) {
+            reader.read(buffer);
+        }
+        arena.objects = new Object[arena.objectCount];
+        for (var index = 0; index < arena.objectCount; index++) {
+            var slot = slots[index];
+            arena.objects[index] = slot == -1 ? null : reader.get(slot);
+        }
+        return arena;
+    }
+
+    /**
+     * Returns the amount of nodes in the store, including the placeholders of the missing optional nodes.
+     *
+     * @return the amount of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a new node to the end of the store without linking it to any other node.
+     *
+     * @param kind
+     *         the kind of the node.
+     * @param range
+     *         the source code range of the node.
+     * @param value
+     *         the integer payload of the node.
+     * @param attributes
+     *         the object payloads of the node.
+     *
+     * @return the index of the added node.
+     */
+    int add(NodeKind kind, Range range, int value, Object... attributes) {
+        if (size == kinds.length) {
+            var capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            values = Arrays.copyOf(values, capacity);
+            this.attributes = Arrays.copyOf(this.attributes, capacity);
+        }
+        var index = size++;
+        kinds[index] = (byte) kind.ordinal();
+        firstChildren[index] = -1;
+        nextSiblings[index] = -1;
+        values[index] = value;
+        this.attributes[index] = objectCount;
+        if (range != null && range.getLineIndex() != null && (lineIndex == null || lineIndex == range.getLineIndex())) {
+            lineIndex = range.getLineIndex();
+            starts[index] = range.getStartOffset();
+            ends[index] = range.getEndOffset();
+        } else {
+            starts[index] = -1;
+            ends[index] = objectCount;
+            addObject(range);
+        }
+        for (var attribute : attributes) {
+            addObject(attribute);
+        }
+        return index;
+    }
+
+    /**
+     * Links the specified child node to the specified parent node.
+     *
+     * @param parent
+     *         the index of the parent node.
+     * @param previous
+     *         the index of the last child of the parent node, or {@code -1} if the parent node has no children yet.
+     * @param child
+     *         the index of the child node.
+     */
+    void link(int parent, int previous, int child) {
+        if (previous == -1) {
+            firstChildren[parent] = child;
+        } else {
+            nextSiblings[previous] = child;
+        }
+    }
+
+    /**
+     * Shrinks all of the arrays of the store to the amount of elements they hold, since nothing is added to the store
+     * once it is encoded.
+     */
+    private void trim() {
+        kinds = Arrays.copyOf(kinds, size);
+        firstChildren = Arrays.copyOf(firstChildren, size);
+        nextSiblings = Arrays.copyOf(nextSiblings, size);
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        values = Arrays.copyOf(values, size);
+        attributes = Arrays.copyOf(attributes, size);
+        objects = Arrays.copyOf(objects, objectCount);
+        scripts = Arrays.copyOf(scripts, scriptCount);
+    }
+
+    /**
+     * Adds the specified object to the end of the side table.
+     *
+     * @param object
+     *         the object to add.
+     */
+    private void addObject(Object object) {
+        if (objectCount == objects.length) {
+            objects = Arrays.copyOf(objects, objectCount * 2);
+        }
+        objects[objectCount++] = object;
+    }
+
+    /**
+     * Creates the node at the specified index together with all of its children.
+     *
+     * @param index
+     *         the index of the node.
+     *
+     * @return the created {@link AstNode} object, or {@code null} if the node is a placeholder of a missing node.
+     */
+    private AstNode node(int index) {
+        var kind = KINDS[kinds[index]];
+        if (kind == NodeKind.NONE) {
+            return null;
+        }
+        if (kind == NodeKind.BINARY_OPERATION) {
+            return binaryOperation(index);
+        }
+        var children = children(index);
+        var range = range(index);
+        switch (kind) {
+            case SCRIPT: {
+                var annotations = 0;
+                while (children[annotations] instanceof AstAnnotation) {
+                    annotations++;
+                }
+                var parameters = slice(children, annotations + 2, children.length - 1, AstParameter[].class);
+                var code = (AstBlockStatement) children[children.length - 1];
+                return new AstScript(range, Arrays.asList(slice(children, 0, annotations, AstAnnotation[].class)), (AstIdentifier) children[annotations], (AstIdentifier) children[annotations + 1], parameters, attribute(index, 0), code);
+            }
+            case ANNOTATION:
+                return new AstAnnotation(range, (AstIdentifier) children[0], (AstLiteralInteger) children[1]);
+            case PARAMETER:
+                return new AstParameter(range, attribute(index, 0), (AstIdentifier) children[0]);
+            case IDENTIFIER:
+                return typed(index, new AstIdentifier(range, attribute(index, 1)));
+            case BOOL:
+                return typed(index, new AstLiteralBool(range, values[index] != 0));
+            case INTEGER:
+                return typed(index, new AstLiteralInteger(range, values[index]));
+            case LONG:
+                return typed(index, new AstLiteralLong(range, this.<Long>attribute(index, 1)));
+            case STRING:
+                return typed(index, new AstLiteralString(range, attribute(index, 1)));
+            case CONCATENATION:
+                return typed(index, new AstConcatenation(range, slice(children, 0, children.length, AstExpression[].class)));
+            case VARIABLE: {
+                var variable = new AstVariableExpression(range, attribute(index, 1), (AstIdentifier) children[0]);
+                variable.setVariable(attribute(index, 2));
+                return typed(index, variable);
+            }
+            case ARRAY: {
+                var array = new AstArrayExpression(range, (AstIdentifier) children[0], (AstExpression) children[1]);
+                array.setArray(attribute(index, 1));
+                return typed(index, array);
+            }
+            case CALL:
+                return typed(index, new AstCall(range, attribute(index, 1), (AstIdentifier) children[0], slice(children, 1, children.length, AstExpression[].class)));
+            case DYNAMIC:
+                return typed(index, new AstDynamic(range, (AstIdentifier) children[0]));
+            case CONSTANT:
+                return typed(index, new AstConstant(range, (AstIdentifier) children[0]));
+            case COMMAND:
+                return typed(index, new AstCommand(range, (AstIdentifier) children[0], slice(children, 1, children.length, AstExpression[].class), values[index] != 0));
+            case CALC:
+                return typed(index, new AstCalc(range, (AstExpression) children[0]));
+            case VARIABLE_DECLARATION: {
+                var declaration = new AstVariableDeclaration(range, attribute(index, 0), (AstIdentifier) children[0], (AstExpression) children[1]);
+                declaration.setVariable(attribute(index, 1));
+                return declaration;
+            }
+            case ARRAY_DECLARATION: {
+                var declaration = new AstArrayDeclaration(range, attribute(index, 0), (AstIdentifier) children[0], (AstExpression) children[1]);
+                declaration.setArray(attribute(index, 1));
+                return declaration;
+            }
+            case VARIABLE_INITIALIZER: {
+                var initializer = new AstVariableInitializer(range, attribute(index, 0), (AstIdentifier) children[0], (AstExpression) children[1]);
+                initializer.setVariable(attribute(index, 1));
+                return initializer;
+            }
+            case ARRAY_INITIALIZER: {
+                var initializer = new AstArrayInitializer(range, (AstIdentifier) children[0], (AstExpression) children[1], (AstExpression) children[2]);
+                initializer.setArray(attribute(index, 0));
+                return initializer;
+            }
+            case SWITCH:
+                return new AstSwitchStatement(range, attribute(index, 0), (AstExpression) children[0], slice(children, 1, children.length - 1, AstSwitchCase[].class), (AstSwitchCase) children[children.length - 1]);
+            case SWITCH_CASE: {
+                var switchCase = new AstSwitchCase(range, slice(children, 0, children.length - 1, AstExpression[].class), (AstBlockStatement) children[children.length - 1]);
+                switchCase.setResolvedKeys(attribute(index, 0));
+                return switchCase;
+            }
+            case IF:
+                return new AstIfStatement(range, (AstExpression) children[0], (AstStatement) children[1], (AstStatement) children[2]);
+            case WHILE:
+                return new AstWhileStatement(range, (AstExpression) children[0], (AstStatement) children[1]);
+            case EXPRESSION_STATEMENT:
+                return new AstExpressionStatement(range, (AstExpression) children[0]);
+            case RETURN:
+                return new AstReturnStatement(range, slice(children, 0, children.length, AstExpression[].class));
+            case BLOCK:
+                return new AstBlockStatement(range, slice(children, 0, children.length, AstStatement[].class));
+            default:
+                throw new UnsupportedOperationException("Unsupported node kind: " + kind);
+        }
+    }
+
+    /**
+     * Creates the binary operation node at the specified index together with all of its children. The left operands
+     * are walked in a loop, so the length of an operations chain is not bound by the size of the thread stack.
+     *
+     * @param index
+     *         the index of the binary operation node.
+     *
+     * @return the created {@link AstBinaryOperation} object.
+     */
+    private AstExpression binaryOperation(int index) {
+        var operations = new ArrayDeque<Integer>();
+        var current = index;
+        while (KINDS[kinds[current]] == NodeKind.BINARY_OPERATION) {
+            operations.push(current);
+            current = firstChildren[current];
+        }
+        var left = (AstExpression) node(current);
+        while (!operations.isEmpty()) {
+            var operation = operations.pop();
+            var right = (AstExpression) node(nextSiblings[firstChildren[operation]]);
+            left = typed(operation, new AstBinaryOperation(left, attribute(operation, 1), right));
+        }
+        return left;
+    }
+
+    /**
+     * Creates all of the children of the node at the specified index.
+     *
+     * @param index
+     *         the index of the node.
+     *
+     * @return an array of the created children in the order which they were encoded in.
+     */
+    private AstNode[] children(int index) {
+        if (firstChildren[index] == -1) {
+            return NO_CHILDREN;
+        }
+        var count = 0;
+        for (var child = firstChildren[index]; child != -1; child = nextSiblings[child]) {
+            count++;
+        }
+        var children = new AstNode[count];
+        count = 0;
+        for (var child = firstChildren[index]; child != -1; child = nextSiblings[child]) {
+            children[count++] = node(child);
+        }
+        return children;
+    }
+
+    /**
+     * Creates the source code range of the node at the specified index.
+     *
+     * @param index
+     *         the index of the node.
+     *
+     * @return the created {@link Range} object.
+     */
+    private Range range(int index) {
+        if (starts[index] == -1) {
+            return (Range) objects[ends[index]];
+        }
+        return new Range(lineIndex, starts[index], ends[index]);
+    }
+
+    /**
+     * Returns an object payload of the node at the specified index.
+     *
+     * @param index
+     *         the index of the node.
+     * @param attribute
+     *         the index of the attribute within the attributes of the node.
+     * @param <T>
+     *         the type of the attribute.
+     *
+     * @return the attribute object.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T attribute(int index, int attribute) {
+        return (T) objects[attributes[index] + attribute];
+    }
+
+    /**
+     * Restores the type of the specified expression, which is always the first attribute of an expression node.
+     *
+     * @param index
+     *         the index of the expression node.
+     * @param expression
+     *         the created expression.
+     *
+     * @return the specified expression.
+     */
+    private AstExpression typed(int index, AstExpression expression) {
+        expression.setType(attribute(index, 0));
+        return expression;
+    }
+
+    /**
+     * Copies a range of the specified children into a new array of the specified type.
+     *
+     * @param children
+     *         the children to copy from.
+     * @param from
+     *         the index of the first child to copy.
+     * @param to
+     *         the index after the last child to copy.
+     * @param type
+     *         the type of the new array.
+     * @param <T>
+     *         the type of the children.
+     *
+     * @return the new array.
+     */
+    private static <T> T[] slice(AstNode[] children, int from, int to, Class<? extends T[]> type) {
+        return Arrays.copyOfRange(children, from, to, type);
+    }
+
+    /**
+     * Reads the specified amount of integers from the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to read from.
+     * @param count
+     *         the amount of integers to read.
+     *
+     * @return the read integers.
+     */
+    private static int[] readInts(IntBuffer buffer, int count) {
+        var ints = new int[count];
+        buffer.get(ints);
+        return ints;
+    }
+}
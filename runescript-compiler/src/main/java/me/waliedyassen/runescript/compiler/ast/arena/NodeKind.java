@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+/**
+ * The kinds of the nodes which are stored in an {@link AstArena}, each kind is stored by its ordinal.
+ *
+ * @author Walied K. Yassen
+ */
+enum NodeKind {
+
+    /**
+     * The kind of a missing optional node, such as the false statement of an if statement without an else.
+     */
+    NONE,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.AstScript}.
+     */
+    SCRIPT,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.AstAnnotation}.
+     */
+    ANNOTATION,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.AstParameter}.
+     */
+    PARAMETER,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstIdentifier}.
+     */
+    IDENTIFIER,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralBool}.
+     */
+    BOOL,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralInteger}.
+     */
+    INTEGER,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralLong}.
+     */
+    LONG,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.literal.AstLiteralString}.
+     */
+    STRING,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstConcatenation}.
+     */
+    CONCATENATION,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstVariableExpression}.
+     */
+    VARIABLE,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstArrayExpression}.
+     */
+    ARRAY,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstCall}.
+     */
+    CALL,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstDynamic}.
+     */
+    DYNAMIC,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstConstant}.
+     */
+    CONSTANT,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstCommand}.
+     */
+    COMMAND,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstCalc}.
+     */
+    CALC,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.expr.AstBinaryOperation}.
+     */
+    BINARY_OPERATION,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstVariableDeclaration}.
+     */
+    VARIABLE_DECLARATION,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstArrayDeclaration}.
+     */
+    ARRAY_DECLARATION,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstVariableInitializer}.
+     */
+    VARIABLE_INITIALIZER,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstArrayInitializer}.
+     */
+    ARRAY_INITIALIZER,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstSwitchStatement}.
+     */
+    SWITCH,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstSwitchCase}.
+     */
+    SWITCH_CASE,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement}.
+     */
+    IF,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement}.
+     */
+    WHILE,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstExpressionStatement}.
+     */
+    EXPRESSION_STATEMENT,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstReturnStatement}.
+     */
+    RETURN,
+
+    /**
+     * The kind of {@link me.waliedyassen.runescript.compiler.ast.stmt.AstBlockStatement}.
+     */
+    BLOCK
+}
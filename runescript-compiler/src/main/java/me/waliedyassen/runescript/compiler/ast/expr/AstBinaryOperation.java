@@ -48,7 +48,7 @@ public final class AstBinaryOperation extends AstExpression {
      *         the operation right side expression.
      */
     public AstBinaryOperation(AstExpression left, Operator operator, AstExpression right) {
-        super(new Range(left.getRange().getStart(), right.getRange().getEnd()));
+        super(new Range(left.getRange(), right.getRange()));
         this.left = addChild(left);
         this.operator = operator;
         this.right = addChild(right);
@@ -8,6 +8,7 @@
 package me.waliedyassen.runescript.compiler.ast.visitor;
 
 import me.waliedyassen.runescript.compiler.ast.AstAnnotation;
+import me.waliedyassen.runescript.compiler.ast.AstNode;
 import me.waliedyassen.runescript.compiler.ast.AstParameter;
 import me.waliedyassen.runescript.compiler.ast.AstScript;
 import me.waliedyassen.runescript.compiler.ast.expr.*;
@@ -19,24 +20,41 @@ import me.waliedyassen.runescript.compiler.ast.stmt.*;
 import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
 import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatement;
 
+import java.util.ArrayDeque;
+
 /**
  * Represents a {@link AstVisitor} implementation that will visit every node in the AST tree while having access to when
  * each node has entered and when each node has left the visitor.
+ * <p>
+ * The tree is walked using an explicit work stack rather than the Java call stack, each visit method enters the node
+ * and then pushes the exit of the node and the children of the node onto the stack, the outermost visit method then
+ * keeps visiting whatever is on top of the stack until it is empty. This means that the depth of the tree which can be
+ * visited is bound by the heap rather than by the size of the thread stack, and that the implementations which override
+ * a visit method to do some work before calling the super method still have that work done before the node is entered.
  */
 public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
 
+    /**
+     * The work stack of the visitor, which contains either {@link AstNode} objects that are yet to be visited or {@link
+     * Runnable} objects that are yet to be run.
+     */
+    private final ArrayDeque<Object> work = new ArrayDeque<>();
+
+    /**
+     * Whether or not the visitor is currently walking the work stack.
+     */
+    private boolean walking;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Void visit(AstScript script) {
         enter(script);
-        for (var parameter : script.getParameters()) {
-            parameter.accept(this);
-        }
-        script.getCode().accept(this);
-        exit(script);
-        return null;
+        push(() -> exit(script));
+        push(script.getCode());
+        push(script.getParameters());
+        return walk();
     }
 
     /**
@@ -233,11 +251,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstConcatenation concatenation) {
         enter(concatenation);
-        for (var expression : concatenation.getExpressions()) {
-            expression.accept(this);
-        }
-        exit(concatenation);
-        return null;
+        push(() -> exit(concatenation));
+        push(concatenation.getExpressions());
+        return walk();
     }
 
     /**
@@ -320,11 +336,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstCall call) {
         enter(call);
-        for (var expression : call.getArguments()) {
-            expression.accept(this);
-        }
-        exit(call);
-        return null;
+        push(() -> exit(call));
+        push(call.getArguments());
+        return walk();
     }
 
     /**
@@ -407,11 +421,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstCommand command) {
         enter(command);
-        for (var expression : command.getArguments()) {
-            expression.accept(this);
-        }
-        exit(command);
-        return null;
+        push(() -> exit(command));
+        push(command.getArguments());
+        return walk();
     }
 
     /**
@@ -438,9 +450,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstCalc calc) {
         enter(calc);
-        calc.getExpression().accept(this);
-        exit(calc);
-        return null;
+        push(() -> exit(calc));
+        push(calc.getExpression());
+        return walk();
     }
 
     /**
@@ -467,10 +479,10 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstBinaryOperation binaryOperation) {
         enter(binaryOperation);
-        binaryOperation.getLeft().accept(this);
-        binaryOperation.getRight().accept(this);
-        exit(binaryOperation);
-        return null;
+        push(() -> exit(binaryOperation));
+        push(binaryOperation.getRight());
+        push(binaryOperation.getLeft());
+        return walk();
     }
 
     /**
@@ -497,11 +509,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstVariableDeclaration variableDeclaration) {
         enter(variableDeclaration);
-        if (variableDeclaration.getExpression() != null) {
-            variableDeclaration.getExpression().accept(this);
-        }
-        exit(variableDeclaration);
-        return null;
+        push(() -> exit(variableDeclaration));
+        push(variableDeclaration.getExpression());
+        return walk();
     }
 
     /**
@@ -528,9 +538,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstArrayDeclaration arrayDeclaration) {
         enter(arrayDeclaration);
-        arrayDeclaration.getSize().accept(this);
-        exit(arrayDeclaration);
-        return null;
+        push(() -> exit(arrayDeclaration));
+        push(arrayDeclaration.getSize());
+        return walk();
     }
 
     /**
@@ -557,9 +567,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstVariableInitializer variableInitializer) {
         enter(variableInitializer);
-        variableInitializer.getExpression().accept(this);
-        exit(variableInitializer);
-        return null;
+        push(() -> exit(variableInitializer));
+        push(variableInitializer.getExpression());
+        return walk();
     }
 
     /**
@@ -586,10 +596,10 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstArrayInitializer arrayInitializer) {
         enter(arrayInitializer);
-        arrayInitializer.getIndex().accept(this);
-        arrayInitializer.getValue().accept(this);
-        exit(arrayInitializer);
-        return null;
+        push(() -> exit(arrayInitializer));
+        push(arrayInitializer.getValue());
+        push(arrayInitializer.getIndex());
+        return walk();
     }
 
     /**
@@ -616,15 +626,11 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstSwitchStatement switchStatement) {
         enter(switchStatement);
-        switchStatement.getCondition().accept(this);
-        for (var switchCase : switchStatement.getCases()) {
-            switchCase.accept(this);
-        }
-        if (switchStatement.getDefaultCase() != null) {
-            switchStatement.getDefaultCase().accept(this);
-        }
-        exit(switchStatement);
-        return null;
+        push(() -> exit(switchStatement));
+        push(switchStatement.getDefaultCase());
+        push(switchStatement.getCases());
+        push(switchStatement.getCondition());
+        return walk();
     }
 
     /**
@@ -651,12 +657,10 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstSwitchCase switchCase) {
         enter(switchCase);
-        for (var expression : switchCase.getKeys()) {
-            expression.accept(this);
-        }
-        switchCase.getCode().accept(this);
-        exit(switchCase);
-        return null;
+        push(() -> exit(switchCase));
+        push(switchCase.getCode());
+        push(switchCase.getKeys());
+        return walk();
     }
 
     /**
@@ -683,13 +687,11 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstIfStatement ifStatement) {
         enter(ifStatement);
-        ifStatement.getCondition().accept(this);
-        ifStatement.getTrueStatement().accept(this);
-        if (ifStatement.getFalseStatement() != null) {
-            ifStatement.getFalseStatement().accept(this);
-        }
-        exit(ifStatement);
-        return null;
+        push(() -> exit(ifStatement));
+        push(ifStatement.getFalseStatement());
+        push(ifStatement.getTrueStatement());
+        push(ifStatement.getCondition());
+        return walk();
     }
 
     /**
@@ -716,10 +718,10 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstWhileStatement whileStatement) {
         enter(whileStatement);
-        whileStatement.getCondition().accept(this);
-        whileStatement.getCode().accept(this);
-        exit(whileStatement);
-        return null;
+        push(() -> exit(whileStatement));
+        push(whileStatement.getCode());
+        push(whileStatement.getCondition());
+        return walk();
     }
 
     /**
@@ -746,9 +748,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstExpressionStatement expressionStatement) {
         enter(expressionStatement);
-        expressionStatement.getExpression().accept(this);
-        exit(expressionStatement);
-        return null;
+        push(() -> exit(expressionStatement));
+        push(expressionStatement.getExpression());
+        return walk();
     }
 
     /**
@@ -775,11 +777,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstReturnStatement returnStatement) {
         enter(returnStatement);
-        for (var expression : returnStatement.getExpressions()) {
-            expression.accept(this);
-        }
-        exit(returnStatement);
-        return null;
+        push(() -> exit(returnStatement));
+        push(returnStatement.getExpressions());
+        return walk();
     }
 
     /**
@@ -806,11 +806,9 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
     @Override
     public Void visit(AstBlockStatement blockStatement) {
         enter(blockStatement);
-        for (var statement : blockStatement.getStatements()) {
-            statement.accept(this);
-        }
-        exit(blockStatement);
-        return null;
+        push(() -> exit(blockStatement));
+        push(blockStatement.getStatements());
+        return walk();
     }
 
     /**
@@ -830,4 +828,68 @@ public abstract class AstTreeVisitor implements AstVisitor<Void, Void> {
      */
     public void exit(AstBlockStatement blockStatement) {
     }
+
+    /**
+     * Pushes the specified node onto the work stack of the visitor, so it is visited before anything that was pushed
+     * before it.
+     *
+     * @param node
+     *         the node to push, or {@code null} if there is nothing to push.
+     */
+    protected void push(AstNode node) {
+        if (node != null) {
+            work.push(node);
+        }
+    }
+
+    /**
+     * Pushes the specified nodes onto the work stack of the visitor in reverse order, so they are visited in the same
+     * order they are specified in.
+     *
+     * @param nodes
+     *         the nodes to push.
+     */
+    protected void push(AstNode[] nodes) {
+        for (var index = nodes.length - 1; index >= 0; index--) {
+            push(nodes[index]);
+        }
+    }
+
+    /**
+     * Pushes the specified task onto the work stack of the visitor, so it is run after everything that is pushed after
+     * it has been visited.
+     *
+     * @param task
+     *         the task to push.
+     */
+    protected void push(Runnable task) {
+        work.push(task);
+    }
+
+    /**
+     * Walks the work stack of the visitor until it is empty, unless the visitor is already walking it in which case the
+     * outer walk takes care of what was pushed.
+     *
+     * @return {@code null}, for convenience of the visit methods.
+     */
+    protected Void walk() {
+        if (walking) {
+            return null;
+        }
+        walking = true;
+        try {
+            while (!work.isEmpty()) {
+                var next = work.pop();
+                if (next instanceof AstNode) {
+                    ((AstNode) next).accept(this);
+                } else {
+                    ((Runnable) next).run();
+                }
+            }
+        } finally {
+            work.clear();
+            walking = false;
+        }
+        return null;
+    }
 }
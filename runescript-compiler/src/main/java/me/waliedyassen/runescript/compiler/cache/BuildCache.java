@@ -0,0 +1,584 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyGraph;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyKind;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.Annotation;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import me.waliedyassen.runescript.compiler.type.ArrayReference;
+import me.waliedyassen.runescript.type.PrimitiveType;
+import me.waliedyassen.runescript.type.TupleType;
+import me.waliedyassen.runescript.type.Type;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Represents a persistent build cache which is stored in a local directory. The cache holds the content hash, the
+ * defined script signatures, the compiled bytecode and the dependency graph of each source file that was
+ * compiled successfully, which allows the compiler to skip the source files that did not change since the last
+ * build. The syntax trees of the source files are stored next to it in a {@link SyntaxTreeCache}, so the
+ * unchanged source files which have to be checked again do not have to be parsed again.
+ * <p>
+ * The manifest file is a log of records, each save only appends the records of the source files that were updated or
+ * removed since the last save, so the entries of the unchanged source files are never written again. The log is
+ * written again as a whole once most of its records are outdated. The whole cache is discarded if the fingerprint it
+ * was written with does not match the fingerprint of the compiler that is opening it.
+ *
+ * @author Walied K. Yassen
+ */
+public final class BuildCache {
+
+    /**
+     * The name of the cache manifest file.
+     */
+    private static final String MANIFEST_NAME = "manifest.bin";
+
+    /**
+     * The name of the directory which the syntax tree files are stored in.
+     */
+    private static final String TREES_NAME = "trees";
+
+    /**
+     * The magic number of the cache manifest file.
+     */
+    private static final int MAGIC = 0x52534243;
+
+    /**
+     * The format version of the cache manifest file, this must be increased whenever the format or the compiler output
+     * changes.
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * The tag of the records which store a cached file.
+     */
+    private static final int RECORD_FILE = 1;
+
+    /**
+     * The tag of the records which remove a cached file.
+     */
+    private static final int RECORD_REMOVE = 2;
+
+    /**
+     * The minimum amount of outdated records in the manifest file before it is compacted.
+     */
+    private static final int COMPACT_THRESHOLD = 64;
+
+    /**
+     * The type tag of {@link PrimitiveType} types.
+     */
+    private static final int TYPE_PRIMITIVE = 0;
+
+    /**
+     * The type tag of {@link TupleType} types.
+     */
+    private static final int TYPE_TUPLE = 1;
+
+    /**
+     * The type tag of {@link ArrayReference} types.
+     */
+    private static final int TYPE_ARRAY_REFERENCE = 2;
+
+    /**
+     * The cached files map, the key is the path of the source file relative to the source directory.
+     */
+    private final Map<String, CachedFile> files = new HashMap<>();
+
+    /**
+     * The paths of the cached files that were updated or removed since the cache was last saved.
+     */
+    private final Set<String> changed = new HashSet<>();
+
+    /**
+     * The content hashes of the cached files that were replaced or removed since the cache was last saved.
+     */
+    private final List<byte[]> replaced = new ArrayList<>();
+
+    /**
+     * The directory which the cache is stored in.
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * The fingerprint of the compiler which is using the cache.
+     */
+    private final byte[] fingerprint;
+
+    /**
+     * The cache of the syntax trees of the cached files.
+     */
+    @Getter
+    private final SyntaxTreeCache trees;
+
+    /**
+     * The amount of records which are in the manifest file.
+     */
+    private int records;
+
+    /**
+     * Whether or not the manifest file has to be written again as a whole on the next save.
+     */
+    private boolean rewrite;
+
+    /**
+     * Constructs a new {@link BuildCache} type object instance.
+     *
+     * @param directory
+     *         the directory which the cache is stored in.
+     * @param fingerprint
+     *         the fingerprint of the compiler which is using the cache.
+     * @param environment
+     *         the environment to resolve the cached trigger types from.
+     */
+    private BuildCache(Path directory, byte[] fingerprint, CompilerEnvironment environment) {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+        trees = new SyntaxTreeCache(directory.resolve(TREES_NAME), fingerprint, environment);
+    }
+
+    /**
+     * Opens the build cache which is stored in the specified {@code directory}. If there is no cache stored in the
+     * directory or the stored cache was written with a different fingerprint, an empty cache is returned instead.
+     *
+     * @param directory
+     *         the directory which the cache is stored in.
+     * @param fingerprint
+     *         the fingerprint of the compiler which is opening the cache.
+     * @param environment
+     *         the environment to resolve the cached script trigger types from.
+     *
+     * @return the opened {@link BuildCache} object.
+     * @throws IOException
+     *         if anything occurs while reading the cache manifest file.
+     */
+    public static BuildCache open(Path directory, byte[] fingerprint, CompilerEnvironment environment) throws IOException {
+        var cache = new BuildCache(directory, fingerprint, environment);
+        var manifest = directory.resolve(MANIFEST_NAME);
+        cache.rewrite = true;
+        if (!Files.isRegularFile(manifest)) {
+            return cache;
+        }
+        try (var stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+            if (stream.readInt() != MAGIC || stream.readInt() != VERSION || !Arrays.equals(readBytes(stream), fingerprint)) {
+                return cache;
+            }
+            int tag;
+            while ((tag = stream.read()) != -1) {
+                var path = stream.readUTF();
+                switch (tag) {
+                    case RECORD_FILE:
+                        cache.files.put(path, readFile(stream, environment));
+                        break;
+                    case RECORD_REMOVE:
+                        cache.files.remove(path);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unrecognised record tag: " + tag);
+                }
+                cache.records++;
+            }
+            cache.rewrite = false;
+        } catch (EOFException e) {
+            // the last record was not written completely, the records before it are still valid.
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // the manifest refers to something that no longer exists, start from scratch.
+            cache.files.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * Saves the cached files that were updated or removed since the last save into the manifest file in the cache
+     * directory, and deletes the syntax tree files of the source files that are no longer cached. Nothing is written
+     * if nothing has changed.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the cache manifest file.
+     */
+    public void save() throws IOException {
+        if (!rewrite && changed.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(directory);
+        if (rewrite || records + changed.size() - files.size() > Math.max(files.size(), COMPACT_THRESHOLD)) {
+            var temporary = directory.resolve(MANIFEST_NAME + ".tmp");
+            try (var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                stream.writeInt(MAGIC);
+                stream.writeInt(VERSION);
+                writeBytes(stream, fingerprint);
+                for (var entry : files.entrySet()) {
+                    writeRecord(stream, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(temporary, directory.resolve(MANIFEST_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = files.size();
+            var hashes = new ArrayList<byte[]>(files.size());
+            files.values().forEach(file -> hashes.add(file.getHash()));
+            trees.retain(hashes);
+        } else {
+            try (var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(MANIFEST_NAME), StandardOpenOption.APPEND)))) {
+                for (var path : changed) {
+                    writeRecord(stream, path, files.get(path));
+                }
+            }
+            records += changed.size();
+            // the same content can still be cached for another source file, or for the same one with a new stamp.
+            var current = new HashSet<ByteBuffer>();
+            files.values().forEach(file -> current.add(ByteBuffer.wrap(file.getHash())));
+            for (var hash : replaced) {
+                if (!current.contains(ByteBuffer.wrap(hash))) {
+                    trees.remove(hash);
+                }
+            }
+        }
+        rewrite = false;
+        changed.clear();
+        replaced.clear();
+    }
+
+    /**
+     * Looks-up for the {@link CachedFile} of the source file with the specified {@code path}.
+     *
+     * @param path
+     *         the path of the source file relative to the source directory.
+     *
+     * @return the {@link CachedFile} object if it was present otherwise {@code null}.
+     */
+    public CachedFile lookup(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Stores the specified {@link CachedFile} for the source file with the specified {@code path}.
+     *
+     * @param path
+     *         the path of the source file relative to the source directory.
+     * @param file
+     *         the cached file to store.
+     */
+    public void update(String path, CachedFile file) {
+        var previous = files.put(path, file);
+        if (previous != file) {
+            changed.add(path);
+            if (previous != null) {
+                replaced.add(previous.getHash());
+            }
+        }
+    }
+
+    /**
+     * Collects all of the cached files which their path is not within the specified {@code paths}.
+     *
+     * @param paths
+     *         the paths of the source files that currently exist.
+     *
+     * @return a {@link Map} of the removed cached files by their path.
+     */
+    public Map<String, CachedFile> collectRemoved(Collection<String> paths) {
+        var removed = new HashMap<String, CachedFile>();
+        var existing = new HashSet<>(paths);
+        for (var entry : files.entrySet()) {
+            if (!existing.contains(entry.getKey())) {
+                removed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all of the cached files which their path is not within the specified {@code paths}.
+     *
+     * @param paths
+     *         the paths of the source files to retain.
+     */
+    public void retain(Collection<String> paths) {
+        var retained = new HashSet<>(paths);
+        var iterator = files.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (!retained.contains(entry.getKey())) {
+                changed.add(entry.getKey());
+                replaced.add(entry.getValue().getHash());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Collects the paths of all the cached files that depend on any of the scripts with the specified look-up keys.
+     *
+     * @param keys
+     *         the look-up keys of the scripts, see {@link SymbolTable#createScriptKey}.
+     *
+     * @return a {@link Set} of the dependent file paths.
+     */
+    public Set<String> collectDependents(Set<String> keys) {
+        var dependents = new HashSet<String>();
+        if (keys.isEmpty()) {
+            return dependents;
+        }
+        for (var entry : files.entrySet()) {
+            var graph = entry.getValue().getDependencyGraph();
+            for (var key : keys) {
+                var id = graph.lookup(DependencyKind.SCRIPT, key);
+                if (id != -1 && graph.hasDependents(id)) {
+                    dependents.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Calculates the hash of the specified source file content.
+     *
+     * @param data
+     *         the source file content.
+     *
+     * @return the calculated hash.
+     */
+    public static byte[] hash(byte[] data) {
+        return createDigest().digest(data);
+    }
+
+    /**
+     * Calculates the hash of the specified source file content, the position of the buffer is left unchanged.
+     *
+     * @param data
+     *         the source file content, between the position and the limit of the buffer.
+     *
+     * @return the calculated hash.
+     */
+    public static byte[] hash(ByteBuffer data) {
+        var digest = createDigest();
+        digest.update(data.duplicate());
+        return digest.digest();
+    }
+
+    /**
+     * Creates a new {@link MessageDigest} object for the hash algorithm which the cache uses.
+     *
+     * @return the created {@link MessageDigest} object.
+     */
+    public static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available", e);
+        }
+    }
+
+    /**
+     * Reads a single {@link CachedFile} from the specified {@code stream}.
+     *
+     * @param stream
+     *         the stream to read from.
+     * @param environment
+     *         the environment to resolve the trigger types from.
+     *
+     * @return the read {@link CachedFile} object.
+     * @throws IOException
+     *         if anything occurs while reading from the stream.
+     */
+    private static CachedFile readFile(DataInputStream stream, CompilerEnvironment environment) throws IOException {
+        var hash = readBytes(stream);
+        var size = stream.readLong();
+        var lastModified = stream.readLong();
+        var scriptsCount = stream.readInt();
+        var scripts = new ArrayList<CachedScript>(scriptsCount);
+        for (var index = 0; index < scriptsCount; index++) {
+            var triggerName = stream.readUTF();
+            var trigger = environment.lookupTrigger(triggerName);
+            if (trigger == null) {
+                throw new IllegalStateException("The trigger type '" + triggerName + "' is no longer registered");
+            }
+            var name = stream.readUTF();
+            var type = readType(stream);
+            var arguments = new Type[stream.readInt()];
+            for (var argument = 0; argument < arguments.length; argument++) {
+                arguments[argument] = readType(stream);
+            }
+            var annotationsCount = stream.readInt();
+            Map<String, Annotation> annotations = annotationsCount > 0 ? new HashMap<>() : Collections.emptyMap();
+            for (var annotation = 0; annotation < annotationsCount; annotation++) {
+                var annotationName = stream.readUTF();
+                annotations.put(annotationName, new Annotation(annotationName, stream.readInt()));
+            }
+            var data = readBytes(stream);
+            scripts.add(new CachedScript(new ScriptInfo(annotations, name, trigger, type, arguments), data));
+        }
+        return new CachedFile(hash, size, lastModified, scripts, DependencyGraph.read(stream));
+    }
+
+    /**
+     * Writes a single record to the specified {@code stream}, the record stores the specified {@link CachedFile} or
+     * removes the cached file of the specified path if it is {@code null}.
+     *
+     * @param stream
+     *         the stream to write to.
+     * @param path
+     *         the path of the source file relative to the source directory.
+     * @param file
+     *         the cached file to store, or {@code null} to remove it.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the stream.
+     */
+    private static void writeRecord(DataOutputStream stream, String path, CachedFile file) throws IOException {
+        stream.writeByte(file != null ? RECORD_FILE : RECORD_REMOVE);
+        stream.writeUTF(path);
+        if (file != null) {
+            writeFile(stream, file);
+        }
+    }
+
+    /**
+     * Writes the specified {@link CachedFile} to the specified {@code stream}.
+     *
+     * @param stream
+     *         the stream to write to.
+     * @param file
+     *         the cached file to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the stream.
+     */
+    private static void writeFile(DataOutputStream stream, CachedFile file) throws IOException {
+        writeBytes(stream, file.getHash());
+        stream.writeLong(file.getSize());
+        stream.writeLong(file.getLastModified());
+        stream.writeInt(file.getScripts().size());
+        for (var script : file.getScripts()) {
+            var info = script.getInfo();
+            stream.writeUTF(info.getTrigger().getRepresentation());
+            stream.writeUTF(info.getName());
+            writeType(stream, info.getType());
+            stream.writeInt(info.getArguments().length);
+            for (var argument : info.getArguments()) {
+                writeType(stream, argument);
+            }
+            stream.writeInt(info.getAnnotations().size());
+            for (var annotation : info.getAnnotations().values()) {
+                stream.writeUTF(annotation.getName());
+                stream.writeInt(annotation.getValue());
+            }
+            writeBytes(stream, script.getData());
+        }
+        file.getDependencyGraph().write(stream);
+    }
+
+    /**
+     * Reads a single {@link Type} from the specified {@code stream}.
+     *
+     * @param stream
+     *         the stream to read from.
+     *
+     * @return the read {@link Type} object.
+     * @throws IOException
+     *         if anything occurs while reading from the stream.
+     */
+    private static Type readType(DataInputStream stream) throws IOException {
+        var tag = stream.readUnsignedByte();
+        switch (tag) {
+            case TYPE_PRIMITIVE:
+                return PrimitiveType.valueOf(stream.readUTF());
+            case TYPE_TUPLE:
+                var childs = new Type[stream.readInt()];
+                for (var index = 0; index < childs.length; index++) {
+                    childs[index] = readType(stream);
+                }
+                return new TupleType(childs);
+            case TYPE_ARRAY_REFERENCE:
+                return new ArrayReference(PrimitiveType.valueOf(stream.readUTF()), stream.readInt());
+            default:
+                throw new IllegalStateException("Unrecognised type tag: " + tag);
+        }
+    }
+
+    /**
+     * Writes the specified {@link Type} to the specified {@code stream}.
+     *
+     * @param stream
+     *         the stream to write to.
+     * @param type
+     *         the type to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the stream.
+     */
+    private static void writeType(DataOutputStream stream, Type type) throws IOException {
+        if (type instanceof PrimitiveType) {
+            stream.writeByte(TYPE_PRIMITIVE);
+            stream.writeUTF(((PrimitiveType) type).name());
+        } else if (type instanceof TupleType) {
+            var childs = ((TupleType) type).getChilds();
+            stream.writeByte(TYPE_TUPLE);
+            stream.writeInt(childs.length);
+            for (var child : childs) {
+                writeType(stream, child);
+            }
+        } else if (type instanceof ArrayReference) {
+            var reference = (ArrayReference) type;
+            stream.writeByte(TYPE_ARRAY_REFERENCE);
+            stream.writeUTF(reference.getType().name());
+            stream.writeInt(reference.getIndex());
+        } else {
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    /**
+     * Reads a length prefixed byte array from the specified {@code stream}.
+     *
+     * @param stream
+     *         the stream to read from.
+     *
+     * @return the read byte array.
+     * @throws IOException
+     *         if anything occurs while reading from the stream.
+     */
+    private static byte[] readBytes(DataInputStream stream) throws IOException {
+        var length = stream.readInt();
+        if (length < 0) {
+            throw new IllegalStateException("Negative byte array length: " + length);
+        }
+        var bytes = new byte[length];
+        stream.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes a length prefixed byte array to the specified {@code stream}.
+     *
+     * @param stream
+     *         the stream to write to.
+     * @param bytes
+     *         the byte array to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the stream.
+     */
+    private static void writeBytes(DataOutputStream stream, byte[] bytes) throws IOException {
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+}
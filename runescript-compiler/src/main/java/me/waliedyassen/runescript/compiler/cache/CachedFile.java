@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyGraph;
+
+import java.util.List;
+
+/**
+ * Represents a single source file which is stored in the {@link BuildCache}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class CachedFile {
+
+    /**
+     * The value of the modification time when it is not known, a source file with an unknown modification time is
+     * always hashed to check whether or not it has changed.
+     */
+    public static final long UNKNOWN_TIME = -1;
+
+    /**
+     * The hash of the source file content.
+     */
+    @Getter
+    private final byte[] hash;
+
+    /**
+     * The size of the source file in bytes.
+     */
+    @Getter
+    private final long size;
+
+    /**
+     * The modification time of the source file in milliseconds, or {@link #UNKNOWN_TIME} if it is not known.
+     */
+    @Getter
+    private final long lastModified;
+
+    /**
+     * The scripts which are defined in the source file.
+     */
+    @Getter
+    private final List<CachedScript> scripts;
+
+    /**
+     * The dependency graph of the scripts which are defined in the source file.
+     */
+    @Getter
+    private final DependencyGraph dependencyGraph;
+
+    /**
+     * Constructs a new {@link CachedFile} type object instance which the size and the modification time of its source
+     * file are not known.
+     *
+     * @param hash
+     *         the hash of the source file content.
+     * @param scripts
+     *         the scripts which are defined in the source file.
+     * @param dependencyGraph
+     *         the dependency graph of the scripts which are defined in the source file.
+     */
+    public CachedFile(byte[] hash, List<CachedScript> scripts, DependencyGraph dependencyGraph) {
+        this(hash, -1, UNKNOWN_TIME, scripts, dependencyGraph);
+    }
+
+    /**
+     * Checks whether or not the source file is known to be unchanged, which is when both of its size and modification
+     * time are still the same as the cached ones.
+     *
+     * @param size
+     *         the current size of the source file.
+     * @param lastModified
+     *         the current modification time of the source file in milliseconds.
+     *
+     * @return <code>true</code> if the source file did not change otherwise <code>false</code>.
+     */
+    public boolean isUnchanged(long size, long lastModified) {
+        return this.lastModified != UNKNOWN_TIME && this.size == size && this.lastModified == lastModified;
+    }
+
+    /**
+     * Creates a copy of this cached file with the specified size and modification time.
+     *
+     * @param size
+     *         the size of the source file.
+     * @param lastModified
+     *         the modification time of the source file, or {@link #UNKNOWN_TIME} if it is not known.
+     *
+     * @return the created {@link CachedFile} object.
+     */
+    public CachedFile withStamp(long size, long lastModified) {
+        return new CachedFile(hash, size, lastModified, scripts, dependencyGraph);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+
+/**
+ * Represents a single script which is stored in the {@link BuildCache}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class CachedScript {
+
+    /**
+     * The symbol information of the script.
+     */
+    @Getter
+    private final ScriptInfo info;
+
+    /**
+     * The compiled bytecode data of the script.
+     */
+    @Getter
+    private final byte[] data;
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.commons.document.LineIndex;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.arena.AstArena;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Represents a persistent cache of the syntax trees of the source files, which is stored in a local directory. The
+ * syntax trees of each source file are stored in their {@link AstArena} binary form in a file which is named after the
+ * hash of the source file content, including the semantic information which was resolved by the last successful check
+ * of the source file. Loading the syntax trees of a source file that did not change is a single read of that file,
+ * which is much cheaper than tokenizing and parsing the source file again.
+ * <p>
+ * A stored file is ignored if it was written with a different format version or by a compiler with a different
+ * fingerprint.
+ *
+ * @author Walied K. Yassen
+ */
+public final class SyntaxTreeCache {
+
+    /**
+     * The extension of the syntax tree files.
+     */
+    private static final String EXTENSION = ".ast";
+
+    /**
+     * The magic number of the syntax tree files.
+     */
+    private static final int MAGIC = 0x52534154;
+
+    /**
+     * The format version of the syntax tree files, this must be increased whenever the format of the files or of the
+     * {@link AstArena} changes.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The directory which the syntax tree files are stored in.
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * The fingerprint of the compiler which is using the cache.
+     */
+    private final byte[] fingerprint;
+
+    /**
+     * The environment to resolve the trigger types of the loaded syntax trees from.
+     */
+    private final CompilerEnvironment environment;
+
+    /**
+     * Constructs a new {@link SyntaxTreeCache} type object instance.
+     *
+     * @param directory
+     *         the directory which the syntax tree files are stored in.
+     * @param fingerprint
+     *         the fingerprint of the compiler which is using the cache.
+     * @param environment
+     *         the environment to resolve the trigger types of the loaded syntax trees from.
+     */
+    public SyntaxTreeCache(Path directory, byte[] fingerprint, CompilerEnvironment environment) {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+        this.environment = environment;
+    }
+
+    /**
+     * Loads the syntax trees of the source file with the specified content hash.
+     *
+     * @param hash
+     *         the hash of the source file content, see {@link BuildCache#hash(byte[])}.
+     * @param lineIndex
+     *         the line index of the source file, which the ranges of the loaded syntax trees are created with.
+     *
+     * @return the loaded scripts of the source file, or {@code null} if they are not stored in the cache or the stored
+     * file cannot be used anymore.
+     * @throws IOException
+     *         if anything occurs while reading the syntax tree file.
+     */
+    public List<AstScript> load(byte[] hash, LineIndex lineIndex) throws IOException {
+        var path = resolve(hash);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !Arrays.equals(readBytes(buffer), fingerprint)) {
+                return null;
+            }
+            var arena = AstArena.read(buffer, lineIndex, environment);
+            // the scripts are decoded once, so the semantic checker and the code generator work on the same trees.
+            return new ArrayList<>(arena.asList());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalStateException e) {
+            // the file is truncated or refers to something that no longer exists, the source file is parsed instead.
+            return null;
+        }
+    }
+
+    /**
+     * Stores the syntax trees of the source file with the specified content hash, replacing whatever was stored for
+     * it before.
+     *
+     * @param hash
+     *         the hash of the source file content, see {@link BuildCache#hash(byte[])}.
+     * @param scripts
+     *         the scripts of the source file.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the syntax tree file.
+     */
+    public void store(byte[] hash, List<AstScript> scripts) throws IOException {
+        var arena = AstArena.encode(scripts);
+        Files.createDirectories(directory);
+        var path = resolve(hash);
+        var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                stream.writeInt(MAGIC);
+                stream.writeInt(VERSION);
+                stream.writeInt(fingerprint.length);
+                stream.write(fingerprint);
+                arena.write(stream);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Deletes the stored syntax tree file of the source file with the specified content hash, if there is any.
+     *
+     * @param hash
+     *         the hash of the source file content.
+     *
+     * @throws IOException
+     *         if anything occurs while deleting the syntax tree file.
+     */
+    public void remove(byte[] hash) throws IOException {
+        Files.deleteIfExists(resolve(hash));
+    }
+
+    /**
+     * Deletes the stored syntax tree files of all the source files which their content hash is not within the
+     * specified {@code hashes}. Only the syntax tree files are deleted, any other file in the directory is kept.
+     *
+     * @param hashes
+     *         the content hashes of the source files to retain.
+     *
+     * @throws IOException
+     *         if anything occurs while deleting the syntax tree files.
+     */
+    public void retain(Collection<byte[]> hashes) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        var names = new HashSet<String>();
+        for (var hash : hashes) {
+            names.add(resolve(hash).getFileName().toString());
+        }
+        try (var paths = Files.list(directory)) {
+            for (var path : (Iterable<Path>) paths::iterator) {
+                var name = path.getFileName().toString();
+                // the temporary files of a store which is still writing are not ours to delete.
+                if (name.endsWith(EXTENSION) && !names.contains(name)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the path of the syntax tree file of the source file with the specified content hash.
+     *
+     * @param hash
+     *         the hash of the source file content.
+     *
+     * @return the {@link Path} of the syntax tree file.
+     */
+    private Path resolve(byte[] hash) {
+        var builder = new StringBuilder(hash.length * 2 + EXTENSION.length());
+        for (var value : hash) {
+            builder.append(Character.forDigit((value >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(value & 0xf, 16));
+        }
+        return directory.resolve(builder.append(EXTENSION).toString());
+    }
+
+    /**
+     * Reads a length prefixed byte array from the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to read from.
+     *
+     * @return the read byte array.
+     */
+    private static byte[] readBytes(ByteBuffer buffer) {
+        var length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Invalid byte array length: " + length);
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -36,11 +36,13 @@ import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
 import me.waliedyassen.runescript.compiler.symbol.impl.CommandInfo;
 import me.waliedyassen.runescript.compiler.symbol.impl.variable.VariableDomain;
 import me.waliedyassen.runescript.compiler.type.ArrayReference;
+import me.waliedyassen.runescript.compiler.util.Operator;
 import me.waliedyassen.runescript.type.PrimitiveType;
 import me.waliedyassen.runescript.type.StackType;
 import me.waliedyassen.runescript.type.TupleType;
 import me.waliedyassen.runescript.type.Type;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -50,6 +52,10 @@ import static me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode.*;
 
 /**
  * Represents the compiler bytecode generator.
+ * <p>
+ * Like the {@link me.waliedyassen.runescript.compiler.semantics.typecheck.TypeChecking type checking}, only the
+ * else-if chains and the chains of binary operations are generated in a loop, the nesting of the source code is
+ * generated recursively.
  *
  * @author Walied K. Yassen
  */
@@ -318,32 +324,50 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
      */
     @Override
     public Instruction visit(AstBinaryOperation binaryOperation) {
-        if (!binaryOperation.getOperator().isArithmetic()) {
-            throw new UnsupportedOperationException("You should not be doing this.");
+        // walk the left operands in a loop, so the length of an operations chain is not bound by the size of the thread
+        // stack, the operations are then generated from the innermost one outwards like they would be when recursing.
+        var operations = new ArrayDeque<AstBinaryOperation>();
+        AstExpression expression = binaryOperation;
+        while (expression instanceof AstBinaryOperation) {
+            var operation = (AstBinaryOperation) expression;
+            if (!operation.getOperator().isArithmetic()) {
+                throw new UnsupportedOperationException("You should not be doing this.");
+            }
+            operations.push(operation);
+            expression = operation.getLeft();
         }
-        CoreOpcode opcode;
-        switch (binaryOperation.getOperator()) {
+        var last = expression.accept(this);
+        while (!operations.isEmpty()) {
+            var operation = operations.pop();
+            operation.getRight().accept(this);
+            last = instruction(getArithmeticOpcode(operation.getOperator()), 0);
+        }
+        return last;
+    }
+
+    /**
+     * Returns the {@link CoreOpcode opcode} of the specified arithmetic {@link Operator operator}.
+     *
+     * @param operator
+     *         the arithmetic operator to get the opcode for.
+     *
+     * @return the {@link CoreOpcode} of the operator.
+     */
+    private static CoreOpcode getArithmeticOpcode(Operator operator) {
+        switch (operator) {
             case ADD:
-                opcode = ADD;
-                break;
+                return ADD;
             case SUB:
-                opcode = SUB;
-                break;
+                return SUB;
             case MUL:
-                opcode = MUL;
-                break;
+                return MUL;
             case DIV:
-                opcode = DIV;
-                break;
+                return DIV;
             case MOD:
-                opcode = MOD;
-                break;
+                return MOD;
             default:
-                throw new UnsupportedOperationException("Cannot generate code for operator: " + binaryOperation.getOperator());
+                throw new UnsupportedOperationException("Cannot generate code for operator: " + operator);
         }
-        binaryOperation.getLeft().accept(this);
-        binaryOperation.getRight().accept(this);
-        return instruction(opcode, 0);
     }
 
     /**
@@ -436,30 +460,48 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
      */
     @Override
     public Void visit(AstIfStatement ifStatement) {
-        // preserve the labels of this if statement for number order.
-        var if_true_label = labelGenerator.generate("if_true");
-        var if_else_label = labelGenerator.generate("if_else");
-        var if_end_label = labelGenerator.generate("if_end");
-        // store whether we have an else statement or not.
-        var has_else = ifStatement.getFalseStatement() != null;
-        // grab the parent block of the if statement.
-        var source_block = context().getBlock();
-        // generate the condition of the if statement.
-        generateCondition(ifStatement.getCondition(), source_block, if_true_label, has_else ? if_else_label : if_end_label);
-        // generate the if-true block of the statement
-        bind(generateBlock(if_true_label));
-        ifStatement.getTrueStatement().accept(this);
-        // generate the branch instructions for the if-true block.
-        instruction(BRANCH, if_end_label);
-        // generate the if-else statement block and code.
-        var else_block = has_else ? generateBlock(if_else_label) : null;
-        if (has_else) {
-            bind(else_block);
-            ifStatement.getFalseStatement().accept(this);
+        // the end labels of the else-if chain statements which are yet to be generated, from the innermost.
+        var pending_labels = new ArrayDeque<Label>();
+        var current = ifStatement;
+        while (true) {
+            // preserve the labels of this if statement for number order.
+            var if_true_label = labelGenerator.generate("if_true");
+            var if_else_label = labelGenerator.generate("if_else");
+            var if_end_label = labelGenerator.generate("if_end");
+            // store whether we have an else statement or not.
+            var false_statement = current.getFalseStatement();
+            var has_else = false_statement != null;
+            // grab the parent block of the if statement.
+            var source_block = context().getBlock();
+            // generate the condition of the if statement.
+            generateCondition(current.getCondition(), source_block, if_true_label, has_else ? if_else_label : if_end_label);
+            // generate the if-true block of the statement
+            bind(generateBlock(if_true_label));
+            current.getTrueStatement().accept(this);
+            // generate the branch instructions for the if-true block.
             instruction(BRANCH, if_end_label);
+            // generate the if-else statement block and code.
+            if (has_else) {
+                bind(generateBlock(if_else_label));
+                // generate the else-if statement in place, the same way a nested visit would have generated it.
+                if (false_statement instanceof AstIfStatement) {
+                    pending_labels.push(if_end_label);
+                    current = (AstIfStatement) false_statement;
+                    continue;
+                }
+                false_statement.accept(this);
+                instruction(BRANCH, if_end_label);
+            }
+            // generate the if-end block and bind it.
+            bind(generateBlock(if_end_label));
+            break;
+        }
+        // finish the else-if chain statements from the innermost, the same way their nested visits would have.
+        while (!pending_labels.isEmpty()) {
+            var if_end_label = pending_labels.pop();
+            instruction(BRANCH, if_end_label);
+            bind(generateBlock(if_end_label));
         }
-        // generate the if-end block and bind it.
-        bind(generateBlock(if_end_label));
         return null;
     }
 
@@ -488,6 +530,58 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
         return null;
     }
 
+    /**
+     * Performs code generation on the specified logical {@code condition} expression. The left operands are walked in a
+     * loop, so the length of a logical operations chain is not bound by the size of the thread stack, and the code is
+     * generated in the same order as when recursing into the left operands.
+     *
+     * @param condition
+     *         the logical condition expression to perform the code generation on.
+     * @param source_block
+     *         the source block of the condition.
+     * @param branch_true
+     *         the if-true block label.
+     * @param branch_false
+     *         the if-false block label.
+     */
+    private void generateLogicalCondition(AstBinaryOperation condition, Block source_block, Label branch_true, Label branch_false) {
+        // the logical operations of the chain from the innermost, each with the labels it was given by its parent.
+        var operations = new ArrayDeque<LogicalOperation>();
+        AstExpression expression = condition;
+        while (expression instanceof AstBinaryOperation && ((AstBinaryOperation) expression).getOperator().isLogical()) {
+            var operation = (AstBinaryOperation) expression;
+            switch (operation.getOperator()) {
+                case LOGICAL_OR:
+                    operations.push(new LogicalOperation(operation, branch_true, branch_false, null));
+                    branch_false = null;
+                    break;
+                case LOGICAL_AND:
+                    var if_and_label = labelGenerator.generate("if_and");
+                    operations.push(new LogicalOperation(operation, branch_true, branch_false, if_and_label));
+                    branch_true = if_and_label;
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unexpected operator: " + operation.getOperator());
+            }
+            expression = operation.getLeft();
+        }
+        generateCondition(expression, source_block, branch_true, branch_false);
+        while (!operations.isEmpty()) {
+            var operation = operations.pop();
+            var right = operation.operation.getRight();
+            if (operation.and_label == null) {
+                bind(source_block);
+                generateCondition(right, source_block, operation.branch_true, null);
+                if (operation.branch_false != null) {
+                    instruction(source_block, BRANCH, operation.branch_false);
+                }
+            } else {
+                var if_and_block = bind(generateBlock(operation.and_label));
+                generateCondition(right, if_and_block, operation.branch_true, operation.branch_false);
+            }
+        }
+    }
+
     /**
      * Performs code generation on the specified {@code condition} expression and returns it's associated {@link
      * CoreOpcode opcode}.
@@ -535,24 +629,7 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
                     instruction(source_block, BRANCH, branch_false);
                 }
             } else if (operator.isLogical()) {
-                switch (operator) {
-                    case LOGICAL_OR:
-                        generateCondition(binaryOperation.getLeft(), source_block, branch_true, null);
-                        bind(source_block);
-                        generateCondition(binaryOperation.getRight(), source_block, branch_true, null);
-                        if (branch_false != null) {
-                            instruction(source_block, BRANCH, branch_false);
-                        }
-                        break;
-                    case LOGICAL_AND:
-                        var if_and_label = labelGenerator.generate("if_and");
-                        generateCondition(binaryOperation.getLeft(), source_block, if_and_label, branch_false);
-                        var if_and_block = bind(generateBlock(if_and_label));
-                        generateCondition(binaryOperation.getRight(), if_and_block, branch_true, branch_false);
-                        break;
-                    default:
-                        throw new UnsupportedOperationException("Unexpected operator: " + operator);
-                }
+                generateLogicalCondition(binaryOperation, source_block, branch_true, branch_false);
             } else {
                 throw new UnsupportedOperationException("Unexpected operator: " + operator);
             }
@@ -928,4 +1005,35 @@ public final class CodeGenerator implements AstVisitor<Instruction, Object> {
                 throw new UnsupportedOperationException("Unsupported stack type: " + type.getStackType());
         }
     }
+
+    /**
+     * Represents a logical operation of a logical operations chain which is waiting for its right operand to be
+     * generated, see {@link #generateLogicalCondition(AstBinaryOperation, Block, Label, Label)}.
+     *
+     * @author Walied K. Yassen
+     */
+    @RequiredArgsConstructor
+    private static final class LogicalOperation {
+
+        /**
+         * The logical operation expression.
+         */
+        private final AstBinaryOperation operation;
+
+        /**
+         * The if-true block label which the operation was given.
+         */
+        private final Label branch_true;
+
+        /**
+         * The if-false block label which the operation was given.
+         */
+        private final Label branch_false;
+
+        /**
+         * The label of the block which the right operand is generated in, or {@code null} if the operation is not a
+         * logical and operation.
+         */
+        private final Label and_label;
+    }
 }
@@ -13,6 +13,7 @@ import me.waliedyassen.runescript.compiler.codegen.Instruction;
 import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
 import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
 import me.waliedyassen.runescript.compiler.codegen.script.Script;
+import me.waliedyassen.runescript.compiler.jfr.OptimizationPassEvent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,12 +47,25 @@ public final class Optimizer {
      */
     public void run(Script script) {
         var count = 0;
+        var iteration = 0;
         do {
             count = 0;
             for (var optimization : optimizations) {
-                count += optimization.run(this, script);
+                var event = new OptimizationPassEvent();
+                event.begin();
+                var changes = optimization.run(this, script);
                 optimization.clean(this, script);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.script = script.getName();
+                    event.optimization = optimization.getClass().getSimpleName();
+                    event.iteration = iteration;
+                    event.changes = changes;
+                    event.commit();
+                }
+                count += changes;
             }
+            iteration++;
         } while (count > 0);
     }
 
@@ -25,6 +25,10 @@ public final class DeadBranchOptimization extends BlockOptimization {
      */
     @Override
     public int run(Optimizer optimizer, Script script, Block block) {
+        // the block can be left empty by the removal of its only branch instruction.
+        if (block.getInstructions().isEmpty()) {
+            return 0;
+        }
         var instruction = block.last();
         if (optimizer.is(instruction, CoreOpcode.BRANCH)) {
             // We currently define dead branch if it's after a return
@@ -26,6 +26,10 @@ public final class NaturalFlowOptimization extends BlockOptimization {
      */
     @Override
     public int run(Optimizer optimizer, Script script, Block block) {
+        // the block can be left empty by the removal of its only branch instruction.
+        if (block.getInstructions().isEmpty()) {
+            return 0;
+        }
         var instruction = block.last();
         if (optimizer.is(instruction, CoreOpcode.BRANCH)) {
             var label = (Label) instruction.getOperand();
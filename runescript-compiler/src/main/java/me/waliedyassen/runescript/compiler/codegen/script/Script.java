@@ -55,6 +55,19 @@ public final class Script {
     @Getter
     private final List<SwitchTable> switchTables;
 
+    /**
+     * Counts the amount of instructions in all of the blocks of the script.
+     *
+     * @return the amount of instructions in the script.
+     */
+    public int getInstructionCount() {
+        var count = 0;
+        for (var block : blocks.values()) {
+            count += block.getInstructions().size();
+        }
+        return count;
+    }
+
     /**
      * Checks whether or not the specified labels are next to each other.
      *
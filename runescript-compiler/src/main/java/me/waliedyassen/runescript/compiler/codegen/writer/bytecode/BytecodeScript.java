@@ -9,6 +9,7 @@ package me.waliedyassen.runescript.compiler.codegen.writer.bytecode;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.commons.stream.Cp1252;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -132,7 +133,8 @@ public final class BytecodeScript {
     }
 
     /**
-     * Writes a C-Style string (null terminated string) to the specified {@link DataOutputStream stream}.
+     * Writes a C-Style string (null terminated string) to the specified {@link DataOutputStream stream}, the string is
+     * encoded in cp1252 which is what the source files are decoded from.
      *
      * @param stream
      *         the stream to write to.
@@ -142,7 +144,9 @@ public final class BytecodeScript {
      * @throws IOException if anything occurs while writing the string to the stream.
      */
     private void writeString(DataOutputStream stream, String value) throws IOException {
-        stream.writeBytes(value);
+        for (var index = 0; index < value.length(); index++) {
+            stream.writeByte(Cp1252.encode(value.charAt(index)));
+        }
         stream.writeByte(0);
     }
 }
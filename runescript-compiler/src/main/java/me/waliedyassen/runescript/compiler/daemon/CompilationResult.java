@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.daemon;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.CompilerError;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents the result of a single compilation that was performed by the {@link CompilerDaemon}.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class CompilationResult {
+
+    /**
+     * The sequence number of the compilation, starting from one for the first compilation of the daemon.
+     */
+    @Getter
+    private final long sequence;
+
+    /**
+     * The errors that were produced by the compilation, empty if the compilation was successful.
+     */
+    @Getter
+    private final List<CompilerError> errors;
+
+    /**
+     * The time the compilation took in nanoseconds.
+     */
+    @Getter
+    private final long duration;
+
+    /**
+     * The names of the scripts which their output file was written by the compilation.
+     */
+    @Getter
+    private final Set<String> changedScripts;
+
+    /**
+     * Checks whether or not the compilation was successful.
+     *
+     * @return <code>true</code> if it was successful otherwise <code>false</code>.
+     */
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.daemon;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.CompilerError;
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.CompilerErrors;
+import me.waliedyassen.runescript.compiler.cache.BuildCache;
+import me.waliedyassen.runescript.compiler.output.DirectoryScriptSink;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Represents a long running compiler daemon which keeps a {@link Compiler} and its {@link BuildCache} in memory and
+ * recompiles the source directory whenever any of the script files within it changes, only the files that were touched
+ * and the files which depend on them are compiled again.
+ * <p>
+ * The daemon keeps track of the script files within the source directory from the watch events, so a compilation only
+ * reads the script files that were touched since the last successful compilation rather than scanning the whole source
+ * directory, the source directory is only scanned again if the watch service has lost any of the events. The output
+ * sink and the worker threads are kept open for the lifetime of the daemon.
+ * <p>
+ * The daemon can be controlled through a line based request protocol using {@link #serve(InputStream, OutputStream)},
+ * which can be bound to the standard input and output streams or to a local socket using {@link #serve(ServerSocket)}.
+ * The protocol supports the following requests, each request is a single line and is case insensitive:
+ * <ul>
+ * <li>{@code PING} responds with {@code PONG}.</li>
+ * <li>{@code COMPILE} compiles the source directory and responds with the result.</li>
+ * <li>{@code AWAIT} waits for the next compilation to finish and responds with its result.</li>
+ * <li>{@code STATUS} responds with the result of the last compilation, or {@code NONE} if there was none.</li>
+ * <li>{@code QUIT} responds with {@code BYE} and ends the session.</li>
+ * </ul>
+ * A compilation result is written as {@code OK <sequence> <millis> <changed>} for a successful compilation where
+ * {@code changed} is the amount of output files that were written, or as {@code FAILED <sequence> <millis> <count>}
+ * followed by {@code count} lines of {@code ERROR <line>:<column> <message>}, where the position is written as
+ * {@code -} if it is not known.
+ *
+ * @author Walied K. Yassen
+ */
+public final class CompilerDaemon implements Closeable {
+
+    /**
+     * The lock which guards the compilations and the last compilation result.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The listeners which are notified after each compilation.
+     */
+    private final List<Consumer<CompilationResult>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The compiler which we are using to compile the scripts.
+     */
+    @Getter
+    private final Compiler compiler;
+
+    /**
+     * The directory which contains the script source files.
+     */
+    @Getter
+    private final Path sourceDirectory;
+
+    /**
+     * The directory which the compiled scripts are written to.
+     */
+    @Getter
+    private final Path outputDirectory;
+
+    /**
+     * The build cache which is kept in memory between the compilations.
+     */
+    private final BuildCache cache;
+
+    /**
+     * The sink which the compiled scripts are written to, it is kept open between the compilations.
+     */
+    private final DirectoryScriptSink sink;
+
+    /**
+     * The executor which runs the compilation tasks, or {@code null} if they are run on the compiling thread.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The script files within the source directory, as known from the last scan and the watch events since.
+     */
+    private final Set<Path> sourceFiles = new TreeSet<>();
+
+    /**
+     * The script files which were created or modified since the last successful compilation.
+     */
+    private final Set<Path> changedFiles = new HashSet<>();
+
+    /**
+     * The time in milliseconds to wait for more changes before compiling, this groups the burst of changes that are
+     * caused by a single save or checkout into a single compilation.
+     */
+    @Getter
+    private final long quietPeriod;
+
+    /**
+     * The watch service which we are using to watch the source directory.
+     */
+    private WatchService watchService;
+
+    /**
+     * The thread which is watching the source directory.
+     */
+    private volatile Thread watcher;
+
+    /**
+     * The result of the last compilation.
+     */
+    private CompilationResult lastResult;
+
+    /**
+     * The sequence number of the last compilation.
+     */
+    private long sequence;
+
+    /**
+     * Whether or not the source directory has to be scanned again by the next compilation.
+     */
+    private boolean rescan = true;
+
+    /**
+     * Constructs a new {@link CompilerDaemon} type object instance.
+     *
+     * @param compiler
+     *         the compiler to use for compiling the scripts.
+     * @param sourceDirectory
+     *         the directory which contains the script source files.
+     * @param outputDirectory
+     *         the directory to write the compiled scripts to.
+     * @param cacheDirectory
+     *         the directory to store the build cache in.
+     * @param quietPeriod
+     *         the time in milliseconds to wait for more changes before compiling.
+     *
+     * @throws IOException
+     *         if anything occurs while opening the build cache.
+     */
+    public CompilerDaemon(Compiler compiler, Path sourceDirectory, Path outputDirectory, Path cacheDirectory, long quietPeriod) throws IOException {
+        if (quietPeriod < 0) {
+            throw new IllegalArgumentException("The quiet period cannot be negative");
+        }
+        this.compiler = compiler;
+        this.sourceDirectory = sourceDirectory;
+        this.outputDirectory = outputDirectory;
+        this.quietPeriod = quietPeriod;
+        cache = compiler.openCache(cacheDirectory);
+        sink = new DirectoryScriptSink(outputDirectory, cache.getDirectory().resolve(DirectoryScriptSink.MANIFEST_NAME));
+        executor = compiler.getParallelism() > 1 ? Executors.newFixedThreadPool(compiler.getParallelism(), runnable -> {
+            var thread = new Thread(runnable, "runescript-compiler-daemon-worker");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Compiles the source directory and then starts watching it for changes, any change to the script files will cause
+     * the source directory to be compiled again.
+     *
+     * @return the result of the initial compilation.
+     * @throws IOException
+     *         if anything occurs while registering the source directory in the watch service.
+     */
+    public CompilationResult start() throws IOException {
+        if (watcher != null) {
+            throw new IllegalStateException("The daemon has already been started");
+        }
+        watchService = sourceDirectory.getFileSystem().newWatchService();
+        register(sourceDirectory);
+        var result = compile();
+        watcher = new Thread(this::watch, "runescript-compiler-daemon");
+        watcher.setDaemon(true);
+        watcher.start();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        synchronized (lock) {
+            sink.close();
+        }
+    }
+
+    /**
+     * Compiles the source directory, only one compilation can run at a time, if another compilation is running then
+     * this method will wait for it to finish before compiling. Any failure of the compilation, including the syntax
+     * errors, is reported as a failed {@link CompilationResult} rather than thrown.
+     * <p>
+     * While the daemon is watching the source directory, only the script files which were touched since the last
+     * successful compilation are read, otherwise the whole source directory is scanned.
+     *
+     * @return the {@link CompilationResult} of the compilation.
+     */
+    public CompilationResult compile() {
+        CompilationResult result;
+        synchronized (lock) {
+            var start = System.nanoTime();
+            List<CompilerError> errors;
+            Set<String> changedScripts = Collections.emptySet();
+            var full = rescan || watcher == null;
+            try {
+                Files.createDirectories(outputDirectory);
+                if (full) {
+                    sourceFiles.clear();
+                    sourceFiles.addAll(Compiler.collectSourceFiles(sourceDirectory));
+                }
+                sink.clearChangedScripts();
+                compiler.compileDirectory(sourceDirectory, new ArrayList<>(sourceFiles), full ? null : changedFiles, sink, cache, executor);
+                changedScripts = new LinkedHashSet<>(sink.getChangedScripts());
+                errors = Collections.emptyList();
+                // the changed files are kept until a compilation succeeds, the build cache is only updated by it.
+                changedFiles.clear();
+                rescan = false;
+            } catch (CompilerErrors e) {
+                errors = e.getErrors();
+            } catch (CompilerError e) {
+                // the syntax and the lexical errors are thrown as they are rather than collected.
+                errors = List.of(e);
+            } catch (Throwable e) {
+                // the daemon has to keep running and waking up the waiting clients, whatever went wrong.
+                errors = List.of(new CompilerError(null, "Failed to compile the source directory: " + e));
+            }
+            result = new CompilationResult(++sequence, errors, System.nanoTime() - start, changedScripts);
+            lastResult = result;
+            lock.notifyAll();
+        }
+        for (var listener : listeners) {
+            listener.accept(result);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a compilation which its sequence number is greater than the specified {@code sequence} to finish.
+     *
+     * @param sequence
+     *         the sequence number of the last compilation the caller knows about.
+     *
+     * @return the {@link CompilationResult} of the compilation.
+     * @throws InterruptedException
+     *         if the current thread was interrupted while waiting.
+     */
+    public CompilationResult awaitCompilation(long sequence) throws InterruptedException {
+        synchronized (lock) {
+            while (lastResult == null || lastResult.getSequence() <= sequence) {
+                lock.wait();
+            }
+            return lastResult;
+        }
+    }
+
+    /**
+     * Returns the result of the last compilation.
+     *
+     * @return the {@link CompilationResult} of the last compilation, or {@code null} if there was none.
+     */
+    public CompilationResult getLastResult() {
+        synchronized (lock) {
+            return lastResult;
+        }
+    }
+
+    /**
+     * Registers a listener which will be notified after each compilation.
+     *
+     * @param listener
+     *         the listener to register.
+     */
+    public void addListener(Consumer<CompilationResult> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener which was registered using {@link #addListener(Consumer)}.
+     *
+     * @param listener
+     *         the listener to unregister.
+     */
+    public void removeListener(Consumer<CompilationResult> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Serves the request protocol sessions of all the connections that are accepted by the specified {@link
+     * ServerSocket}, each session is served on its own thread. This method returns when the server socket is closed.
+     * The server socket should be bound to a loopback address.
+     *
+     * @param server
+     *         the server socket to accept the connections from.
+     */
+    public void serve(ServerSocket server) {
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return;
+            }
+            var thread = new Thread(() -> {
+                try (socket) {
+                    serve(socket.getInputStream(), socket.getOutputStream());
+                } catch (Throwable e) {
+                    // the session has ended abruptly, there is nothing else we can do about it.
+                }
+            }, "runescript-compiler-daemon-session");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Serves a single request protocol session on the specified streams. This method returns when the session is ended
+     * by a {@code QUIT} request or when the input stream reaches its end.
+     *
+     * @param input
+     *         the stream to read the requests from.
+     * @param output
+     *         the stream to write the responses to.
+     *
+     * @throws IOException
+     *         if anything occurs while reading or writing the streams.
+     * @throws InterruptedException
+     *         if the current thread was interrupted while waiting for a compilation.
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException, InterruptedException {
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        var writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            var request = line.trim().toUpperCase();
+            if (request.isEmpty()) {
+                continue;
+            }
+            switch (request) {
+                case "PING":
+                    writer.println("PONG");
+                    break;
+                case "COMPILE":
+                    writeResult(writer, compile());
+                    break;
+                case "AWAIT":
+                    var last = getLastResult();
+                    writeResult(writer, awaitCompilation(last != null ? last.getSequence() : 0));
+                    break;
+                case "STATUS":
+                    var status = getLastResult();
+                    if (status == null) {
+                        writer.println("NONE");
+                    } else {
+                        writeResult(writer, status);
+                    }
+                    break;
+                case "QUIT":
+                    writer.println("BYE");
+                    writer.flush();
+                    return;
+                default:
+                    writer.println("UNKNOWN " + request);
+                    break;
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the specified {@link CompilationResult} to the specified protocol {@code writer}.
+     *
+     * @param writer
+     *         the writer to write the result to.
+     * @param result
+     *         the result to write.
+     */
+    private static void writeResult(PrintWriter writer, CompilationResult result) {
+        var millis = TimeUnit.NANOSECONDS.toMillis(result.getDuration());
+        if (result.isSuccessful()) {
+            writer.println("OK " + result.getSequence() + " " + millis + " " + result.getChangedScripts().size());
+            return;
+        }
+        writer.println("FAILED " + result.getSequence() + " " + millis + " " + result.getErrors().size());
+        for (var error : result.getErrors()) {
+            writer.println("ERROR " + formatPosition(error) + " " + error.getMessage());
+        }
+    }
+
+    /**
+     * Formats the start position of the specified {@link CompilerError error} for the request protocol. The position
+     * of an error is computed lazily, a failure to compute it is reported as an unknown position rather than ending
+     * the session.
+     *
+     * @param error
+     *         the error to format its start position.
+     *
+     * @return the formatted {@code <line>:<column>} position, or {@code -} if the position is not known.
+     */
+    private static String formatPosition(CompilerError error) {
+        try {
+            var range = error.getRange();
+            return range != null ? range.getStart().getLine() + ":" + range.getStart().getColumn() : "-";
+        } catch (Throwable e) {
+            return "-";
+        }
+    }
+
+    /**
+     * Watches the source directory and compiles it whenever a change occurs, until the daemon is closed.
+     */
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                var changed = process(watchService.take());
+                // group all of the changes that happen within the quiet period into a single compilation.
+                WatchKey key;
+                while ((key = watchService.poll(quietPeriod, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= process(key);
+                }
+                if (changed) {
+                    try {
+                        compile();
+                    } catch (Throwable e) {
+                        // a failing listener must not stop the daemon from watching.
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the daemon has been closed.
+        }
+    }
+
+    /**
+     * Processes all of the pending events of the specified {@link WatchKey}.
+     *
+     * @param key
+     *         the watch key to process its events.
+     *
+     * @return <code>true</code> if any of the events may affect the compilation otherwise <code>false</code>.
+     */
+    private boolean process(WatchKey key) {
+        var directory = (Path) key.watchable();
+        var changed = false;
+        synchronized (lock) {
+            for (var event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // some of the events were lost, the source directory has to be scanned again.
+                    try {
+                        register(sourceDirectory);
+                    } catch (IOException e) {
+                        // the source directory is scanned again anyway, any error will be reported by the compilation.
+                    }
+                    rescan = true;
+                    changed = true;
+                    continue;
+                }
+                var path = directory.resolve((Path) event.context());
+                if (event.kind() == ENTRY_DELETE) {
+                    // the removed path may be a directory, so all of the script files within it are removed as well.
+                    changed |= sourceFiles.removeIf(sourceFile -> sourceFile.startsWith(path));
+                } else if (Files.isDirectory(path)) {
+                    if (event.kind() == ENTRY_CREATE) {
+                        try {
+                            register(path);
+                            var created = Compiler.collectSourceFiles(path);
+                            sourceFiles.addAll(created);
+                            changedFiles.addAll(created);
+                        } catch (IOException | IllegalArgumentException e) {
+                            // the directory was removed before we could register it.
+                        }
+                        changed = true;
+                    }
+                } else if (path.toString().endsWith(Compiler.SOURCE_EXTENSION) && Files.isRegularFile(path)) {
+                    sourceFiles.add(path);
+                    changedFiles.add(path);
+                    changed = true;
+                }
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Registers the specified directory and all of its sub-directories in the watch service.
+     *
+     * @param directory
+     *         the directory to register.
+     *
+     * @throws IOException
+     *         if anything occurs while registering the directories.
+     */
+    private void register(Path directory) throws IOException {
+        try (var stream = Files.walk(directory)) {
+            var iterator = stream.filter(Files::isDirectory).iterator();
+            while (iterator.hasNext()) {
+                iterator.next().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            }
+        }
+    }
+}
@@ -10,6 +10,8 @@ package me.waliedyassen.runescript.compiler.env;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -73,4 +75,13 @@ public final class CompilerEnvironment {
     public TriggerType lookupTrigger(Kind kind) {
         return triggerByOperator.get(kind);
     }
+
+    /**
+     * Returns all of the trigger types that are registered in this environment.
+     *
+     * @return a read-only {@link Collection} of the registered trigger types.
+     */
+    public Collection<TriggerType> getTriggers() {
+        return Collections.unmodifiableCollection(triggerByRepresentation.values());
+    }
 }
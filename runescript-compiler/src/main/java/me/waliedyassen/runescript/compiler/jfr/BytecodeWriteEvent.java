@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event which is emitted for writing the bytecode of a single script.
+ *
+ * @author Walied K. Yassen
+ */
+@Name("runescript.BytecodeWrite")
+@Label("Bytecode Write")
+@Description("Bytecode writing of a single script")
+public final class BytecodeWriteEvent extends CompilerEvent {
+
+    /**
+     * The name of the script.
+     */
+    @Label("Script")
+    public String script;
+
+    /**
+     * The amount of instructions which were written.
+     */
+    @Label("Instructions")
+    public int instructions;
+
+    /**
+     * The size of the written bytecode.
+     */
+    @Label("Size")
+    @DataAmount
+    public int size;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event which is emitted for generating the code of a single script.
+ *
+ * @author Walied K. Yassen
+ */
+@Name("runescript.CodeGeneration")
+@Label("Code Generation")
+@Description("Code generation of a single script")
+public final class CodeGenerationEvent extends CompilerEvent {
+
+    /**
+     * The name of the script.
+     */
+    @Label("Script")
+    public String script;
+
+    /**
+     * The amount of instructions which were generated.
+     */
+    @Label("Instructions")
+    public int instructions;
+}
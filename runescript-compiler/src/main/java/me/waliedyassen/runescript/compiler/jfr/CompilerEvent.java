@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.StackTrace;
+
+/**
+ * The base class of all the JDK Flight Recorder events which are emitted by the compiler. The events are disabled by
+ * default and have no stack traces, they have to be enabled explicitly in the recording settings, e.g. using
+ * {@code -XX:StartFlightRecording:settings=profile,+runescript.Parse#enabled=true}.
+ *
+ * @author Walied K. Yassen
+ */
+@Category({"RuneScript", "Compiler"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class CompilerEvent extends Event {
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event which is emitted for running a single optimization pass on a single script.
+ *
+ * @author Walied K. Yassen
+ */
+@Name("runescript.OptimizationPass")
+@Label("Optimization Pass")
+@Description("A single optimization pass on a single script")
+public final class OptimizationPassEvent extends CompilerEvent {
+
+    /**
+     * The name of the script.
+     */
+    @Label("Script")
+    public String script;
+
+    /**
+     * The name of the optimization.
+     */
+    @Label("Optimization")
+    public String optimization;
+
+    /**
+     * The iteration of the optimizer which the pass was run in, starting from zero.
+     */
+    @Label("Iteration")
+    public int iteration;
+
+    /**
+     * The amount of units which were optimized by the pass.
+     */
+    @Label("Changes")
+    public int changes;
+}
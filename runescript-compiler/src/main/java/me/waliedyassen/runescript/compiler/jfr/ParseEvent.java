@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event which is emitted for parsing the tokens of a single source file, the headers and the code
+ * of the scripts are parsed separately and each is emitted as its own event.
+ * <p>
+ * The tokens are tokenized on demand while the headers are parsed, so the tokenizing is not an event of its own, the
+ * time which was spent in the tokenizer is reported through {@link #tokenizeTime} instead.
+ *
+ * @author Walied K. Yassen
+ */
+@Name("runescript.Parse")
+@Label("Parse")
+@Description("Parsing of a single source file")
+public final class ParseEvent extends CompilerEvent {
+
+    /**
+     * The path of the source file, or {@code null} if it was not compiled from a file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * The amount of scripts which were parsed.
+     */
+    @Label("Scripts")
+    public int scripts;
+
+    /**
+     * Whether or not the code of the scripts was parsed rather than their headers.
+     */
+    @Label("Bodies")
+    public boolean bodies;
+
+    /**
+     * The amount of tokens which were tokenized, not including the comments. The code of the scripts is parsed from
+     * the tokens which were tokenized with the headers, so this is always zero for the code of the scripts.
+     */
+    @Label("Tokens")
+    public int tokens;
+
+    /**
+     * The time which was spent in the tokenizer, this is a part of the duration of the event.
+     */
+    @Label("Tokenize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long tokenizeTime;
+}
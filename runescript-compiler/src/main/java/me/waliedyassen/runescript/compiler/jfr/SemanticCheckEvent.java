@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event which is emitted for the pre type checking of all the scripts, or for the type checking
+ * of the scripts of a single source file.
+ *
+ * @author Walied K. Yassen
+ */
+@Name("runescript.SemanticCheck")
+@Label("Semantic Check")
+@Description("Pre type checking or type checking of the scripts")
+public final class SemanticCheckEvent extends CompilerEvent {
+
+    /**
+     * The path of the source file, or {@code null} if the scripts were not checked per file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * Whether or not this is the pre type checking.
+     */
+    @Label("Pre Type Checking")
+    public boolean pre;
+
+    /**
+     * The amount of scripts which were checked.
+     */
+    @Label("Scripts")
+    public int scripts;
+
+    /**
+     * The amount of errors which were produced.
+     */
+    @Label("Errors")
+    public int errors;
+}
@@ -7,9 +7,11 @@
  */
 package me.waliedyassen.runescript.compiler.lexer;
 
+import lombok.Getter;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
 import me.waliedyassen.runescript.lexer.LexerBase;
+import me.waliedyassen.runescript.lexer.TokenBuffer;
 import me.waliedyassen.runescript.lexer.token.Token;
 
 /**
@@ -20,23 +22,113 @@ import me.waliedyassen.runescript.lexer.token.Token;
 public final class Lexer extends LexerBase<Kind> {
 
     /**
-     * Constructs a new {@link Lexer} type object instance.
+     * The tokenizer which we take all the {@link Token} objects from.
+     */
+    private final Tokenizer tokenizer;
+
+    /**
+     * Whether or not the time which is spent in the tokenizer is measured.
+     */
+    private final boolean timed;
+
+    /**
+     * The total time in nanoseconds which was spent in the tokenizer, this is only measured if the lexer is timed.
+     */
+    @Getter
+    private long tokenizeTime;
+
+    /**
+     * Constructs a new {@link Lexer} type object instance, the tokens are only tokenized when the parser requests them.
      *
      * @param tokenizer
      *         the tokenizer which we will take all the {@link Token} objects from.
      */
     public Lexer(Tokenizer tokenizer) {
-        tokens:
-        do {
-            var token = tokenizer.parse();
-            switch (token.getKind()) {
+        this(tokenizer, false);
+    }
+
+    /**
+     * Constructs a new {@link Lexer} type object instance, the tokens are only tokenized when the parser requests them.
+     *
+     * @param tokenizer
+     *         the tokenizer which we will take all the {@link Token} objects from.
+     * @param timed
+     *         whether or not the time which is spent in the tokenizer should be measured.
+     */
+    public Lexer(Tokenizer tokenizer, boolean timed) {
+        super(Kind.class);
+        this.tokenizer = tokenizer;
+        this.timed = timed;
+    }
+
+    /**
+     * Constructs a new {@link Lexer} type object instance which replays the specified already tokenized document.
+     *
+     * @param buffer
+     *         the buffer which holds all of the tokens of the document.
+     * @see #tokenize(Tokenizer)
+     */
+    public Lexer(TokenBuffer<Kind> buffer) {
+        super(buffer);
+        tokenizer = null;
+        timed = false;
+    }
+
+    /**
+     * Tokenizes the whole document of the specified {@link Tokenizer tokenizer} into a new {@link TokenBuffer}, skipping
+     * all of the comments. The buffer can be kept as the tokenized form of the document and be replayed using {@link
+     * #Lexer(TokenBuffer)}.
+     *
+     * @param tokenizer
+     *         the tokenizer to take the tokens from.
+     *
+     * @return the created {@link TokenBuffer} object.
+     */
+    public static TokenBuffer<Kind> tokenize(Tokenizer tokenizer) {
+        var buffer = new TokenBuffer<>(Kind.class, 256);
+        while (next(tokenizer, buffer)) {
+            // keep tokenizing until the end of the document.
+        }
+        return buffer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean fetch(TokenBuffer<Kind> buffer) {
+        if (!timed) {
+            return next(tokenizer, buffer);
+        }
+        var start = System.nanoTime();
+        try {
+            return next(tokenizer, buffer);
+        } finally {
+            tokenizeTime += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Tokenizes the next token into the specified buffer, skipping all of the comments.
+     *
+     * @param tokenizer
+     *         the tokenizer to take the token from.
+     * @param buffer
+     *         the buffer to add the token to.
+     *
+     * @return <code>true</code> if a token was added otherwise <code>false</code> if the end of the input was reached.
+     */
+    private static boolean next(Tokenizer tokenizer, TokenBuffer<Kind> buffer) {
+        while (true) {
+            switch (tokenizer.parse(buffer)) {
                 case EOF:
-                    break tokens;
+                    return false;
                 case COMMENT:
-                    continue tokens;
+                    buffer.removeLast();
+                    continue;
                 default:
-                    tokens.add(token);
+                    return true;
             }
-        } while (true);
+        }
     }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.lexer;
+
+import me.waliedyassen.runescript.lexer.TokenizerBase;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Finds the points which a source file can be split at into regions that can be tokenized and parsed independently of
+ * each other. A region always starts with a script header, which is a {@code [trigger,name]} at the start of a line that
+ * is not within a string literal or a comment, together with the annotations which precede it.
+ * <p>
+ * The splitter only looks at the raw bytes of the source file, it does not tokenize anything, so it is much cheaper than
+ * the tokenizer. It may miss some of the points which the source file could be split at, but every point which it finds
+ * is the start of a script.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptSplitter {
+
+    /**
+     * Splits the specified source file data into regions which are at least {@code size} bytes long, except for the
+     * last region.
+     *
+     * @param data
+     *         the cp1252 encoded source file data, between the position and the limit of the buffer.
+     * @param size
+     *         the minimum size of each region in bytes.
+     *
+     * @return the boundaries of the regions relative to the position of the buffer, the first boundary is always zero
+     * and the last boundary is always the length of the data.
+     */
+    public static int[] split(ByteBuffer data, int size) {
+        var base = data.position();
+        var length = data.remaining();
+        var boundaries = new int[8];
+        var count = 1;
+        var last = 0;
+        var lineStart = true;
+        var inString = false;
+        var inComment = false;
+        for (var index = 0; index < length; index++) {
+            var current = data.get(base + index);
+            var next = index + 1 < length ? data.get(base + index + 1) : 0;
+            var atLineStart = lineStart;
+            lineStart = current == '\n';
+            if (inComment) {
+                if (current == '*' && next == '/') {
+                    inComment = false;
+                    index++;
+                }
+            } else if (inString) {
+                if (current == '\\') {
+                    index++;
+                } else if (current == '"' || current == '\n') {
+                    inString = false;
+                }
+            } else if (current == '"') {
+                inString = true;
+            } else if (current == '/' && next == '/') {
+                while (index + 1 < length && data.get(base + index + 1) != '\n') {
+                    index++;
+                }
+            } else if (current == '/' && next == '*') {
+                inComment = true;
+                index++;
+            } else if (current == '[' && atLineStart && index - last >= size && isHeader(data, base, index + 1, length)) {
+                var boundary = skipAnnotations(data, base, index, last);
+                if (boundary > last) {
+                    if (count == boundaries.length) {
+                        boundaries = Arrays.copyOf(boundaries, count * 2);
+                    }
+                    boundaries[count++] = boundary;
+                    last = boundary;
+                }
+            }
+        }
+        if (count + 1 > boundaries.length) {
+            boundaries = Arrays.copyOf(boundaries, count + 1);
+        }
+        boundaries[count++] = length;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    /**
+     * Checks whether or not the characters after an opening bracket form the rest of a script header, which is an
+     * identifier followed by a comma, another identifier and a closing bracket.
+     *
+     * @param data
+     *         the source file data.
+     * @param base
+     *         the position of the source file data within the buffer.
+     * @param index
+     *         the index of the character after the opening bracket.
+     * @param length
+     *         the length of the source file data.
+     *
+     * @return <code>true</code> if they do otherwise <code>false</code>.
+     */
+    private static boolean isHeader(ByteBuffer data, int base, int index, int length) {
+        index = skipIdentifier(data, base, index, length);
+        if (index == -1 || index >= length || data.get(base + index) != ',') {
+            return false;
+        }
+        index = skipIdentifier(data, base, index + 1, length);
+        return index != -1 && index < length && data.get(base + index) == ']';
+    }
+
+    /**
+     * Skips the identifier which starts at the specified index.
+     *
+     * @param data
+     *         the source file data.
+     * @param base
+     *         the position of the source file data within the buffer.
+     * @param index
+     *         the index of the first character of the identifier.
+     * @param length
+     *         the length of the source file data.
+     *
+     * @return the index after the identifier, or {@code -1} if there is no identifier at the specified index.
+     */
+    private static int skipIdentifier(ByteBuffer data, int base, int index, int length) {
+        var start = index;
+        while (index < length && TokenizerBase.isIdentifierPart((char) (data.get(base + index) & 0xff))) {
+            index++;
+        }
+        return index == start ? -1 : index;
+    }
+
+    /**
+     * Moves the start of a script back over the annotation lines which precede its header, the blank lines between the
+     * annotations are skipped as well.
+     *
+     * @param data
+     *         the source file data.
+     * @param base
+     *         the position of the source file data within the buffer.
+     * @param index
+     *         the index of the script header.
+     * @param floor
+     *         the index which the start of the script cannot be moved before.
+     *
+     * @return the index of the start of the script.
+     */
+    private static int skipAnnotations(ByteBuffer data, int base, int index, int floor) {
+        var start = index;
+        var line = index;
+        while (line > floor) {
+            var previous = line - 1;
+            while (previous > floor && data.get(base + previous - 1) != '\n') {
+                previous--;
+            }
+            var first = previous;
+            while (first < line && TokenizerBase.isWhitespace((char) (data.get(base + first) & 0xff))) {
+                first++;
+            }
+            // the blank lines are skipped without moving the start of the script.
+            if (first < line) {
+                if (data.get(base + first) != '#') {
+                    break;
+                }
+                start = previous;
+            }
+            line = previous;
+        }
+        return start;
+    }
+}
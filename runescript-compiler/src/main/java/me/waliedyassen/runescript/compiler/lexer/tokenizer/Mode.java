@@ -8,8 +8,8 @@
 package me.waliedyassen.runescript.compiler.lexer.tokenizer;
 
 /**
- * Represents a parser mode, it tells what we are currently parsing whether it is string literal, integral literal, or
- * something else.
+ * Represents a parser mode, it tells what we are currently parsing whether it is a string literal or an interpolated
+ * string literal. The other tokens are tokenized in one go from their first character, so they need no mode.
  *
  * @author Walied K. Yassen
  */
@@ -19,11 +19,6 @@ public enum Mode {
      */
     NONE,
 
-    /**
-     * Indicates that the parser is currently parsing an identifier.
-     */
-    IDENTIFIER,
-
     /**
      * Indicates that the parser is currently parsing a string literal.
      */
@@ -32,20 +27,5 @@ public enum Mode {
     /**
      * Indicates that the parser is currently parsing an interpolated string literal.
      */
-    ISTRING_LITERAL,
-
-    /**
-     * Indicates that the parser is currently parsing a number literal.
-     */
-    NUMBER_LITERAL,
-
-    /**
-     * Indicates that the parser is currently parsing a line comment.
-     */
-    LINE_COMMENT,
-
-    /**
-     * Indicates that the parser is currently parsing a multi-line comment.
-     */
-    MULTI_COMMENT
+    ISTRING_LITERAL
 }
\ No newline at end of file
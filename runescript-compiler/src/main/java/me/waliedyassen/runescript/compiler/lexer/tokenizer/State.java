@@ -8,13 +8,11 @@
 package me.waliedyassen.runescript.compiler.lexer.tokenizer;
 
 import lombok.RequiredArgsConstructor;
-import me.waliedyassen.runescript.commons.document.LineColumn;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.lexer.token.Token;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.List;
 
 /**
  * Represents the {@link Tokenizer} state, it holds the current parsing state variables for that tokenizer.
@@ -39,20 +37,15 @@ final class State {
     final StateKind kind;
 
     /**
-     * The current character position within the document
+     * The current character offset within the document
      */
-    LineColumn position;
+    int position;
 
     /**
      * The current parsing mode, tells what we are currently parsing.
      */
     Mode mode = Mode.NONE;
 
-    /**
-     * A helper {@link List} of {@link String}, mainly used for multi-line comments.
-     */
-    List<String> lines;
-
     /**
      * Creates an empty {@link State} object instance.
      *
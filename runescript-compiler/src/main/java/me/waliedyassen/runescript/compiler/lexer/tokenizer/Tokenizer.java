@@ -7,17 +7,21 @@
  */
 package me.waliedyassen.runescript.compiler.lexer.tokenizer;
 
-import lombok.RequiredArgsConstructor;
 import me.waliedyassen.runescript.lexer.LexicalError;
 import me.waliedyassen.runescript.commons.document.Range;
+import me.waliedyassen.runescript.commons.intern.Interner;
 import me.waliedyassen.runescript.commons.stream.CharStream;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
+import me.waliedyassen.runescript.lexer.TokenBuffer;
 import me.waliedyassen.runescript.lexer.TokenizerBase;
+import me.waliedyassen.runescript.lexer.table.CharTrie;
 import me.waliedyassen.runescript.lexer.table.LexicalTable;
 import me.waliedyassen.runescript.lexer.token.Token;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Stack;
+import java.util.Arrays;
+import java.util.Deque;
 
 import static me.waliedyassen.runescript.commons.stream.CharStream.NULL;
 import static me.waliedyassen.runescript.compiler.lexer.token.Kind.*;
@@ -27,7 +31,6 @@ import static me.waliedyassen.runescript.compiler.lexer.token.Kind.*;
  *
  * @author Walied K. Yassen
  */
-@RequiredArgsConstructor
 public final class Tokenizer extends TokenizerBase {
 
     // TODO: Interpolated strings proper range creation.
@@ -35,7 +38,7 @@ public final class Tokenizer extends TokenizerBase {
     /**
      * The current states
      */
-    private final Stack<State> stack = new Stack<>();
+    private final Deque<State> stack = new ArrayDeque<>();
 
     /**
      * The lexical symbol table.
@@ -47,20 +50,134 @@ public final class Tokenizer extends TokenizerBase {
      */
     private final CharStream stream;
 
+    /**
+     * The pool which the identifier lexemes are interned into.
+     */
+    private final Interner interner;
+
+    /**
+     * Whether or not the comments are skipped rather than tokenized into {@link Kind#COMMENT} tokens.
+     */
+    private final boolean skipComments;
+
     /**
      * The current state
      */
     private State state = State.emptyState(State.StateKind.REGULAR);
 
+    /**
+     * The start offset of the last token which was tokenized.
+     */
+    private int tokenStart;
+
+    /**
+     * The end offset of the last token which was tokenized.
+     */
+    private int tokenEnd;
+
+    /**
+     * The lexeme of the last token which was tokenized.
+     */
+    private String tokenLexeme;
+
+    /**
+     * The characters of the identifier which is being tokenized, they are kept in an array rather than the builder so
+     * the keywords and the interned names can be looked-up without creating a {@link String} for them.
+     */
+    private char[] word = new char[32];
+
+    /**
+     * The amount of characters in the {@link #word} array.
+     */
+    private int wordLength;
+
+    /**
+     * Constructs a new {@link Tokenizer} type object instance which interns the identifiers into its own pool.
+     *
+     * @param table
+     *         the lexical symbol table.
+     * @param stream
+     *         the characters stream of the source.
+     */
+    public Tokenizer(LexicalTable<Kind> table, CharStream stream) {
+        this(table, stream, new Interner());
+    }
+
+    /**
+     * Constructs a new {@link Tokenizer} type object instance.
+     *
+     * @param table
+     *         the lexical symbol table.
+     * @param stream
+     *         the characters stream of the source.
+     * @param interner
+     *         the pool which the identifier lexemes are interned into, it is usually shared with the symbol table.
+     */
+    public Tokenizer(LexicalTable<Kind> table, CharStream stream, Interner interner) {
+        this(table, stream, interner, false);
+    }
+
+    /**
+     * Constructs a new {@link Tokenizer} type object instance.
+     *
+     * @param table
+     *         the lexical symbol table.
+     * @param stream
+     *         the characters stream of the source.
+     * @param interner
+     *         the pool which the identifier lexemes are interned into, it is usually shared with the symbol table.
+     * @param skipComments
+     *         whether or not the comments should be skipped without building their text, which is the case when only
+     *         the code is needed, or be tokenized into {@link Kind#COMMENT} tokens for the documentation and the tools.
+     */
+    public Tokenizer(LexicalTable<Kind> table, CharStream stream, Interner interner, boolean skipComments) {
+        this.table = table;
+        this.stream = stream;
+        this.interner = interner;
+        this.skipComments = skipComments;
+    }
+
     /**
      * Tokenizes the next sequence of characters into some meaningful {@link Token} object.
      *
      * @return the {@link Token} object or {@code null} if none could be tokenized.
      */
     public Token<Kind> parse() {
+        var kind = scan();
+        return new Token<>(kind, stream.lineIndex(), tokenStart, tokenEnd, tokenLexeme);
+    }
+
+    /**
+     * Tokenizes the next sequence of characters into a token and adds it to the specified {@link TokenBuffer buffer},
+     * without creating a {@link Token} object for it. The {@link Kind#EOF} token is not added to the buffer.
+     *
+     * @param buffer
+     *         the buffer to add the token to.
+     *
+     * @return the kind of the token.
+     */
+    public Kind parse(TokenBuffer<Kind> buffer) {
+        var kind = scan();
+        if (kind != EOF) {
+            buffer.add(kind, stream.lineIndex(), tokenStart, tokenEnd, tokenLexeme);
+        }
+        return kind;
+    }
+
+    /**
+     * Tokenizes the next sequence of characters into a token, the properties of the token other than its kind are
+     * left in the {@link #tokenStart}, {@link #tokenEnd} and {@link #tokenLexeme} fields.
+     *
+     * @return the kind of the token.
+     */
+    private Kind scan() {
         // check whether or not we have any fallback tokens.
         if (!state.fallback.isEmpty()) {
-            return state.fallback.removeFirst();
+            var token = state.fallback.removeFirst();
+            tokenStart = token.getStartOffset();
+            tokenEnd = token.getEndOffset();
+            tokenLexeme = token.getLexeme();
+            return token.getKind();
         }
         // grab some vars from the state for ease of access.
         final var builder = state.builder;
@@ -69,79 +186,54 @@ public final class Tokenizer extends TokenizerBase {
         char current, next;
         // keep parsing until we have a something to return.
         while (true) {
-            // mark the current position if we have no state yet.
             if (state.mode == Mode.NONE) {
-                mark();
+                // skip the whitespace ahead of the token, the token starts at the first character after it.
+                do {
+                    mark();
+                    current = stream.take();
+                } while (isWhitespace(current));
+                next = stream.peek();
+                resetBuilder();
+                // dispatch on the class of the first character, the most common token classes are checked first.
+                var flags = classOf(current);
+                if ((flags & IDENTIFIER_START) != 0) {
+                    return scanIdentifier(current);
+                } else if ((flags & DIGIT) != 0 || (current == '-' || current == '+') && isDigit(next)) {
+                    return scanNumber(current);
+                } else if (current == NULL) {
+                    return createToken(EOF);
+                } else if (current == '\"') {
+                    state.mode = Mode.STRING_LITERAL;
+                    continue;
+                } else if (current == '/' && next == '/') {
+                    stream.take();
+                    if (skipComments) {
+                        skipLineComment();
+                        continue;
+                    }
+                    return scanLineComment();
+                } else if (current == '/' && next == '*') {
+                    stream.take();
+                    if (skipComments) {
+                        skipMultiComment();
+                        continue;
+                    }
+                    return scanMultiComment();
+                } else if (table.isSeparator(current)) {
+                    return createToken(table.lookupSeparator(current), table.lookupSeparatorLexeme(current));
+                } else if (state_kind == State.StateKind.INTERPOLATION && current == '>') {
+                    popState();
+                    state.mode = Mode.ISTRING_LITERAL;
+                    continue;
+                } else {
+                    return scanOperator(current);
+                }
             }
             // take the current and next characters from the stream.
             current = stream.take();
             next = stream.peek();
             // parse the current character depending on the current state.
             switch (state.mode) {
-                case NONE:
-                    if (Character.isWhitespace(current)) {
-                        continue;
-                    } else {
-                        resetBuilder();
-                        if (current == NULL) {
-                            return createToken(EOF);
-                        } else if (isIdentifierStart(current)) {
-                            builder.append(current);
-                            stream.mark();
-                            state.mode = Mode.IDENTIFIER;
-                        } else if (current == '\"') {
-                            state.mode = Mode.STRING_LITERAL;
-                        } else if (Character.isDigit(current) || (current == '-' || current == '+') && Character.isDigit(next)) {
-                            builder.append(current);
-                            stream.mark();
-                            state.mode = Mode.NUMBER_LITERAL;
-                        } else if (current == '/' && next == '/') {
-                            stream.take();
-                            state.mode = Mode.LINE_COMMENT;
-                        } else if (current == '/' && next == '*') {
-                            stream.take();
-                            state.lines = new ArrayList<>();
-                            state.mode = Mode.MULTI_COMMENT;
-                        } else if (table.isSeparator(current)) {
-                            return createToken(table.lookupSeparator(current), Character.toString(current));
-                        } else {
-                            if (state_kind == State.StateKind.INTERPOLATION && current == '>') {
-                                popState();
-                                state.mode = Mode.ISTRING_LITERAL;
-                                continue;
-                            } else if (table.isOperatorStart(current)) {
-                                builder.append(current);
-                                for (var index = 1; index < table.getOperatorSize(); index++) {
-                                    // TODO: update the behaviour of peek() to skip the CR character, the same thing
-                                    // take() does.
-                                    if (!stream.hasRemaining() || stream.peek() == '\r' && stream.peek() == '\n') {
-                                        break;
-                                    }
-                                    builder.append(stream.take());
-                                }
-                                while (builder.length() > 0) {
-                                    var sequence = builder.toString();
-                                    if (table.isOperator(sequence)) {
-                                        return createToken(table.lookupOperator(sequence), sequence);
-                                    }
-                                    builder.setLength(builder.length() - 1);
-                                    stream.rollback(1);
-                                }
-                            }
-                            throwError("Unexpected character: " + current);
-                        }
-                    }
-                    break;
-                case IDENTIFIER:
-                    if (isIdentifierPart(current)) {
-                        builder.append(current);
-                        stream.mark();
-                    } else {
-                        stream.reset();
-                        var word = builder.toString();
-                        return createToken(table.isKeyword(word) ? table.lookupKeyword(word) : IDENTIFIER, builder.toString());
-                    }
-                    break;
                 case STRING_LITERAL:
                 case ISTRING_LITERAL:
                     if (current == NULL || current == '\n') {
@@ -180,7 +272,7 @@ public final class Tokenizer extends TokenizerBase {
                     } else if (current == '\"') {
                         if (state.mode == Mode.ISTRING_LITERAL) {
                             if (builder.length() > 0) {
-                                feed(createToken(CONCATE));
+                                feed(CONCATE, "");
                             } else {
                                 return createToken(CONCATE);
                             }
@@ -196,75 +288,183 @@ public final class Tokenizer extends TokenizerBase {
                             pushState(State.StateKind.INTERPOLATION);
                             // we were in a regular string and we now identified
                             // the string to be an interpolated string.
-                            feed(createToken(STRING, builder.toString()));
+                            feed(STRING, builder.toString());
                             return createToken(CONCATB);
                         }
                     } else {
                         builder.append(current);
                     }
                     break;
-                case NUMBER_LITERAL:
-                    if (Character.isDigit(current)) {
-                        builder.append(current);
-                        stream.mark();
-                    } else {
-                        var kind = INTEGER;
-                        if (current == 'L' || current == 'l') {
-                            kind = LONG;
-                        } else if (current != NULL) {
-                            stream.reset();
-                        }
-                        return createToken(kind, builder.toString());
-                    }
-                    break;
-                case LINE_COMMENT:
-                    if (current == NULL || current == '\n') {
-                        return createToken(COMMENT, trimComment(builder.toString(), false));
-                    } else {
-                        builder.append(current);
-                    }
-                    break;
-                case MULTI_COMMENT:
-                    if (current == NULL) {
-                        throwError("Unexpected end of comment");
-                    } else if (current == '\n') {
-                        var line = trimComment(builder.toString(), true);
-                        // ignores the header line if it was empty.
-                        if (state.lines.size() != 0 || line.length() != 0) {
-                            state.lines.add(line);
-                        }
-                        resetBuilder();
-                    } else if (current == '*' && next == '/') {
-                        var line = trimComment(builder.toString(), true);
-                        if (line.length() > 0) {
-                            state.lines.add(line);
-                        }
-                        resetBuilder();
-                        stream.take();
-                        return createToken(COMMENT, String.join("\n", state.lines));
-                    } else {
-                        state.builder.append(current);
-                    }
-                    break;
             }
         }
     }
 
     /**
-     * Creates a new {@link Token} object with the specified {@code kind}.
+     * Tokenizes the remaining characters of an identifier or a keyword.
+     *
+     * @param start
+     *         the first character of the identifier.
+     *
+     * @return the kind of the token.
+     */
+    private Kind scanIdentifier(char start) {
+        wordLength = 0;
+        appendWord(start);
+        char next;
+        while (isIdentifierPart(next = stream.peek())) {
+            stream.take();
+            appendWord(next);
+        }
+        var keyword = table.lookupKeyword(word, 0, wordLength);
+        return createToken(keyword != null ? keyword : IDENTIFIER, interner.intern(word, 0, wordLength));
+    }
+
+    /**
+     * Tokenizes the remaining characters of a number literal.
+     *
+     * @param start
+     *         the first character of the number literal, which is either a digit or a sign.
+     *
+     * @return the kind of the token.
+     */
+    private Kind scanNumber(char start) {
+        var builder = state.builder;
+        builder.append(start);
+        char next;
+        while (isDigit(next = stream.peek())) {
+            stream.take();
+            builder.append(next);
+        }
+        var kind = INTEGER;
+        if (next == 'L' || next == 'l') {
+            stream.take();
+            kind = LONG;
+        }
+        return createToken(kind, builder.toString());
+    }
+
+    /**
+     * Tokenizes the remaining characters of a line comment, including the line terminator.
+     *
+     * @return the kind of the token.
+     */
+    private Kind scanLineComment() {
+        var builder = state.builder;
+        char current;
+        while ((current = stream.take()) != NULL && current != '\n') {
+            builder.append(current);
+        }
+        return createToken(COMMENT, trimComment(builder.toString(), false));
+    }
+
+    /**
+     * Skips the remaining characters of a line comment, including the line terminator.
+     */
+    private void skipLineComment() {
+        char current;
+        do {
+            current = stream.take();
+        } while (current != NULL && current != '\n');
+    }
+
+    /**
+     * Skips the remaining characters of a multi-line comment.
+     */
+    private void skipMultiComment() {
+        while (true) {
+            var current = stream.take();
+            if (current == NULL) {
+                throwError("Unexpected end of comment");
+            } else if (current == '*' && stream.peek() == '/') {
+                stream.take();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tokenizes the remaining characters of a multi-line comment.
+     *
+     * @return the kind of the token.
+     */
+    private Kind scanMultiComment() {
+        var builder = state.builder;
+        var lines = new ArrayList<String>();
+        while (true) {
+            var current = stream.take();
+            if (current == NULL) {
+                throwError("Unexpected end of comment");
+            } else if (current == '\n') {
+                var line = trimComment(builder.toString(), true);
+                // ignores the header line if it was empty.
+                if (lines.size() != 0 || line.length() != 0) {
+                    lines.add(line);
+                }
+                builder.setLength(0);
+            } else if (current == '*' && stream.peek() == '/') {
+                var line = trimComment(builder.toString(), true);
+                if (line.length() > 0) {
+                    lines.add(line);
+                }
+                builder.setLength(0);
+                stream.take();
+                return createToken(COMMENT, String.join("\n", lines));
+            } else {
+                builder.append(current);
+            }
+        }
+    }
+
+    /**
+     * Tokenizes the longest operator which starts with the specified character, the operators trie of the lexical
+     * table is walked as a deterministic automaton as far as the characters allow, then the stream is rolled back to
+     * the longest operator that was matched on the way.
+     *
+     * @param start
+     *         the first character of the operator.
+     *
+     * @return the kind of the token.
+     */
+    private Kind scanOperator(char start) {
+        var operators = table.getOperatorTrie();
+        var node = operators.next(CharTrie.ROOT, start);
+        var matched = -1;
+        if (node != -1) {
+            matched = operators.value(node) != null ? node : -1;
+            var consumed = 0;
+            var accepted = 0;
+            while ((node = operators.next(node, stream.peek())) != -1) {
+                stream.take();
+                consumed++;
+                if (operators.value(node) != null) {
+                    matched = node;
+                    accepted = consumed;
+                }
+            }
+            stream.rollback(consumed - accepted);
+        }
+        if (matched == -1) {
+            throwError("Unexpected character: " + start);
+        }
+        return createToken(operators.value(matched), operators.word(matched));
+    }
+
+    /**
+     * Completes a token with the specified {@code kind} and an empty lexeme.
      *
      * @param kind
      *         the kind of the token.
      *
-     * @return the created {@link Token} object instance.
+     * @return the kind of the token.
      * @see #createToken(Kind, String)
      */
-    private Token createToken(Kind kind) {
+    private Kind createToken(Kind kind) {
         return createToken(kind, "");
     }
 
     /**
-     * Creates a new {@link Token} object with the specified {@code kind} and {@code lexeme}.
+     * Completes a token with the specified {@code kind} and {@code lexeme}, which ranges from the marked position to
+     * the current position.
      * <p>
      * Upon calling this method, the {@link State#mode} of the parser will be reset to it's default which is {@link
      * Mode#NONE}.
@@ -274,21 +474,44 @@ public final class Tokenizer extends TokenizerBase {
      * @param lexeme
      *         the lexeme of the token.
      *
-     * @return the created {@link Token} object instance.
+     * @return the kind of the token.
      */
-    private Token createToken(Kind kind, String lexeme) {
+    private Kind createToken(Kind kind, String lexeme) {
         state.mode = Mode.NONE;
-        return new Token(kind, range(), lexeme);
+        tokenStart = state.position;
+        tokenEnd = stream.offset();
+        tokenLexeme = lexeme;
+        return kind;
     }
 
     /**
-     * Adds the specified {@link Token} object to the end of the current state {@link State#fallback fallback} deque.
+     * Adds a new {@link Token} object with the specified {@code kind} and {@code lexeme} to the end of the current
+     * state {@link State#fallback fallback} deque.
+     * <p>
+     * Upon calling this method, the {@link State#mode} of the parser will be reset to it's default which is {@link
+     * Mode#NONE}.
      *
-     * @param token
-     *         the {@link Token token} object to add.
+     * @param kind
+     *         the kind of the token.
+     * @param lexeme
+     *         the lexeme of the token.
+     */
+    private void feed(Kind kind, String lexeme) {
+        state.mode = Mode.NONE;
+        state.fallback.addLast(new Token<>(kind, stream.lineIndex(), state.position, stream.offset(), lexeme));
+    }
+
+    /**
+     * Appends the specified character to the identifier characters array, growing the array if it is full.
+     *
+     * @param character
+     *         the character to append.
      */
-    private void feed(Token token) {
-        state.fallback.addLast(token);
+    private void appendWord(char character) {
+        if (wordLength == word.length) {
+            word = Arrays.copyOf(word, wordLength * 2);
+        }
+        word[wordLength++] = character;
     }
 
     /**
@@ -304,7 +527,7 @@ public final class Tokenizer extends TokenizerBase {
      * Marks the current position as the token start position.
      */
     private void mark() {
-        state.position = stream.position();
+        state.position = stream.offset();
     }
 
     /**
@@ -314,7 +537,7 @@ public final class Tokenizer extends TokenizerBase {
      * @see #mark()
      */
     private Range range() {
-        return new Range(state.position, stream.position());
+        return new Range(stream.lineIndex(), state.position, stream.offset());
     }
 
     /**
@@ -363,7 +586,7 @@ public final class Tokenizer extends TokenizerBase {
     private static String trimComment(String line, boolean trimStar) {
         int start = -1;
         for (int chpos = 0; chpos < line.length(); chpos++) {
-            if (!Character.isWhitespace(line.charAt(chpos))) {
+            if (!isWhitespace(line.charAt(chpos))) {
                 start = chpos;
                 break;
             }
@@ -376,7 +599,7 @@ public final class Tokenizer extends TokenizerBase {
         }
         int end = -1;
         for (int chpos = line.length() - 1; chpos >= start; chpos--) {
-            if (!Character.isWhitespace(line.charAt(chpos))) {
+            if (!isWhitespace(line.charAt(chpos))) {
                 end = chpos + 1;
                 break;
             }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.listener;
+
+/**
+ * Represents a listener which gets notified whenever a {@link CompilationPhase phase} of the compilation starts or
+ * finishes on a source file or a script.
+ * <p>
+ * When the compiler runs in parallel, the listener is notified from the worker threads, and may be notified of many
+ * phases at the same time, so the implementations must be thread-safe.
+ *
+ * @author Walied K. Yassen
+ */
+public interface CompilationListener {
+
+    /**
+     * Gets called when a phase is about to run on the specified {@code subject}.
+     *
+     * @param phase
+     *         the phase which is about to run.
+     * @param subject
+     *         the source file path or the script name, or {@code null} if the phase runs on all of the scripts.
+     */
+    default void phaseStarted(CompilationPhase phase, String subject) {
+        // NOOP
+    }
+
+    /**
+     * Gets called when a phase has finished running successfully.
+     *
+     * @param event
+     *         the measurements of the phase.
+     */
+    default void phaseFinished(PhaseEvent event) {
+        // NOOP
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.listener;
+
+/**
+ * Represents the phases of the compilation which are reported to the {@link CompilationListener}.
+ *
+ * @author Walied K. Yassen
+ */
+public enum CompilationPhase {
+
+    /**
+     * Reading the content of a source file, the count is the amount of bytes that were read.
+     */
+    READ,
+
+    /**
+     * Tokenizing the content of a source file, the count is the amount of tokens that were produced. The tokens are
+     * tokenized on demand by the parser, so this time is also included in {@link #PARSE} and the allocations of this
+     * phase are not measured.
+     */
+    TOKENIZE,
+
+    /**
+     * Parsing the tokens of a source file, the count is the amount of scripts that were parsed. The code of the scripts
+     * is only collected here and it is parsed in the {@link #PARSE_BODY} phase.
+     */
+    PARSE,
+
+    /**
+     * Parsing the code of the scripts of a source file, this is done right before the file is type checked and on the
+     * same thread, the count is the amount of scripts which their code was parsed. The syntax errors within the code of
+     * the scripts are reported in this phase rather than in the {@link #PARSE} phase.
+     */
+    PARSE_BODY,
+
+    /**
+     * Pre type checking all of the scripts, the count is the amount of scripts that were checked.
+     */
+    PRE_TYPE_CHECK,
+
+    /**
+     * Type checking the scripts of a source file, the count is the amount of scripts that were checked.
+     */
+    TYPE_CHECK,
+
+    /**
+     * Generating the code of a script, the count is the amount of instructions that were generated.
+     */
+    GENERATE,
+
+    /**
+     * Optimizing the generated code of a script, the count is the amount of instructions that were left.
+     */
+    OPTIMIZE,
+
+    /**
+     * Writing the bytecode of a script, the count is the amount of bytes that were written.
+     */
+    WRITE,
+
+    /**
+     * Handing a compiled script to the output sink, the count is the amount of bytes that were handed.
+     */
+    OUTPUT,
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.listener;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Measures the {@link CompilationPhase phases} of the compilation and reports them to the registered {@link
+ * CompilationListener listeners}.
+ * <p>
+ * When there are no listeners registered, {@link #start(CompilationPhase, String)} returns {@code null} without
+ * reading the clock or allocating anything, and {@link #finish(Timer, long)} returns immediately, so the profiler can
+ * be left in place for the production builds.
+ *
+ * @author Walied K. Yassen
+ */
+public final class CompilationProfiler {
+
+    /**
+     * An empty listeners array.
+     */
+    private static final CompilationListener[] EMPTY = new CompilationListener[0];
+
+    /**
+     * The thread management bean which we measure the allocations with, or {@code null} if it is not supported.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = createThreadBean();
+
+    /**
+     * The registered listeners, the array is replaced as a whole whenever a listener is added or removed.
+     */
+    private volatile CompilationListener[] listeners = EMPTY;
+
+    /**
+     * Registers the specified {@link CompilationListener listener}.
+     *
+     * @param listener
+     *         the listener to register.
+     */
+    public synchronized void addListener(CompilationListener listener) {
+        var listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Unregisters the specified {@link CompilationListener listener}.
+     *
+     * @param listener
+     *         the listener to unregister.
+     */
+    public synchronized void removeListener(CompilationListener listener) {
+        this.listeners = Arrays.stream(listeners).filter(other -> other != listener).toArray(CompilationListener[]::new);
+    }
+
+    /**
+     * Checks whether or not there is any listener registered.
+     *
+     * @return <code>true</code> if there is otherwise <code>false</code>.
+     */
+    public boolean isEnabled() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * Starts measuring the specified {@link CompilationPhase phase} on the current thread.
+     *
+     * @param phase
+     *         the phase which is about to run.
+     * @param subject
+     *         the source file path or the script name, or {@code null} if the phase runs on all of the scripts.
+     *
+     * @return the {@link Timer} of the phase, or {@code null} if there are no listeners registered.
+     */
+    public Timer start(CompilationPhase phase, String subject) {
+        var listeners = this.listeners;
+        if (listeners.length == 0) {
+            return null;
+        }
+        for (var listener : listeners) {
+            listener.phaseStarted(phase, subject);
+        }
+        return new Timer(listeners, phase, subject, allocatedBytes(), System.nanoTime());
+    }
+
+    /**
+     * Finishes measuring the phase of the specified {@link Timer timer} and reports it to the listeners, this must be
+     * called on the same thread which started the timer.
+     *
+     * @param timer
+     *         the timer of the phase, or {@code null} if the phase was not measured.
+     * @param count
+     *         the amount of items the phase produced.
+     */
+    public static void finish(Timer timer, long count) {
+        if (timer == null) {
+            return;
+        }
+        var duration = System.nanoTime() - timer.start;
+        var allocated = timer.allocated == -1 ? -1 : allocatedBytes() - timer.allocated;
+        var event = new PhaseEvent(timer.phase, timer.subject, duration, count, allocated);
+        for (var listener : timer.listeners) {
+            listener.phaseFinished(event);
+        }
+    }
+
+    /**
+     * Reports a phase which was measured by the caller, this is used for a phase which is interleaved with another one
+     * and cannot be measured using a {@link Timer}. The allocations of the phase are reported as {@code -1}.
+     *
+     * @param phase
+     *         the phase which was measured.
+     * @param subject
+     *         the source file path or the script name, or {@code null} if the phase ran on all of the scripts.
+     * @param duration
+     *         the time in nanoseconds which the phase took.
+     * @param count
+     *         the amount of items the phase produced.
+     */
+    public void report(CompilationPhase phase, String subject, long duration, long count) {
+        var listeners = this.listeners;
+        if (listeners.length == 0) {
+            return;
+        }
+        for (var listener : listeners) {
+            listener.phaseStarted(phase, subject);
+        }
+        var event = new PhaseEvent(phase, subject, duration, count, -1);
+        for (var listener : listeners) {
+            listener.phaseFinished(event);
+        }
+    }
+
+    /**
+     * Returns the amount of bytes which were allocated by the current thread so far.
+     *
+     * @return the amount of allocated bytes, or {@code -1} if it is not supported.
+     */
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    /**
+     * Creates the thread management bean which we measure the allocations with.
+     *
+     * @return the thread management bean, or {@code null} if the allocation measurement is not supported.
+     */
+    private static com.sun.management.ThreadMXBean createThreadBean() {
+        try {
+            var bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                var threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // the jdk.management module is not available.
+        }
+        return null;
+    }
+
+    /**
+     * Holds the state of a single phase measurement which was started by {@link #start(CompilationPhase, String)}.
+     *
+     * @author Walied K. Yassen
+     */
+    public static final class Timer {
+
+        /**
+         * The listeners which were registered when the phase started.
+         */
+        private final CompilationListener[] listeners;
+
+        /**
+         * The phase which is being measured.
+         */
+        private final CompilationPhase phase;
+
+        /**
+         * The subject which the phase runs on.
+         */
+        private final String subject;
+
+        /**
+         * The amount of bytes which were allocated by the thread when the phase started.
+         */
+        private final long allocated;
+
+        /**
+         * The time in nanoseconds which the phase started at.
+         */
+        private final long start;
+
+        /**
+         * Constructs a new {@link Timer} type object instance.
+         *
+         * @param listeners
+         *         the listeners which were registered when the phase started.
+         * @param phase
+         *         the phase which is being measured.
+         * @param subject
+         *         the subject which the phase runs on.
+         * @param allocated
+         *         the amount of bytes which were allocated by the thread when the phase started.
+         * @param start
+         *         the time in nanoseconds which the phase started at.
+         */
+        private Timer(CompilationListener[] listeners, CompilationPhase phase, String subject, long allocated, long start) {
+            this.listeners = listeners;
+            this.phase = phase;
+            this.subject = subject;
+            this.allocated = allocated;
+            this.start = start;
+        }
+    }
+}
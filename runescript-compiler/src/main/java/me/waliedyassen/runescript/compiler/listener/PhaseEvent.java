@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.listener;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Represents the measurements of a single {@link CompilationPhase phase} run on a single source file or script.
+ *
+ * @author Walied K. Yassen
+ */
+@RequiredArgsConstructor
+public final class PhaseEvent {
+
+    /**
+     * The phase which was run.
+     */
+    @Getter
+    private final CompilationPhase phase;
+
+    /**
+     * The source file path or the script name which the phase was run on, or {@code null} if the phase was run on all
+     * of the scripts at once.
+     */
+    @Getter
+    private final String subject;
+
+    /**
+     * The time the phase took in nanoseconds.
+     */
+    @Getter
+    private final long duration;
+
+    /**
+     * The amount of items the phase produced, see {@link CompilationPhase} for what is counted by each phase.
+     */
+    @Getter
+    private final long count;
+
+    /**
+     * The amount of bytes which were allocated by the thread while running the phase, or {@code -1} if the allocation
+     * measurement is not supported by the virtual machine.
+     */
+    @Getter
+    private final long allocatedBytes;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return phase + "[" + subject + "] " + duration + "ns count=" + count + " allocated=" + allocatedBytes;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.output;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.compiler.CompiledScript;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link ScriptSink} which writes all of the compiled scripts into a single {@link ScriptArchive archive} file.
+ * <p>
+ * The scripts are written sequentially through a {@link FileChannel} using a large buffer into a temporary file, the
+ * index is written after the scripts once the sink is {@link #finish() finished}, and only then the temporary file
+ * replaces the archive file. Closing the sink without finishing it discards the temporary file.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ArchiveScriptSink implements ScriptSink {
+
+    /**
+     * The default size of the write buffer in bytes.
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The names of the scripts which were written to the archive.
+     */
+    private final Set<String> names = new HashSet<>();
+
+    /**
+     * The path of the archive file.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * The path of the temporary file which we are writing to.
+     */
+    private final Path temporary;
+
+    /**
+     * The channel of the temporary file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The write buffer of the channel.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The sort keys of the written scripts, each key holds the name hash in the high bits and the entry number in the
+     * low bits, sorting the keys sorts the entries by their name hash.
+     */
+    private long[] keys = new long[1024];
+
+    /**
+     * The position of each written script in the archive file.
+     */
+    private long[] offsets = new long[1024];
+
+    /**
+     * The data length of each written script.
+     */
+    private int[] lengths = new int[1024];
+
+    /**
+     * The amount of scripts which were written to the archive.
+     */
+    private int count;
+
+    /**
+     * The position in the file which the next script will be written at.
+     */
+    private long position = ScriptArchive.HEADER_SIZE;
+
+    /**
+     * Whether or not the sink has been finished.
+     */
+    private boolean finished;
+
+    /**
+     * Constructs a new {@link ArchiveScriptSink} type object instance.
+     *
+     * @param path
+     *         the path of the archive file to write.
+     *
+     * @throws IOException
+     *         if anything occurs while creating the temporary file.
+     */
+    public ArchiveScriptSink(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new {@link ArchiveScriptSink} type object instance.
+     *
+     * @param path
+     *         the path of the archive file to write.
+     * @param bufferSize
+     *         the size of the write buffer in bytes.
+     *
+     * @throws IOException
+     *         if anything occurs while creating the temporary file.
+     */
+    public ArchiveScriptSink(Path path, int bufferSize) throws IOException {
+        if (bufferSize < ScriptArchive.HEADER_SIZE) {
+            throw new IllegalArgumentException("The buffer size is too small");
+        }
+        this.path = path;
+        var parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        // the header is written when the sink is finished.
+        channel.position(ScriptArchive.HEADER_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(CompiledScript script) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("The archive has already been finished");
+        }
+        if (!names.add(script.getName())) {
+            throw new IllegalArgumentException("The script '" + script.getName() + "' is already written to the archive");
+        }
+        var name = script.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xffff) {
+            throw new IllegalArgumentException("The script name is too long");
+        }
+        var data = script.getData();
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        keys[count] = (long) script.getName().hashCode() << 32 | count;
+        offsets[count] = position;
+        lengths[count] = data.length;
+        count++;
+        putShort(name.length);
+        put(name);
+        put(data);
+        position += 2 + name.length + data.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        // sort the index entries by the name hash so the reader can binary search them.
+        var sorted = Arrays.copyOf(keys, count);
+        Arrays.sort(sorted);
+        var indexOffset = position;
+        for (var key : sorted) {
+            var entry = (int) key;
+            ensure(ScriptArchive.ENTRY_SIZE);
+            buffer.putInt((int) (key >> 32));
+            buffer.putLong(offsets[entry]);
+            buffer.putInt(lengths[entry]);
+        }
+        flush();
+        var header = ByteBuffer.allocate(ScriptArchive.HEADER_SIZE);
+        header.putInt(ScriptArchive.MAGIC);
+        header.putInt(ScriptArchive.VERSION);
+        header.putInt(count);
+        header.putLong(indexOffset);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+        channel.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        channel.close();
+        Files.deleteIfExists(temporary);
+    }
+
+    /**
+     * Puts the specified bytes into the write buffer, flushing the buffer whenever it is full.
+     *
+     * @param bytes
+     *         the bytes to put.
+     *
+     * @throws IOException
+     *         if anything occurs while flushing the buffer.
+     */
+    private void put(byte[] bytes) throws IOException {
+        var offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            var length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Puts the specified unsigned short value into the write buffer.
+     *
+     * @param value
+     *         the value to put.
+     *
+     * @throws IOException
+     *         if anything occurs while flushing the buffer.
+     */
+    private void putShort(int value) throws IOException {
+        ensure(2);
+        buffer.putShort((short) value);
+    }
+
+    /**
+     * Ensures that the write buffer has at least the specified amount of bytes remaining.
+     *
+     * @param length
+     *         the amount of bytes.
+     *
+     * @throws IOException
+     *         if anything occurs while flushing the buffer.
+     */
+    private void ensure(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all of the content of the write buffer to the channel.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the channel.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.output;
+
+import lombok.Getter;
+import me.waliedyassen.runescript.compiler.CompiledScript;
+import me.waliedyassen.runescript.compiler.cache.BuildCache;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * A {@link ScriptSink} which writes each compiled script into its own file within an output directory.
+ * <p>
+ * When the sink is incremental, the output file of a script is only written if its content is different from what is
+ * already in the output directory, which keeps the modification time of the unchanged output files intact. If the sink
+ * has a manifest file, the hash of each output file is kept in it so an unchanged script is detected without reading
+ * its output file back, otherwise the output file is streamed through the same hash and compared, without reading it
+ * into memory as a whole. The names of the scripts which their output
+ * file was written are reported through {@link #getChangedScripts()}.
+ * <p>
+ * The same sink can be used for many compilations, such as by a long running daemon, in which case the manifest file is
+ * only read once and the changed scripts are cleared between the compilations using {@link #clearChangedScripts()}.
+ *
+ * @author Walied K. Yassen
+ */
+public final class DirectoryScriptSink implements ScriptSink {
+
+    /**
+     * The output file extension.
+     */
+    public static final String OUTPUT_EXTENSION = ".cs2";
+
+    /**
+     * The default name of the manifest file which holds the hash of each output file.
+     */
+    public static final String MANIFEST_NAME = "outputs.bin";
+
+    /**
+     * The magic number of the manifest file.
+     */
+    private static final int MAGIC = 0x5253444d;
+
+    /**
+     * The current version of the manifest file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the buffer which we use to stream the output files through the digest.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The names of the scripts which their output file was written by this sink.
+     */
+    @Getter
+    private final Set<String> changedScripts = new LinkedHashSet<>();
+
+    /**
+     * The hash of each output file by the script name, this is only used when the sink has a manifest file.
+     */
+    private final Map<String, byte[]> hashes = new HashMap<>();
+
+    /**
+     * The directory to write the compiled scripts into.
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * Whether or not the output files are only written when their content changes.
+     */
+    @Getter
+    private final boolean incremental;
+
+    /**
+     * The path of the manifest file, or {@code null} if the output files are compared directly.
+     */
+    @Getter
+    private final Path manifest;
+
+    /**
+     * The digest which we use to hash the output files, or {@code null} if the sink is not incremental.
+     */
+    private final MessageDigest digest;
+
+    /**
+     * The buffer which we use to stream the output files through the digest, or {@code null} if the sink is not
+     * incremental.
+     */
+    private final byte[] buffer;
+
+    /**
+     * Whether or not the hashes were modified since the manifest was loaded.
+     */
+    private boolean modified;
+
+    /**
+     * Whether or not the manifest file was removed before writing the first output file.
+     */
+    private boolean invalidated;
+
+    /**
+     * Constructs a new {@link DirectoryScriptSink} type object instance which always writes the output files.
+     *
+     * @param directory
+     *         the directory to write the compiled scripts into.
+     */
+    public DirectoryScriptSink(Path directory) {
+        this(directory, false);
+    }
+
+    /**
+     * Constructs a new {@link DirectoryScriptSink} type object instance which has no manifest file.
+     *
+     * @param directory
+     *         the directory to write the compiled scripts into.
+     * @param incremental
+     *         whether or not the output files should only be written when their content changes.
+     */
+    public DirectoryScriptSink(Path directory, boolean incremental) {
+        this.directory = directory;
+        this.incremental = incremental;
+        manifest = null;
+        digest = incremental ? BuildCache.createDigest() : null;
+        buffer = incremental ? new byte[BUFFER_SIZE] : null;
+    }
+
+    /**
+     * Constructs a new incremental {@link DirectoryScriptSink} type object instance which keeps the hashes of the output
+     * files in the specified manifest file. The manifest file is only updated when the sink is {@link #finish()
+     * finished}.
+     *
+     * @param directory
+     *         the directory to write the compiled scripts into.
+     * @param manifest
+     *         the path of the manifest file.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the manifest file.
+     */
+    public DirectoryScriptSink(Path directory, Path manifest) throws IOException {
+        this.directory = directory;
+        this.manifest = manifest;
+        incremental = true;
+        digest = BuildCache.createDigest();
+        buffer = new byte[BUFFER_SIZE];
+        readManifest();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(CompiledScript script) throws IOException {
+        var path = resolve(script);
+        var data = script.getData();
+        byte[] hash = null;
+        if (manifest != null) {
+            hash = digest.digest(data);
+            var previous = hashes.get(script.getName());
+            if (previous == null ? isSameContent(path, data, hash) : Arrays.equals(previous, hash) && isSameSize(path, data)) {
+                if (previous == null) {
+                    hashes.put(script.getName(), hash);
+                    modified = true;
+                }
+                return;
+            }
+        } else if (incremental && isSameContent(path, data, digest.digest(data))) {
+            return;
+        }
+        invalidateManifest();
+        Files.write(path, data, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        // the hash is only recorded once the output file was written, a failed write is retried by the next compilation.
+        if (hash != null) {
+            hashes.put(script.getName(), hash);
+            modified = true;
+        }
+        changedScripts.add(script.getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The output file of an unchanged script is only written if it was removed from the output directory.
+     */
+    @Override
+    public void writeUnchanged(CompiledScript script) throws IOException {
+        var path = resolve(script);
+        if (manifest != null && !hashes.containsKey(script.getName())) {
+            hashes.put(script.getName(), digest.digest(script.getData()));
+            modified = true;
+        }
+        if (!Files.exists(path)) {
+            invalidateManifest();
+            Files.write(path, script.getData());
+            changedScripts.add(script.getName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish() throws IOException {
+        if (modified) {
+            writeManifest();
+            modified = false;
+        }
+        invalidated = false;
+    }
+
+    /**
+     * Clears the names of the scripts which their output file was written, so the next compilation which uses this
+     * sink only reports its own changed scripts.
+     */
+    public void clearChangedScripts() {
+        changedScripts.clear();
+    }
+
+    /**
+     * Removes the manifest file before the first output file is written, so the manifest file never describes an
+     * output directory which was only partially written by a compilation that did not finish.
+     *
+     * @throws IOException
+     *         if anything occurs while removing the manifest file.
+     */
+    private void invalidateManifest() throws IOException {
+        if (manifest != null && !invalidated) {
+            Files.deleteIfExists(manifest);
+            invalidated = true;
+            modified = true;
+        }
+    }
+
+    /**
+     * Reads the hashes of the output files from the manifest file, a missing or a malformed manifest file, or one that
+     * was written for a different output directory is treated as an empty one.
+     *
+     * @throws IOException
+     *         if anything occurs while reading the manifest file.
+     */
+    private void readManifest() throws IOException {
+        if (!Files.isRegularFile(manifest)) {
+            return;
+        }
+        try (var stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+            if (stream.readInt() != MAGIC || stream.readInt() != VERSION || !stream.readUTF().equals(directoryKey())) {
+                return;
+            }
+            var count = stream.readInt();
+            for (var index = 0; index < count; index++) {
+                var name = stream.readUTF();
+                var hash = new byte[stream.readUnsignedByte()];
+                stream.readFully(hash);
+                hashes.put(name, hash);
+            }
+        } catch (EOFException e) {
+            // the manifest is truncated, compare against the output files instead.
+            hashes.clear();
+        }
+    }
+
+    /**
+     * Writes the hashes of the output files into the manifest file.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the manifest file.
+     */
+    private void writeManifest() throws IOException {
+        var parent = manifest.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        var temporary = parent.resolve(manifest.getFileName() + ".tmp");
+        try (var stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+            stream.writeUTF(directoryKey());
+            stream.writeInt(hashes.size());
+            for (var entry : hashes.entrySet()) {
+                stream.writeUTF(entry.getKey());
+                stream.writeByte(entry.getValue().length);
+                stream.write(entry.getValue());
+            }
+        }
+        Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the key which identifies the output directory within the manifest file.
+     *
+     * @return the absolute normalised path of the output directory.
+     */
+    private String directoryKey() {
+        return directory.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Checks whether or not the output file at the specified {@link Path path} has the same size as the specified
+     * {@code data}, this guards against output files which were removed or truncated outside of the compiler.
+     *
+     * @param path
+     *         the path of the output file.
+     * @param data
+     *         the data to check against.
+     *
+     * @return <code>true</code> if the output file exists and has the same size otherwise <code>false</code>.
+     * @throws IOException
+     *         if anything occurs while reading the output file attributes.
+     */
+    private static boolean isSameSize(Path path, byte[] data) throws IOException {
+        return Files.isRegularFile(path) && Files.size(path) == data.length;
+    }
+
+    /**
+     * Checks whether or not the output file at the specified {@link Path path} has the same content as the specified
+     * {@code data}, this is only used when the manifest does not know about the output file. The output file is
+     * streamed through the digest and its hash is compared against the hash of the data.
+     *
+     * @param path
+     *         the path of the output file.
+     * @param data
+     *         the data to check against.
+     * @param hash
+     *         the hash of the data to check against.
+     *
+     * @return <code>true</code> if the output file exists and has the same content otherwise <code>false</code>.
+     * @throws IOException
+     *         if anything occurs while reading the output file.
+     */
+    private boolean isSameContent(Path path, byte[] data, byte[] hash) throws IOException {
+        if (!isSameSize(path, data)) {
+            return false;
+        }
+        try (var stream = Files.newInputStream(path)) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return MessageDigest.isEqual(digest.digest(), hash);
+    }
+
+    /**
+     * Resolves the output file path of the specified {@link CompiledScript script}.
+     *
+     * @param script
+     *         the script to resolve the output file path for.
+     *
+     * @return the resolved output file {@link Path}.
+     */
+    private Path resolve(CompiledScript script) {
+        return directory.resolve(script.getName() + OUTPUT_EXTENSION);
+    }
+}
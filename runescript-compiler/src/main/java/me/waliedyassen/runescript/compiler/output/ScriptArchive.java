@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.output;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of a compiled scripts archive which was written by the {@link ArchiveScriptSink}. The archive file
+ * is memory mapped as a whole, and the look-ups are done using a binary search over the index which is sorted by the
+ * script name hash, so no script data is copied until the caller asks for it.
+ * <p>
+ * The archive starts with a header of {@link #HEADER_SIZE} bytes which holds the magic, the version, the scripts
+ * count and the index offset, followed by the script blocks, each block is the length of the script name as an
+ * unsigned short, the UTF-8 encoded script name, and then the script data. The index is at the end of the file and
+ * each entry of it is {@link #ENTRY_SIZE} bytes which holds the name hash, the block offset and the data length.
+ *
+ * @author Walied K. Yassen
+ */
+public final class ScriptArchive implements Closeable {
+
+    /**
+     * The magic number of the archive file.
+     */
+    static final int MAGIC = 0x52534341;
+
+    /**
+     * The current version of the archive file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the archive header in bytes.
+     */
+    static final int HEADER_SIZE = 20;
+
+    /**
+     * The size of each index entry in bytes.
+     */
+    static final int ENTRY_SIZE = 16;
+
+    /**
+     * The path of the archive file.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * The memory mapped content of the archive file.
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * The amount of scripts in the archive.
+     */
+    private final int count;
+
+    /**
+     * The offset of the index in the archive file.
+     */
+    private final int indexOffset;
+
+    /**
+     * Constructs a new {@link ScriptArchive} type object instance.
+     *
+     * @param path
+     *         the path of the archive file.
+     * @param buffer
+     *         the memory mapped content of the archive file.
+     */
+    private ScriptArchive(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("The file is not a compiled scripts archive: " + path);
+        }
+        var version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported archive version: " + version);
+        }
+        count = buffer.getInt(8);
+        var offset = buffer.getLong(12);
+        if (count < 0 || offset < HEADER_SIZE || offset + (long) count * ENTRY_SIZE != buffer.capacity()) {
+            throw new IllegalStateException("The archive index is malformed: " + path);
+        }
+        indexOffset = (int) offset;
+    }
+
+    /**
+     * Opens the archive file at the specified {@link Path path} and maps it into the memory.
+     *
+     * @param path
+     *         the path of the archive file.
+     *
+     * @return the opened {@link ScriptArchive} object.
+     * @throws IOException
+     *         if anything occurs while opening or mapping the file.
+     */
+    public static ScriptArchive open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The archive is too large to be mapped: " + path);
+            }
+            return new ScriptArchive(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Looks-up for the data of the script with the specified {@code name}.
+     *
+     * @param name
+     *         the name of the script.
+     *
+     * @return a read-only {@link ByteBuffer} view of the script data if it was present otherwise {@code null}.
+     */
+    public ByteBuffer lookup(String name) {
+        var buffer = checkOpen();
+        var hash = name.hashCode();
+        var low = 0;
+        var high = count - 1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            var other = buffer.getInt(indexOffset + mid * ENTRY_SIZE);
+            if (other < hash) {
+                low = mid + 1;
+            } else if (other > hash) {
+                high = mid - 1;
+            } else {
+                // scan all of the entries which share the same hash.
+                var first = mid;
+                while (first > 0 && buffer.getInt(indexOffset + (first - 1) * ENTRY_SIZE) == hash) {
+                    first--;
+                }
+                for (var entry = first; entry < count && buffer.getInt(indexOffset + entry * ENTRY_SIZE) == hash; entry++) {
+                    if (name.equals(getName(entry))) {
+                        return get(entry);
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the script at the specified {@code entry} of the index.
+     *
+     * @param entry
+     *         the index entry of the script.
+     *
+     * @return the name of the script.
+     */
+    public String getName(int entry) {
+        var buffer = checkOpen();
+        var offset = blockOffset(entry);
+        var length = buffer.getShort(offset) & 0xffff;
+        var bytes = new byte[length];
+        buffer.duplicate().position(offset + 2).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the data of the script at the specified {@code entry} of the index.
+     *
+     * @param entry
+     *         the index entry of the script.
+     *
+     * @return a read-only {@link ByteBuffer} view of the script data.
+     */
+    public ByteBuffer get(int entry) {
+        var buffer = checkOpen();
+        var offset = blockOffset(entry);
+        var start = offset + 2 + (buffer.getShort(offset) & 0xffff);
+        var length = buffer.getInt(indexOffset + entry * ENTRY_SIZE + 12);
+        return buffer.duplicate().position(start).limit(start + length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the amount of scripts in the archive, the index entries are always in the range of {@code [0, size)}.
+     *
+     * @return the amount of scripts in the archive.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // the mapping is released by the garbage collector once there is no view of it left.
+        buffer = null;
+    }
+
+    /**
+     * Returns the block offset of the script at the specified {@code entry} of the index.
+     *
+     * @param entry
+     *         the index entry of the script.
+     *
+     * @return the offset of the script block in the archive file.
+     */
+    private int blockOffset(int entry) {
+        if (entry < 0 || entry >= count) {
+            throw new IllegalArgumentException("Invalid archive entry: " + entry);
+        }
+        return (int) buffer.getLong(indexOffset + entry * ENTRY_SIZE + 4);
+    }
+
+    /**
+     * Checks whether or not the archive is still open.
+     *
+     * @return the memory mapped content of the archive file.
+     * @throws IllegalStateException
+     *         if the archive has been closed.
+     */
+    private MappedByteBuffer checkOpen() {
+        var buffer = this.buffer;
+        if (buffer == null) {
+            throw new IllegalStateException("The archive has been closed");
+        }
+        return buffer;
+    }
+}
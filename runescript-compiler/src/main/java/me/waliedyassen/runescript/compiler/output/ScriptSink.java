@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.output;
+
+import me.waliedyassen.runescript.compiler.CompiledScript;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Represents a destination for the compiled scripts. The compiler hands each script to the sink as soon as it is
+ * generated, in the same order as the source files, and always from a single thread at a time.
+ *
+ * @author Walied K. Yassen
+ */
+public interface ScriptSink extends Closeable {
+
+    /**
+     * Writes the specified {@link CompiledScript script} which has just been compiled.
+     *
+     * @param script
+     *         the compiled script to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the script.
+     */
+    void write(CompiledScript script) throws IOException;
+
+    /**
+     * Writes the specified {@link CompiledScript script} which was not compiled again because its source file did not
+     * change since the last build. By default the script is written the same way as a compiled script.
+     *
+     * @param script
+     *         the cached script to write.
+     *
+     * @throws IOException
+     *         if anything occurs while writing the script.
+     */
+    default void writeUnchanged(CompiledScript script) throws IOException {
+        write(script);
+    }
+
+    /**
+     * Gets called after all of the scripts of a compilation were written successfully, a sink which is closed without
+     * being finished should discard whatever it has written if it can.
+     *
+     * @throws IOException
+     *         if anything occurs while finishing the sink.
+     */
+    default void finish() throws IOException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
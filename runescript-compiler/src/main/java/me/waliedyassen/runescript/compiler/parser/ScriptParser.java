@@ -24,6 +24,7 @@ import me.waliedyassen.runescript.compiler.lexer.token.Kind;
 import me.waliedyassen.runescript.compiler.type.ArrayReference;
 import me.waliedyassen.runescript.compiler.util.Operator;
 import me.waliedyassen.runescript.compiler.util.VariableScope;
+import me.waliedyassen.runescript.lexer.TokenBuffer;
 import me.waliedyassen.runescript.lexer.token.Token;
 import me.waliedyassen.runescript.parser.ParserBase;
 import me.waliedyassen.runescript.type.PrimitiveType;
@@ -49,6 +50,11 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     private final CompilerEnvironment environment;
 
+    /**
+     * Whether or not the code statements of the scripts are parsed lazily.
+     */
+    private final boolean lazy;
+
     /**
      * Constructs a new {@link ScriptParser} type object instance.
      *
@@ -58,8 +64,24 @@ public final class ScriptParser extends ParserBase<Kind> {
      *         the lexical parser to use for tokens.
      */
     public ScriptParser(CompilerEnvironment environment, Lexer lexer) {
+        this(environment, lexer, false);
+    }
+
+    /**
+     * Constructs a new {@link ScriptParser} type object instance.
+     *
+     * @param environment
+     *         the environment of the compiler.
+     * @param lexer
+     *         the lexical parser to use for tokens.
+     * @param lazy
+     *         whether or not the code statements of the scripts are parsed lazily, the tokens of the code statements are
+     *         kept aside and only parsed when the {@link AstScript#getCode() code} of the script is requested.
+     */
+    public ScriptParser(CompilerEnvironment environment, Lexer lexer, boolean lazy) {
         super(lexer, Kind.EOF);
         this.environment = environment;
+        this.lazy = lazy;
     }
 
     /**
@@ -72,11 +94,11 @@ public final class ScriptParser extends ParserBase<Kind> {
         // parse annotations if we have any.
         var annotations = annotationList();
         // parse the script trigger and name.
-        consume(LBRACKET);
+        expect(LBRACKET);
         var trigger = identifier();
-        consume(COMMA);
+        expect(COMMA);
         var name = identifier();
-        consume(RBRACKET);
+        expect(RBRACKET);
         // parse the script return ype nad parameters list.
         Type type = PrimitiveType.VOID;
         var parameters = new ArrayList<AstParameter>();
@@ -91,7 +113,7 @@ public final class ScriptParser extends ParserBase<Kind> {
                     type = type();
                     has_returntype = true;
                 }
-                consume(RPAREN);
+                expect(RPAREN);
             }
         }
         if (consumeIf(LPAREN)) {
@@ -103,15 +125,55 @@ public final class ScriptParser extends ParserBase<Kind> {
                 } else {
                     type = type();
                 }
-                consume(RPAREN);
+                expect(RPAREN);
             }
         }
+        if (lazy) {
+            var tokens = bodyTokens();
+            return new AstScript(popRange(), annotations, trigger, name, parameters.toArray(AstParameter[]::new), type, () -> new ScriptParser(environment, new Lexer(tokens)).body());
+        }
         // we will allow empty scripts for now.
         var code = unbracedBlockStatement();
         // return the parsed script.
         return new AstScript(popRange(), annotations, trigger, name, parameters.toArray(AstParameter[]::new), type, code);
     }
 
+    /**
+     * Collects the tokens of the code statements of the current script, which are all of the tokens up to the header
+     * or the annotations of the next script. The first token of the next script is collected as well without being
+     * taken, so the code statements report the same errors as when they are not parsed lazily.
+     * <p>
+     * The collected tokens are kept by the {@link AstScript} until its code is parsed, so the buffer is trimmed to the
+     * amount of the collected tokens.
+     *
+     * @return the {@link TokenBuffer} of the collected tokens.
+     */
+    private TokenBuffer<Kind> bodyTokens() {
+        var tokens = new TokenBuffer<>(Kind.class);
+        for (var kind = peekKind(); kind != LBRACKET && kind != HASH && kind != EOF; kind = peekKind()) {
+            lexer.copy(0, tokens);
+            skip();
+        }
+        lexer.copy(0, tokens);
+        tokens.trim();
+        return tokens;
+    }
+
+    /**
+     * Attempts to parse the collected tokens of the code statements of a script, see {@link #bodyTokens()}.
+     *
+     * @return the parsed {@link AstBlockStatement} object.
+     */
+    private AstBlockStatement body() {
+        var code = unbracedBlockStatement();
+        // anything other than the start of the next script would have failed the header of the next script.
+        var kind = peekKind();
+        if (kind != LBRACKET && kind != HASH && kind != EOF) {
+            expect(LBRACKET);
+        }
+        return code;
+    }
+
     /**
      * Attempts to parse an {@link AstAnnotation} object node.
      *
@@ -119,12 +181,12 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     private AstAnnotation annotation() {
         pushRange();
-        consume(HASH);
-        consume(LBRACKET);
+        expect(HASH);
+        expect(LBRACKET);
         var name = identifier();
-        consume(COLON);
+        expect(COLON);
         var value = integerNumber();
-        consume(RBRACKET);
+        expect(RBRACKET);
         return new AstAnnotation(popRange(), name, value);
     }
 
@@ -175,7 +237,7 @@ public final class ScriptParser extends ParserBase<Kind> {
         if (!type.isDeclarable()) {
             throwError(lexer.previous(), "Illegal type: " + type.getRepresentation());
         }
-        consume(DOLLAR);
+        expect(DOLLAR);
         var name = identifier();
         return new AstParameter(popRange(), array ? new ArrayReference(type, index) : type, name);
     }
@@ -212,7 +274,9 @@ public final class ScriptParser extends ParserBase<Kind> {
     }
 
     /**
-     * Attemps to parse a {@link AstExpression} tree with given lowest precedence allowed.
+     * Attemps to parse a {@link AstExpression} tree with given lowest precedence allowed. The operators of the same
+     * precedence are read in a loop, so the depth of the recursion follows the nesting of the source code, such as the
+     * parenthesised expressions, rather than the length of the chain.
      *
      * @param precedence
      *         the lowest precedence that to be allowed in this tree.
@@ -227,13 +291,13 @@ public final class ScriptParser extends ParserBase<Kind> {
                 return tree;
             }
             if (precedence < op.getPrecedence()) {
-                consume();
+                skip();
                 var right = expression(op.getPrecedence());
                 tree = new AstBinaryOperation(tree, op, right);
             } else if (precedence == op.getPrecedence()) {
                 switch (op.getAssociativity()) {
                     case RIGHT:
-                        consume();
+                        skip();
                         var right = expression(precedence);
                         return new AstBinaryOperation(tree, op, right);
                     case LEFT:
@@ -319,9 +383,9 @@ public final class ScriptParser extends ParserBase<Kind> {
      * @return the parsed {@link AstExpression} object.
      */
     public AstExpression parExpression() {
-        consume(LPAREN);
+        expect(LPAREN);
         var expression = expression();
-        consume(RPAREN);
+        expect(RPAREN);
         return expression;
     }
 
@@ -377,16 +441,34 @@ public final class ScriptParser extends ParserBase<Kind> {
 
     /**
      * Attempts to match the next token set to an if-statement rule.
+     * <p>
+     * A chain of else-if statements is matched in a loop rather than recursively, so the length of the chain is not
+     * bound by the size of the thread stack.
      *
      * @return the matched {@link AstIfStatement} type object instance.
      */
     public AstIfStatement ifStatement() {
-        pushRange();
-        consume(IF);
-        var expression = parExpression();
-        var trueStatement = statement();
-        var falseStatement = consumeIf(ELSE) ? statement() : null;
-        return new AstIfStatement(popRange(), expression, trueStatement, falseStatement);
+        var expressions = new ArrayList<AstExpression>();
+        var trueStatements = new ArrayList<AstStatement>();
+        AstStatement falseStatement = null;
+        while (true) {
+            pushRange();
+            expect(IF);
+            expressions.add(parExpression());
+            trueStatements.add(statement());
+            if (!consumeIf(ELSE)) {
+                break;
+            }
+            if (peekKind() != IF) {
+                falseStatement = statement();
+                break;
+            }
+        }
+        // build the chain from the innermost statement, which has the innermost range on top of the range stack.
+        for (var index = expressions.size() - 1; index >= 0; index--) {
+            falseStatement = new AstIfStatement(popRange(), expressions.get(index), trueStatements.get(index), falseStatement);
+        }
+        return (AstIfStatement) falseStatement;
     }
 
     /**
@@ -396,7 +478,7 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstWhileStatement whileStatement() {
         pushRange();
-        consume(WHILE);
+        expect(WHILE);
         var expression = parExpression();
         var statement = statement();
         return new AstWhileStatement(popRange(), expression, statement);
@@ -409,9 +491,9 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstBlockStatement blockStatement() {
         pushRange();
-        consume(LBRACE);
+        expect(LBRACE);
         var statements = statementsList();
-        consume(RBRACE);
+        expect(RBRACE);
         return new AstBlockStatement(popRange(), statements);
     }
 
@@ -447,14 +529,14 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstReturnStatement returnStatement() {
         pushRange();
-        consume(RETURN);
+        expect(RETURN);
         var exprs = new ArrayList<AstExpression>();
         if (isExpression()) {
             do {
                 exprs.add(expression());
             } while (consumeIf(COMMA));
         }
-        consume(SEMICOLON);
+        expect(SEMICOLON);
         return new AstReturnStatement(popRange(), exprs.toArray(AstExpression[]::new));
     }
 
@@ -477,7 +559,7 @@ public final class ScriptParser extends ParserBase<Kind> {
         } else {
             expression = null;
         }
-        consume(SEMICOLON);
+        expect(SEMICOLON);
         return new AstVariableDeclaration(popRange(), type, name, expression);
     }
 
@@ -495,7 +577,7 @@ public final class ScriptParser extends ParserBase<Kind> {
         }
         var name = identifier();
         var size = parExpression();
-        consume(SEMICOLON);
+        expect(SEMICOLON);
         return new AstArrayDeclaration(popRange(), type, name, size);
     }
 
@@ -512,9 +594,9 @@ public final class ScriptParser extends ParserBase<Kind> {
             throw createError(token, "Expecting a variable");
         }
         var variable = identifier();
-        consume(EQUALS);
+        expect(EQUALS);
         var expression = expression();
-        consume(SEMICOLON);
+        expect(SEMICOLON);
         return new AstVariableInitializer(popRange(), scope, variable, expression);
     }
 
@@ -525,12 +607,12 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstArrayInitializer arrayInitializer() {
         pushRange();
-        consume(DOLLAR);
+        expect(DOLLAR);
         var name = identifier();
         var index = parExpression();
-        consume(EQUALS);
+        expect(EQUALS);
         var value = expression();
-        consume(SEMICOLON);
+        expect(SEMICOLON);
         return new AstArrayInitializer(popRange(), name, index, value);
     }
 
@@ -546,7 +628,7 @@ public final class ScriptParser extends ParserBase<Kind> {
         var condition = parExpression();
         var cases = new ArrayList<AstSwitchCase>();
         var defaultCase = (AstSwitchCase) null;
-        consume(LBRACE);
+        expect(LBRACE);
         while (!consumeIf(RBRACE)) {
             var _case = switchCase();
             if (_case.isDefault()) {
@@ -568,14 +650,14 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstSwitchCase switchCase() {
         pushRange();
-        consume(CASE);
+        expect(CASE);
         var keys = new ArrayList<AstExpression>();
         if (!consumeIf(DEFAULT)) {
             do {
                 keys.add(expression());
             } while (consumeIf(COMMA));
         }
-        consume(COLON);
+        expect(COLON);
         var block = unbracedBlockStatement();
         return new AstSwitchCase(popRange(), keys.toArray(AstExpression[]::new), block);
     }
@@ -589,7 +671,7 @@ public final class ScriptParser extends ParserBase<Kind> {
     private AstExpressionStatement expressionStatement() {
         pushRange();
         var expr = expression();
-        consume(SEMICOLON);
+        expect(SEMICOLON);
         return new AstExpressionStatement(popRange(), expr);
     }
 
@@ -641,12 +723,12 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstConcatenation concatString() {
         pushRange();
-        consume(CONCATB);
+        expect(CONCATB);
         var expressions = new ArrayList<AstExpression>();
         while (isExpression()) {
             expressions.add(expression());
         }
-        consume(CONCATE);
+        expect(CONCATE);
         return new AstConcatenation(popRange(), expressions.toArray(new AstExpression[0]));
     }
 
@@ -680,7 +762,7 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstVariableExpression localVariable() {
         pushRange();
-        consume(DOLLAR);
+        expect(DOLLAR);
         var name = identifier();
         return new AstVariableExpression(popRange(), VariableScope.LOCAL, name);
     }
@@ -692,11 +774,11 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstArrayExpression arrayVariable() {
         pushRange();
-        consume(DOLLAR);
+        expect(DOLLAR);
         var name = identifier();
-        consume(LPAREN);
+        expect(LPAREN);
         var index = expression();
-        consume(RPAREN);
+        expect(RPAREN);
         return new AstArrayExpression(popRange(), name, index);
     }
 
@@ -708,7 +790,7 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstVariableExpression globalVariable() {
         pushRange();
-        consume(MOD);
+        expect(MOD);
         var name = identifier();
         return new AstVariableExpression(popRange(), VariableScope.GLOBAL, name);
     }
@@ -720,7 +802,7 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstConstant constant() {
         pushRange();
-        consume(CARET);
+        expect(CARET);
         var name = identifier();
         return new AstConstant(popRange(), name);
     }
@@ -743,7 +825,7 @@ public final class ScriptParser extends ParserBase<Kind> {
             do {
                 arguments.add(expression());
             } while (consumeIf(COMMA));
-            consume(RPAREN);
+            expect(RPAREN);
         }
         return new AstCall(popRange(), triggerType, name, arguments.toArray(AstExpression[]::new));
     }
@@ -775,7 +857,7 @@ public final class ScriptParser extends ParserBase<Kind> {
                     arguments.add(expression());
                 } while (consumeIf(COMMA));
             }
-            consume(RPAREN);
+            expect(RPAREN);
         }
         return new AstCommand(popRange(), name, arguments.toArray(AstExpression[]::new), alternative);
     }
@@ -787,7 +869,7 @@ public final class ScriptParser extends ParserBase<Kind> {
      */
     public AstCalc calc() {
         pushRange();
-        consume(CALC);
+        expect(CALC);
         var expr = expression();
         return new AstCalc(popRange(), expr);
     }
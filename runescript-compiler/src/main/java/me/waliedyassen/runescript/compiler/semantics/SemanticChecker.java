@@ -13,6 +13,7 @@ import me.waliedyassen.runescript.CompilerError;
 import me.waliedyassen.runescript.compiler.ast.AstNode;
 import me.waliedyassen.runescript.compiler.ast.AstScript;
 import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyGraph;
 import me.waliedyassen.runescript.compiler.semantics.typecheck.PreTypeChecking;
 import me.waliedyassen.runescript.compiler.semantics.typecheck.TypeChecking;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
@@ -34,6 +35,12 @@ public final class SemanticChecker {
     @Getter
     private final List<CompilerError> errors = new ArrayList<>();
 
+    /**
+     * The dependency graph of the scripts that were checked during this semantic checker life time.
+     */
+    @Getter
+    private final DependencyGraph dependencyGraph = new DependencyGraph();
+
     /**
      * The environment of the owner compiler.
      */
@@ -53,7 +60,31 @@ public final class SemanticChecker {
      *         the scripts to perform the pre semantic checking on.
      */
     public void executePre(Iterable<AstScript> scripts) {
-        var pre = new PreTypeChecking( this, symbolTable);
+        var pre = new PreTypeChecking(this, symbolTable, true, true);
+        scripts.forEach(tree -> tree.accept(pre));
+    }
+
+    /**
+     * Executes the part of the pre semantic checking which declares the signatures of the specified {@link AstScript
+     * scripts}, only the headers of the scripts are checked.
+     *
+     * @param scripts
+     *         the scripts to declare the signatures of.
+     */
+    public void executeSignatures(Iterable<AstScript> scripts) {
+        var pre = new PreTypeChecking(this, symbolTable, true, false);
+        scripts.forEach(tree -> tree.accept(pre));
+    }
+
+    /**
+     * Executes the part of the pre semantic checking which resolves the variables and the arrays within the scopes of
+     * the specified {@link AstScript scripts}, the signatures of the scripts must be declared already.
+     *
+     * @param scripts
+     *         the scripts to resolve the scopes of.
+     */
+    public void executeScopes(Iterable<AstScript> scripts) {
+        var pre = new PreTypeChecking(this, symbolTable, false, true);
         scripts.forEach(tree -> tree.accept(pre));
     }
 
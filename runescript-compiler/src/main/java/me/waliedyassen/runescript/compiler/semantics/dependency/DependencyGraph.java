@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.semantics.dependency;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Represents a directed graph of the dependencies between the scripts and the symbols they use. Each symbol in the
+ * graph is identified by a compact integer id which is assigned in the order the symbols are defined in, and each edge
+ * goes from a script to a symbol which that script depends on.
+ *
+ * @author Walied K. Yassen
+ */
+public final class DependencyGraph {
+
+    /**
+     * An empty edges array.
+     */
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * The symbol ids map, the key is created using {@link #createKey(DependencyKind, String)}.
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * The set of the defined edges, each edge is encoded as {@code from << 32 | to}.
+     */
+    private final Set<Long> edges = new HashSet<>();
+
+    /**
+     * The kind of each symbol in the graph.
+     */
+    private DependencyKind[] kinds = new DependencyKind[16];
+
+    /**
+     * The name of each symbol in the graph.
+     */
+    private String[] names = new String[16];
+
+    /**
+     * The ids of the symbols which each symbol depends on.
+     */
+    private int[][] dependencies = new int[16][];
+
+    /**
+     * The amount of dependencies each symbol has.
+     */
+    private int[] dependenciesCount = new int[16];
+
+    /**
+     * The ids of the symbols which depend on each symbol.
+     */
+    private int[][] dependents = new int[16][];
+
+    /**
+     * The amount of dependents each symbol has.
+     */
+    private int[] dependentsCount = new int[16];
+
+    /**
+     * The amount of symbols in the graph.
+     */
+    private int size;
+
+    /**
+     * Defines the symbol with the specified {@code kind} and {@code name} in the graph if it was not defined already.
+     *
+     * @param kind
+     *         the kind of the symbol.
+     * @param name
+     *         the name of the symbol.
+     *
+     * @return the id of the symbol.
+     */
+    public int define(DependencyKind kind, String name) {
+        var key = createKey(kind, name);
+        var id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        if (size == kinds.length) {
+            var capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            dependencies = Arrays.copyOf(dependencies, capacity);
+            dependenciesCount = Arrays.copyOf(dependenciesCount, capacity);
+            dependents = Arrays.copyOf(dependents, capacity);
+            dependentsCount = Arrays.copyOf(dependentsCount, capacity);
+        }
+        kinds[size] = kind;
+        names[size] = name;
+        dependencies[size] = EMPTY;
+        dependents[size] = EMPTY;
+        ids.put(key, size);
+        return size++;
+    }
+
+    /**
+     * Looks-up for the id of the symbol with the specified {@code kind} and {@code name}.
+     *
+     * @param kind
+     *         the kind of the symbol.
+     * @param name
+     *         the name of the symbol.
+     *
+     * @return the id of the symbol if it was present otherwise {@code -1}.
+     */
+    public int lookup(DependencyKind kind, String name) {
+        var id = ids.get(createKey(kind, name));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Adds a dependency edge from the symbol with the {@code from} id to the symbol with the {@code to} id, adding the
+     * same edge more than once has no effect.
+     *
+     * @param from
+     *         the id of the dependent symbol.
+     * @param to
+     *         the id of the symbol which is depended on.
+     */
+    public void addDependency(int from, int to) {
+        checkId(from);
+        checkId(to);
+        if (!edges.add((long) from << 32 | to)) {
+            return;
+        }
+        dependencies[from] = append(dependencies[from], dependenciesCount[from]++, to);
+        dependents[to] = append(dependents[to], dependentsCount[to]++, from);
+    }
+
+    /**
+     * Returns the ids of all the symbols which the symbol with the specified {@code id} depends on.
+     *
+     * @param id
+     *         the id of the symbol.
+     *
+     * @return an array of the dependency ids.
+     */
+    public int[] getDependencies(int id) {
+        checkId(id);
+        return Arrays.copyOf(dependencies[id], dependenciesCount[id]);
+    }
+
+    /**
+     * Returns the ids of all the symbols which depend on the symbol with the specified {@code id}.
+     *
+     * @param id
+     *         the id of the symbol.
+     *
+     * @return an array of the dependent ids.
+     */
+    public int[] getDependents(int id) {
+        checkId(id);
+        return Arrays.copyOf(dependents[id], dependentsCount[id]);
+    }
+
+    /**
+     * Checks whether or not there is any symbol which depends on the symbol with the specified {@code id}.
+     *
+     * @param id
+     *         the id of the symbol.
+     *
+     * @return <code>true</code> if it has any dependent otherwise <code>false</code>.
+     */
+    public boolean hasDependents(int id) {
+        checkId(id);
+        return dependentsCount[id] > 0;
+    }
+
+    /**
+     * Collects the ids of all the symbols which are affected by a change to any of the symbols with the specified ids,
+     * which is the specified symbols and every symbol that depends on them directly or indirectly.
+     *
+     * @param ids
+     *         the ids of the changed symbols.
+     *
+     * @return a {@link BitSet} of the affected symbol ids.
+     */
+    public BitSet collectImpact(int... ids) {
+        var impact = new BitSet(size);
+        var queue = new int[size];
+        var tail = 0;
+        for (var id : ids) {
+            checkId(id);
+            if (!impact.get(id)) {
+                impact.set(id);
+                queue[tail++] = id;
+            }
+        }
+        for (var head = 0; head < tail; head++) {
+            var id = queue[head];
+            for (var index = 0; index < dependentsCount[id]; index++) {
+                var dependent = dependents[id][index];
+                if (!impact.get(dependent)) {
+                    impact.set(dependent);
+                    queue[tail++] = dependent;
+                }
+            }
+        }
+        return impact;
+    }
+
+    /**
+     * Collects the names of all the scripts which their dependencies are different in this graph than in the specified
+     * {@code previous} graph, this includes the scripts that are only present in one of the graphs.
+     *
+     * @param previous
+     *         the graph to compare against.
+     *
+     * @return a {@link Set} of the changed script names.
+     */
+    public Set<String> diff(DependencyGraph previous) {
+        var changed = new HashSet<String>();
+        for (var id = 0; id < size; id++) {
+            if (kinds[id] != DependencyKind.SCRIPT) {
+                continue;
+            }
+            var other = previous.lookup(DependencyKind.SCRIPT, names[id]);
+            if (other == -1 || !sameDependencies(id, previous, other)) {
+                changed.add(names[id]);
+            }
+        }
+        for (var id = 0; id < previous.size; id++) {
+            if (previous.kinds[id] == DependencyKind.SCRIPT && lookup(DependencyKind.SCRIPT, previous.names[id]) == -1) {
+                changed.add(previous.names[id]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether or not the symbol with the specified {@code id} has the same dependencies as the symbol with the
+     * {@code otherId} in the {@code other} graph.
+     *
+     * @param id
+     *         the id of the symbol in this graph.
+     * @param other
+     *         the other graph.
+     * @param otherId
+     *         the id of the symbol in the other graph.
+     *
+     * @return <code>true</code> if both have the same dependencies otherwise <code>false</code>.
+     */
+    private boolean sameDependencies(int id, DependencyGraph other, int otherId) {
+        if (dependenciesCount[id] != other.dependenciesCount[otherId]) {
+            return false;
+        }
+        for (var index = 0; index < dependenciesCount[id]; index++) {
+            var dependency = dependencies[id][index];
+            var mapped = other.lookup(kinds[dependency], names[dependency]);
+            if (mapped == -1 || !other.edges.contains((long) otherId << 32 | mapped)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges all of the symbols and the edges of the specified {@code other} graph into this graph.
+     *
+     * @param other
+     *         the graph to merge into this graph.
+     */
+    public void merge(DependencyGraph other) {
+        var mapped = new int[other.size];
+        for (var id = 0; id < other.size; id++) {
+            mapped[id] = define(other.kinds[id], other.names[id]);
+        }
+        for (var id = 0; id < other.size; id++) {
+            for (var index = 0; index < other.dependenciesCount[id]; index++) {
+                addDependency(mapped[id], mapped[other.dependencies[id][index]]);
+            }
+        }
+    }
+
+    /**
+     * Writes the content of this graph to the specified {@link DataOutput output}.
+     *
+     * @param output
+     *         the output to write to.
+     *
+     * @throws IOException
+     *         if anything occurs while writing to the output.
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (var id = 0; id < size; id++) {
+            output.writeByte(kinds[id].ordinal());
+            output.writeUTF(names[id]);
+        }
+        for (var id = 0; id < size; id++) {
+            output.writeInt(dependenciesCount[id]);
+            for (var index = 0; index < dependenciesCount[id]; index++) {
+                output.writeInt(dependencies[id][index]);
+            }
+        }
+    }
+
+    /**
+     * Reads a {@link DependencyGraph} from the specified {@link DataInput input}.
+     *
+     * @param input
+     *         the input to read from.
+     *
+     * @return the read {@link DependencyGraph} object.
+     * @throws IOException
+     *         if anything occurs while reading from the input.
+     */
+    public static DependencyGraph read(DataInput input) throws IOException {
+        var graph = new DependencyGraph();
+        var size = input.readInt();
+        var kinds = DependencyKind.values();
+        for (var id = 0; id < size; id++) {
+            var kind = input.readUnsignedByte();
+            if (kind >= kinds.length) {
+                throw new IllegalStateException("Unrecognised dependency kind: " + kind);
+            }
+            graph.define(kinds[kind], input.readUTF());
+        }
+        for (var id = 0; id < size; id++) {
+            var count = input.readInt();
+            for (var index = 0; index < count; index++) {
+                graph.addDependency(id, input.readInt());
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Returns the kind of the symbol with the specified {@code id}.
+     *
+     * @param id
+     *         the id of the symbol.
+     *
+     * @return the {@link DependencyKind} of the symbol.
+     */
+    public DependencyKind getKind(int id) {
+        checkId(id);
+        return kinds[id];
+    }
+
+    /**
+     * Returns the name of the symbol with the specified {@code id}.
+     *
+     * @param id
+     *         the id of the symbol.
+     *
+     * @return the name of the symbol.
+     */
+    public String getName(int id) {
+        checkId(id);
+        return names[id];
+    }
+
+    /**
+     * Returns the amount of symbols in the graph, the symbol ids are always in the range of {@code [0, size)}.
+     *
+     * @return the amount of symbols in the graph.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether or not the specified {@code id} is a valid symbol id in this graph.
+     *
+     * @param id
+     *         the id to check.
+     *
+     * @throws IllegalArgumentException
+     *         if the id is not valid.
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Invalid symbol id: " + id);
+        }
+    }
+
+    /**
+     * Appends the specified {@code value} to the specified {@code array}, growing the array if necessary.
+     *
+     * @param array
+     *         the array to append to.
+     * @param count
+     *         the amount of values that are in the array.
+     * @param value
+     *         the value to append.
+     *
+     * @return the array which contains the appended value.
+     */
+    private static int[] append(int[] array, int count, int value) {
+        if (count == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, count * 2));
+        }
+        array[count] = value;
+        return array;
+    }
+
+    /**
+     * Creates the look-up key of the symbol with the specified {@code kind} and {@code name}.
+     *
+     * @param kind
+     *         the kind of the symbol.
+     * @param name
+     *         the name of the symbol.
+     *
+     * @return the created look-up key.
+     */
+    private static String createKey(DependencyKind kind, String name) {
+        return kind.ordinal() + name;
+    }
+}
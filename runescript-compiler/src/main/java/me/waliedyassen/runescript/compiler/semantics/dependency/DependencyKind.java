@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.semantics.dependency;
+
+/**
+ * Represents the kind of a symbol within the {@link DependencyGraph}.
+ *
+ * @author Walied K. Yassen
+ */
+public enum DependencyKind {
+
+    /**
+     * A script symbol, the name is the script look-up key (e.g. {@code [proc,name]}).
+     */
+    SCRIPT,
+
+    /**
+     * A command symbol.
+     */
+    COMMAND,
+
+    /**
+     * A configuration symbol.
+     */
+    CONFIG,
+
+    /**
+     * A global variable symbol.
+     */
+    VARIABLE,
+}
@@ -33,6 +33,10 @@ import java.util.*;
 /**
  * Contains all of the procedures and functions that will be applied right before we perform our type checking semantic
  * checks.
+ * <p>
+ * The checking is made of two parts which can be performed separately, declaring the signatures of the scripts in the
+ * symbol table, which only looks at the headers of the scripts and has to be done for all of the scripts before anything
+ * else, and resolving the variables and the arrays within the scopes of each script.
  *
  * @author Walied K. Yassen
  */
@@ -54,11 +58,34 @@ public final class PreTypeChecking extends AstTreeVisitor {
      */
     private final SymbolTable symbolTable;
 
+    /**
+     * Whether or not to declare the signatures of the scripts.
+     */
+    private final boolean declare;
+
+    /**
+     * Whether or not to resolve the variables and the arrays within the scopes of the scripts.
+     */
+    private final boolean resolve;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Void visit(AstScript script) {
+        if (declare) {
+            declare(script);
+        }
+        return resolve ? super.visit(script) : null;
+    }
+
+    /**
+     * Checks the header of the specified {@link AstScript script} and declares its signature in the symbol table.
+     *
+     * @param script
+     *         the script to declare.
+     */
+    private void declare(AstScript script) {
         // create the annotations list.
         Map<String, Annotation> annotations;
         if (script.getAnnotations().size() > 0) {
@@ -107,7 +134,6 @@ public final class PreTypeChecking extends AstTreeVisitor {
                 symbolTable.defineScript(annotations, trigger, name.getText(), script.getType(), Arrays.stream(script.getParameters()).map(AstParameter::getType).toArray(Type[]::new));
             }
         }
-        return super.visit(script);
     }
 
     /**
@@ -22,15 +22,22 @@ import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstWhileStatemen
 import me.waliedyassen.runescript.compiler.ast.visitor.AstVisitor;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
 import me.waliedyassen.runescript.compiler.semantics.SemanticError;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
 import me.waliedyassen.runescript.compiler.util.Operator;
+import me.waliedyassen.runescript.compiler.util.VariableScope;
 import me.waliedyassen.runescript.type.*;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.HashSet;
 
 /**
  * Represents the type checking semantic analysis.
+ * <p>
+ * The else-if chains and the chains of binary operations are checked in a loop, so their length is not bound by the
+ * size of the thread stack. The statements and the expressions which are nested within each other in the source code,
+ * such as the nested blocks or the parenthesised expressions, are still checked recursively.
  *
  * @author Walied K. Yassen
  */
@@ -55,12 +62,19 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
      */
     private AstScript script;
 
+    /**
+     * The dependency graph id of the script which we are currently type checking, or {@code -1} if it has none.
+     */
+    private int scriptId = -1;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Type visit(AstScript script) {
         this.script = script;
+        var trigger = checker.getEnvironment().lookupTrigger(script.getTrigger().getText());
+        scriptId = trigger != null ? checker.getDependencyGraph().define(DependencyKind.SCRIPT, SymbolTable.createScriptKey(trigger, script.getName().getText())) : -1;
         script.getCode().accept(this);
         return script.getType();
     }
@@ -121,6 +135,9 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
      */
     @Override
     public Type visit(AstVariableExpression variableExpression) {
+        if (variableExpression.getScope() == VariableScope.GLOBAL) {
+            addDependency(DependencyKind.VARIABLE, variableExpression.getName().getText());
+        }
         return variableExpression.setType(variableExpression.getVariable().getType());
     }
 
@@ -146,6 +163,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
             checker.reportError(new SemanticError(call, String.format("Could not resolve " + call.getTriggerType().getRepresentation() + " script with the name '%s'", name.getText())));
             return PrimitiveType.UNDEFINED;
         } else {
+            addDependency(DependencyKind.SCRIPT, SymbolTable.createScriptKey(call.getTriggerType(), name.getText()));
             var arguments = call.getArguments();
             var types = new Type[call.getArguments().length];
             for (int index = 0; index < arguments.length; index++) {
@@ -172,6 +190,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         var name = dynamic.getName();
         var commandInfo = symbolTable.lookupCommand(name.getText());
         if (commandInfo != null) {
+            addDependency(DependencyKind.COMMAND, name.getText());
             if (commandInfo.getArguments().length > 0) {
                 checker.reportError(new SemanticError(name, String.format("The command %s(%s) is not applicable for the arguments ()", name.getText(), TypeUtil.createRepresentation(commandInfo.getArguments()))));
             }
@@ -179,6 +198,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         }
         var configInfo = symbolTable.lookupConfig(name.getText());
         if (configInfo != null) {
+            addDependency(DependencyKind.CONFIG, name.getText());
             return dynamic.setType(configInfo.getType());
         }
         checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a symbol", name.getText())));
@@ -210,6 +230,7 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
             checker.reportError(new SemanticError(name, String.format("%s cannot be resolved to a command", name.getText())));
             return PrimitiveType.VOID;
         }
+        addDependency(DependencyKind.COMMAND, name.getText());
         var arguments = command.getArguments();
         var types = new Type[arguments.length];
         for (var index = 0; index < arguments.length; index++) {
@@ -238,9 +259,22 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
      */
     @Override
     public Type visit(AstBinaryOperation binaryOperation) {
-        var left = binaryOperation.getLeft().accept(this);
-        var right = binaryOperation.getRight().accept(this);
-        return binaryOperation.setType(checkOperator(binaryOperation, left, right, binaryOperation.getOperator()));
+        // walk the left operands in a loop, so the length of an operations chain is not bound by the size of the thread
+        // stack, the operations are then checked from the innermost one outwards like they would be when recursing.
+        var operations = new ArrayDeque<AstBinaryOperation>();
+        AstExpression expression = binaryOperation;
+        while (expression instanceof AstBinaryOperation) {
+            var operation = (AstBinaryOperation) expression;
+            operations.push(operation);
+            expression = operation.getLeft();
+        }
+        var left = expression.accept(this);
+        while (!operations.isEmpty()) {
+            var operation = operations.pop();
+            var right = operation.getRight().accept(this);
+            left = operation.setType(checkOperator(operation, left, right, operation.getOperator()));
+        }
+        return left;
     }
 
     /**
@@ -276,6 +310,9 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
      */
     @Override
     public Type visit(AstVariableInitializer variableInitializer) {
+        if (variableInitializer.getScope() == VariableScope.GLOBAL) {
+            addDependency(DependencyKind.VARIABLE, variableInitializer.getName().getText());
+        }
         var expression = variableInitializer.getExpression();
         if (expression != null && variableInitializer.getVariable() != null) {
             checkType(expression, variableInitializer.getVariable().getType(), expression.accept(this));
@@ -322,6 +359,23 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
         return null;
     }
 
+    /**
+     * Adds a dependency from the script which we are currently type checking to the symbol with the specified {@code
+     * kind} and {@code name}.
+     *
+     * @param kind
+     *         the kind of the symbol.
+     * @param name
+     *         the name of the symbol.
+     */
+    private void addDependency(DependencyKind kind, String name) {
+        if (scriptId == -1) {
+            return;
+        }
+        var graph = checker.getDependencyGraph();
+        graph.addDependency(scriptId, graph.define(kind, name));
+    }
+
 
     /**
      * Resolves the specified case key expression integer value.
@@ -361,11 +415,17 @@ public final class TypeChecking implements AstVisitor<Type, Type> {
      */
     @Override
     public Type visit(AstIfStatement ifStatement) {
-        var condition = ifStatement.getCondition().accept(this);
-        checkType(ifStatement.getCondition(), PrimitiveType.BOOL, condition);
-        ifStatement.getTrueStatement().accept(this);
-        if (ifStatement.getFalseStatement() != null) {
-            ifStatement.getFalseStatement().accept(this);
+        // walk the else-if chain in a loop, so the length of the chain is not bound by the size of the thread stack.
+        AstStatement statement = ifStatement;
+        while (statement instanceof AstIfStatement) {
+            var current = (AstIfStatement) statement;
+            var condition = current.getCondition().accept(this);
+            checkType(current.getCondition(), PrimitiveType.BOOL, condition);
+            current.getTrueStatement().accept(this);
+            statement = current.getFalseStatement();
+        }
+        if (statement != null) {
+            statement.accept(this);
         }
         return PrimitiveType.VOID;
     }
@@ -8,6 +8,7 @@
 package me.waliedyassen.runescript.compiler.symbol;
 
 import lombok.Getter;
+import me.waliedyassen.runescript.commons.intern.Interner;
 import me.waliedyassen.runescript.compiler.codegen.opcode.Opcode;
 import me.waliedyassen.runescript.compiler.symbol.impl.CommandInfo;
 import me.waliedyassen.runescript.compiler.symbol.impl.ConfigInfo;
@@ -25,15 +26,19 @@ import java.util.Map;
 /**
  * Represents a compile-time symbol table, it contains various information about different symbol taypes such as
  * constants, commands, scripts, and global variables.
+ * <p>
+ * The names of the defined symbols are interned into the {@link #getInterner() interner} of the table, which is shared
+ * with the tokenizer, so the names of the parsed identifiers are the same instances as the keys of the table.
  *
  * @author Walied K. Yassen
  */
 public final class SymbolTable {
 
     /**
-     * The script name template.
+     * The pool which the names of the defined symbols are interned into.
      */
-    private static final String SCRIPT_NAME_TEMPLATE = "[%s,%s]";
+    @Getter
+    private final Interner interner;
 
     /**
      * The defined constants map.
@@ -61,6 +66,23 @@ public final class SymbolTable {
      */
     private final Map<String, VariableInfo> variables = new HashMap<>();
 
+    /**
+     * Constructs a new {@link SymbolTable} type object instance which interns the names into its own pool.
+     */
+    public SymbolTable() {
+        this(new Interner());
+    }
+
+    /**
+     * Constructs a new {@link SymbolTable} type object instance.
+     *
+     * @param interner
+     *         the pool which the names of the defined symbols are interned into.
+     */
+    public SymbolTable(Interner interner) {
+        this.interner = interner;
+    }
+
     /**
      * Defines a new constant symbol in this table.
      *
@@ -72,6 +94,7 @@ public final class SymbolTable {
      *         the value of the constant.
      */
     public void defineConstant(String name, Type type, Object value) {
+        name = interner.intern(name);
         if (constants.containsKey(name)) {
             throw new IllegalArgumentException("The constant '" + name + "' is already defined.");
         }
@@ -105,6 +128,7 @@ public final class SymbolTable {
      *         whether or not this command supports alternative calls.
      */
     public void defineCommand(Opcode opcode, String name, Type type, Type[] arguments, boolean alternative) {
+        name = interner.intern(name);
         if (commands.containsKey(name)) {
             throw new IllegalArgumentException("The command '" + name + "' is already defined.");
         }
@@ -134,6 +158,7 @@ public final class SymbolTable {
      *         the type of the configuration.
      */
     public void defineConfig(int id, String name, Type type) {
+        name = interner.intern(name);
         if (configs.containsKey(name)) {
             throw new IllegalArgumentException("The configuration '" + name + "' is already defined.");
         }
@@ -167,10 +192,28 @@ public final class SymbolTable {
      *         the arguments type which the script takes.
      */
     public void defineScript(Map<String, Annotation> annotations, TriggerType trigger, String name, Type type, Type[] arguments) {
-        if (scripts.containsKey(name)) {
-            throw new IllegalArgumentException("The script '" + name + "' is already defined.");
+        defineScript(new ScriptInfo(annotations, name, trigger, type, arguments));
+    }
+
+    /**
+     * Defines the specified script symbol information in this table.
+     *
+     * @param info
+     *         the script symbol information to define.
+     */
+    public void defineScript(ScriptInfo info) {
+        var key = createScriptKey(info.getTrigger(), info.getName());
+        if (scripts.containsKey(key)) {
+            throw new IllegalArgumentException("The script '" + info.getName() + "' is already defined.");
         }
-        scripts.put(String.format(SCRIPT_NAME_TEMPLATE, trigger.getRepresentation(), name), new ScriptInfo(annotations, name, trigger, type, arguments));
+        scripts.put(key, info);
+    }
+
+    /**
+     * Removes all of the script symbols that are defined in this table.
+     */
+    public void undefineScripts() {
+        scripts.clear();
     }
 
     /**
@@ -184,7 +227,21 @@ public final class SymbolTable {
      * @return the {@link ScriptInfo} if it was present otherwise {@code null}.
      */
     public ScriptInfo lookupScript(TriggerType trigger, String name) {
-        return scripts.get(String.format(SCRIPT_NAME_TEMPLATE, trigger.getRepresentation(), name));
+        return scripts.get(createScriptKey(trigger, name));
+    }
+
+    /**
+     * Creates the look-up key of the script with the specified {@code trigger} and {@code name}.
+     *
+     * @param trigger
+     *         the trigger type of the script.
+     * @param name
+     *         the name of the script.
+     *
+     * @return the created look-up key.
+     */
+    public static String createScriptKey(TriggerType trigger, String name) {
+        return "[" + trigger.getRepresentation() + "," + name + "]";
     }
 
     /**
@@ -198,6 +255,7 @@ public final class SymbolTable {
      *         the type of the variable.
      */
     public void defineVariable(VariableDomain domain, String name, Type type) {
+        name = interner.intern(name);
         if (variables.containsKey(name)) {
             throw new IllegalArgumentException("The variable '" + name + "' is already defined.");
         }
@@ -0,0 +1,560 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler;
+
+import me.waliedyassen.runescript.commons.stream.SequenceCharStream;
+import me.waliedyassen.runescript.compiler.cache.BuildCache;
+import me.waliedyassen.runescript.compiler.cache.CachedFile;
+import me.waliedyassen.runescript.compiler.cache.CachedScript;
+import me.waliedyassen.runescript.compiler.codegen.InstructionMap;
+import me.waliedyassen.runescript.compiler.codegen.opcode.CoreOpcode;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.listener.CompilationListener;
+import me.waliedyassen.runescript.compiler.listener.CompilationPhase;
+import me.waliedyassen.runescript.compiler.listener.PhaseEvent;
+import me.waliedyassen.runescript.compiler.output.DirectoryScriptSink;
+import me.waliedyassen.runescript.compiler.output.ScriptSink;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest.TestTriggerType;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import me.waliedyassen.runescript.parser.SyntaxError;
+import me.waliedyassen.runescript.type.PrimitiveType;
+import me.waliedyassen.runescript.type.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link Compiler} type.
+ *
+ * @author Walied K. Yassen
+ */
+public class CompilerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testParallelOutputMatchesSequential() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        writeSources(source, 24);
+        var sequential = directory.resolve("sequential");
+        var parallel = directory.resolve("parallel");
+        Files.createDirectories(sequential);
+        Files.createDirectories(parallel);
+        createCompiler(1).compileDirectory(source, sequential);
+        createCompiler(4).compileDirectory(source, parallel);
+        var expected = Files.list(sequential).map(path -> path.getFileName().toString()).sorted().toArray(String[]::new);
+        var actual = Files.list(parallel).map(path -> path.getFileName().toString()).sorted().toArray(String[]::new);
+        assertEquals(24 * 2, expected.length);
+        assertArrayEquals(expected, actual);
+        for (var name : expected) {
+            assertArrayEquals(Files.readAllBytes(sequential.resolve(name)), Files.readAllBytes(parallel.resolve(name)));
+        }
+    }
+
+    @Test
+    void testParallelReportsErrors() throws IOException {
+        var source = directory.resolve("source");
+        writeSources(source, 8);
+        Files.writeString(source.resolve("broken.rs2"), "[proc,broken] def_int $value = \"text\";");
+        var output = directory.resolve("output");
+        Files.createDirectories(output);
+        var errors = assertThrows(CompilerErrors.class, () -> createCompiler(4).compileDirectory(source, output));
+        assertEquals(1, errors.getErrors().size());
+    }
+
+    @Test
+    void testSplitFileMatchesSequential() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        writeLargeSource(source, 4000, null);
+        var sequential = new ArrayList<String>();
+        var parallel = new ArrayList<String>();
+        createCompiler(1).compileDirectory(source, script -> sequential.add(script.getName()), null);
+        createCompiler(4).compileDirectory(source, script -> parallel.add(script.getName()), null);
+        assertEquals(4000, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testCompactTreesMatchRegular() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        writeLargeSource(source, 500, null);
+        var regular = new ArrayList<CompiledScript>();
+        var compact = new ArrayList<CompiledScript>();
+        createCompiler(2).compileDirectory(source, regular::add, null);
+        var compiler = createCompiler(2);
+        compiler.setCompactTrees(true);
+        compiler.compileDirectory(source, compact::add, null);
+        assertEquals(500, regular.size());
+        assertEquals(regular.size(), compact.size());
+        for (var index = 0; index < regular.size(); index++) {
+            assertEquals(regular.get(index).getName(), compact.get(index).getName());
+            assertArrayEquals(regular.get(index).getData(), compact.get(index).getData());
+        }
+    }
+
+    @Test
+    void testLongElseIfChain() throws IOException, CompilerErrors {
+        var source = "[proc,chain](int $value)(int)\n" + ScriptParserTest.elseIfChain(5000) + "\nreturn($value);\n";
+        var scripts = createCompiler(1).compile(source);
+        assertEquals(1, scripts.length);
+        assertEquals("[proc,chain]", scripts[0].getName());
+    }
+
+    @Test
+    void testBodySyntaxErrorPhase() throws IOException {
+        var source = directory.resolve("source");
+        writeSources(source, 2);
+        Files.writeString(source.resolve("broken.rs2"), "[proc,broken](int $value)(int)\nreturn(calc($value +));\n");
+        var output = directory.resolve("output");
+        var started = new ConcurrentLinkedQueue<CompilationPhase>();
+        var finished = new ConcurrentLinkedQueue<CompilationPhase>();
+        var compiler = createCompiler(2);
+        compiler.addListener(new CompilationListener() {
+            @Override
+            public void phaseStarted(CompilationPhase phase, String subject) {
+                if ("broken.rs2".equals(subject)) {
+                    started.add(phase);
+                }
+            }
+
+            @Override
+            public void phaseFinished(PhaseEvent event) {
+                if ("broken.rs2".equals(event.getSubject())) {
+                    finished.add(event.getPhase());
+                }
+            }
+        });
+        // the header of the broken script is parsed fine, the syntax error of its code is reported right before it is checked.
+        var error = assertThrows(SyntaxError.class, () -> compiler.compileDirectory(source, output));
+        assertEquals(2, error.getRange().getStart().getLine());
+        assertTrue(finished.contains(CompilationPhase.PARSE));
+        assertTrue(started.contains(CompilationPhase.PARSE_BODY));
+        assertFalse(finished.contains(CompilationPhase.PARSE_BODY));
+        assertFalse(started.contains(CompilationPhase.TYPE_CHECK));
+    }
+
+    @Test
+    void testDeepExpressions() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        Files.createDirectories(source);
+        Files.writeString(source.resolve("deep.rs2"), deepExpressions(5000));
+        var output = Files.createDirectories(directory.resolve("output"));
+        var cache = directory.resolve("cache");
+        var expected = createCompiler(1).compile(deepExpressions(5000));
+        var compiler = createCompiler(2);
+        compiler.setCompactTrees(true);
+        compiler.compileDirectory(source, output, cache);
+        assertArrayEquals(expected[0].getData(), Files.readAllBytes(output.resolve("[proc,deep].cs2")));
+    }
+
+    @Test
+    void testSplitFileReportsPositions() throws IOException {
+        var source = directory.resolve("source");
+        writeLargeSource(source, 4000, "def_int $value = \"text\";\n");
+        var output = directory.resolve("output");
+        Files.createDirectories(output);
+        var errors = assertThrows(CompilerErrors.class, () -> createCompiler(4).compileDirectory(source, output));
+        assertEquals(1, errors.getErrors().size());
+        assertEquals(4000 * 3 + 2, errors.getErrors().get(0).getRange().getStart().getLine());
+        Files.writeString(source.resolve("large.rs2"), "[proc,broken]\n$value = ;\n", StandardOpenOption.APPEND);
+        var error = assertThrows(SyntaxError.class, () -> createCompiler(4).compileDirectory(source, output));
+        assertEquals(4000 * 3 + 4, error.getRange().getStart().getLine());
+    }
+
+    @Test
+    void testCompileEntryPoints() throws IOException, CompilerErrors {
+        var source = "[clientscript,text](string $text)\r\ndef_string $copy = \"copy <$text> \u00e9\u20ac\u2014\";\n";
+        var expected = createCompiler(1).compile(source.getBytes("cp1252"));
+        assertTrue(containsString(expected[0].getData(), new byte[]{(byte) 0xe9, (byte) 0x80, (byte) 0x97}));
+        var fromString = createCompiler(1).compile(source);
+        var fromChars = createCompiler(1).compile(CharBuffer.wrap(source.toCharArray()));
+        var fromStream = createCompiler(1).compile(new SequenceCharStream(new StringBuilder(source)));
+        assertEquals(1, expected.length);
+        assertArrayEquals(expected[0].getData(), fromString[0].getData());
+        assertArrayEquals(expected[0].getData(), fromChars[0].getData());
+        assertArrayEquals(expected[0].getData(), fromStream[0].getData());
+    }
+
+    @Test
+    void testCp1252StringLiterals() throws IOException, CompilerErrors {
+        var prefix = "[clientscript,text]\ndef_string $copy = \"".getBytes("cp1252");
+        var suffix = "\";\n".getBytes("cp1252");
+        var literal = new byte[]{(byte) 0x80, (byte) 0x97, (byte) 0x8d};
+        var source = ByteBuffer.allocate(prefix.length + literal.length + suffix.length).put(prefix).put(literal).put(suffix).array();
+        var sourceDirectory = directory.resolve("source");
+        var directoryOutput = directory.resolve("directory");
+        var fileOutput = directory.resolve("file");
+        Files.createDirectories(sourceDirectory);
+        Files.createDirectories(directoryOutput);
+        Files.createDirectories(fileOutput);
+        Files.write(sourceDirectory.resolve("text.rs2"), source);
+        createCompiler(1).compileDirectory(sourceDirectory, directoryOutput);
+        createCompiler(1).compileFile(sourceDirectory.resolve("text.rs2"), fileOutput);
+        var expected = createCompiler(1).compile(source)[0].getData();
+        assertTrue(containsString(expected, literal));
+        assertArrayEquals(expected, Files.readAllBytes(directoryOutput.resolve("[clientscript,text].cs2")));
+        assertArrayEquals(expected, Files.readAllBytes(fileOutput.resolve("[clientscript,text].cs2")));
+    }
+
+    @Test
+    void testCachedOutputMatchesUncached() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var cache = directory.resolve("cache");
+        writeSources(source, 8);
+        var cachedOutput = directory.resolve("cached");
+        var uncachedOutput = directory.resolve("uncached");
+        Files.createDirectories(cachedOutput);
+        Files.createDirectories(uncachedOutput);
+        createCompiler(2).compileDirectory(source, cachedOutput, cache);
+        Files.writeString(source.resolve("script_3.rs2"), "[proc,script_3](int $value)(int)\nreturn calc($value * 3);\n");
+        createCompiler(2).compileDirectory(source, cachedOutput, cache);
+        createCompiler(1).compileDirectory(source, uncachedOutput);
+        var expected = Files.list(uncachedOutput).map(path -> path.getFileName().toString()).sorted().toArray(String[]::new);
+        for (var name : expected) {
+            assertArrayEquals(Files.readAllBytes(uncachedOutput.resolve(name)), Files.readAllBytes(cachedOutput.resolve(name)));
+        }
+    }
+
+    @Test
+    void testCachedBuildSkipsUnchangedFiles() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var cache = directory.resolve("cache");
+        var output = directory.resolve("output");
+        writeSources(source, 4);
+        Files.createDirectories(output);
+        createCompiler(1).compileDirectory(source, output, cache);
+        var original = Files.readAllBytes(output.resolve("[proc,script_2].cs2"));
+        Files.write(output.resolve("[proc,script_1].cs2"), new byte[]{1, 2, 3});
+        Files.delete(output.resolve("[proc,script_2].cs2"));
+        var edited = "[proc,script_0](int $value)(int)\nreturn $value;\n";
+        Files.writeString(source.resolve("script_0.rs2"), edited);
+        createCompiler(1).compileDirectory(source, output, cache);
+        assertArrayEquals(createCompiler(1).compile(edited)[0].getData(), Files.readAllBytes(output.resolve("[proc,script_0].cs2")));
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(output.resolve("[proc,script_1].cs2")));
+        assertArrayEquals(original, Files.readAllBytes(output.resolve("[proc,script_2].cs2")));
+    }
+
+    @Test
+    void testCachedBuildSkipsReadingUnchangedFiles() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var cache = directory.resolve("cache");
+        var output = directory.resolve("output");
+        writeSources(source, 4);
+        Files.createDirectories(output);
+        var now = System.currentTimeMillis();
+        for (var index = 0; index < 4; index++) {
+            Files.setLastModifiedTime(source.resolve("script_" + index + ".rs2"), FileTime.fromMillis(now - 60_000));
+        }
+        var compiler = createCompiler(1);
+        compiler.compileDirectory(source, output, cache);
+        var events = new ConcurrentLinkedQueue<PhaseEvent>();
+        compiler.addListener(new CompilationListener() {
+            @Override
+            public void phaseFinished(PhaseEvent event) {
+                events.add(event);
+            }
+        });
+        compiler.compileDirectory(source, output, cache);
+        assertTrue(events.stream().noneMatch(event -> event.getPhase() == CompilationPhase.READ));
+        // a touched file is read and hashed, but it is not parsed again if its content did not change.
+        Files.setLastModifiedTime(source.resolve("script_1.rs2"), FileTime.fromMillis(now - 30_000));
+        events.clear();
+        compiler.compileDirectory(source, output, cache);
+        assertEquals(List.of("script_1.rs2"), events.stream().filter(event -> event.getPhase() == CompilationPhase.READ).map(PhaseEvent::getSubject).collect(Collectors.toList()));
+        assertTrue(events.stream().noneMatch(event -> event.getPhase() == CompilationPhase.PARSE));
+        events.clear();
+        compiler.compileDirectory(source, output, cache);
+        assertTrue(events.stream().noneMatch(event -> event.getPhase() == CompilationPhase.READ));
+    }
+
+    @Test
+    void testCachedBuildReportsErrors() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var cache = directory.resolve("cache");
+        var output = directory.resolve("output");
+        writeSources(source, 4);
+        Files.createDirectories(output);
+        var compiler = createCompiler(1);
+        compiler.compileDirectory(source, output, cache);
+        var backup = Files.readString(source.resolve("script_1.rs2"));
+        Files.writeString(source.resolve("script_1.rs2"), "[proc,script_1] def_int $value = \"text\";");
+        assertThrows(CompilerErrors.class, () -> compiler.compileDirectory(source, output, cache));
+        Files.writeString(source.resolve("script_1.rs2"), backup);
+        compiler.compileDirectory(source, output, cache);
+    }
+
+    @Test
+    void testCachedBuildStoresTrees() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var cache = directory.resolve("cache");
+        var output = directory.resolve("output");
+        writeSources(source, 4);
+        Files.createDirectories(output);
+        createCompiler(2).compileDirectory(source, output, cache);
+        var stored = listTrees(cache);
+        assertEquals(4, stored.size());
+        Files.writeString(source.resolve("script_0.rs2"), "[proc,script_0](int $value)(int)\nreturn $value;\n");
+        createCompiler(2).compileDirectory(source, output, cache);
+        var updated = listTrees(cache);
+        assertEquals(4, updated.size());
+        updated.retainAll(stored);
+        assertEquals(3, updated.size());
+    }
+
+    @Test
+    void testCachedBuildLoadsTrees() throws IOException, CompilerErrors {
+        var source = Files.createDirectories(directory.resolve("source"));
+        var cache = directory.resolve("cache");
+        var output = directory.resolve("output");
+        Files.writeString(source.resolve("callee.rs2"), "[proc,callee](int $value)(int)\nreturn($value);\n");
+        Files.writeString(source.resolve("caller.rs2"), "[proc,caller](int $value)(int)\ndef_int $result = calc($value + 1);\nreturn(~callee($result));\n");
+        var compiler = createCompiler(2);
+        // the bytecode writer cannot write the calls yet, so the build stops after the syntax trees were stored.
+        assertThrows(UnsupportedOperationException.class, () -> compiler.compileDirectory(source, output, cache));
+        assertEquals(2, listTrees(cache).size());
+        // record the caller as if the previous build has succeeded, it depends on the signature of the callee.
+        var buildCache = compiler.openCache(cache);
+        var info = new ScriptInfo(Map.of(), "caller", TestTriggerType.PROC, PrimitiveType.INT, new Type[]{PrimitiveType.INT});
+        var hash = BuildCache.hash(Files.readAllBytes(source.resolve("caller.rs2")));
+        buildCache.update("caller.rs2", new CachedFile(hash, List.of(new CachedScript(info, new byte[0])), compiler.getDependencyGraph()));
+        buildCache.save();
+        // the changed signature of the callee forces the unchanged caller to be checked again from its stored trees.
+        Files.writeString(source.resolve("callee.rs2"), "[proc,callee](string $value)(int)\nreturn(0);\n");
+        var events = new ConcurrentLinkedQueue<PhaseEvent>();
+        compiler.addListener(new CompilationListener() {
+            @Override
+            public void phaseFinished(PhaseEvent event) {
+                events.add(event);
+            }
+        });
+        var errors = assertThrows(CompilerErrors.class, () -> compiler.compileDirectory(source, output, cache)).getErrors();
+        assertEquals(1, errors.size());
+        assertEquals(3, errors.get(0).getRange().getStart().getLine());
+        assertTrue(events.stream().noneMatch(event -> (event.getPhase() == CompilationPhase.PARSE || event.getPhase() == CompilationPhase.PARSE_BODY) && event.getSubject().equals("caller.rs2")));
+        assertTrue(events.stream().anyMatch(event -> event.getPhase() == CompilationPhase.TYPE_CHECK && event.getSubject().equals("caller.rs2")));
+    }
+
+    @Test
+    void testIncrementalOutput() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var cache = directory.resolve("cache");
+        var output = directory.resolve("output");
+        writeSources(source, 4);
+        Files.createDirectories(output);
+        assertEquals(4 * 2, createCompiler(1).compileDirectoryIncrementally(source, output, openCache(cache)).size());
+        var path = output.resolve("[proc,script_1].cs2");
+        var modified = FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() - 60000);
+        Files.setLastModifiedTime(path, modified);
+        assertEquals(Set.of(), createCompiler(2).compileDirectoryIncrementally(source, output, openCache(cache)));
+        assertEquals(Set.of(), createCompiler(2).compileDirectoryIncrementally(source, output, null));
+        assertEquals(Set.of(), createCompiler(2).compileFileIncrementally(source.resolve("script_1.rs2"), output));
+        Files.writeString(source.resolve("script_0.rs2"), "[proc,script_0](int $value)(int)\nreturn $value;\n");
+        assertEquals(Set.of("[proc,script_0]"), createCompiler(1).compileDirectoryIncrementally(source, output, openCache(cache)));
+        Files.write(output.resolve("[proc,script_2].cs2"), new byte[]{1, 2, 3});
+        assertEquals(Set.of("[proc,script_2]"), createCompiler(1).compileDirectoryIncrementally(source, output, null));
+        assertEquals(modified, Files.getLastModifiedTime(path));
+        createCompiler(1).compileDirectory(source, output);
+        assertNotEquals(modified, Files.getLastModifiedTime(path));
+    }
+
+    @Test
+    void testListener() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var output = directory.resolve("output");
+        writeSources(source, 4);
+        Files.createDirectories(output);
+        var compiler = createCompiler(2);
+        var events = new ConcurrentLinkedQueue<PhaseEvent>();
+        var started = new AtomicInteger();
+        var listener = new CompilationListener() {
+            @Override
+            public void phaseStarted(CompilationPhase phase, String subject) {
+                started.incrementAndGet();
+            }
+
+            @Override
+            public void phaseFinished(PhaseEvent event) {
+                events.add(event);
+            }
+        };
+        compiler.addListener(listener);
+        compiler.compileDirectory(source, output);
+        assertEquals(started.get(), events.size());
+        var counts = new EnumMap<CompilationPhase, Integer>(CompilationPhase.class);
+        events.forEach(event -> counts.merge(event.getPhase(), 1, Integer::sum));
+        assertEquals(4, counts.get(CompilationPhase.READ));
+        assertEquals(4, counts.get(CompilationPhase.TOKENIZE));
+        assertEquals(4, counts.get(CompilationPhase.PARSE));
+        assertEquals(4, counts.get(CompilationPhase.PARSE_BODY));
+        assertEquals(1, counts.get(CompilationPhase.PRE_TYPE_CHECK));
+        assertEquals(4, counts.get(CompilationPhase.TYPE_CHECK));
+        assertEquals(8, counts.get(CompilationPhase.GENERATE));
+        assertEquals(8, counts.get(CompilationPhase.OPTIMIZE));
+        assertEquals(8, counts.get(CompilationPhase.WRITE));
+        assertEquals(8, counts.get(CompilationPhase.OUTPUT));
+        for (var event : events) {
+            assertTrue(event.getDuration() >= 0);
+            assertTrue(event.getAllocatedBytes() >= -1);
+            if (event.getPhase() == CompilationPhase.READ) {
+                assertEquals(Files.size(source.resolve(event.getSubject())), event.getCount());
+            } else if (event.getPhase() == CompilationPhase.WRITE) {
+                assertEquals(Files.size(output.resolve(event.getSubject() + DirectoryScriptSink.OUTPUT_EXTENSION)), event.getCount());
+            } else if (event.getPhase() == CompilationPhase.GENERATE) {
+                assertTrue(event.getCount() > 0);
+            }
+        }
+        compiler.removeListener(listener);
+        events.clear();
+        compiler.compileDirectory(source, output);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testSinkReceivesScriptsInOrder() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        writeSources(source, 16);
+        var sequential = new ArrayList<String>();
+        var parallel = new ArrayList<String>();
+        createCompiler(1).compileDirectory(source, script -> sequential.add(script.getName()), null);
+        createCompiler(4, 1).compileDirectory(source, script -> parallel.add(script.getName()), null);
+        assertEquals(16 * 2, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testSinkFailure() throws IOException {
+        var source = directory.resolve("source");
+        writeSources(source, 16);
+        var written = new AtomicInteger();
+        ScriptSink sink = script -> {
+            if (written.incrementAndGet() == 3) {
+                throw new IOException("The sink is full");
+            }
+        };
+        var exception = assertThrows(IOException.class, () -> createCompiler(4, 2).compileDirectory(source, sink, null));
+        assertEquals("The sink is full", exception.getMessage());
+        assertEquals(3, written.get());
+    }
+
+    @Test
+    void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> createCompiler(0));
+        assertThrows(IllegalArgumentException.class, () -> createCompiler(1, 0));
+    }
+
+    private static boolean containsString(byte[] data, byte[] value) {
+        for (var start = 0; start + value.length < data.length; start++) {
+            if (Arrays.equals(data, start, start + value.length, value, 0, value.length) && data[start + value.length] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> listTrees(Path cache) throws IOException {
+        try (var trees = Files.list(cache.resolve("trees"))) {
+            return trees.map(path -> path.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private static BuildCache openCache(Path directory) throws IOException {
+        return createCompiler(1).openCache(directory);
+    }
+
+    public static void writeLargeSource(Path source, int count, String trailer) throws IOException {
+        Files.createDirectories(source);
+        var builder = new StringBuilder();
+        for (var index = 0; index < count; index++) {
+            builder.append("#[annotation:").append(index).append("]\n");
+            builder.append("[proc,large_").append(index).append("](int $value)(int)\n");
+            builder.append("return calc($value + ").append(index).append(");\n");
+        }
+        if (trailer != null) {
+            builder.append("[proc,trailer]\n").append(trailer);
+        }
+        Files.writeString(source.resolve("large.rs2"), builder.toString());
+    }
+
+    public static void writeSources(Path source, int count) throws IOException {
+        Files.createDirectories(source);
+        for (var index = 0; index < count; index++) {
+            var builder = new StringBuilder();
+            builder.append("[proc,script_").append(index).append("](int $value)(int)\n");
+            builder.append("def_int $result = $value;\n");
+            builder.append("while ($result > 100) {\n");
+            builder.append("    $result = calc($result / 2);\n");
+            builder.append("}\n");
+            builder.append("if ($result > ").append(index).append(") {\n");
+            builder.append("    $result = calc($result * ").append(index).append(");\n");
+            builder.append("} else {\n");
+            builder.append("    $result = calc($result + 1);\n");
+            builder.append("}\n");
+            builder.append("switch_int ($result) {\n");
+            builder.append("    case 1, 2 : return 1;\n");
+            builder.append("    case ").append(index + 3).append(" : return 2;\n");
+            builder.append("    case default : return 3;\n");
+            builder.append("}\n");
+            builder.append("return $result;\n");
+            builder.append("[clientscript,text_").append(index).append("](string $text)\n");
+            builder.append("def_string $copy = \"copy <$text> ").append(index).append("\";\n");
+            Files.writeString(source.resolve("script_" + index + ".rs2"), builder.toString());
+        }
+    }
+
+    public static String deepExpressions(int length) {
+        var builder = new StringBuilder("[proc,deep](int $value, string $name)(int)\ndef_int $sum = calc($value");
+        for (var index = 0; index < length; index++) {
+            builder.append(index % 2 == 0 ? " + " : " * ").append(index);
+        }
+        builder.append(");\ndef_string $text = \"");
+        for (var index = 0; index < length; index++) {
+            builder.append("<$name>,");
+        }
+        builder.append("\";\nif ($sum = 0");
+        for (var index = 1; index < length; index++) {
+            builder.append(index % 3 == 0 ? " & " : " | ").append("$sum = ").append(index);
+        }
+        return builder.append(") {\n    return(1);\n}\nreturn($sum);\n").toString();
+    }
+
+    public static Compiler createCompiler(int parallelism) {
+        return createCompiler(parallelism, parallelism * 2);
+    }
+
+    public static Compiler createCompiler(int parallelism, int maxInFlight) {
+        var environment = new CompilerEnvironment();
+        for (var triggerType : ScriptParserTest.TestTriggerType.values()) {
+            environment.registerTrigger(triggerType);
+        }
+        var instructionMap = new InstructionMap();
+        for (var opcode : CoreOpcode.values()) {
+            instructionMap.registerCore(opcode, opcode.ordinal(), opcode.isLargeOperand());
+        }
+        return new Compiler(environment, instructionMap, parallelism, maxInFlight);
+    }
+}
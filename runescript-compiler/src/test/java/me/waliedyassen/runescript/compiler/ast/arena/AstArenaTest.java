@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.ast.arena;
+
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.ast.expr.AstCalc;
+import me.waliedyassen.runescript.compiler.ast.expr.AstVariableExpression;
+import me.waliedyassen.runescript.compiler.ast.stmt.AstArrayDeclaration;
+import me.waliedyassen.runescript.compiler.ast.stmt.AstReturnStatement;
+import me.waliedyassen.runescript.compiler.ast.stmt.AstSwitchStatement;
+import me.waliedyassen.runescript.compiler.ast.stmt.conditional.AstIfStatement;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
+import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
+import me.waliedyassen.runescript.type.PrimitiveType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AstArenaTest {
+
+    @Test
+    void testRoundTrip() {
+        var script = ScriptParserTest.fromResource("visitor-tree-script.rs2").script();
+        var arena = AstArena.encode(List.of(script));
+        assertEquals(1, arena.getScriptCount());
+        var decoded = arena.decode(0);
+        assertNotSame(script, decoded);
+        assertEquals(script, decoded);
+        assertEquals(script.getRange(), decoded.getRange());
+        assertEquals(script.getCode().getRange(), decoded.getCode().getRange());
+        assertSame(decoded, decoded.getCode().getParent());
+        assertThrows(IndexOutOfBoundsException.class, () -> arena.decode(1));
+    }
+
+    @Test
+    void testMultipleScripts() {
+        var parser = ScriptParserTest.fromString("#[annotation:1]\n[proc,first](int $size)(int) def_int $array(calc($size + 1)); $array(0) = 5; return($array(0));\n[proc,second] return;", true);
+        var scripts = new ArrayList<AstScript>();
+        scripts.add(parser.script());
+        scripts.add(parser.script());
+        var arena = AstArena.encode(scripts);
+        assertTrue(scripts.get(0).isCodeParsed());
+        assertEquals(scripts, arena.asList());
+        assertEquals(1, arena.decode(0).getAnnotations().size());
+        var declaration = (AstArrayDeclaration) arena.decode(0).getCode().getStatements()[0];
+        assertTrue(declaration.getSize() instanceof AstCalc);
+    }
+
+    @Test
+    void testSemanticInformation() {
+        var script = ScriptParserTest.fromResource("visitor-tree-script.rs2").script();
+        var statements = script.getCode().getStatements();
+        var switchStatement = (AstSwitchStatement) statements[9];
+        switchStatement.getCases()[0].setResolvedKeys(new int[]{0, 1, 2, 3, 4, 5});
+        var returnStatement = (AstReturnStatement) statements[statements.length - 1];
+        returnStatement.getExpressions()[0].setType(PrimitiveType.BOOL);
+        var decoded = AstArena.encode(List.of(script)).decode(0).getCode().getStatements();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, ((AstSwitchStatement) decoded[9]).getCases()[0].getResolvedKeys());
+        assertNotNull(((AstSwitchStatement) decoded[9]).getDefaultCase());
+        assertNull(((AstSwitchStatement) decoded[11]).getDefaultCase());
+        assertNull(((AstIfStatement) decoded[7]).getFalseStatement());
+        assertEquals(PrimitiveType.BOOL, ((AstReturnStatement) decoded[decoded.length - 1]).getExpressions()[0].getType());
+    }
+
+    @Test
+    void testSerialization() throws IOException {
+        var environment = new CompilerEnvironment();
+        for (var triggerType : ScriptParserTest.TestTriggerType.values()) {
+            environment.registerTrigger(triggerType);
+        }
+        var parser = ScriptParserTest.fromString("[proc,first](int $size)(int)\ndef_int $array(calc($size + 1));\n$array(0) = 5;\ndef_long $total = 10l;\nswitch_int ($size) {\n    case 1, 2 : return(1);\n    case default : return($array(0));\n}\nreturn($size);\n[proc,second] ~first(3);");
+        var scripts = new ArrayList<AstScript>();
+        scripts.add(parser.script());
+        scripts.add(parser.script());
+        var checker = new SemanticChecker(environment, new SymbolTable());
+        checker.executePre(scripts);
+        checker.execute(scripts);
+        assertTrue(checker.getErrors().isEmpty());
+        var output = new ByteArrayOutputStream();
+        AstArena.encode(scripts).write(new DataOutputStream(output));
+        var buffer = ByteBuffer.wrap(output.toByteArray());
+        var read = AstArena.read(buffer, scripts.get(0).getRange().getLineIndex(), environment);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(scripts, read.asList());
+        var original = scripts.get(0).getCode().getStatements();
+        var decoded = read.decode(0).getCode().getStatements();
+        assertEquals(scripts.get(0).getCode().getRange().getStart(), read.decode(0).getCode().getRange().getStart());
+        var switchStatement = (AstSwitchStatement) decoded[3];
+        assertArrayEquals(new int[]{1, 2}, switchStatement.getCases()[0].getResolvedKeys());
+        var condition = (AstVariableExpression) switchStatement.getCondition();
+        var returned = (AstVariableExpression) ((AstReturnStatement) decoded[4]).getExpressions()[0];
+        assertEquals(((AstVariableExpression) ((AstReturnStatement) original[4]).getExpressions()[0]).getVariable().getName(), returned.getVariable().getName());
+        assertSame(condition.getVariable(), returned.getVariable());
+        assertEquals(PrimitiveType.INT, returned.getType());
+        assertEquals(((AstArrayDeclaration) original[0]).getArray().getName(), ((AstArrayDeclaration) decoded[0]).getArray().getName());
+        assertThrows(IllegalStateException.class, () -> AstArena.read(ByteBuffer.wrap(output.toByteArray()), null, new CompilerEnvironment()));
+    }
+}
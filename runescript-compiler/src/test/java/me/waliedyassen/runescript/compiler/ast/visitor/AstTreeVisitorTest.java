@@ -60,6 +60,16 @@ class AstTreeVisitorTest {
         assertEquals(visitor.returnStatement.count(), 1);
     }
 
+    @Test
+    void testDeepTree() {
+        var script = ScriptParserTest.fromString("[trigger,chain](int $value)\n" + ScriptParserTest.elseIfChain(5000)).script();
+        script.accept(visitor);
+        assertEquals(visitor.scripts.count(), 1);
+        assertEquals(visitor.ifStatement.count(), 5000);
+        assertEquals(visitor.variableInitializer.count(), 5001);
+        assertEquals(visitor.variableExpression.count(), 5000);
+    }
+
     static class CountingVisitor extends AstTreeVisitor {
 
         final Counter scripts = new Counter();
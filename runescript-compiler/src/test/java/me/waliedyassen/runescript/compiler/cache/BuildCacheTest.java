@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest.TestTriggerType;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyGraph;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyKind;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.Annotation;
+import me.waliedyassen.runescript.compiler.symbol.impl.script.ScriptInfo;
+import me.waliedyassen.runescript.compiler.type.ArrayReference;
+import me.waliedyassen.runescript.type.PrimitiveType;
+import me.waliedyassen.runescript.type.TupleType;
+import me.waliedyassen.runescript.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link BuildCache} type.
+ *
+ * @author Walied K. Yassen
+ */
+class BuildCacheTest {
+
+    static final byte[] FINGERPRINT = {1, 2, 3, 4};
+
+    @TempDir
+    Path directory;
+
+    CompilerEnvironment environment;
+
+    @BeforeEach
+    void setupEnvironment() {
+        environment = new CompilerEnvironment();
+        for (var triggerType : TestTriggerType.values()) {
+            environment.registerTrigger(triggerType);
+        }
+    }
+
+    @Test
+    void testSaveAndOpen() throws IOException {
+        var info = new ScriptInfo(Map.of("id", new Annotation("id", 5)), "script", TestTriggerType.PROC, new TupleType(PrimitiveType.INT, PrimitiveType.STRING), new Type[]{PrimitiveType.INT, new ArrayReference(PrimitiveType.INT, 0)});
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        var graph = new DependencyGraph();
+        graph.addDependency(graph.define(DependencyKind.SCRIPT, "[proc,script]"), graph.define(DependencyKind.SCRIPT, "[proc,other]"));
+        cache.update("a.rs2", new CachedFile(BuildCache.hash(new byte[]{10}), List.of(new CachedScript(info, new byte[]{7, 8})), graph));
+        cache.save();
+        var file = BuildCache.open(directory, FINGERPRINT, environment).lookup("a.rs2");
+        assertNotNull(file);
+        assertArrayEquals(BuildCache.hash(new byte[]{10}), file.getHash());
+        assertEquals(Set.of(), graph.diff(file.getDependencyGraph()));
+        assertEquals(1, file.getScripts().size());
+        assertEquals(info, file.getScripts().get(0).getInfo());
+        assertArrayEquals(new byte[]{7, 8}, file.getScripts().get(0).getData());
+    }
+
+    @Test
+    void testFingerprintMismatch() throws IOException {
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[0], List.of(), new DependencyGraph()));
+        cache.save();
+        assertNotNull(BuildCache.open(directory, FINGERPRINT, environment).lookup("a.rs2"));
+        assertNull(BuildCache.open(directory, new byte[]{4, 3, 2, 1}, environment).lookup("a.rs2"));
+    }
+
+    @Test
+    void testCollectDependents() throws IOException {
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[0], List.of(), createGraph("[proc,a]", "[proc,one]")));
+        cache.update("b.rs2", new CachedFile(new byte[0], List.of(), createGraph("[proc,b]", "[proc,two]", "[clientscript,three]")));
+        cache.update("c.rs2", new CachedFile(new byte[0], List.of(), new DependencyGraph()));
+        assertEquals(Set.of("b.rs2"), cache.collectDependents(Set.of("[clientscript,three]")));
+        assertEquals(Set.of("a.rs2", "b.rs2"), cache.collectDependents(Set.of("[proc,one]", "[proc,two]")));
+        assertEquals(Set.of(), cache.collectDependents(Set.of()));
+    }
+
+    @Test
+    void testRetain() throws IOException {
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[0], List.of(), new DependencyGraph()));
+        cache.update("b.rs2", new CachedFile(new byte[0], List.of(), new DependencyGraph()));
+        assertEquals(Set.of("b.rs2"), cache.collectRemoved(List.of("a.rs2")).keySet());
+        assertNotNull(cache.lookup("b.rs2"));
+        cache.retain(List.of("a.rs2"));
+        assertNotNull(cache.lookup("a.rs2"));
+        assertNull(cache.lookup("b.rs2"));
+    }
+
+    @Test
+    void testStamp() throws IOException {
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[]{1}, 10, 1000, List.of(), new DependencyGraph()));
+        cache.update("b.rs2", new CachedFile(new byte[]{2}, List.of(), new DependencyGraph()));
+        cache.save();
+        cache = BuildCache.open(directory, FINGERPRINT, environment);
+        assertTrue(cache.lookup("a.rs2").isUnchanged(10, 1000));
+        assertFalse(cache.lookup("a.rs2").isUnchanged(11, 1000));
+        assertFalse(cache.lookup("a.rs2").isUnchanged(10, 1001));
+        assertFalse(cache.lookup("b.rs2").isUnchanged(-1, CachedFile.UNKNOWN_TIME));
+    }
+
+    @Test
+    void testSaveAppendsChanges() throws IOException {
+        var manifest = directory.resolve("manifest.bin");
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[]{1}, List.of(), new DependencyGraph()));
+        cache.update("b.rs2", new CachedFile(new byte[]{2}, List.of(), new DependencyGraph()));
+        cache.save();
+        var saved = Files.readAllBytes(manifest);
+        cache.update("a.rs2", cache.lookup("a.rs2"));
+        cache.save();
+        assertArrayEquals(saved, Files.readAllBytes(manifest));
+        cache.update("b.rs2", new CachedFile(new byte[]{3}, List.of(), new DependencyGraph()));
+        cache.retain(List.of("b.rs2"));
+        cache.save();
+        var appended = Files.readAllBytes(manifest);
+        assertTrue(appended.length > saved.length);
+        assertArrayEquals(saved, Arrays.copyOf(appended, saved.length));
+        cache = BuildCache.open(directory, FINGERPRINT, environment);
+        assertNull(cache.lookup("a.rs2"));
+        assertArrayEquals(new byte[]{3}, cache.lookup("b.rs2").getHash());
+    }
+
+    @Test
+    void testSaveCompacts() throws IOException {
+        var manifest = directory.resolve("manifest.bin");
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[]{0}, List.of(), new DependencyGraph()));
+        cache.save();
+        var size = Files.size(manifest);
+        for (var index = 1; index <= 1000; index++) {
+            cache.update("a.rs2", new CachedFile(new byte[]{(byte) index}, List.of(), new DependencyGraph()));
+            cache.save();
+        }
+        assertTrue(Files.size(manifest) < size * 100);
+        assertArrayEquals(new byte[]{(byte) 1000}, BuildCache.open(directory, FINGERPRINT, environment).lookup("a.rs2").getHash());
+    }
+
+    @Test
+    void testTruncatedRecord() throws IOException {
+        var manifest = directory.resolve("manifest.bin");
+        var cache = BuildCache.open(directory, FINGERPRINT, environment);
+        cache.update("a.rs2", new CachedFile(new byte[]{1}, List.of(), new DependencyGraph()));
+        cache.save();
+        cache.update("b.rs2", new CachedFile(new byte[]{2}, List.of(), new DependencyGraph()));
+        cache.save();
+        var data = Files.readAllBytes(manifest);
+        Files.write(manifest, Arrays.copyOf(data, data.length - 2));
+        cache = BuildCache.open(directory, FINGERPRINT, environment);
+        assertNotNull(cache.lookup("a.rs2"));
+        assertNull(cache.lookup("b.rs2"));
+        cache.update("c.rs2", new CachedFile(new byte[]{3}, List.of(), new DependencyGraph()));
+        cache.save();
+        cache = BuildCache.open(directory, FINGERPRINT, environment);
+        assertNotNull(cache.lookup("a.rs2"));
+        assertNotNull(cache.lookup("c.rs2"));
+    }
+
+    static DependencyGraph createGraph(String script, String... dependencies) {
+        var graph = new DependencyGraph();
+        var id = graph.define(DependencyKind.SCRIPT, script);
+        for (var dependency : dependencies) {
+            graph.addDependency(id, graph.define(DependencyKind.SCRIPT, dependency));
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.cache;
+
+import me.waliedyassen.runescript.commons.stream.SequenceCharStream;
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.ast.AstScript;
+import me.waliedyassen.runescript.compiler.env.CompilerEnvironment;
+import me.waliedyassen.runescript.compiler.lexer.Lexer;
+import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
+import me.waliedyassen.runescript.compiler.parser.ScriptParser;
+import me.waliedyassen.runescript.compiler.parser.ScriptParserTest.TestTriggerType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link SyntaxTreeCache} type.
+ *
+ * @author Walied K. Yassen
+ */
+class SyntaxTreeCacheTest {
+
+    static final byte[] HASH = BuildCache.hash(new byte[]{10});
+
+    @TempDir
+    Path directory;
+
+    CompilerEnvironment environment;
+
+    List<AstScript> scripts;
+
+    @BeforeEach
+    void setupScripts() {
+        environment = new CompilerEnvironment();
+        for (var triggerType : TestTriggerType.values()) {
+            environment.registerTrigger(triggerType);
+        }
+        var text = "[proc,first](int $value)(int) return(calc($value + 1));\n[proc,second] ~first(1);";
+        var parser = new ScriptParser(environment, new Lexer(new Tokenizer(Compiler.createLexicalTable(), new SequenceCharStream(text))));
+        scripts = List.of(parser.script(), parser.script());
+    }
+
+    @Test
+    void testStoreAndLoad() throws IOException {
+        var cache = new SyntaxTreeCache(directory, BuildCacheTest.FINGERPRINT, environment);
+        var lineIndex = scripts.get(0).getRange().getLineIndex();
+        assertNull(cache.load(HASH, lineIndex));
+        cache.store(HASH, scripts);
+        var loaded = cache.load(HASH, lineIndex);
+        assertEquals(scripts, loaded);
+        assertEquals(scripts.get(1).getRange().getStart(), loaded.get(1).getRange().getStart());
+        assertNull(cache.load(BuildCache.hash(new byte[]{11}), lineIndex));
+    }
+
+    @Test
+    void testUnusableFiles() throws IOException {
+        var cache = new SyntaxTreeCache(directory, BuildCacheTest.FINGERPRINT, environment);
+        var lineIndex = scripts.get(0).getRange().getLineIndex();
+        cache.store(HASH, scripts);
+        assertNull(new SyntaxTreeCache(directory, new byte[]{4, 3, 2, 1}, environment).load(HASH, lineIndex));
+        assertNull(new SyntaxTreeCache(directory, BuildCacheTest.FINGERPRINT, new CompilerEnvironment()).load(HASH, lineIndex));
+        try (var files = Files.list(directory)) {
+            var file = files.findFirst().orElseThrow();
+            var data = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(data, data.length / 2));
+        }
+        assertNull(cache.load(HASH, lineIndex));
+    }
+
+    @Test
+    void testRetain() throws IOException {
+        var cache = new SyntaxTreeCache(directory, BuildCacheTest.FINGERPRINT, environment);
+        var lineIndex = scripts.get(0).getRange().getLineIndex();
+        var other = BuildCache.hash(new byte[]{11});
+        cache.store(HASH, scripts);
+        cache.store(other, scripts.subList(1, 2));
+        var temporary = Files.createTempFile(directory, "pending", ".tmp");
+        cache.retain(List.of(other));
+        assertNull(cache.load(HASH, lineIndex));
+        assertEquals(scripts.subList(1, 2), cache.load(other, lineIndex));
+        assertTrue(Files.exists(temporary));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
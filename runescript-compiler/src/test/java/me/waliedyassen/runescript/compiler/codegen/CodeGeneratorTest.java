@@ -144,7 +144,7 @@ class CodeGeneratorTest {
             var scripts = new ArrayList<AstScript>();
             do {
                 scripts.add(parser.script());
-            } while (lexer.remaining() > 0);
+            } while (lexer.hasRemaining());
             checker.executePre(scripts);
             checker.execute(scripts);
             var parsed = new Script[scripts.size()];
@@ -166,7 +166,7 @@ class CodeGeneratorTest {
             var scripts = new ArrayList<AstScript>();
             do {
                 scripts.add(parser.script());
-            } while (lexer.remaining() > 0);
+            } while (lexer.hasRemaining());
             checker.executePre(scripts);
             checker.execute(scripts);
             checker.getErrors().forEach(System.out::println);
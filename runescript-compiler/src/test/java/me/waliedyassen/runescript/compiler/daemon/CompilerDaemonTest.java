@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.daemon;
+
+import me.waliedyassen.runescript.compiler.CompilerTest;
+import me.waliedyassen.runescript.compiler.listener.CompilationListener;
+import me.waliedyassen.runescript.compiler.listener.CompilationPhase;
+import me.waliedyassen.runescript.compiler.listener.PhaseEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link CompilerDaemon} type.
+ *
+ * @author Walied K. Yassen
+ */
+class CompilerDaemonTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testProtocol() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 2);
+        try (var daemon = createDaemon(source)) {
+            var lines = serve(daemon, "ping\nstatus\ncompile\nstatus\nbogus\nquit\nping\n");
+            assertEquals("PONG", lines[0]);
+            assertEquals("NONE", lines[1]);
+            assertTrue(lines[2].startsWith("OK 1 "));
+            assertTrue(lines[2].endsWith(" 4"));
+            assertTrue(lines[3].startsWith("OK 1 "));
+            assertEquals("UNKNOWN BOGUS", lines[4]);
+            assertEquals("BYE", lines[5]);
+            assertEquals(6, lines.length);
+            assertTrue(Files.exists(directory.resolve("output").resolve("[proc,script_1].cs2")));
+        }
+    }
+
+    @Test
+    void testProtocolErrors() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 2);
+        Files.writeString(source.resolve("broken.rs2"), "[proc,broken] def_int $value = \"text\";");
+        try (var daemon = createDaemon(source)) {
+            var lines = serve(daemon, "compile\n");
+            assertTrue(lines[0].startsWith("FAILED 1 "));
+            assertTrue(lines[0].endsWith(" 1"));
+            assertTrue(lines[1].startsWith("ERROR 1:"));
+            assertEquals(2, lines.length);
+        }
+    }
+
+    @Test
+    void testWatch() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 2);
+        try (var daemon = createDaemon(source)) {
+            var initial = daemon.start();
+            assertTrue(initial.isSuccessful());
+            var output = directory.resolve("output").resolve("[proc,script_5].cs2");
+            assertFalse(Files.exists(output));
+            Files.createDirectories(source.resolve("nested"));
+            Files.writeString(source.resolve("nested").resolve("script_5.rs2"), "[proc,script_5](int $value)(int)\nreturn $value;\n");
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                var sequence = initial.getSequence();
+                while (!Files.exists(output)) {
+                    sequence = daemon.awaitCompilation(sequence).getSequence();
+                }
+            });
+            assertTrue(daemon.getLastResult().isSuccessful());
+        }
+    }
+
+    @Test
+    void testWatchSyntaxError() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 2);
+        try (var daemon = createDaemon(source)) {
+            var initial = daemon.start();
+            assertTrue(initial.isSuccessful());
+            var broken = source.resolve("script_5.rs2");
+            Files.writeString(broken, "[proc,script_5](int $value)(int)\n$value = ;\n");
+            var failed = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                var result = daemon.awaitCompilation(initial.getSequence());
+                while (result.isSuccessful()) {
+                    result = daemon.awaitCompilation(result.getSequence());
+                }
+                return result;
+            });
+            assertEquals(1, failed.getErrors().size());
+            assertEquals(2, failed.getErrors().get(0).getRange().getStart().getLine());
+            var lines = serve(daemon, "status\n");
+            assertTrue(lines[0].startsWith("FAILED " + failed.getSequence() + " "));
+            assertTrue(lines[1].startsWith("ERROR 2:"));
+            Files.writeString(broken, "[proc,script_5](int $value)(int)\nreturn $value;\n");
+            var output = directory.resolve("output").resolve("[proc,script_5].cs2");
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                var sequence = failed.getSequence();
+                while (!Files.exists(output)) {
+                    sequence = daemon.awaitCompilation(sequence).getSequence();
+                }
+            });
+            assertTrue(daemon.getLastResult().isSuccessful());
+        }
+    }
+
+    @Test
+    void testWatchReadsChangedFiles() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 4);
+        try (var daemon = createDaemon(source)) {
+            var initial = daemon.start();
+            assertTrue(initial.isSuccessful());
+            var read = new ConcurrentLinkedQueue<String>();
+            daemon.getCompiler().addListener(new CompilationListener() {
+                @Override
+                public void phaseFinished(PhaseEvent event) {
+                    if (event.getPhase() == CompilationPhase.READ) {
+                        read.add(event.getSubject());
+                    }
+                }
+            });
+            Files.writeString(source.resolve("script_1.rs2"), "[proc,script_1](int $value)(int)\nreturn $value;\n");
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                var result = daemon.awaitCompilation(initial.getSequence());
+                while (!result.getChangedScripts().contains("[proc,script_1]")) {
+                    result = daemon.awaitCompilation(result.getSequence());
+                }
+            });
+            assertEquals(Set.of("script_1.rs2"), Set.copyOf(read));
+        }
+    }
+
+    @Test
+    void testWatchDelete() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 2);
+        var nested = Files.createDirectories(source.resolve("nested"));
+        Files.writeString(nested.resolve("script_5.rs2"), "[proc,script_5](int $value)(int)\nreturn $value;\n");
+        try (var daemon = createDaemon(source)) {
+            var initial = daemon.start();
+            assertTrue(initial.isSuccessful());
+            Files.delete(source.resolve("script_1.rs2"));
+            var deleted = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> daemon.awaitCompilation(initial.getSequence()));
+            assertTrue(deleted.isSuccessful());
+            // the script files within a removed directory are no longer compiled either.
+            Files.delete(nested.resolve("script_5.rs2"));
+            Files.delete(nested);
+            var removed = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> daemon.awaitCompilation(deleted.getSequence()));
+            assertTrue(removed.isSuccessful());
+            // a new source file which defines the removed scripts again does not conflict with them.
+            Files.writeString(source.resolve("script_6.rs2"), "[proc,script_5](int $value)(int)\nreturn $value;\n[proc,script_1](int $value)(int)\nreturn $value;\n");
+            var output = directory.resolve("output").resolve("[proc,script_1].cs2");
+            var expected = CompilerTest.createCompiler(1).compile("[proc,script_1](int $value)(int)\nreturn $value;\n")[0].getData();
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                var sequence = removed.getSequence();
+                while (!Arrays.equals(expected, Files.readAllBytes(output))) {
+                    sequence = daemon.awaitCompilation(sequence).getSequence();
+                }
+            });
+            assertTrue(daemon.getLastResult().isSuccessful());
+        }
+    }
+
+    @Test
+    void testWatchFailingListener() throws Exception {
+        var source = directory.resolve("source");
+        CompilerTest.writeSources(source, 2);
+        try (var daemon = createDaemon(source)) {
+            var initial = daemon.start();
+            var calls = new CountDownLatch(2);
+            daemon.addListener(result -> {
+                calls.countDown();
+                if (calls.getCount() == 1) {
+                    throw new InternalError("failing listener");
+                }
+            });
+            Files.writeString(source.resolve("script_5.rs2"), "[proc,script_5](int $value)(int)\nreturn $value;\n");
+            var first = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> daemon.awaitCompilation(initial.getSequence()));
+            Files.writeString(source.resolve("script_6.rs2"), "[proc,script_6](int $value)(int)\nreturn $value;\n");
+            var output = directory.resolve("output").resolve("[proc,script_6].cs2");
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                var sequence = first.getSequence();
+                while (!Files.exists(output)) {
+                    sequence = daemon.awaitCompilation(sequence).getSequence();
+                }
+            });
+            assertTrue(daemon.getLastResult().isSuccessful());
+            // the listeners are notified after the output is written, the one after the failing one may still be pending.
+            assertTrue(calls.await(30, TimeUnit.SECONDS));
+        }
+    }
+
+    static CompilerDaemon createDaemon(Path source) throws Exception {
+        return new CompilerDaemon(CompilerTest.createCompiler(1), source, source.resolveSibling("output"), source.resolveSibling("cache"), 10);
+    }
+
+    static String[] serve(CompilerDaemon daemon, String requests) throws Exception {
+        var output = new ByteArrayOutputStream();
+        daemon.serve(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8).split("\\R");
+    }
+}
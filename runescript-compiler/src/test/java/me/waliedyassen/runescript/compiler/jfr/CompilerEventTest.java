@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import me.waliedyassen.runescript.compiler.CompilerErrors;
+import me.waliedyassen.runescript.compiler.CompilerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for the {@link CompilerEvent} types.
+ *
+ * @author Walied K. Yassen
+ */
+class CompilerEventTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDisabledByDefault() {
+        assertFalse(EventType.getEventType(ParseEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(OptimizationPassEvent.class).isEnabled());
+    }
+
+    @Test
+    void testRecording() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var output = directory.resolve("output");
+        CompilerTest.writeSources(source, 3);
+        Files.createDirectories(output);
+        var recordingFile = directory.resolve("compiler.jfr");
+        try (var recording = new Recording()) {
+            for (var type : List.of(ParseEvent.class, SemanticCheckEvent.class, CodeGenerationEvent.class, OptimizationPassEvent.class, BytecodeWriteEvent.class)) {
+                recording.enable(type);
+            }
+            recording.start();
+            CompilerTest.createCompiler(2).compileDirectory(source, output);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        var events = RecordingFile.readAllEvents(recordingFile).stream().collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertEquals(3 + 3, events.get("runescript.Parse").size());
+        assertEquals(1 + 3, events.get("runescript.SemanticCheck").size());
+        assertEquals(6, events.get("runescript.CodeGeneration").size());
+        assertEquals(6, events.get("runescript.BytecodeWrite").size());
+        for (var event : events.get("runescript.Parse")) {
+            assertTrue(event.getString("path").endsWith(".rs2"));
+            if (event.getBoolean("bodies")) {
+                assertEquals(0, event.getInt("tokens"));
+            } else {
+                assertTrue(event.getInt("tokens") > 0);
+                // the tokenizing is only a part of the parsing.
+                var tokenizeTime = event.getDuration("tokenizeTime");
+                assertTrue(tokenizeTime.toNanos() > 0);
+                assertTrue(tokenizeTime.compareTo(event.getDuration()) <= 0);
+            }
+        }
+        assertEquals(3, events.get("runescript.Parse").stream().filter(event -> event.getBoolean("bodies")).count());
+        assertEquals(1, events.get("runescript.SemanticCheck").stream().filter(event -> event.getBoolean("pre")).count());
+        for (var event : events.get("runescript.BytecodeWrite")) {
+            assertEquals(Files.size(output.resolve(event.getString("script") + ".cs2")), event.getInt("size"));
+        }
+        var passes = events.get("runescript.OptimizationPass");
+        assertTrue(passes.stream().map(event -> event.getString("optimization")).distinct().count() >= 3);
+        assertTrue(passes.stream().mapToInt(event -> event.getInt("iteration")).allMatch(iteration -> iteration >= 0));
+        assertTrue(passes.stream().map(event -> event.getString("script")).allMatch(name -> name.startsWith("[")));
+    }
+}
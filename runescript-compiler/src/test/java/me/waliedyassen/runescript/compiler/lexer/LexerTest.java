@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.lexer;
+
+import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
+import me.waliedyassen.runescript.compiler.Compiler;
+import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringBufferInputStream;
+
+import static me.waliedyassen.runescript.compiler.lexer.token.Kind.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link Lexer} type.
+ *
+ * @author Walied K. Yassen
+ */
+@SuppressWarnings("deprecation")
+class LexerTest {
+
+    @Test
+    void testTake() {
+        var lexer = fromString("$a = 1;");
+        assertThrows(IllegalStateException.class, lexer::previous);
+        assertEquals(DOLLAR, lexer.take().getKind());
+        assertEquals(DOLLAR, lexer.previous().getKind());
+        assertEquals(IDENTIFIER, lexer.take().getKind());
+        assertEquals(EQUALS, lexer.peek().getKind());
+        assertEquals(EQUALS, lexer.take().getKind());
+        assertEquals(INTEGER, lexer.take().getKind());
+        assertTrue(lexer.hasRemaining());
+        assertEquals(SEMICOLON, lexer.take().getKind());
+        assertFalse(lexer.hasRemaining());
+        assertNull(lexer.take());
+        assertNull(lexer.peek());
+        assertEquals(SEMICOLON, lexer.previous().getKind());
+        assertEquals(5, lexer.count());
+    }
+
+    @Test
+    void testComments() {
+        var lexer = fromString("// line comment\n1 /* block comment */ 2");
+        assertEquals("1", lexer.take().getLexeme());
+        assertEquals("2", lexer.take().getLexeme());
+        assertFalse(lexer.hasRemaining());
+    }
+
+    @Test
+    void testLookahead() {
+        var text = new StringBuilder();
+        for (var index = 0; index < 20; index++) {
+            text.append(index).append(' ');
+        }
+        var lexer = fromString(text.toString());
+        assertEquals("19", lexer.lookahead(19).getLexeme());
+        assertNull(lexer.lookahead(20));
+        for (var index = 0; index < 20; index++) {
+            assertEquals(String.valueOf(index), lexer.lookahead(0).getLexeme());
+            assertEquals(String.valueOf(index), lexer.take().getLexeme());
+            if (index < 19) {
+                assertEquals(String.valueOf(index + 1), lexer.lookahead(0).getLexeme());
+            }
+        }
+        assertFalse(lexer.hasRemaining());
+        assertEquals(20, lexer.count());
+    }
+
+    @Test
+    void testDiscard() {
+        var text = new StringBuilder();
+        for (var index = 0; index < 500; index++) {
+            text.append(index).append(' ');
+        }
+        var lexer = fromString(text.toString());
+        for (var index = 0; index < 500; index++) {
+            assertEquals(INTEGER, lexer.lookaheadKind(0));
+            if (index < 497) {
+                assertEquals(String.valueOf(index + 3), lexer.lookahead(3).getLexeme());
+            }
+            assertTrue(lexer.skip());
+            assertEquals(String.valueOf(index), lexer.previous().getLexeme());
+            assertEquals(lexer.previous().getStartOffset(), lexer.previousStartOffset());
+            assertEquals(lexer.previous().getEndOffset(), lexer.previousEndOffset());
+        }
+        assertFalse(lexer.skip());
+        assertNull(lexer.lookaheadKind(0));
+        assertEquals(500, lexer.count());
+    }
+
+    @Test
+    void testReplay() throws IOException {
+        try (var stream = new StringBufferInputStream("if (true) // comment\n{ return; }")) {
+            var buffer = Lexer.tokenize(new Tokenizer(Compiler.createLexicalTable(), new BufferedCharStream(stream)));
+            assertEquals(8, buffer.size());
+            for (var pass = 0; pass < 2; pass++) {
+                var lexer = new Lexer(buffer);
+                assertEquals(IF, lexer.take().getKind());
+                assertEquals(LPAREN, lexer.lookaheadKind(0));
+                assertEquals(RBRACE, lexer.lookaheadKind(6));
+                assertNull(lexer.lookaheadKind(7));
+                assertEquals(8, lexer.count());
+            }
+        }
+    }
+
+    @Test
+    void testLazy() {
+        // the invalid character is only reached when the lexer looks that far.
+        var lexer = fromString("1 2 \\");
+        assertEquals("1", lexer.take().getLexeme());
+        assertEquals(1, lexer.count());
+        assertThrows(RuntimeException.class, () -> lexer.lookahead(1));
+    }
+
+    private Lexer fromString(String text) {
+        try (var stream = new StringBufferInputStream(text)) {
+            return new Lexer(new Tokenizer(Compiler.createLexicalTable(), new BufferedCharStream(stream)));
+        } catch (IOException e) {
+            // won't happen anyways
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
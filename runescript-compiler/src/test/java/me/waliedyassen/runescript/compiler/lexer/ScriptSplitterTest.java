@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptSplitterTest {
+
+    @Test
+    void testSplit() {
+        var source = "[proc,a]\nreturn;\n[proc,b]\nreturn;\n[proc,c]\nreturn;\n";
+        assertArrayEquals(new int[]{0, 17, 34, 51}, split(source, 1));
+        assertArrayEquals(new int[]{0, 34, 51}, split(source, 20));
+        assertArrayEquals(new int[]{0, 51}, split(source, 100));
+    }
+
+    @Test
+    void testIgnored() {
+        var source = "[proc,a]\n"
+                + "def_string $a = \"/* \\\" [proc,x]\";\n"
+                + "[proc,c]\n"
+                + "/*\n[proc,y]\n*/\n"
+                + "// [proc,z]\n"
+                + " [proc,w]\n"
+                + "[proc, v]\n"
+                + "[proc,b]\n";
+        assertArrayEquals(new int[]{0, source.indexOf("[proc,c]"), source.indexOf("[proc,b]"), source.length()}, split(source, 1));
+    }
+
+    @Test
+    void testAnnotations() {
+        var source = "[proc,a]\nreturn;\n#one(1)\n\n  #two(2)\n[proc,b]\nreturn;\n";
+        assertArrayEquals(new int[]{0, 17, source.length()}, split(source, 1));
+    }
+
+    @Test
+    void testBufferBounds() {
+        var buffer = ByteBuffer.wrap("xx[proc,a]\n[proc,b]\n".getBytes());
+        buffer.position(2);
+        assertArrayEquals(new int[]{0, 9, 18}, ScriptSplitter.split(buffer, 1));
+        assertEquals(2, buffer.position());
+    }
+
+    private static int[] split(String source, int size) {
+        return ScriptSplitter.split(ByteBuffer.wrap(source.getBytes()), size);
+    }
+}
@@ -8,6 +8,7 @@
 package me.waliedyassen.runescript.compiler.lexer.tokenizer;
 
 import me.waliedyassen.runescript.lexer.LexicalError;
+import me.waliedyassen.runescript.commons.intern.Interner;
 import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
 import me.waliedyassen.runescript.compiler.Compiler;
 import me.waliedyassen.runescript.compiler.lexer.token.Kind;
@@ -100,6 +101,23 @@ class TokenizerTest {
         });
     }
 
+    @Test
+    void testSkipComments() throws IOException {
+        try (var stream = new StringBufferInputStream("a // line\r\n/* multi\n * line */ b/**/c\n//")) {
+            var tokenizer = new Tokenizer(Compiler.createLexicalTable(), new BufferedCharStream(stream), new Interner(), true);
+            assertEquals("a", tokenizer.parse().getLexeme());
+            var token = tokenizer.parse();
+            assertEquals("b", token.getLexeme());
+            assertEquals(3, token.getRange().getStart().getLine());
+            assertEquals("c", tokenizer.parse().getLexeme());
+            assertEquals(Kind.EOF, tokenizer.parse().getKind());
+        }
+        try (var stream = new StringBufferInputStream("/*\nline1\nline2")) {
+            var tokenizer = new Tokenizer(Compiler.createLexicalTable(), new BufferedCharStream(stream), new Interner(), true);
+            assertThrows(LexicalError.class, tokenizer::parse);
+        }
+    }
+
     @Test
     void testIdentifier() {
         assertAll("identifier", () -> {
@@ -113,6 +131,17 @@ class TokenizerTest {
         });
     }
 
+    @Test
+    void testInternedIdentifier() throws IOException {
+        var interner = new Interner();
+        var name = interner.intern(new String("player"));
+        try (var stream = new StringBufferInputStream("player player")) {
+            var tokenizer = new Tokenizer(Compiler.createLexicalTable(), new BufferedCharStream(stream), interner);
+            assertSame(name, tokenizer.parse().getLexeme());
+            assertSame(name, tokenizer.parse().getLexeme());
+        }
+    }
+
     @Test
     void testKeywords() {
         var tokenizer = fromString("true\tfalse");
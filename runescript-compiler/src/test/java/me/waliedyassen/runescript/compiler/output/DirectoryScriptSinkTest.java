@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.output;
+
+import me.waliedyassen.runescript.compiler.CompiledScript;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link DirectoryScriptSink} type.
+ *
+ * @author Walied K. Yassen
+ */
+class DirectoryScriptSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testManifest() throws IOException {
+        var output = Files.createDirectories(directory.resolve("output"));
+        var manifest = directory.resolve("outputs.bin");
+        assertEquals(Set.of("a", "b"), write(new DirectoryScriptSink(output, manifest), "a", new byte[]{1}, "b", new byte[]{2}));
+        assertTrue(Files.exists(manifest));
+        assertEquals(Set.of("b"), write(new DirectoryScriptSink(output, manifest), "a", new byte[]{1}, "b", new byte[]{3}));
+        // the manifest is trusted as long as the output file has the expected size.
+        Files.write(output.resolve("a.cs2"), new byte[]{4, 5});
+        assertEquals(Set.of("a"), write(new DirectoryScriptSink(output, manifest), "a", new byte[]{1}, "b", new byte[]{3}));
+        assertArrayEquals(new byte[]{1}, Files.readAllBytes(output.resolve("a.cs2")));
+    }
+
+    @Test
+    void testUnfinishedManifest() throws IOException {
+        var output = Files.createDirectories(directory.resolve("output"));
+        var manifest = directory.resolve("outputs.bin");
+        write(new DirectoryScriptSink(output, manifest), "a", new byte[]{1});
+        try (var sink = new DirectoryScriptSink(output, manifest)) {
+            sink.write(new CompiledScript("a", new byte[]{2}));
+        }
+        assertFalse(Files.exists(manifest));
+        assertEquals(Set.of("a"), write(new DirectoryScriptSink(output, manifest), "a", new byte[]{1}));
+    }
+
+    @Test
+    void testReuse() throws IOException {
+        var output = Files.createDirectories(directory.resolve("output"));
+        var manifest = directory.resolve("outputs.bin");
+        try (var sink = new DirectoryScriptSink(output, manifest)) {
+            sink.write(new CompiledScript("a", new byte[]{1}));
+            sink.finish();
+            assertEquals(Set.of("a"), sink.getChangedScripts());
+            sink.clearChangedScripts();
+            sink.write(new CompiledScript("b", new byte[]{2}));
+            // the manifest is removed again before the first output file of each compilation is written.
+            assertFalse(Files.exists(manifest));
+            sink.writeUnchanged(new CompiledScript("a", new byte[]{1}));
+            sink.finish();
+            assertEquals(Set.of("b"), sink.getChangedScripts());
+            assertTrue(Files.exists(manifest));
+        }
+        assertEquals(Set.of(), write(new DirectoryScriptSink(output, manifest), "a", new byte[]{1}, "b", new byte[]{2}));
+    }
+
+    @Test
+    void testCompareContent() throws IOException {
+        var output = Files.createDirectories(directory.resolve("output"));
+        assertEquals(Set.of("a"), write(new DirectoryScriptSink(output, true), "a", new byte[]{1, 2}));
+        assertEquals(Set.of(), write(new DirectoryScriptSink(output, true), "a", new byte[]{1, 2}));
+        assertEquals(Set.of("a"), write(new DirectoryScriptSink(output, true), "a", new byte[]{1, 3}));
+        assertEquals(Set.of("a"), write(new DirectoryScriptSink(output), "a", new byte[]{1, 3}));
+        // the output files which are larger than the read buffer are streamed in more than one chunk.
+        var large = new byte[20000];
+        Arrays.fill(large, (byte) 7);
+        assertEquals(Set.of("b"), write(new DirectoryScriptSink(output, true), "b", large.clone()));
+        assertEquals(Set.of(), write(new DirectoryScriptSink(output, true), "b", large.clone()));
+        large[large.length - 1] = 8;
+        assertEquals(Set.of("b"), write(new DirectoryScriptSink(output, true), "b", large));
+        assertArrayEquals(large, Files.readAllBytes(output.resolve("b.cs2")));
+    }
+
+    static Set<String> write(DirectoryScriptSink sink, Object... scripts) throws IOException {
+        try (sink) {
+            for (var index = 0; index < scripts.length; index += 2) {
+                sink.write(new CompiledScript((String) scripts[index], (byte[]) scripts[index + 1]));
+            }
+            sink.finish();
+            return sink.getChangedScripts();
+        }
+    }
+}
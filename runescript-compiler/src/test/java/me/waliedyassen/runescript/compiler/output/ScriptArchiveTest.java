@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.output;
+
+import me.waliedyassen.runescript.compiler.CompiledScript;
+import me.waliedyassen.runescript.compiler.CompilerErrors;
+import me.waliedyassen.runescript.compiler.CompilerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link ScriptArchive} and {@link ArchiveScriptSink} types.
+ *
+ * @author Walied K. Yassen
+ */
+class ScriptArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndLookup() throws IOException {
+        var path = directory.resolve("scripts.dat");
+        try (var sink = new ArchiveScriptSink(path, 64)) {
+            for (var index = 0; index < 500; index++) {
+                sink.write(new CompiledScript("[proc,script_" + index + "]", createData(index)));
+            }
+            sink.finish();
+        }
+        try (var archive = ScriptArchive.open(path)) {
+            assertEquals(500, archive.size());
+            for (var index = 0; index < 500; index++) {
+                assertEquals(ByteBuffer.wrap(createData(index)), archive.lookup("[proc,script_" + index + "]"));
+            }
+            assertNull(archive.lookup("[proc,script_500]"));
+        }
+    }
+
+    @Test
+    void testCollidingNames() throws IOException {
+        // both of the names have the same hash code.
+        var path = directory.resolve("scripts.dat");
+        try (var sink = new ArchiveScriptSink(path)) {
+            sink.write(new CompiledScript("Aa", new byte[]{1}));
+            sink.write(new CompiledScript("BB", new byte[]{2, 3}));
+            sink.finish();
+        }
+        try (var archive = ScriptArchive.open(path)) {
+            assertEquals(ByteBuffer.wrap(new byte[]{1}), archive.lookup("Aa"));
+            assertEquals(ByteBuffer.wrap(new byte[]{2, 3}), archive.lookup("BB"));
+            assertNull(archive.lookup("C#"));
+        }
+    }
+
+    @Test
+    void testUnfinishedArchive() throws IOException {
+        var path = directory.resolve("scripts.dat");
+        try (var sink = new ArchiveScriptSink(path)) {
+            sink.write(new CompiledScript("[proc,script]", new byte[]{1, 2, 3}));
+        }
+        assertFalse(Files.exists(path));
+        try (var stream = Files.list(directory)) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    void testDuplicateName() throws IOException {
+        try (var sink = new ArchiveScriptSink(directory.resolve("scripts.dat"))) {
+            sink.write(new CompiledScript("[proc,script]", new byte[]{1}));
+            assertThrows(IllegalArgumentException.class, () -> sink.write(new CompiledScript("[proc,script]", new byte[]{2})));
+        }
+    }
+
+    @Test
+    void testCompileToArchive() throws IOException, CompilerErrors {
+        var source = directory.resolve("source");
+        var output = directory.resolve("output");
+        var path = directory.resolve("scripts.dat");
+        CompilerTest.writeSources(source, 16);
+        Files.createDirectories(output);
+        CompilerTest.createCompiler(1).compileDirectory(source, output);
+        try (var sink = new ArchiveScriptSink(path)) {
+            CompilerTest.createCompiler(4).compileDirectory(source, sink, null);
+        }
+        try (var archive = ScriptArchive.open(path); var stream = Files.list(output)) {
+            var files = stream.toArray(Path[]::new);
+            assertEquals(files.length, archive.size());
+            for (var file : files) {
+                var name = file.getFileName().toString();
+                name = name.substring(0, name.length() - DirectoryScriptSink.OUTPUT_EXTENSION.length());
+                assertEquals(ByteBuffer.wrap(Files.readAllBytes(file)), archive.lookup(name));
+            }
+        }
+    }
+
+    static byte[] createData(int index) {
+        var data = new byte[index % 37];
+        for (var offset = 0; offset < data.length; offset++) {
+            data[offset] = (byte) (index + offset);
+        }
+        return data;
+    }
+}
@@ -9,6 +9,7 @@ package me.waliedyassen.runescript.compiler.parser;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import me.waliedyassen.runescript.commons.document.LineColumn;
 import me.waliedyassen.runescript.commons.stream.BufferedCharStream;
 import me.waliedyassen.runescript.compiler.Compiler;
 import me.waliedyassen.runescript.compiler.ast.AstParameter;
@@ -100,6 +101,69 @@ public final class ScriptParserTest {
         });
     }
 
+    @Test
+    void testLazyScript() {
+        var text = "#[annotation:1]\n[trigger,first](int $one) def_int $two = $one; return;\n[trigger,second] if (true) { return; }";
+        var eager = fromString(text);
+        var lazy = fromString(text, true);
+        for (var index = 0; index < 2; index++) {
+            var expected = eager.script();
+            var script = lazy.script();
+            assertFalse(script.isCodeParsed());
+            assertEquals(expected.getRange(), script.getRange());
+            assertEquals(expected.getName(), script.getName());
+            assertFalse(script.isCodeParsed());
+            assertEquals(expected.getCode(), script.getCode());
+            assertTrue(script.isCodeParsed());
+            assertSame(script, script.getCode().getParent());
+        }
+    }
+
+    @Test
+    void testLazyScriptErrors() {
+        assertAll("lazy script errors", () -> {
+            // the header errors are reported right away.
+            assertThrows(SyntaxError.class, () -> fromString("[trigger,name](int $one", true).script());
+        }, () -> {
+            // the code errors are reported when the code is requested.
+            var text = "[trigger,first] return(;\n[trigger,second] return;";
+            var expected = assertThrows(SyntaxError.class, () -> fromString(text).script());
+            var parser = fromString(text, true);
+            var script = parser.script();
+            var error = assertThrows(SyntaxError.class, script::getCode);
+            assertEquals(expected.getMessage(), error.getMessage());
+            assertEquals(expected.getRange(), error.getRange());
+            assertEquals("second", parser.script().getName().getText());
+        }, () -> {
+            // the code which is not followed by the start of a script.
+            var text = "[trigger,name] return; }";
+            var parser = fromString(text);
+            parser.script();
+            var expected = assertThrows(SyntaxError.class, parser::script);
+            var error = assertThrows(SyntaxError.class, fromString(text, true).script()::getCode);
+            assertEquals(expected.getMessage(), error.getMessage());
+            assertEquals(expected.getRange(), error.getRange());
+        });
+    }
+
+    @Test
+    void testRanges() {
+        var text = "[trigger,name]\nreturn(calc(1 + 2));";
+        var script = fromString(text).script();
+        assertEquals(0, script.getRange().getStartOffset());
+        assertEquals(text.length(), script.getRange().getEndOffset());
+        assertEquals(new LineColumn(2, 1), script.getCode().getRange().getStart());
+        var statement = (AstReturnStatement) script.getCode().getStatements()[0];
+        var calc = (AstCalc) statement.getExpressions()[0];
+        var operation = calc.getExpression();
+        assertEquals(text.indexOf("calc"), calc.getRange().getStartOffset());
+        assertEquals(text.indexOf("1 + 2"), operation.getRange().getStartOffset());
+        assertEquals(text.indexOf("1 + 2") + 5, operation.getRange().getEndOffset());
+        assertEquals(new LineColumn(2, 13), operation.getRange().getStart());
+        // an empty rule has an empty range.
+        assertTrue(fromString("[trigger,name]").script().getCode().getRange().isEmpty());
+    }
+
     @Test
     void testParameter() {
         assertAll("parameter", () -> {
@@ -333,6 +397,23 @@ public final class ScriptParserTest {
         });
     }
 
+    @Test
+    void testElseIfChain() {
+        var text = elseIfChain(5000);
+        var statement = fromString(text).ifStatement();
+        var count = 0;
+        while (statement.getFalseStatement() instanceof AstIfStatement) {
+            var next = (AstIfStatement) statement.getFalseStatement();
+            assertEquals(text.indexOf("if ($value = " + (count + 1) + ")"), next.getRange().getStartOffset());
+            assertEquals(statement.getRange().getEndOffset(), next.getRange().getEndOffset());
+            statement = next;
+            count++;
+        }
+        assertEquals(4999, count);
+        assertTrue(statement.getFalseStatement() instanceof AstBlockStatement);
+        assertEquals(text.length(), statement.getRange().getEndOffset());
+    }
+
     @Test
     void testWhileStatement() {
         assertAll("while statement", () -> {
@@ -641,11 +722,26 @@ public final class ScriptParserTest {
         });
     }
 
+    public static String elseIfChain(int length) {
+        var builder = new StringBuilder();
+        for (var index = 0; index < length; index++) {
+            if (index > 0) {
+                builder.append("else ");
+            }
+            builder.append("if ($value = ").append(index).append(") {\n    $value = ").append(index + 1).append(";\n}\n");
+        }
+        return builder.append("else {\n    $value = 0;\n}").toString();
+    }
+
     public static ScriptParser fromString(String text) {
+        return fromString(text, false);
+    }
+
+    public static ScriptParser fromString(String text, boolean lazy) {
         try (var stream = new StringBufferInputStream(text)) {
             var tokenizer = new Tokenizer(Compiler.createLexicalTable(), new BufferedCharStream(stream));
             var lexer = new Lexer(tokenizer);
-            return new ScriptParser(environment, lexer);
+            return new ScriptParser(environment, lexer, lazy);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
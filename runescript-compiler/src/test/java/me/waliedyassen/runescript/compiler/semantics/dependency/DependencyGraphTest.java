@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019 Walied K. Yassen, All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package me.waliedyassen.runescript.compiler.semantics.dependency;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds all of the test cases for {@link DependencyGraph} type.
+ *
+ * @author Walied K. Yassen
+ */
+class DependencyGraphTest {
+
+    @Test
+    void testDefine() {
+        var graph = new DependencyGraph();
+        var script = graph.define(DependencyKind.SCRIPT, "main");
+        var config = graph.define(DependencyKind.CONFIG, "main");
+        assertNotEquals(script, config);
+        assertEquals(script, graph.define(DependencyKind.SCRIPT, "main"));
+        assertEquals(config, graph.lookup(DependencyKind.CONFIG, "main"));
+        assertEquals(-1, graph.lookup(DependencyKind.COMMAND, "main"));
+        assertEquals(2, graph.size());
+        assertEquals(DependencyKind.CONFIG, graph.getKind(config));
+        assertEquals("main", graph.getName(config));
+    }
+
+    @Test
+    void testEdges() {
+        var graph = new DependencyGraph();
+        var main = graph.define(DependencyKind.SCRIPT, "[proc,main]");
+        var command = graph.define(DependencyKind.COMMAND, "mes");
+        var variable = graph.define(DependencyKind.VARIABLE, "counter");
+        graph.addDependency(main, command);
+        graph.addDependency(main, variable);
+        graph.addDependency(main, command);
+        assertArrayEquals(new int[]{command, variable}, graph.getDependencies(main));
+        assertArrayEquals(new int[]{main}, graph.getDependents(command));
+        assertTrue(graph.hasDependents(variable));
+        assertFalse(graph.hasDependents(main));
+        assertThrows(IllegalArgumentException.class, () -> graph.addDependency(main, 10));
+    }
+
+    @Test
+    void testCollectImpact() {
+        var graph = new DependencyGraph();
+        var a = graph.define(DependencyKind.SCRIPT, "a");
+        var b = graph.define(DependencyKind.SCRIPT, "b");
+        var c = graph.define(DependencyKind.SCRIPT, "c");
+        var d = graph.define(DependencyKind.SCRIPT, "d");
+        graph.addDependency(b, a);
+        graph.addDependency(c, b);
+        graph.addDependency(a, c);
+        var impact = graph.collectImpact(a);
+        assertTrue(impact.get(a));
+        assertTrue(impact.get(b));
+        assertTrue(impact.get(c));
+        assertFalse(impact.get(d));
+    }
+
+    @Test
+    void testDiff() {
+        var previous = new DependencyGraph();
+        previous.addDependency(previous.define(DependencyKind.SCRIPT, "a"), previous.define(DependencyKind.COMMAND, "mes"));
+        previous.addDependency(previous.define(DependencyKind.SCRIPT, "b"), previous.define(DependencyKind.CONFIG, "obj"));
+        previous.define(DependencyKind.SCRIPT, "removed");
+        var current = new DependencyGraph();
+        current.define(DependencyKind.SCRIPT, "added");
+        current.addDependency(current.define(DependencyKind.SCRIPT, "b"), current.define(DependencyKind.VARIABLE, "obj"));
+        current.addDependency(current.define(DependencyKind.SCRIPT, "a"), current.define(DependencyKind.COMMAND, "mes"));
+        assertEquals(Set.of("added", "b", "removed"), current.diff(previous));
+        assertEquals(Set.of(), current.diff(current));
+    }
+
+    @Test
+    void testMergeAndSerialize() throws IOException {
+        var first = new DependencyGraph();
+        first.addDependency(first.define(DependencyKind.SCRIPT, "a"), first.define(DependencyKind.SCRIPT, "b"));
+        var second = new DependencyGraph();
+        second.addDependency(second.define(DependencyKind.SCRIPT, "b"), second.define(DependencyKind.COMMAND, "mes"));
+        var merged = new DependencyGraph();
+        merged.merge(first);
+        merged.merge(second);
+        assertEquals(3, merged.size());
+        var output = new ByteArrayOutputStream();
+        merged.write(new DataOutputStream(output));
+        var read = DependencyGraph.read(new DataInputStream(new ByteArrayInputStream(output.toByteArray())));
+        assertEquals(Set.of(), read.diff(merged));
+        assertEquals(merged.lookup(DependencyKind.COMMAND, "mes"), read.lookup(DependencyKind.COMMAND, "mes"));
+    }
+}
@@ -18,6 +18,7 @@ import me.waliedyassen.runescript.compiler.lexer.tokenizer.Tokenizer;
 import me.waliedyassen.runescript.compiler.parser.ScriptParser;
 import me.waliedyassen.runescript.compiler.parser.ScriptParserTest;
 import me.waliedyassen.runescript.compiler.semantics.SemanticChecker;
+import me.waliedyassen.runescript.compiler.semantics.dependency.DependencyKind;
 import me.waliedyassen.runescript.compiler.symbol.SymbolTable;
 import me.waliedyassen.runescript.compiler.util.trigger.TriggerType;
 import me.waliedyassen.runescript.type.PrimitiveType;
@@ -29,6 +30,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class TypeCheckingTest {
@@ -69,6 +71,19 @@ class TypeCheckingTest {
         assertEquals(0, checker.getErrors().size());
     }
 
+    @Test
+    void testCallDependencies() throws IOException {
+        checkResource("call_01.rs2");
+        var graph = checker.getDependencyGraph();
+        var main = graph.lookup(DependencyKind.SCRIPT, "[proc,main]");
+        var sub01 = graph.lookup(DependencyKind.SCRIPT, "[label,sub_01]");
+        var sub02 = graph.lookup(DependencyKind.SCRIPT, "[label,sub_02]");
+        assertArrayEquals(new int[]{main}, graph.getDependencies(graph.lookup(DependencyKind.SCRIPT, "[clientscript,main]")));
+        assertArrayEquals(new int[]{sub01}, graph.getDependencies(main));
+        assertArrayEquals(new int[]{main, sub02}, graph.getDependencies(sub01));
+        assertArrayEquals(new int[0], graph.getDependencies(sub02));
+    }
+
     @Test
     void testTriggerParametersTypes() throws IOException {
         final var TRIGGER_TYPE = new TriggerType() {
@@ -170,7 +185,7 @@ class TypeCheckingTest {
             var scripts = new ArrayList<AstScript>();
             do {
                 scripts.add(parser.script());
-            } while (lexer.remaining() > 0);
+            } while (lexer.hasRemaining());
             checker.executePre(scripts);
             checker.execute(scripts);
         }
@@ -186,7 +201,7 @@ class TypeCheckingTest {
             var scripts = new ArrayList<AstScript>();
             do {
                 scripts.add(parser.script());
-            } while (lexer.remaining() > 0);
+            } while (lexer.hasRemaining());
             checker.executePre(scripts);
             checker.execute(scripts);
         }
@@ -46,7 +46,7 @@ public final class ConfigCompiler {
      * Create a new {@link LexicalTable} object and then register all of the lexical symbols for our configurations
      * syntax.
      *
-     * @return the created {@link LexicalTable} object.
+     * @return the created and frozen {@link LexicalTable} object.
      */
     public static LexicalTable<Kind> createLexicalTable() {
         var table = new LexicalTable<Kind>();
@@ -54,6 +54,7 @@ public final class ConfigCompiler {
         table.registerSeparator(']', Kind.RBRACKET);
         table.registerSeparator('=', Kind.EQUAL);
         table.registerSeparator(',', Kind.COMMA);
+        table.freeze();
         return table;
     }
 }
@@ -9,6 +9,7 @@ package me.waliedyassen.runescript.config.lexer;
 
 import me.waliedyassen.runescript.config.lexer.token.Kind;
 import me.waliedyassen.runescript.lexer.LexerBase;
+import me.waliedyassen.runescript.lexer.TokenBuffer;
 import me.waliedyassen.runescript.lexer.token.Token;
 
 /**
@@ -19,23 +20,37 @@ import me.waliedyassen.runescript.lexer.token.Token;
 public final class Lexer extends LexerBase<Kind> {
 
     /**
-     * Constructs a new {@link Lexer} type object instance.
+     * The tokenizer which we take all the {@link Token} objects from.
+     */
+    private final Tokenizer tokenizer;
+
+    /**
+     * Constructs a new {@link Lexer} type object instance, the tokens are only tokenized when the parser requests them.
      *
      * @param tokenizer
      *         the tokenizer which we will take all the {@link Token} objects from.
      */
     public Lexer(Tokenizer tokenizer) {
-        tokens:
-        do {
+        super(Kind.class);
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean fetch(TokenBuffer<Kind> buffer) {
+        while (true) {
             var token = tokenizer.parse();
             switch (token.getKind()) {
                 case EOF:
-                    break tokens;
+                    return false;
                 case COMMENT:
-                    continue tokens;
+                    continue;
                 default:
-                    tokens.add(token);
+                    buffer.add(token);
+                    return true;
             }
-        } while (true);
+        }
     }
 }
@@ -8,7 +8,6 @@
 package me.waliedyassen.runescript.config.lexer;
 
 import lombok.RequiredArgsConstructor;
-import me.waliedyassen.runescript.commons.document.LineColumn;
 import me.waliedyassen.runescript.commons.document.Range;
 import me.waliedyassen.runescript.commons.stream.CharStream;
 import me.waliedyassen.runescript.config.lexer.token.Kind;
@@ -18,6 +17,7 @@ import me.waliedyassen.runescript.lexer.table.LexicalTable;
 import me.waliedyassen.runescript.lexer.token.Token;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static me.waliedyassen.runescript.commons.stream.CharStream.NULL;
@@ -51,15 +51,26 @@ public final class Tokenizer extends TokenizerBase {
      */
     private final List<String> lines = new ArrayList<>();
 
+    /**
+     * The characters of the identifier which is being tokenized, they are kept in an array rather than the builder so
+     * the keywords can be looked-up without creating a {@link String} for them.
+     */
+    private char[] word = new char[32];
+
+    /**
+     * The amount of characters in the {@link #word} array.
+     */
+    private int wordLength;
+
     /**
      * The current mode of the lexer.
      */
     private Mode mode = Mode.NONE;
 
     /**
-     * The current character position.
+     * The current character offset.
      */
-    private LineColumn position;
+    private int position;
 
     /**
      * Attempts to parse the next rule {@link Token} from the characters stream.
@@ -80,7 +91,7 @@ public final class Tokenizer extends TokenizerBase {
             next = stream.peek();
             switch (mode) {
                 case NONE:
-                    if (Character.isWhitespace(current)) {
+                    if (isWhitespace(current)) {
                         continue;
                     } else {
                         resetBuilder();
@@ -88,12 +99,13 @@ public final class Tokenizer extends TokenizerBase {
                     if (current == NULL) {
                         return createToken(EOF);
                     } else if (isIdentifierStart(current)) {
-                        builder.append(current);
+                        wordLength = 0;
+                        appendWord(current);
                         stream.mark();
                         mode = Mode.IDENTIFIER;
                     } else if (current == '\"') {
                         mode = Mode.STRING_LITERAL;
-                    } else if (Character.isDigit(current) || (current == '-' || current == '+') && Character.isDigit(next)) {
+                    } else if (isDigit(current) || (current == '-' || current == '+') && isDigit(next)) {
                         builder.append(current);
                         stream.mark();
                         mode = Mode.NUMBER_LITERAL;
@@ -105,19 +117,19 @@ public final class Tokenizer extends TokenizerBase {
                         lines.clear();
                         mode = Mode.MULTI_COMMENT;
                     } else if (table.isSeparator(current)) {
-                        return createToken(table.lookupSeparator(current), Character.toString(current));
+                        return createToken(table.lookupSeparator(current), table.lookupSeparatorLexeme(current));
                     } else {
                         throwError("Unexpected character: " + current);
                     }
                     break;
                 case IDENTIFIER:
                     if (isIdentifierPart(current)) {
-                        builder.append(current);
+                        appendWord(current);
                         stream.mark();
                     } else {
                         stream.reset();
-                        var word = builder.toString();
-                        return createToken(table.isKeyword(word) ? table.lookupKeyword(word) : IDENTIFIER, builder.toString());
+                        var keyword = table.lookupKeyword(word, 0, wordLength);
+                        return createToken(keyword != null ? keyword : IDENTIFIER, new String(word, 0, wordLength));
                     }
                     break;
                 case STRING_LITERAL:
@@ -160,11 +172,16 @@ public final class Tokenizer extends TokenizerBase {
                     }
                     break;
                 case NUMBER_LITERAL:
-                    if (Character.isDigit(current)) {
+                    if (isDigit(current)) {
                         builder.append(current);
                         stream.mark();
                     } else if (Character.toLowerCase(current) != 'l' && isIdentifierPart(current)) {
-                        builder.append(current);
+                        // the number turned out to be the start of an identifier.
+                        wordLength = 0;
+                        for (var index = 0; index < builder.length(); index++) {
+                            appendWord(builder.charAt(index));
+                        }
+                        appendWord(current);
                         mode = Mode.IDENTIFIER;
                         stream.mark();
                     } else {
@@ -234,7 +251,20 @@ public final class Tokenizer extends TokenizerBase {
      */
     private Token<Kind> createToken(Kind kind, String lexeme) {
         mode = Mode.NONE;
-        return new Token<>(kind, range(), lexeme);
+        return new Token<>(kind, stream.lineIndex(), position, stream.offset(), lexeme);
+    }
+
+    /**
+     * Appends the specified character to the identifier characters array, growing the array if it is full.
+     *
+     * @param character
+     *         the character to append.
+     */
+    private void appendWord(char character) {
+        if (wordLength == word.length) {
+            word = Arrays.copyOf(word, wordLength * 2);
+        }
+        word[wordLength++] = character;
     }
 
     /**
@@ -250,7 +280,7 @@ public final class Tokenizer extends TokenizerBase {
      * Marks the current position as the token start position.
      */
     private void mark() {
-        position = stream.position();
+        position = stream.offset();
     }
 
     /**
@@ -260,7 +290,7 @@ public final class Tokenizer extends TokenizerBase {
      * @see #mark()
      */
     private Range range() {
-        return new Range(position, stream.position());
+        return new Range(stream.lineIndex(), position, stream.offset());
     }
 
 
@@ -288,7 +318,7 @@ public final class Tokenizer extends TokenizerBase {
     private static String trimComment(String line, boolean trimStar) {
         var start = 0;
         for (var chpos = 0; chpos < line.length(); chpos++) {
-            if (!Character.isWhitespace(line.charAt(chpos))) {
+            if (!isWhitespace(line.charAt(chpos))) {
                 start = chpos;
                 break;
             }
@@ -298,7 +328,7 @@ public final class Tokenizer extends TokenizerBase {
         }
         var end = -1;
         for (var chpos = line.length() - 1; chpos >= start; chpos--) {
-            if (!Character.isWhitespace(line.charAt(chpos))) {
+            if (!isWhitespace(line.charAt(chpos))) {
                 end = chpos + 1;
                 break;
             }
@@ -59,9 +59,9 @@ public final class ConfigParser extends ParserBase<Kind> {
      */
     public AstConfig config() {
         pushRange();
-        consume(LBRACKET);
+        expect(LBRACKET);
         var name = identifier();
-        consume(RBRACKET);
+        expect(RBRACKET);
         var properties = propertyList();
         return new AstConfig(popRange(), name, properties);
     }
@@ -74,7 +74,7 @@ public final class ConfigParser extends ParserBase<Kind> {
     public AstProperty property() {
         pushRange();
         var name = identifier();
-        consume(EQUAL);
+        expect(EQUAL);
         var values = values();
         return new AstProperty(popRange(), name, values);
     }